@@ -0,0 +1,52 @@
+package com.hotelchain.apigateway.config;
+
+import com.hotelchain.apigateway.service.JwtVerificationService;
+import com.hotelchain.apigateway.service.JwtVerificationService.VerifiedIdentity;
+import com.hotelchain.apigateway.service.ResponseCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Înlocuiește orice header de identitate venit de la client cu cel semnat de gateway.
+ * Token-urile invalide trec mai departe fără identitate, iar serviciile le resping ca înainte.
+ * Token-ul intern al serviciilor este șters, deci endpoint-urile interne nu pot fi apelate prin gateway;
+ * rămâne doar pe invalidarea cache-ului, endpoint al gateway-ului care nu este transmis mai departe.
+ */
+@Component
+public class IdentityHeaderFilter implements WebFilter {
+
+    private static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+
+    @Autowired
+    private JwtVerificationService jwtVerificationService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        VerifiedIdentity identity = jwtVerificationService.verify(
+                exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        boolean cacheInvalidation = ResponseCacheService.INVALIDATION_PATH.equals(
+                exchange.getRequest().getURI().getRawPath());
+
+        ServerWebExchange mutated = exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(JwtVerificationService.USER_ID_HEADER);
+                    headers.remove(JwtVerificationService.ROLE_HEADER);
+                    headers.remove(JwtVerificationService.HOTEL_ID_HEADER);
+                    headers.remove(JwtVerificationService.EXPIRES_HEADER);
+                    headers.remove(JwtVerificationService.SIGNATURE_HEADER);
+                    if (!cacheInvalidation) {
+                        headers.remove(INTERNAL_TOKEN_HEADER);
+                    }
+                    if (identity != null) {
+                        jwtVerificationService.writeIdentityHeaders(identity, headers);
+                    }
+                }))
+                .build();
+        return chain.filter(mutated);
+    }
+}
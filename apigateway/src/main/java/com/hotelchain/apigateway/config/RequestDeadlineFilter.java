@@ -0,0 +1,27 @@
+package com.hotelchain.apigateway.config;
+
+import com.hotelchain.apigateway.service.ProxyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Fixează termenul cererii la intrarea în gateway; timpul petrecut în gateway (cache, coalescing)
+ * se scade din bugetul trimis serviciilor.
+ */
+@Component
+public class RequestDeadlineFilter implements WebFilter {
+
+    @Autowired
+    private ProxyService proxyService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return chain.filter(exchange)
+                .contextWrite(Context.of(ProxyService.DEADLINE_KEY, proxyService.newDeadline()));
+    }
+}
@@ -2,34 +2,28 @@ package com.hotelchain.apigateway.controller;
 
 import com.hotelchain.apigateway.factory.ResponseFactory;
 import com.hotelchain.apigateway.factory.ResponseType;
+import com.hotelchain.apigateway.service.ProxyService;
+import com.hotelchain.apigateway.service.ResponseCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @CrossOrigin(origins = "*")
 public class GatewayController {
 
     @Autowired
-    private RestTemplate restTemplate;
+    private ProxyService proxyService;
 
-    @Value("${app.services.user}")
-    private String userServiceUrl;
-
-    @Value("${app.services.hotel}")
-    private String hotelServiceUrl;
-
-    @Value("${app.services.reservation}")
-    private String reservationServiceUrl;
-
-    @Value("${app.services.review}")
-    private String reviewServiceUrl;
+    @Autowired
+    private ResponseCacheService responseCacheService;
 
     // Health check pentru gateway
     @GetMapping("/health")
@@ -44,170 +38,84 @@ public class GatewayController {
     // ==========================================
 
     @PostMapping("/api/auth/login")
-    public ResponseEntity<String> login(@RequestBody String body) {
-        return forwardToUserService("/api/users/login", "POST", body, null);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> login(ServerHttpRequest request) {
+        return proxyService.forward(ProxyService.USER, request, "/api/users/login");
     }
 
     @PostMapping("/api/auth/register")
-    public ResponseEntity<String> register(@RequestBody String body) {
-        return forwardToUserService("/api/users/register", "POST", body, null);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> register(ServerHttpRequest request) {
+        return proxyService.forward(ProxyService.USER, request, "/api/users/register");
     }
 
     @PostMapping("/api/auth/validate-token")
-    public ResponseEntity<String> validateToken(@RequestBody String body) {
-        return forwardToUserService("/api/users/validate-token", "POST", body, null);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> validateToken(ServerHttpRequest request) {
+        return proxyService.forward(ProxyService.USER, request, "/api/users/validate-token");
     }
 
     // ==========================================
     // USER ROUTES
     // ==========================================
 
-    @GetMapping("/api/users/**")
-    public ResponseEntity<String> getUsersGet(HttpServletRequest request,
-                                              @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/users");
-        String queryString = request.getQueryString();
-        if (queryString != null) {
-            path += "?" + queryString;
-        }
-        return forwardToUserService("/api/users" + path, "GET", null, token);
-    }
-
-    @PostMapping("/api/users/**")
-    public ResponseEntity<String> getUsersPost(HttpServletRequest request,
-                                               @RequestBody String body,
-                                               @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/users");
-        return forwardToUserService("/api/users" + path, "POST", body, token);
-    }
-
-    @PutMapping("/api/users/**")
-    public ResponseEntity<String> getUsersPut(HttpServletRequest request,
-                                              @RequestBody String body,
-                                              @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/users");
-        return forwardToUserService("/api/users" + path, "PUT", body, token);
-    }
-
-    @DeleteMapping("/api/users/**")
-    public ResponseEntity<String> getUsersDelete(HttpServletRequest request,
-                                                 @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/users");
-        return forwardToUserService("/api/users" + path, "DELETE", null, token);
+    @RequestMapping(value = "/api/users/**",
+            method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> users(ServerHttpRequest request) {
+        return proxyService.forward(ProxyService.USER, request);
     }
 
     // ==========================================
     // HOTEL ROUTES
     // ==========================================
 
-    @GetMapping("/api/hotels/**")
-    public ResponseEntity<String> getHotels(HttpServletRequest request,
-                                            @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/hotels");
-        String queryString = request.getQueryString();
-        if (queryString != null) {
-            path += "?" + queryString;
-        }
-        return forwardToHotelService("/api/hotels" + path, "GET", null, token);
-    }
-
-    @PostMapping("/api/hotels/**")
-    public ResponseEntity<String> postHotels(HttpServletRequest request,
-                                             @RequestBody String body,
-                                             @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/hotels");
-        return forwardToHotelService("/api/hotels" + path, "POST", body, token);
-    }
-
-    @PutMapping("/api/hotels/**")
-    public ResponseEntity<String> putHotels(HttpServletRequest request,
-                                            @RequestBody String body,
-                                            @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/hotels");
-        return forwardToHotelService("/api/hotels" + path, "PUT", body, token);
-    }
-
-    @DeleteMapping("/api/hotels/**")
-    public ResponseEntity<String> deleteHotels(HttpServletRequest request,
-                                               @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/hotels");
-        return forwardToHotelService("/api/hotels" + path, "DELETE", null, token);
+    @RequestMapping(value = "/api/hotels/**",
+            method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> hotels(ServerHttpRequest request) {
+        return responseCacheService.forward(ProxyService.HOTEL, request);
     }
 
     // ==========================================
     // RESERVATION ROUTES
     // ==========================================
 
-    @GetMapping("/api/reservations/**")
-    public ResponseEntity<String> getReservations(HttpServletRequest request,
-                                                  @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/reservations");
-        String queryString = request.getQueryString();
-        if (queryString != null) {
-            path += "?" + queryString;
-        }
-        return forwardToReservationService("/api/reservations" + path, "GET", null, token);
-    }
-
-    @PostMapping("/api/reservations/**")
-    public ResponseEntity<String> postReservations(HttpServletRequest request,
-                                                   @RequestBody String body,
-                                                   @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/reservations");
-        return forwardToReservationService("/api/reservations" + path, "POST", body, token);
-    }
-
-    @PutMapping("/api/reservations/**")
-    public ResponseEntity<String> putReservations(HttpServletRequest request,
-                                                  @RequestBody String body,
-                                                  @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/reservations");
-        return forwardToReservationService("/api/reservations" + path, "PUT", body, token);
-    }
-
-    @DeleteMapping("/api/reservations/**")
-    public ResponseEntity<String> deleteReservations(HttpServletRequest request,
-                                                     @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/reservations");
-        return forwardToReservationService("/api/reservations" + path, "DELETE", null, token);
+    @RequestMapping(value = "/api/reservations/**",
+            method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> reservations(ServerHttpRequest request) {
+        return proxyService.forward(ProxyService.RESERVATION, request);
     }
 
     // ==========================================
     // REVIEW ROUTES
     // ==========================================
 
-    @GetMapping("/api/reviews/**")
-    public ResponseEntity<String> getReviews(HttpServletRequest request,
-                                             @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/reviews");
-        String queryString = request.getQueryString();
-        if (queryString != null) {
-            path += "?" + queryString;
-        }
-        return forwardToReviewService("/api/reviews" + path, "GET", null, token);
+    @RequestMapping(value = "/api/reviews/**",
+            method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> reviews(ServerHttpRequest request) {
+        return responseCacheService.forward(ProxyService.REVIEW, request);
     }
 
-    @PostMapping("/api/reviews/**")
-    public ResponseEntity<String> postReviews(HttpServletRequest request,
-                                              @RequestBody String body,
-                                              @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/reviews");
-        return forwardToReviewService("/api/reviews" + path, "POST", body, token);
+    // ==========================================
+    // RESPONSE CACHE
+    // ==========================================
+
+    @GetMapping("/gateway/cache/stats")
+    public String cacheStats() {
+        return responseCacheService.getStats();
     }
 
-    @PutMapping("/api/reviews/**")
-    public ResponseEntity<String> putReviews(HttpServletRequest request,
-                                             @RequestBody String body,
-                                             @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/reviews");
-        return forwardToReviewService("/api/reviews" + path, "PUT", body, token);
+    // Apelat de servicii după commit, când datele publice se schimbă în afara gateway-ului
+    @PostMapping(ResponseCacheService.INVALIDATION_PATH)
+    public ResponseEntity<String> invalidateCache(@RequestParam List<String> prefix,
+                                                  @RequestHeader(value = ResponseCacheService.INTERNAL_TOKEN_HEADER,
+                                                          required = false) String internalToken) {
+        if (!responseCacheService.isTrustedInvalidation(internalToken)) {
+            return ResponseEntity.status(403).build();
+        }
+        int removed = prefix.stream().mapToInt(responseCacheService::invalidate).sum();
+        return ResponseEntity.ok("{\"removed\":" + removed + "}");
     }
 
-    @DeleteMapping("/api/reviews/**")
-    public ResponseEntity<String> deleteReviews(HttpServletRequest request,
-                                                @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/reviews");
-        return forwardToReviewService("/api/reviews" + path, "DELETE", null, token);
+    @GetMapping("/gateway/resilience/stats")
+    public String resilienceStats() {
+        return proxyService.getResilienceStats();
     }
 
     // ==========================================
@@ -215,102 +123,33 @@ public class GatewayController {
     // ==========================================
 
     @GetMapping("/test/user")
-    public ResponseEntity<String> testUserService() {
-        try {
-            String url = userServiceUrl + "/api/users/test";
-            String response = restTemplate.getForObject(url, String.class);
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
-            return factory.createResponse("User service test completed",
-                    "{\"gateway\":\"OK\",\"user-service\":\"" + response + "\"}");
-        } catch (Exception e) {
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.ERROR);
-            return factory.createResponse("User service unavailable", "SERVICE_DOWN");
-        }
+    public Mono<ResponseEntity<String>> testUserService() {
+        return proxyService.get(ProxyService.USER, "/api/users/test")
+                .map(response -> ResponseFactory.getFactory(ResponseType.SUCCESS)
+                        .createResponse("User service test completed",
+                                "{\"gateway\":\"OK\",\"user-service\":\"" + response + "\"}"))
+                .onErrorResume(e -> Mono.just(ResponseFactory.getFactory(ResponseType.ERROR)
+                        .createResponse("User service unavailable", "SERVICE_DOWN")));
     }
 
     @GetMapping("/test/hotel")
-    public ResponseEntity<String> testHotelService() {
-        try {
-            String url = hotelServiceUrl + "/api/hotels/test";
-            String response = restTemplate.getForObject(url, String.class);
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
-            return factory.createResponse("Hotel service test completed",
-                    "{\"gateway\":\"OK\",\"hotel-service\":\"" + response + "\"}");
-        } catch (Exception e) {
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.ERROR);
-            return factory.createResponse("Hotel service unavailable", "SERVICE_DOWN");
-        }
+    public Mono<ResponseEntity<String>> testHotelService() {
+        return proxyService.get(ProxyService.HOTEL, "/api/hotels/test")
+                .map(response -> ResponseFactory.getFactory(ResponseType.SUCCESS)
+                        .createResponse("Hotel service test completed",
+                                "{\"gateway\":\"OK\",\"hotel-service\":\"" + response + "\"}"))
+                .onErrorResume(e -> Mono.just(ResponseFactory.getFactory(ResponseType.ERROR)
+                        .createResponse("Hotel service unavailable", "SERVICE_DOWN")));
     }
 
     @GetMapping("/config")
     public ResponseEntity<String> showConfig() {
         ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        Map<String, String> urls = proxyService.getBaseUrls();
         String configData = String.format(
                 "{\"userServiceUrl\":\"%s\",\"hotelServiceUrl\":\"%s\",\"reservationServiceUrl\":\"%s\",\"reviewServiceUrl\":\"%s\"}",
-                userServiceUrl, hotelServiceUrl, reservationServiceUrl, reviewServiceUrl);
+                urls.get(ProxyService.USER), urls.get(ProxyService.HOTEL),
+                urls.get(ProxyService.RESERVATION), urls.get(ProxyService.REVIEW));
         return factory.createResponse("Configuration retrieved", configData);
     }
-
-    // ==========================================
-    // HELPER METHODS
-    // ==========================================
-
-    private ResponseEntity<String> forwardToUserService(String path, String method, String body, String token) {
-        return forwardRequest(userServiceUrl + path, method, body, token);
-    }
-
-    private ResponseEntity<String> forwardToHotelService(String path, String method, String body, String token) {
-        return forwardRequest(hotelServiceUrl + path, method, body, token);
-    }
-
-    private ResponseEntity<String> forwardToReservationService(String path, String method, String body, String token) {
-        return forwardRequest(reservationServiceUrl + path, method, body, token);
-    }
-
-    private ResponseEntity<String> forwardToReviewService(String path, String method, String body, String token) {
-        return forwardRequest(reviewServiceUrl + path, method, body, token);
-    }
-
-    private ResponseEntity<String> forwardRequest(String url, String method, String body, String token) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            if (token != null && !token.isEmpty()) {
-                headers.set("Authorization", token);
-            }
-
-            HttpEntity<String> entity = new HttpEntity<>(body, headers);
-
-            HttpMethod httpMethod = switch (method.toUpperCase()) {
-                case "GET" -> HttpMethod.GET;
-                case "POST" -> HttpMethod.POST;
-                case "PUT" -> HttpMethod.PUT;
-                case "DELETE" -> HttpMethod.DELETE;
-                default -> HttpMethod.GET;
-            };
-
-            ResponseEntity<String> response = restTemplate.exchange(url, httpMethod, entity, String.class);
-
-            return ResponseEntity.status(response.getStatusCode())
-                    .headers(response.getHeaders())
-                    .body(response.getBody());
-
-        } catch (HttpClientErrorException | HttpServerErrorException e) {
-            return ResponseEntity.status(e.getStatusCode())
-                    .body(e.getResponseBodyAsString());
-        } catch (Exception e) {
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.ERROR);
-            return factory.createResponse("Service unavailable: " + e.getMessage(), "GATEWAY_ERROR");
-        }
-    }
-
-    private String extractPath(HttpServletRequest request, String prefix) {
-        String requestURI = request.getRequestURI();
-        if (requestURI.startsWith(prefix)) {
-            String path = requestURI.substring(prefix.length());
-            return path.isEmpty() ? "" : path;
-        }
-        return "";
-    }
-}
\ No newline at end of file
+}
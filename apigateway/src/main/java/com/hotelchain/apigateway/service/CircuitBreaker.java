@@ -0,0 +1,127 @@
+package com.hotelchain.apigateway.service;
+
+import java.util.Locale;
+
+/**
+ * Circuit breaker pe fereastra ultimelor apeluri: când procentul de eșecuri depășește pragul,
+ * apelurile sunt refuzate imediat timp de openMs; apoi un singur apel de probă decide dacă
+ * circuitul se închide la loc sau rămâne deschis încă o perioadă.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openMs;
+
+    // Rezultatele ultimelor apeluri, circular: true = eșec
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long opened;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openMs) {
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMs = openMs;
+    }
+
+    /**
+     * true dacă apelul poate pleca; fiecare apel permis trebuie încheiat cu onSuccess / onFailure
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMs) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * Înregistrează un eșec; întoarce true dacă eșecul a deschis circuitul
+     */
+    public synchronized boolean onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return true;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Apel permis care s-a încheiat fără rezultat (ex. cerere anulată de client): eliberează proba
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized String toJson() {
+        return String.format(Locale.ROOT, "{\"state\":\"%s\",\"recentCalls\":%d,\"recentFailures\":%d,\"opened\":%d}",
+                state, recorded, failures, opened);
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        probeInFlight = false;
+        opened++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        probeInFlight = false;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.hotelchain.apigateway.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Verifică JWT-urile o singură dată la gateway și păstrează claim-urile într-un cache LRU
+ * cheiat după hash-ul token-ului, până la expirarea token-ului.
+ * Identitatea verificată este transmisă serviciilor prin header-e semnate HMAC.
+ */
+@Service
+public class JwtVerificationService {
+
+    public static final String USER_ID_HEADER = "X-Auth-User-Id";
+    public static final String ROLE_HEADER = "X-Auth-Role";
+    public static final String HOTEL_ID_HEADER = "X-Auth-Hotel-Id";
+    public static final String EXPIRES_HEADER = "X-Auth-Expires";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+
+    @Value("${app.identity.secret}")
+    private String identitySecret;
+
+    @Value("${app.identity.cache-size:10000}")
+    private int cacheSize;
+
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .build();
+
+    private Map<String, VerifiedIdentity> cache;
+    private SecretKeySpec identityKey;
+
+    @PostConstruct
+    public void init() {
+        identityKey = new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedIdentity> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Returnează identitatea din header-ul Authorization sau null dacă token-ul lipsește ori este invalid
+     */
+    public VerifiedIdentity verify(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        String token = authorization.substring(7);
+        String tokenHash = sha256(token);
+        long now = System.currentTimeMillis();
+
+        VerifiedIdentity cached = cache.get(tokenHash);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached;
+            }
+            cache.remove(tokenHash);
+        }
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null) {
+                return null;
+            }
+            VerifiedIdentity identity = new VerifiedIdentity(tokenHash,
+                    claims.get("userId", Long.class),
+                    claims.get("role", String.class),
+                    claims.get("hotelId", Long.class),
+                    claims.getExpiration().getTime());
+            cache.put(tokenHash, identity);
+            return identity;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Scrie header-ele de identitate semnate pentru serviciile downstream
+     */
+    public void writeIdentityHeaders(VerifiedIdentity identity, HttpHeaders headers) {
+        String userId = identity.userId() != null ? identity.userId().toString() : "";
+        String role = identity.role() != null ? identity.role() : "";
+        String hotelId = identity.hotelId() != null ? identity.hotelId().toString() : "";
+        String expires = Long.toString(identity.expiresAt());
+
+        headers.set(USER_ID_HEADER, userId);
+        headers.set(ROLE_HEADER, role);
+        headers.set(HOTEL_ID_HEADER, hotelId);
+        headers.set(EXPIRES_HEADER, expires);
+        headers.set(SIGNATURE_HEADER,
+                sign(String.join("|", identity.tokenHash(), userId, role, hotelId, expires)));
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(identityKey);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign identity headers", e);
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record VerifiedIdentity(String tokenHash, Long userId, String role, Long hotelId, long expiresAt) {
+    }
+}
@@ -0,0 +1,354 @@
+package com.hotelchain.apigateway.service;
+
+import com.hotelchain.apigateway.factory.ResponseFactory;
+import com.hotelchain.apigateway.factory.ResponseType;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Motorul de forwarding al gateway-ului.
+ * Fiecare serviciu downstream are propriul pool de conexiuni keep-alive, iar corpurile
+ * cererilor și răspunsurilor sunt transmise ca flux de buffere, fără a fi încărcate în memorie.
+ * Pe fiecare serviciu, un bulkhead limitează cererile simultane și un circuit breaker răspunde imediat
+ * cu 503 cât timp serviciul eșuează; serviciul primește bugetul rămas al cererii în X-Request-Timeout-Ms.
+ */
+@Service
+public class ProxyService {
+
+    public static final String USER = "user";
+    public static final String HOTEL = "hotel";
+    public static final String RESERVATION = "reservation";
+    public static final String REVIEW = "review";
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    // Cheia din contextul Reactor sub care RequestDeadlineFilter pune termenul cererii (System.nanoTime())
+    public static final String DEADLINE_KEY = ProxyService.class.getName() + ".deadline";
+
+    // Header-e hop-by-hop și CORS care nu se transmit mai departe (CORS este tratat de gateway).
+    // Accept-Encoding nu ajunge la servicii: răspunsurile din cache sunt servite tuturor clienților, deci necomprimate
+    private static final Set<String> EXCLUDED_REQUEST_HEADERS = Set.of(
+            "host", "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade",
+            "origin", "access-control-request-method", "access-control-request-headers",
+            "x-request-timeout-ms", "accept-encoding");
+
+    private static final Set<String> EXCLUDED_RESPONSE_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade");
+
+    @Value("${app.services.user}")
+    private String userServiceUrl;
+
+    @Value("${app.services.hotel}")
+    private String hotelServiceUrl;
+
+    @Value("${app.services.reservation}")
+    private String reservationServiceUrl;
+
+    @Value("${app.services.review}")
+    private String reviewServiceUrl;
+
+    @Value("${app.gateway.pool.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${app.gateway.pool.pending-acquire-max-count:2000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${app.gateway.pool.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${app.gateway.pool.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${app.gateway.resilience.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${app.gateway.resilience.max-concurrent-calls:1000}")
+    private int maxConcurrentCalls;
+
+    @Value("${app.gateway.resilience.window-size:50}")
+    private int windowSize;
+
+    @Value("${app.gateway.resilience.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${app.gateway.resilience.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${app.gateway.resilience.open-ms:5000}")
+    private long openMs;
+
+    private final Map<String, String> baseUrls = new HashMap<>();
+    private final Map<String, WebClient> clients = new HashMap<>();
+    private final Map<String, ConnectionProvider> connectionProviders = new HashMap<>();
+    private final Map<String, Guard> guards = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        baseUrls.put(USER, userServiceUrl);
+        baseUrls.put(HOTEL, hotelServiceUrl);
+        baseUrls.put(RESERVATION, reservationServiceUrl);
+        baseUrls.put(REVIEW, reviewServiceUrl);
+
+        baseUrls.forEach((service, baseUrl) -> {
+            ConnectionProvider provider = ConnectionProvider.builder(service + "-service")
+                    .maxConnections(maxConnections)
+                    .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                    .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                    .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+                    .build();
+
+            HttpClient httpClient = HttpClient.create(provider)
+                    .keepAlive(true)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                    .responseTimeout(Duration.ofMillis(timeoutMs));
+
+            connectionProviders.put(service, provider);
+            guards.put(service, new Guard());
+            clients.put(service, WebClient.builder()
+                    .clientConnector(new ReactorClientHttpConnector(httpClient))
+                    .build());
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProviders.values().forEach(ConnectionProvider::dispose);
+    }
+
+    /**
+     * Transmite cererea către serviciul dat, păstrând calea și query string-ul
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> forward(String service, ServerHttpRequest request) {
+        return forward(service, request, request.getURI().getRawPath());
+    }
+
+    /**
+     * Transmite cererea către serviciul dat, pe o cale rescrisă
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> forward(String service, ServerHttpRequest request, String path) {
+        // Permisiunea bulkhead-ului se ia la abonare: un Mono creat dar neabonat nu ține nimic ocupat,
+        // iar fiecare abonare are propria permisiune, eliberată după ce corpul răspunsului s-a terminat
+        return Mono.deferContextual(context -> call(service, request, path,
+                context.getOrDefault(DEADLINE_KEY, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs))));
+    }
+
+    /**
+     * Termenul unei cereri care începe acum, pentru RequestDeadlineFilter
+     */
+    public long newDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> call(String service, ServerHttpRequest request, String path,
+                                                         long deadline) {
+        Guard guard = guards.get(service);
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            // Bugetul s-a consumat deja în gateway: serviciul nu mai este apelat
+            guard.budgetExhausted.increment();
+            return Mono.just(errorResponse(HttpStatus.GATEWAY_TIMEOUT,
+                    "Request budget exhausted before calling " + service + " service"));
+        }
+        if (!guard.bulkhead.tryAcquire()) {
+            guard.bulkheadRejected.increment();
+            return Mono.just(errorResponse(HttpStatus.SERVICE_UNAVAILABLE, service + " service is overloaded"));
+        }
+        if (!guard.breaker.tryAcquire()) {
+            guard.bulkhead.release();
+            guard.shortCircuited.increment();
+            return Mono.just(errorResponse(HttpStatus.SERVICE_UNAVAILABLE, service + " service is unavailable (circuit open)"));
+        }
+
+        String rawQuery = request.getURI().getRawQuery();
+        URI target = URI.create(baseUrls.get(service) + path + (rawQuery != null ? "?" + rawQuery : ""));
+
+        WebClient.RequestBodySpec spec = clients.get(service)
+                .method(request.getMethod())
+                .uri(target)
+                .headers(headers -> {
+                    copyRequestHeaders(request.getHeaders(), headers);
+                    headers.set(TIMEOUT_HEADER, String.valueOf(remainingMs));
+                })
+                .httpRequest(httpRequest -> responseTimeout(httpRequest, remainingMs));
+
+        WebClient.RequestHeadersSpec<?> exchange = hasBody(request)
+                ? spec.body(BodyInserters.fromDataBuffers(request.getBody()))
+                : spec;
+
+        guard.calls.increment();
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicBoolean released = new AtomicBoolean();
+        AtomicBoolean bodyHandedOut = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                guard.bulkhead.release();
+            }
+        };
+        return exchange.retrieve()
+                // Răspunsurile 4xx/5xx ale serviciilor se transmit clientului ca atare
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .doOnNext(response -> guard.settle(settled, response.getStatusCode().is5xxServerError()))
+                .map(response -> {
+                    // Conexiunea rămâne ocupată cât se transmite corpul: permisiunea se eliberează abia
+                    // când corpul se termină, eșuează sau este anulat
+                    bodyHandedOut.set(true);
+                    return ResponseEntity.status(response.getStatusCode())
+                            .headers(filterResponseHeaders(response.getHeaders()))
+                            .body(response.getBody().doFinally(signal -> release.run()));
+                })
+                .onErrorResume(e -> {
+                    guard.settle(settled, true);
+                    if (e instanceof ReadTimeoutException || e.getCause() instanceof ReadTimeoutException) {
+                        return Mono.just(errorResponse(HttpStatus.GATEWAY_TIMEOUT, service + " service timed out"));
+                    }
+                    return Mono.just(errorResponse("Service unavailable: " + e.getMessage()));
+                })
+                .doFinally(signal -> {
+                    // Cerere anulată înainte de răspuns: nu contează nici ca succes, nici ca eșec
+                    if (settled.compareAndSet(false, true)) {
+                        guard.breaker.onIgnored();
+                    }
+                    if (!bodyHandedOut.get()) {
+                        release.run();
+                    }
+                });
+    }
+
+    private void responseTimeout(ClientHttpRequest httpRequest, long remainingMs) {
+        // Timeout-ul de răspuns al acestui apel este bugetul rămas, nu timeout-ul întreg al clientului
+        HttpClientRequest nativeRequest = httpRequest.getNativeRequest();
+        nativeRequest.responseTimeout(Duration.ofMillis(remainingMs));
+    }
+
+    /**
+     * Apel GET simplu, folosit de endpoint-urile de test
+     */
+    public Mono<String> get(String service, String path) {
+        return clients.get(service)
+                .get()
+                .uri(URI.create(baseUrls.get(service) + path))
+                .retrieve()
+                .bodyToMono(String.class);
+    }
+
+    public Map<String, String> getBaseUrls() {
+        return baseUrls;
+    }
+
+    /**
+     * Starea circuitului și contoarele pentru fiecare serviciu, ca obiect JSON
+     */
+    public String getResilienceStats() {
+        List<String> entries = new ArrayList<>();
+        guards.forEach((service, guard) -> entries.add("\"" + service + "\":" + guard.toJson()));
+        return "{" + String.join(",", entries) + "}";
+    }
+
+    private boolean hasBody(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    private void copyRequestHeaders(HttpHeaders source, HttpHeaders target) {
+        source.forEach((name, values) -> {
+            if (!EXCLUDED_REQUEST_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                target.addAll(name, values);
+            }
+        });
+        if (target.getContentType() == null) {
+            target.setContentType(MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private HttpHeaders filterResponseHeaders(HttpHeaders source) {
+        HttpHeaders filtered = new HttpHeaders();
+        source.forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (!EXCLUDED_RESPONSE_HEADERS.contains(lower) && !lower.startsWith("access-control-")) {
+                filtered.addAll(name, values);
+            }
+        });
+        return filtered;
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> errorResponse(String message) {
+        return errorResponse(null, message);
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> errorResponse(HttpStatus status, String message) {
+        ResponseEntity<String> response = ResponseFactory.getFactory(ResponseType.ERROR)
+                .createResponse(message, "GATEWAY_ERROR");
+        DataBuffer body = DefaultDataBufferFactory.sharedInstance
+                .wrap(response.getBody().getBytes(StandardCharsets.UTF_8));
+        return ResponseEntity.status(status != null ? status : response.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Flux.just(body));
+    }
+
+    private final class Guard {
+
+        private final Semaphore bulkhead = new Semaphore(maxConcurrentCalls);
+        private final CircuitBreaker breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openMs);
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder shortCircuited = new LongAdder();
+        private final LongAdder bulkheadRejected = new LongAdder();
+        private final LongAdder budgetExhausted = new LongAdder();
+
+        void settle(AtomicBoolean settled, boolean failed) {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            if (failed) {
+                failures.increment();
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"breaker\":%s,\"inFlight\":%d,\"calls\":%d,\"failures\":%d,\"shortCircuited\":%d,\"bulkheadRejected\":%d,\"budgetExhausted\":%d}",
+                    breaker.toJson(), maxConcurrentCalls - bulkhead.availablePermits(), calls.sum(), failures.sum(),
+                    shortCircuited.sum(), bulkheadRejected.sum(), budgetExhausted.sum());
+        }
+    }
+}
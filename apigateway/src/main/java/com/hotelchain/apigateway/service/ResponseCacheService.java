@@ -0,0 +1,352 @@
+package com.hotelchain.apigateway.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de răspunsuri pentru GET-urile publice din catalog (/api/hotels/**, /api/reviews/room/**).
+ * Răspunsurile 200 sunt păstrate cu un ETag tare calculat din corp, cererile cu If-None-Match
+ * primesc 304, iar ratările simultane pentru aceeași cheie fac un singur apel downstream.
+ * Cererile cu Authorization nu trec prin cache; scrierile trimise prin gateway invalidează ruta, iar
+ * serviciile invalidează după commit, prin /gateway/cache/invalidate, ce se schimbă în afara gateway-ului.
+ * Un corp mai mare decât max-body-bytes nu este păstrat, ci transmis clientului direct din primul răspuns.
+ */
+@Service
+public class ResponseCacheService {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+    public static final String INVALIDATION_PATH = "/gateway/cache/invalidate";
+    public static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+
+    private static final String HOTELS_PREFIX = "/api/hotels";
+    private static final String REVIEWS_PREFIX = "/api/reviews";
+    private static final String ROOM_REVIEWS_PREFIX = "/api/reviews/room/";
+
+    // Endpoint-uri operaționale ale hotel-service care nu trebuie servite din cache
+    private static final Set<String> UNCACHED_HOTEL_PATHS = Set.of(
+            "/api/hotels/test", "/api/hotels/health", "/api/hotels/auth-cache/stats", "/api/hotels/catalog-cache/stats");
+
+    @Autowired
+    private ProxyService proxyService;
+
+    @Value("${app.gateway.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.gateway.cache.hotels-ttl-ms:30000}")
+    private long hotelsTtlMs;
+
+    @Value("${app.gateway.cache.reviews-ttl-ms:10000}")
+    private long reviewsTtlMs;
+
+    @Value("${app.gateway.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.gateway.cache.max-body-bytes:4194304}")
+    private int maxBodyBytes;
+
+    @Value("${app.internal.token:}")
+    private String internalToken;
+
+    private final Map<String, CachedResponse> entries = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    if (size() > maxEntries) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            });
+
+    // Un singur apel downstream per cheie; ceilalți abonați primesc același rezultat
+    private final Map<String, Mono<Loaded>> inFlight = new ConcurrentHashMap<>();
+
+    // Crește la fiecare invalidare; un răspuns încărcat înainte nu mai este pus în cache
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Transmite cererea prin cache dacă ruta este cache-uibilă, altfel direct către serviciu
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> forward(String service, ServerHttpRequest request) {
+        String path = request.getURI().getRawPath();
+
+        if (request.getMethod() != HttpMethod.GET) {
+            String routePrefix = routePrefix(path);
+            if (routePrefix == null || path.endsWith("/batch")) {
+                return proxyService.forward(service, request);
+            }
+            // Invalidăm înainte și după scriere, ca o citire concurentă să nu repună valoarea veche
+            invalidate(routePrefix);
+            return proxyService.forward(service, request)
+                    .doOnNext(response -> invalidate(routePrefix));
+        }
+
+        long ttlMs = ttlFor(path);
+        if (!enabled || ttlMs <= 0 || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            bypassed.increment();
+            return proxyService.forward(service, request);
+        }
+
+        String rawQuery = request.getURI().getRawQuery();
+        String key = path + (rawQuery != null ? "?" + rawQuery : "");
+        String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+
+        CachedResponse cached = entries.get(key);
+        if (cached != null && System.currentTimeMillis() < cached.expiresAt()) {
+            hits.increment();
+            return Mono.just(toResponse(cached, ifNoneMatch, "HIT"));
+        }
+
+        AtomicReference<Mono<Loaded>> created = new AtomicReference<>();
+        Mono<Loaded> shared = inFlight.computeIfAbsent(key, k -> {
+            Mono<Loaded> load = load(service, request, key, ttlMs)
+                    .doFinally(signal -> inFlight.remove(k, created.get()))
+                    .cache();
+            created.set(load);
+            return load;
+        });
+
+        boolean loader = shared == created.get();
+        String cacheStatus;
+        if (loader) {
+            misses.increment();
+            cacheStatus = "MISS";
+        } else {
+            coalesced.increment();
+            cacheStatus = "COALESCED";
+        }
+
+        return shared.flatMap(loaded -> {
+            if (loaded.cached() != null) {
+                return Mono.just(toResponse(loaded.cached(), ifNoneMatch, cacheStatus));
+            }
+            // Corp prea mare pentru cache: cererea care l-a încărcat primește răspunsul în flux,
+            // iar cererile comasate, care nu pot citi același corp, merg fiecare la serviciu
+            bypassed.increment();
+            return loader ? Mono.just(loaded.streamed()) : proxyService.forward(service, request);
+        });
+    }
+
+    /**
+     * Scoate din cache răspunsurile ale căror căi încep cu prefixul dat
+     */
+    public int invalidate(String pathPrefix) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        synchronized (entries) {
+            int before = entries.size();
+            entries.keySet().removeIf(key -> key.startsWith(pathPrefix));
+            return before - entries.size();
+        }
+    }
+
+    /**
+     * Adevărat doar pentru token-ul intern al serviciilor; fără token configurat nu este acceptat nimeni
+     */
+    public boolean isTrustedInvalidation(String presented) {
+        if (internalToken.isEmpty() || presented == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(internalToken.getBytes(StandardCharsets.UTF_8),
+                presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Statistici pentru cache-ul de răspunsuri
+     */
+    public String getStats() {
+        long hit = hits.sum();
+        long missed = misses.sum();
+        long joined = coalesced.sum();
+        long total = hit + missed + joined;
+        double hitRate = total == 0 ? 0.0 : (double) (hit + joined) / total;
+        return String.format(Locale.ROOT,
+                "{\"hits\":%d,\"misses\":%d,\"coalesced\":%d,\"notModified\":%d,\"bypassed\":%d," +
+                        "\"hitRate\":%.4f,\"evictions\":%d,\"invalidations\":%d,\"size\":%d,\"inFlight\":%d}",
+                hit, missed, joined, notModified.sum(), bypassed.sum(), hitRate,
+                evictions.sum(), invalidations.sum(), entries.size(), inFlight.size());
+    }
+
+    private Mono<Loaded> load(String service, ServerHttpRequest request, String key, long ttlMs) {
+        long loadGeneration = generation.get();
+        return proxyService.forward(service, request)
+                .flatMap(response -> {
+                    AtomicLong size = new AtomicLong();
+                    return response.getBody()
+                            // Primul lot se închide la sfârșitul corpului sau când acesta depășește max-body-bytes
+                            .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBodyBytes, true)
+                            .switchOnFirst((first, chunks) -> {
+                                if (first.isOnError()) {
+                                    return Mono.error(first.getThrowable());
+                                }
+                                if (size.get() > maxBodyBytes) {
+                                    // Ce s-a citit deja și restul corpului ajung la client fără să fie reținute
+                                    return Mono.just(Loaded.streamed(ResponseEntity.status(response.getStatusCode())
+                                            .headers(copyHeaders(response.getHeaders()))
+                                            .body(chunks.concatMapIterable(buffers -> buffers))));
+                                }
+                                byte[] body = first.hasValue() ? join(first.get()) : new byte[0];
+                                return Mono.just(Loaded.cached(new CachedResponse(response.getStatusCode(),
+                                        HttpHeaders.readOnlyHttpHeaders(copyHeaders(response.getHeaders())),
+                                        body, etag(body), System.currentTimeMillis() + ttlMs)));
+                            }, false)
+                            // single() nu anulează sursa, care rămâne deschisă pentru răspunsul în flux
+                            .single();
+                })
+                .doOnNext(loaded -> {
+                    CachedResponse response = loaded.cached();
+                    if (response != null && response.status().value() == HttpStatus.OK.value()) {
+                        synchronized (entries) {
+                            if (generation.get() == loadGeneration) {
+                                entries.put(key, response);
+                            }
+                        }
+                    }
+                });
+    }
+
+    private byte[] join(List<DataBuffer> buffers) {
+        int length = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int count = buffer.readableByteCount();
+            buffer.read(bytes, offset, count);
+            offset += count;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> toResponse(CachedResponse cached, String ifNoneMatch, String cacheStatus) {
+        boolean cacheable = cached.status().value() == HttpStatus.OK.value();
+
+        if (cacheable && matches(ifNoneMatch, cached.etag())) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.etag())
+                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                    .header(CACHE_STATUS_HEADER, cacheStatus)
+                    .body(Flux.empty());
+        }
+
+        HttpHeaders headers = copyHeaders(cached.headers());
+        if (cacheable) {
+            headers.setETag(cached.etag());
+            // Clientul poate păstra răspunsul, dar îl revalidează cu If-None-Match
+            headers.setCacheControl("no-cache");
+            headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        }
+        byte[] body = cached.body();
+        return ResponseEntity.status(cached.status())
+                .headers(headers)
+                .body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))));
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match folosește comparația slabă
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long ttlFor(String path) {
+        if (path.startsWith(ROOM_REVIEWS_PREFIX)) {
+            return reviewsTtlMs;
+        }
+        if ((path.equals(HOTELS_PREFIX) || path.startsWith(HOTELS_PREFIX + "/"))
+                && !path.startsWith(HOTELS_PREFIX + "/all") && !UNCACHED_HOTEL_PATHS.contains(path)) {
+            return hotelsTtlMs;
+        }
+        return 0;
+    }
+
+    private String routePrefix(String path) {
+        if (path.equals(HOTELS_PREFIX) || path.startsWith(HOTELS_PREFIX + "/")) {
+            return HOTELS_PREFIX;
+        }
+        if (path.startsWith(REVIEWS_PREFIX)) {
+            return ROOM_REVIEWS_PREFIX;
+        }
+        return null;
+    }
+
+    private HttpHeaders copyHeaders(HttpHeaders source) {
+        HttpHeaders copy = new HttpHeaders();
+        copy.addAll(source);
+        return copy;
+    }
+
+    private String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Rezultatul unei încărcări: răspunsul păstrat în cache sau, pentru corpuri prea mari, răspunsul în flux
+     */
+    private record Loaded(CachedResponse cached, ResponseEntity<Flux<DataBuffer>> streamed) {
+
+        static Loaded cached(CachedResponse response) {
+            return new Loaded(response, null);
+        }
+
+        static Loaded streamed(ResponseEntity<Flux<DataBuffer>> response) {
+            return new Loaded(null, response);
+        }
+    }
+
+    private record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body,
+                                  String etag, long expiresAt) {
+    }
+}
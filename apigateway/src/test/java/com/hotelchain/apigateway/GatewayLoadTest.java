@@ -0,0 +1,175 @@
+package com.hotelchain.apigateway;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test de încărcare: compară gateway-ul reactiv cu forwarding-ul blocant vechi
+ * (RestTemplate fără pool, limitat la cele 200 de thread-uri implicite ale Tomcat).
+ * Serviciul downstream este simulat și răspunde cu o întârziere fixă.
+ * Rulare: mvn test -Dtest=GatewayLoadTest -Dgateway.loadtest=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // Se măsoară forwarding-ul, nu cache-ul de răspunsuri
+        properties = "app.gateway.cache.enabled=false")
+@EnabledIfSystemProperty(named = "gateway.loadtest", matches = "true")
+class GatewayLoadTest {
+
+    private static final int DOWNSTREAM_DELAY_MS = 50;
+    private static final int BLOCKING_WORKER_THREADS = 200;
+    private static final int CONCURRENCY = 1000;
+    private static final int REQUESTS = 10000;
+    private static final String PAYLOAD = "{\"id\":1,\"name\":\"Room 101\",\"available\":true}";
+
+    private static HttpServer downstream;
+    private static HttpServer blockingGateway;
+
+    @LocalServerPort
+    private int gatewayPort;
+
+    @BeforeAll
+    static void startServers() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        downstream.createContext("/", GatewayLoadTest::handleDownstream);
+        downstream.setExecutor(Executors.newCachedThreadPool());
+        downstream.start();
+
+        // Reproduce GatewayController.forwardRequest dinaintea motorului reactiv
+        RestTemplate restTemplate = new RestTemplate();
+        String downstreamUrl = "http://localhost:" + downstream.getAddress().getPort();
+        blockingGateway = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        blockingGateway.createContext("/", exchange -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            ResponseEntity<String> response = restTemplate.exchange(
+                    downstreamUrl + exchange.getRequestURI(), HttpMethod.GET,
+                    new HttpEntity<>(null, headers), String.class);
+            respond(exchange, response.getBody());
+        });
+        blockingGateway.setExecutor(Executors.newFixedThreadPool(BLOCKING_WORKER_THREADS));
+        blockingGateway.start();
+    }
+
+    @AfterAll
+    static void stopServers() {
+        blockingGateway.stop(0);
+        downstream.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serviceUrls(DynamicPropertyRegistry registry) {
+        for (String service : List.of("user", "hotel", "reservation", "review")) {
+            registry.add("app.services." + service, () -> "http://localhost:" + downstream.getAddress().getPort());
+        }
+    }
+
+    @Test
+    void reactiveGatewayOutperformsBlockingForwarding() throws Exception {
+        String path = "/api/hotels/rooms/search?city=Cluj";
+        String blockingUrl = "http://localhost:" + blockingGateway.getAddress().getPort() + path;
+        String reactiveUrl = "http://localhost:" + gatewayPort + path;
+
+        // Încălzire pentru JIT și pool-urile de conexiuni
+        run(blockingUrl, CONCURRENCY, CONCURRENCY);
+        run(reactiveUrl, CONCURRENCY, CONCURRENCY);
+
+        Result blocking = run(blockingUrl, CONCURRENCY, REQUESTS);
+        Result reactive = run(reactiveUrl, CONCURRENCY, REQUESTS);
+
+        System.out.printf("blocking: %.0f req/s, p99 %d ms%n", blocking.throughput(), blocking.p99Ms());
+        System.out.printf("reactive: %.0f req/s, p99 %d ms%n", reactive.throughput(), reactive.p99Ms());
+
+        assertEquals(0, reactive.failures());
+        assertTrue(reactive.throughput() > blocking.throughput());
+        assertTrue(reactive.p99Ms() < blocking.p99Ms());
+    }
+
+    private Result run(String url, int concurrency, int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        HttpClient client = HttpClient.newBuilder().executor(executor).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+        List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+        int[] failures = new int[1];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        latencies.add(System.nanoTime() - sent);
+                        if (error != null || response.statusCode() != 200) {
+                            synchronized (failures) {
+                                failures[0]++;
+                            }
+                        }
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1) / 1_000_000;
+        return new Result(requests * 1_000_000_000.0 / elapsed, p99, failures[0]);
+    }
+
+    private static void handleDownstream(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(DOWNSTREAM_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        respond(exchange, PAYLOAD);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private record Result(double throughput, long p99Ms, int failures) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.hotelchain.apigateway;
+
+import com.hotelchain.apigateway.service.ProxyService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.gateway.resilience.timeout-ms=300",
+        "app.gateway.resilience.max-concurrent-calls=2",
+        "app.gateway.resilience.window-size=4",
+        "app.gateway.resilience.minimum-calls=4",
+        "app.gateway.resilience.open-ms=60000"
+})
+class GatewayResilienceTest {
+
+    private static final AtomicInteger FAILING_CALLS = new AtomicInteger();
+    private static final AtomicInteger EXPIRED_CALLS = new AtomicInteger();
+
+    private static HttpServer downstream;
+
+    @LocalServerPort
+    private int gatewayPort;
+
+    @Autowired
+    private ProxyService proxyService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startDownstream() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        downstream.createContext("/", GatewayResilienceTest::handleDownstream);
+        downstream.setExecutor(Executors.newCachedThreadPool());
+        downstream.start();
+    }
+
+    @AfterAll
+    static void stopDownstream() {
+        downstream.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serviceUrls(DynamicPropertyRegistry registry) {
+        for (String service : List.of("user", "hotel", "reservation", "review")) {
+            registry.add("app.services." + service, () -> "http://localhost:" + downstream.getAddress().getPort());
+        }
+    }
+
+    @Test
+    void failingServiceIsShortCircuitedWith503() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(500, get("/api/reservations/fail").statusCode());
+        }
+
+        HttpResponse<String> shortCircuited = get("/api/reservations/fail");
+        assertEquals(503, shortCircuited.statusCode());
+        assertTrue(shortCircuited.body().contains("circuit open"));
+        assertEquals(4, FAILING_CALLS.get());
+        assertTrue(get("/gateway/resilience/stats").body()
+                .contains("\"reservation\":{\"breaker\":{\"state\":\"OPEN\""));
+    }
+
+    @Test
+    void slowServiceTimesOutAndReceivesTheTimeoutBudget() throws Exception {
+        long start = System.nanoTime();
+        assertEquals(504, get("/api/users/slow").statusCode());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+
+        // Bugetul trimis de client este înlocuit de ce a rămas din bugetul gateway-ului
+        HttpResponse<String> echoed = client.send(HttpRequest.newBuilder(URI.create(gatewayUrl("/api/users/budget")))
+                .header("X-Request-Timeout-Ms", "99999").GET().build(), HttpResponse.BodyHandlers.ofString());
+        long budget = Long.parseLong(echoed.body());
+        assertTrue(budget > 0 && budget <= 300, "budget " + budget);
+    }
+
+    @Test
+    void exhaustedBudgetIsRejectedWithoutCallingTheService() {
+        ResponseEntity<Flux<DataBuffer>> response = proxyService
+                .forward(ProxyService.HOTEL, MockServerHttpRequest.get("/api/hotels/expired").build())
+                .contextWrite(Context.of(ProxyService.DEADLINE_KEY, System.nanoTime()))
+                .block();
+
+        assertEquals(504, response.getStatusCode().value());
+        assertEquals(0, EXPIRED_CALLS.get());
+    }
+
+    @Test
+    void permitIsHeldUntilTheResponseBodyIsConsumed() {
+        ResponseEntity<Flux<DataBuffer>> response = proxyService
+                .forward(ProxyService.HOTEL, MockServerHttpRequest.get("/api/hotels/2").build())
+                .block();
+        assertTrue(hotelInFlight(1), proxyService.getResilienceStats());
+
+        response.getBody().map(DataBufferUtils::release).blockLast();
+        assertTrue(hotelInFlight(0), proxyService.getResilienceStats());
+    }
+
+    @Test
+    void unsubscribedForwardDoesNotHoldABulkheadPermit() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            proxyService.forward(ProxyService.HOTEL, MockServerHttpRequest.get("/api/hotels/1").build());
+        }
+
+        assertEquals(200, get("/api/hotels/1").statusCode());
+        assertTrue(get("/gateway/resilience/stats").body().contains("\"inFlight\":0,"));
+    }
+
+    private boolean hotelInFlight(int inFlight) {
+        return proxyService.getResilienceStats()
+                .matches(".*\"hotel\":\\{\"breaker\":\\{[^}]*},\"inFlight\":" + inFlight + ",.*");
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(gatewayUrl(path))).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String gatewayUrl(String path) {
+        return "http://localhost:" + gatewayPort + path;
+    }
+
+    private static void handleDownstream(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        int status = 200;
+        String body = "{}";
+        if (path.endsWith("/fail")) {
+            FAILING_CALLS.incrementAndGet();
+            status = 500;
+        } else if (path.endsWith("/slow")) {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (path.endsWith("/expired")) {
+            EXPIRED_CALLS.incrementAndGet();
+        } else if (path.endsWith("/budget")) {
+            body = String.valueOf(exchange.getRequestHeaders().getFirst("X-Request-Timeout-Ms"));
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException ignored) {
+            // gateway-ul a renunțat după timeout
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.hotelchain.apigateway;
+
+import com.hotelchain.apigateway.service.ResponseCacheService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "app.gateway.cache.max-body-bytes=1024",
+                "app.internal.token=" + ResponseCacheTest.INTERNAL_TOKEN})
+class ResponseCacheTest {
+
+    static final String INTERNAL_TOKEN = "testInternalToken";
+    private static final String LARGE_BODY = "[" + "\"room\",".repeat(1000) + "\"room\"]";
+    private static final AtomicInteger DOWNSTREAM_GETS = new AtomicInteger();
+    private static final AtomicInteger VERSION = new AtomicInteger(1);
+
+    private static HttpServer downstream;
+
+    @LocalServerPort
+    private int gatewayPort;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startDownstream() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        downstream.createContext("/", ResponseCacheTest::handleDownstream);
+        downstream.setExecutor(Executors.newCachedThreadPool());
+        downstream.start();
+    }
+
+    @AfterAll
+    static void stopDownstream() {
+        downstream.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serviceUrls(DynamicPropertyRegistry registry) {
+        for (String service : List.of("user", "hotel", "reservation", "review")) {
+            registry.add("app.services." + service, () -> "http://localhost:" + downstream.getAddress().getPort());
+        }
+    }
+
+    @BeforeEach
+    void reset() {
+        responseCacheService.invalidate("/");
+        DOWNSTREAM_GETS.set(0);
+    }
+
+    @Test
+    void repeatedGetsAreServedFromCacheWithEtag() throws Exception {
+        HttpResponse<String> first = get("/api/hotels/1", null);
+        HttpResponse<String> second = get("/api/hotels/1", null);
+
+        assertEquals(200, second.statusCode());
+        assertEquals(first.body(), second.body());
+        assertEquals("MISS", first.headers().firstValue("X-Cache").orElse(null));
+        assertEquals("HIT", second.headers().firstValue("X-Cache").orElse(null));
+        assertEquals(1, DOWNSTREAM_GETS.get());
+
+        String etag = second.headers().firstValue("ETag").orElse(null);
+        assertNotNull(etag);
+        HttpResponse<String> revalidated = get("/api/hotels/1", etag);
+        assertEquals(304, revalidated.statusCode());
+        assertEquals("", revalidated.body());
+        assertEquals(1, DOWNSTREAM_GETS.get());
+    }
+
+    @Test
+    void concurrentMissesMakeOneDownstreamCall() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(client.sendAsync(request("/api/reviews/room/7?slow=true", null),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+        }
+
+        assertEquals(1, DOWNSTREAM_GETS.get());
+        assertTrue(responseCacheService.getStats().matches(".*\"coalesced\":(1[0-9]|[1-9]),.*"));
+    }
+
+    @Test
+    void writesInvalidateTheRoute() throws Exception {
+        String before = get("/api/hotels/2/rooms", null).body();
+
+        VERSION.incrementAndGet();
+        client.send(HttpRequest.newBuilder(URI.create(gatewayUrl("/api/hotels/rooms/5/toggle-availability")))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        String after = get("/api/hotels/2/rooms", null).body();
+        assertNotEquals(before, after);
+        assertEquals(2, DOWNSTREAM_GETS.get());
+    }
+
+    @Test
+    void servicesInvalidateRoutesWithTheInternalToken() throws Exception {
+        get("/api/hotels/rooms/search?city=Cluj", null);
+        get("/api/reviews/room/4", null);
+
+        assertEquals(403, invalidate("/api/hotels/rooms/search", null).statusCode());
+        assertEquals(403, invalidate("/api/hotels/rooms/search", "wrongToken").statusCode());
+        assertEquals("HIT", cacheStatus("/api/hotels/rooms/search?city=Cluj"));
+
+        HttpResponse<String> invalidated = invalidate("/api/hotels/rooms/search", INTERNAL_TOKEN);
+        assertEquals(200, invalidated.statusCode());
+        assertEquals("{\"removed\":1}", invalidated.body());
+        assertEquals("MISS", cacheStatus("/api/hotels/rooms/search?city=Cluj"));
+        assertEquals("HIT", cacheStatus("/api/reviews/room/4"));
+        assertEquals(3, DOWNSTREAM_GETS.get());
+    }
+
+    @Test
+    void oversizedBodiesAreStreamedFromTheFirstResponse() throws Exception {
+        HttpResponse<String> first = get("/api/hotels/large", null);
+
+        assertEquals(200, first.statusCode());
+        assertEquals(LARGE_BODY, first.body());
+        assertEquals(1, DOWNSTREAM_GETS.get());
+
+        HttpResponse<String> second = get("/api/hotels/large", null);
+        assertEquals(LARGE_BODY, second.body());
+        assertEquals(2, DOWNSTREAM_GETS.get());
+    }
+
+    @Test
+    void authenticatedRequestsBypassTheCache() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            client.send(HttpRequest.newBuilder(URI.create(gatewayUrl("/api/hotels/rooms/3")))
+                    .header("Authorization", "Bearer token").GET().build(), HttpResponse.BodyHandlers.ofString());
+        }
+        assertEquals(3, DOWNSTREAM_GETS.get());
+    }
+
+    private String cacheStatus(String path) throws Exception {
+        return get(path, null).headers().firstValue("X-Cache").orElse(null);
+    }
+
+    private HttpResponse<String> invalidate(String prefix, String token) throws Exception {
+        URI uri = URI.create(gatewayUrl("/gateway/cache/invalidate?prefix=" + prefix));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody());
+        if (token != null) {
+            builder.header("X-Internal-Token", token);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        return client.send(request(path, ifNoneMatch), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String path, String ifNoneMatch) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(gatewayUrl(path))).GET();
+        if (ifNoneMatch != null) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+        return builder.build();
+    }
+
+    private String gatewayUrl(String path) {
+        return "http://localhost:" + gatewayPort + path;
+    }
+
+    private static void handleDownstream(HttpExchange exchange) throws IOException {
+        String body = "{}";
+        if ("GET".equals(exchange.getRequestMethod())) {
+            DOWNSTREAM_GETS.incrementAndGet();
+            if (exchange.getRequestURI().getQuery() != null) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            body = "{\"path\":\"" + exchange.getRequestURI().getPath() + "\",\"version\":" + VERSION.get() + "}";
+            if (exchange.getRequestURI().getPath().endsWith("/large")) {
+                streamLargeBody(exchange);
+                return;
+            }
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Corp fără Content-Length, trimis în bucăți, ca să depășească limita abia după primele buffere
+    private static void streamLargeBody(HttpExchange exchange) throws IOException {
+        byte[] bytes = LARGE_BODY.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int offset = 0; offset < bytes.length; offset += 512) {
+                out.write(bytes, offset, Math.min(512, bytes.length - offset));
+                out.flush();
+            }
+        }
+    }
+}
@@ -1,13 +1,107 @@
 package com.hotelchain.hotelservice;
 
+import com.hotelchain.hotelservice.event.EventBroker;
+import com.hotelchain.hotelservice.event.FileEventBroker;
+import com.hotelchain.hotelservice.event.InMemoryEventBroker;
+import com.hotelchain.hotelservice.service.DownstreamGuard;
+import com.hotelchain.hotelservice.service.InternalServiceCredential;
+import com.hotelchain.hotelservice.service.PooledHttpClientFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.client.RestTemplate;
 
+import java.nio.file.Path;
+import java.util.List;
+
+@Slf4j
 @SpringBootApplication
 @EnableJpaRepositories
+@EnableScheduling
 public class HotelServiceApplication {
 
+	/**
+	 * Protecția apelurilor către celelalte servicii: bulkhead și circuit breaker pe serviciu, plus bugetul de timp
+	 */
+	@Bean
+	public DownstreamGuard downstreamGuard(@Value("${app.resilience.max-concurrent-calls:20}") int maxConcurrentCalls,
+	                                       @Value("${app.resilience.window-size:20}") int windowSize,
+	                                       @Value("${app.resilience.minimum-calls:10}") int minimumCalls,
+	                                       @Value("${app.resilience.failure-rate-threshold:50}") int failureRateThreshold,
+	                                       @Value("${app.resilience.open-ms:5000}") long openMs,
+	                                       @Value("${app.http.read-timeout-ms:3000}") long readTimeoutMs) {
+		return new DownstreamGuard(maxConcurrentCalls, windowSize, minimumCalls, failureRateThreshold, openMs, readTimeoutMs);
+	}
+
+	/**
+	 * Clientul HTTP comun, cu pool de conexiuni keep-alive pe fiecare serviciu apelat și compresie;
+	 * HTTP/2 se activează cu app.http.protocol=HTTP_2
+	 */
+	@Bean
+	public PooledHttpClientFactory httpClientFactory(Environment environment,
+	                                                 @Value("${app.http.protocol:HTTP_1_1}") PooledHttpClientFactory.Protocol protocol,
+	                                                 @Value("${app.http.pool.max-total:100}") int maxTotal,
+	                                                 @Value("${app.http.pool.max-per-route:20}") int maxPerRoute,
+	                                                 @Value("${app.http.connect-timeout-ms:1000}") int connectTimeoutMs,
+	                                                 @Value("${app.http.read-timeout-ms:3000}") int readTimeoutMs,
+	                                                 @Value("${app.http.pool.acquire-timeout-ms:1000}") int acquireTimeoutMs,
+	                                                 @Value("${app.http.pool.max-idle-ms:30000}") long maxIdleMs) {
+		return new PooledHttpClientFactory(protocol, maxTotal, maxPerRoute, connectTimeoutMs, readTimeoutMs,
+				acquireTimeoutMs, maxIdleMs, Threading.VIRTUAL.isActive(environment));
+	}
+
+	/**
+	 * Timeout-uri de conectare și citire pe orice apel, ca un serviciu blocat să nu țină firele apelantului
+	 */
+	@Bean
+	public RestTemplate restTemplate(PooledHttpClientFactory httpClientFactory, DownstreamGuard downstreamGuard,
+	                                 InternalServiceCredential internalServiceCredential) {
+		RestTemplate restTemplate = new RestTemplate(httpClientFactory.requestFactory());
+		restTemplate.getInterceptors().add(downstreamGuard);
+		restTemplate.getInterceptors().add(internalServiceCredential);
+		return restTemplate;
+	}
+
+	/**
+	 * Token-ul cerut de endpoint-urile interne și trimis pe apelurile către reservation-service
+	 */
+	@Bean
+	public InternalServiceCredential internalServiceCredential(@Value("${app.internal.token:}") String token,
+	                                                             @Value("${app.services.reservation:http://localhost:8083}") String reservationServiceUrl,
+	                                                             @Value("${app.services.gateway:http://localhost:8080}") String gatewayUrl) {
+		return new InternalServiceCredential(token, List.of(reservationServiceUrl, gatewayUrl));
+	}
+
+	/**
+	 * Brokerul de evenimente dintre servicii: "file" (implicit) folosește un director comun tuturor serviciilor,
+	 * obligatoriu; "memory" ține evenimentele în proces și se alege doar explicit (teste, un singur serviciu)
+	 */
+	@Bean
+	public EventBroker eventBroker(@Value("${app.events.broker:file}") String broker,
+	                               @Value("${app.events.directory:}") String directory,
+	                               @Value("${app.events.poll-interval-ms:500}") long pollIntervalMs,
+	                               @Value("${app.events.max-attempts:10}") int maxAttempts) {
+		if ("memory".equalsIgnoreCase(broker)) {
+			log.warn("app.events.broker is memory: outbox events are delivered only inside this process, "
+					+ "other services will not receive them");
+			return new InMemoryEventBroker();
+		}
+		if (!"file".equalsIgnoreCase(broker)) {
+			throw new IllegalStateException("Unknown app.events.broker: " + broker);
+		}
+		if (directory.isBlank()) {
+			throw new IllegalStateException("app.events.directory (EVENT_DIRECTORY) must point to the event directory "
+					+ "shared by all services; set app.events.broker=memory only for single-process runs");
+		}
+		return new FileEventBroker(Path.of(directory), pollIntervalMs, maxAttempts);
+	}
+
 	public static void main(String[] args) {
 		SpringApplication.run(HotelServiceApplication.class, args);
 	}
@@ -1,10 +1,17 @@
 package com.hotelchain.hotelservice.controller;
 
 import com.hotelchain.hotelservice.dto.*;
+import com.hotelchain.hotelservice.service.CatalogCache;
+import com.hotelchain.hotelservice.service.DownstreamGuard;
 import com.hotelchain.hotelservice.service.HotelService;
+import com.hotelchain.hotelservice.service.JwtValidationService;
+import com.hotelchain.hotelservice.service.OutboxRelay;
+import com.hotelchain.hotelservice.service.PooledHttpClientFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,6 +23,21 @@ public class HotelController {
     @Autowired
     private HotelService hotelService;
 
+    @Autowired
+    private JwtValidationService jwtValidationService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private DownstreamGuard downstreamGuard;
+
+    @Autowired
+    private PooledHttpClientFactory httpClientFactory;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
     // Test endpoints
     @GetMapping("/test")
     public String test() {
@@ -27,23 +49,59 @@ public class HotelController {
         return "{\"status\":\"UP\",\"service\":\"hotel-service\"}";
     }
 
+    @GetMapping("/auth-cache/stats")
+    public String authCacheStats() {
+        return jwtValidationService.getCacheStats();
+    }
+
+    @GetMapping("/catalog-cache/stats")
+    public String catalogCacheStats() {
+        return catalogCache.getStats();
+    }
+
+    @GetMapping("/search-index/stats")
+    public String searchIndexStats() {
+        return hotelService.getSearchIndexStats();
+    }
+
+    @GetMapping("/downstream/stats")
+    public String downstreamStats() {
+        return downstreamGuard.getStats();
+    }
+
+    // Ocuparea pool-ului de conexiuni către celelalte servicii
+    @GetMapping("/http-client/stats")
+    public String httpClientStats() {
+        return httpClientFactory.getStats();
+    }
+
+    // Evenimentele de modificare încă nepublicate pe broker și contoarele publicării
+    @GetMapping("/events/outbox/stats")
+    public String outboxStats() {
+        return outboxRelay.getStats();
+    }
+
     // PUBLIC ENDPOINTS - fără autentificare
 
     /**
      * Obține toate hotelurile active
      */
     @GetMapping
-    public ResponseEntity<List<HotelDto>> getAllActiveHotels() {
-        return ResponseEntity.ok(hotelService.getAllActiveHotels());
+    public ResponseEntity<byte[]> getAllActiveHotels() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(hotelService.getAllActiveHotelsJson());
     }
 
     /**
      * Obține un hotel după ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<HotelDto> getHotelById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getHotelById(@PathVariable Long id) {
         try {
-            return ResponseEntity.ok(hotelService.getHotelById(id));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(hotelService.getHotelByIdJson(id));
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -69,6 +127,20 @@ public class HotelController {
         return ResponseEntity.ok(hotelService.searchHotels(location, name, minStars, maxStars));
     }
 
+    /**
+     * Autocomplete pentru căutare: locații și hoteluri care se potrivesc cu textul tastat
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<HotelSuggestionDto>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(hotelService.autocomplete(q, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
     // MANAGER ENDPOINTS - cu autentificare
 
     /**
@@ -112,6 +184,36 @@ public class HotelController {
         }
     }
 
+    /**
+     * Obține o pagină de hoteluri pentru manageri (paginare keyset)
+     */
+    @GetMapping("/all/page")
+    public ResponseEntity<CursorPage<HotelDto>> getHotelsPage(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(hotelService.getHotelsPage(cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(403).body(null);
+        }
+    }
+
+    /**
+     * Transmite toate hotelurile ca NDJSON (un obiect JSON pe linie)
+     */
+    @GetMapping("/all/stream")
+    public ResponseEntity<StreamingResponseBody> streamHotels(@RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body(hotelService.streamHotels(token));
+        } catch (Exception e) {
+            return ResponseEntity.status(403).build();
+        }
+    }
+
     /**
      * Obține toate hotelurile (pentru manageri)
      */
@@ -3,10 +3,13 @@ package com.hotelchain.hotelservice.controller;
 import com.hotelchain.hotelservice.dto.*;
 import com.hotelchain.hotelservice.service.RoomService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -23,8 +26,10 @@ public class RoomController {
      * Obține camerele unui hotel, sortate după locație și număr
      */
     @GetMapping("/{hotelId}/rooms")
-    public ResponseEntity<List<RoomDto>> getRoomsByHotel(@PathVariable Long hotelId) {
-        return ResponseEntity.ok(roomService.getRoomsByHotelSorted(hotelId));
+    public ResponseEntity<byte[]> getRoomsByHotel(@PathVariable Long hotelId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(roomService.getRoomsByHotelSortedJson(hotelId));
     }
 
     /**
@@ -40,22 +45,52 @@ public class RoomController {
             @RequestParam(required = false) List<String> facilities,
             @RequestParam(required = false) String roomType,
             @RequestParam(required = false) Integer minGuests,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
             @RequestParam(required = false, defaultValue = "location") String sortBy,
             @RequestParam(required = false, defaultValue = "ASC") String sortDirection) {
 
-        RoomSearchCriteria criteria = new RoomSearchCriteria();
-        criteria.setLocation(location);
-        criteria.setAvailable(available);
-        criteria.setMinPrice(minPrice);
-        criteria.setMaxPrice(maxPrice);
-        criteria.setPosition(position);
-        criteria.setFacilities(facilities);
-        criteria.setRoomType(roomType);
-        criteria.setMinGuests(minGuests);
-        criteria.setSortBy(sortBy);
-        criteria.setSortDirection(sortDirection);
+        RoomSearchCriteria criteria = criteria(location, available, minPrice, maxPrice, position, facilities,
+                roomType, minGuests, checkIn, checkOut, sortBy, sortDirection);
+
+        try {
+            return ResponseEntity.ok(roomService.searchRooms(criteria));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Caută camere cu filtrare și întoarce și numărătorile pe fațete ale rezultatului
+     */
+    @GetMapping("/rooms/search/facets")
+    public ResponseEntity<FacetedRoomSearchResult> searchRoomsWithFacets(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String position,
+            @RequestParam(required = false) List<String> facilities,
+            @RequestParam(required = false) String roomType,
+            @RequestParam(required = false) Integer minGuests,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false, defaultValue = "location") String sortBy,
+            @RequestParam(required = false, defaultValue = "ASC") String sortDirection) {
+
+        RoomSearchCriteria criteria = criteria(location, available, minPrice, maxPrice, position, facilities,
+                roomType, minGuests, checkIn, checkOut, sortBy, sortDirection);
+
+        try {
+            return ResponseEntity.ok(roomService.searchRoomsWithFacets(criteria));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
 
-        return ResponseEntity.ok(roomService.searchRooms(criteria));
+    @GetMapping("/rooms/search-engine/stats")
+    public String searchEngineStats() {
+        return roomService.getSearchEngineStats();
     }
 
     /**
@@ -70,14 +105,26 @@ public class RoomController {
      * Obține o cameră după ID
      */
     @GetMapping("/rooms/{id}")
-    public ResponseEntity<RoomDto> getRoomById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getRoomById(@PathVariable Long id) {
         try {
-            return ResponseEntity.ok(roomService.getRoomById(id));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(roomService.getRoomByIdJson(id));
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    // INTERNAL ENDPOINTS - apelate de reservation-service și review-service
+
+    /**
+     * Obține mai multe camere într-un singur apel, pentru îmbogățirea listelor
+     */
+    @PostMapping("/rooms/batch")
+    public ResponseEntity<List<RoomDto>> getRoomsByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(roomService.getRoomsByIds(ids));
+    }
+
     // EMPLOYEE ENDPOINTS - cu autentificare
 
     /**
@@ -133,4 +180,25 @@ public class RoomController {
             return ResponseEntity.badRequest().body(null);
         }
     }
-}
\ No newline at end of file
+
+    // HELPER METHODS
+
+    private RoomSearchCriteria criteria(String location, Boolean available, BigDecimal minPrice, BigDecimal maxPrice,
+                                        String position, List<String> facilities, String roomType, Integer minGuests,
+                                        LocalDate checkIn, LocalDate checkOut, String sortBy, String sortDirection) {
+        RoomSearchCriteria criteria = new RoomSearchCriteria();
+        criteria.setLocation(location);
+        criteria.setAvailable(available);
+        criteria.setMinPrice(minPrice);
+        criteria.setMaxPrice(maxPrice);
+        criteria.setPosition(position);
+        criteria.setFacilities(facilities);
+        criteria.setRoomType(roomType);
+        criteria.setMinGuests(minGuests);
+        criteria.setCheckIn(checkIn);
+        criteria.setCheckOut(checkOut);
+        criteria.setSortBy(sortBy);
+        criteria.setSortDirection(sortDirection);
+        return criteria;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hotelchain.hotelservice.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class FacetedRoomSearchResult {
+    private List<RoomDto> items;
+    private int total;
+    private Map<String, Integer> roomTypes; // Numărul de camere găsite pe tip
+    private Map<String, Integer> positions; // Numărul de camere găsite pe poziție
+    private Map<String, Integer> facilities; // Numărul de camere găsite care au facilitatea
+    private Map<Long, Integer> hotels; // Numărul de camere găsite pe hotel
+    private BigDecimal minPrice; // Cel mai mic preț din rezultate
+    private BigDecimal maxPrice; // Cel mai mare preț din rezultate
+}
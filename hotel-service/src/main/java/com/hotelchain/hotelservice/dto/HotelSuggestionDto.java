@@ -0,0 +1,13 @@
+package com.hotelchain.hotelservice.dto;
+
+import lombok.Data;
+
+@Data
+public class HotelSuggestionDto {
+    // LOCATION sau HOTEL
+    private String type;
+    private String value;
+    private Long hotelId;
+    private String location;
+    private Integer hotelCount;
+}
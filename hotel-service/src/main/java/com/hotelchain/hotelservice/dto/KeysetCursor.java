@@ -0,0 +1,29 @@
+package com.hotelchain.hotelservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Ultimul id dintr-o pagină, transmis clientului ca șir opac.
+ * Listările sunt crescătoare după id, deci prima pagină pornește de la 0.
+ */
+public record KeysetCursor(Long id) {
+
+    public static final KeysetCursor FIRST = new KeysetCursor(0L);
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            return new KeysetCursor(Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hotelchain.hotelservice.dto;
 
 import lombok.Data;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @Data
@@ -14,6 +15,8 @@ public class RoomSearchCriteria {
     private List<String> facilities; // Facilitățile dorite
     private String roomType; // Tipul camerei
     private Integer minGuests; // Numărul minim de oaspeți
+    private LocalDate checkIn; // Data de check-in dorită
+    private LocalDate checkOut; // Data de check-out dorită
     private String sortBy; // Sortare după: location, roomNumber, price
     private String sortDirection; // ASC sau DESC
 }
\ No newline at end of file
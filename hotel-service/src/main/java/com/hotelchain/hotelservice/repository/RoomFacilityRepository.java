@@ -3,9 +3,11 @@ package com.hotelchain.hotelservice.repository;
 import com.hotelchain.hotelservice.entity.RoomFacility;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RoomFacilityRepository extends JpaRepository<RoomFacility, Long> {
     List<RoomFacility> findByRoomId(Long roomId);
+    List<RoomFacility> findByRoomIdIn(Collection<Long> roomIds);
     void deleteByRoomId(Long roomId);
 }
\ No newline at end of file
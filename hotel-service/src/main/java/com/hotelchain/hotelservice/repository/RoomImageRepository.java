@@ -3,10 +3,12 @@ package com.hotelchain.hotelservice.repository;
 import com.hotelchain.hotelservice.entity.RoomImage;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RoomImageRepository extends JpaRepository<RoomImage, Long> {
     List<RoomImage> findByRoomId(Long roomId);
     List<RoomImage> findByRoomIdOrderByDisplayOrder(Long roomId);
+    List<RoomImage> findByRoomIdInOrderByRoomIdAscDisplayOrderAsc(Collection<Long> roomIds);
     void deleteByRoomId(Long roomId);
 }
\ No newline at end of file
@@ -15,6 +15,12 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     // Găsește camerele pentru un hotel specific
     List<Room> findByHotelIdAndActiveTrue(Long hotelId);
 
+    // Toate camerele unui hotel, inclusiv cele dezactivate (evenimentele emise la redenumirea hotelului)
+    List<Room> findByHotelId(Long hotelId);
+
+    // Găsește camerele active (încărcarea motorului de căutare)
+    List<Room> findByActiveTrue();
+
     // Găsește camere disponibile
     List<Room> findByAvailableTrueAndActiveTrue();
 
@@ -27,26 +33,6 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     // Găsește camere într-o anumită zonă de preț
     List<Room> findByPricePerNightBetweenAndActiveTrue(BigDecimal minPrice, BigDecimal maxPrice);
 
-    // Query complex pentru căutare cu filtre
-    @Query("SELECT DISTINCT r FROM Room r " +
-            "JOIN r.hotel h " +
-            "LEFT JOIN r.facilities f " +
-            "WHERE r.active = true " +
-            "AND (:location IS NULL OR LOWER(h.location) LIKE LOWER(CONCAT('%', :location, '%'))) " +
-            "AND (:available IS NULL OR r.available = :available) " +
-            "AND (:minPrice IS NULL OR r.pricePerNight >= :minPrice) " +
-            "AND (:maxPrice IS NULL OR r.pricePerNight <= :maxPrice) " +
-            "AND (:position IS NULL OR r.position = :position) " +
-            "AND (:roomType IS NULL OR r.roomType = :roomType) " +
-            "AND (:minGuests IS NULL OR r.maxGuests >= :minGuests)")
-    List<Room> findRoomsWithCriteria(@Param("location") String location,
-                                     @Param("available") Boolean available,
-                                     @Param("minPrice") BigDecimal minPrice,
-                                     @Param("maxPrice") BigDecimal maxPrice,
-                                     @Param("position") RoomPosition position,
-                                     @Param("roomType") RoomType roomType,
-                                     @Param("minGuests") Integer minGuests);
-
     // Găsește camere cu o anumită facilitate
     @Query("SELECT DISTINCT r FROM Room r " +
             "JOIN r.facilities f " +
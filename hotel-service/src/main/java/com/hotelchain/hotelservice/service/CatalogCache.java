@@ -0,0 +1,183 @@
+package com.hotelchain.hotelservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache în memorie pentru citirile publice din catalog (hoteluri active, hotel, cameră, camerele unui hotel).
+ * Valorile sunt păstrate ca JSON deja serializat, deci o lovitură nu atinge nici baza de date, nici Jackson.
+ * Intrările sunt limitate ca număr (LRU) și expiră după TTL; scrierile din HotelService / RoomService
+ * le invalidează după commit, împreună cu răspunsurile /api/hotels din cache-ul gateway-ului.
+ */
+@Component
+public class CatalogCache {
+
+    public static final String ACTIVE_HOTELS = "hotels:active";
+    private static final String ROOM_PREFIX = "room:";
+    private static final String GATEWAY_ROUTE = "/api/hotels";
+
+    @Autowired
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Value("${app.catalog-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${app.catalog-cache.max-entries:5000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > maxEntries) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            });
+
+    // Crește la fiecare invalidare; o încărcare începută înainte nu mai este pusă în cache
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public static String hotelKey(Long hotelId) {
+        return "hotel:" + hotelId;
+    }
+
+    public static String roomKey(Long roomId) {
+        return ROOM_PREFIX + roomId;
+    }
+
+    public static String hotelRoomsKey(Long hotelId) {
+        return "hotel-rooms:" + hotelId;
+    }
+
+    /**
+     * Întoarce JSON-ul din cache sau îl încarcă cu loader-ul. Excepțiile loader-ului (ex. "not found")
+     * nu sunt puse în cache.
+     */
+    public byte[] get(String key, Supplier<byte[]> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt < ttlMs) {
+            hits.increment();
+            entry.hits.increment();
+            return entry.json;
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        byte[] json = loader.get();
+        synchronized (entries) {
+            if (generation.get() == loadGeneration) {
+                entries.put(key, new Entry(json, now));
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Invalidează valorile care depind de o cameră (camera și lista camerelor hotelului ei)
+     */
+    public void invalidateRoom(Long roomId, Long hotelId) {
+        invalidateAfterCommit(() -> {
+            entries.remove(roomKey(roomId));
+            entries.remove(hotelRoomsKey(hotelId));
+        });
+        gatewayCacheInvalidator.invalidateAfterCommit(GATEWAY_ROUTE);
+    }
+
+    /**
+     * Invalidează hotelul, lista hotelurilor active și camerele din cache. DTO-urile camerelor conțin
+     * numele și locația hotelului; modificările de hotel sunt rare, deci camerele sunt scoase toate.
+     */
+    public void invalidateHotel(Long hotelId) {
+        invalidateAfterCommit(() -> {
+            synchronized (entries) {
+                entries.keySet().removeIf(key -> key.startsWith(ROOM_PREFIX));
+                entries.remove(hotelKey(hotelId));
+                entries.remove(hotelRoomsKey(hotelId));
+                entries.remove(ACTIVE_HOTELS);
+            }
+        });
+        gatewayCacheInvalidator.invalidateAfterCommit(GATEWAY_ROUTE);
+    }
+
+    /**
+     * Statistici globale și per intrare (dimensiune, lovituri, vârstă)
+     */
+    public String getStats() {
+        long hit = hits.sum();
+        long missed = misses.sum();
+        long total = hit + missed;
+        double hitRate = total == 0 ? 0.0 : (double) hit / total;
+
+        List<String> perEntry = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        long bytes = 0;
+        synchronized (entries) {
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                bytes += entry.json.length;
+                perEntry.add(String.format(Locale.ROOT, "{\"key\":\"%s\",\"bytes\":%d,\"hits\":%d,\"ageMs\":%d}",
+                        e.getKey(), entry.json.length, entry.hits.sum(), now - entry.loadedAt));
+            }
+        }
+
+        StringJoiner entriesJson = new StringJoiner(",", "[", "]");
+        perEntry.forEach(entriesJson::add);
+        return String.format(Locale.ROOT,
+                "{\"hits\":%d,\"misses\":%d,\"hitRate\":%.4f,\"evictions\":%d,\"invalidations\":%d," +
+                        "\"size\":%d,\"bytes\":%d,\"entries\":%s}",
+                hit, missed, hitRate, evictions.sum(), invalidations.sum(), perEntry.size(), bytes, entriesJson);
+    }
+
+    private void invalidateAfterCommit(Runnable invalidation) {
+        Runnable counted = () -> {
+            generation.incrementAndGet();
+            invalidations.increment();
+            invalidation.run();
+        };
+
+        // Invalidăm imediat și încă o dată după commit, ca o citire făcută între timp să nu rămână în cache
+        counted.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counted.run();
+                }
+            });
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] json;
+        private final long loadedAt;
+        private final LongAdder hits = new LongAdder();
+
+        private Entry(byte[] json, long loadedAt) {
+            this.json = json;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.hotelchain.hotelservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Protecția apelurilor RestTemplate către alte servicii, separat pentru fiecare serviciu (host:port):
+ * un bulkhead limitează apelurile simultane, un circuit breaker le oprește cât timp serviciul eșuează,
+ * iar bugetul de timp rămas al cererii este verificat înainte de apel și trimis mai departe.
+ * Apelurile refuzate eșuează imediat cu IOException, deci apelanții ajung direct pe valorile implicite
+ * pe care le folosesc deja când serviciul nu răspunde.
+ */
+@Slf4j
+public class DownstreamGuard implements ClientHttpRequestInterceptor {
+
+    private final int maxConcurrentCalls;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openMs;
+    private final long callTimeoutMs;
+
+    private final Map<String, Dependency> dependencies = new ConcurrentHashMap<>();
+
+    public DownstreamGuard(int maxConcurrentCalls, int windowSize, int minimumCalls, int failureRateThreshold,
+                           long openMs, long callTimeoutMs) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMs = openMs;
+        this.callTimeoutMs = callTimeoutMs;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String name = request.getURI().getAuthority();
+        Dependency dependency = dependencies.computeIfAbsent(name, key -> new Dependency());
+
+        long remainingMs = RequestDeadline.remainingMs();
+        if (remainingMs <= 0) {
+            dependency.budgetExhausted.increment();
+            throw new RejectedCallException(name + ": request timeout budget exhausted");
+        }
+        if (!dependency.bulkhead.tryAcquire()) {
+            dependency.bulkheadRejected.increment();
+            throw new RejectedCallException(name + ": too many concurrent calls");
+        }
+        try {
+            if (!dependency.breaker.tryAcquire()) {
+                dependency.shortCircuited.increment();
+                throw new RejectedCallException(name + ": circuit open");
+            }
+
+            // Serviciul apelat primește doar cât a mai rămas din bugetul cererii, cel mult timeout-ul de citire;
+            // PooledHttpClientFactory folosește aceeași valoare ca timeout de răspuns pentru acest apel
+            request.getHeaders().set(RequestDeadline.HEADER, String.valueOf(Math.min(remainingMs, callTimeoutMs)));
+            dependency.calls.increment();
+            boolean failed = true;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                failed = response.getStatusCode().is5xxServerError();
+                return response;
+            } finally {
+                if (failed) {
+                    dependency.failures.increment();
+                    if (dependency.breaker.onFailure()) {
+                        log.warn("Circuit opened for {}", name);
+                    }
+                } else {
+                    dependency.breaker.onSuccess();
+                }
+            }
+        } finally {
+            dependency.bulkhead.release();
+        }
+    }
+
+    public CircuitBreaker.State getState(String authority) {
+        Dependency dependency = dependencies.get(authority);
+        return dependency != null ? dependency.breaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * Starea circuitului și contoarele pentru fiecare serviciu apelat, ca obiect JSON
+     */
+    public String getStats() {
+        List<String> entries = new ArrayList<>();
+        dependencies.forEach((name, dependency) -> entries.add("\"" + name + "\":" + dependency.toJson()));
+        return "{" + String.join(",", entries) + "}";
+    }
+
+    /**
+     * Apel refuzat local (circuit deschis, bulkhead plin sau buget consumat), fără să ajungă la serviciu
+     */
+    public static class RejectedCallException extends IOException {
+
+        public RejectedCallException(String message) {
+            super(message);
+        }
+    }
+
+    private final class Dependency {
+
+        private final Semaphore bulkhead = new Semaphore(maxConcurrentCalls);
+        private final CircuitBreaker breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openMs);
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder shortCircuited = new LongAdder();
+        private final LongAdder bulkheadRejected = new LongAdder();
+        private final LongAdder budgetExhausted = new LongAdder();
+
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"breaker\":%s,\"inFlight\":%d,\"calls\":%d,\"failures\":%d,\"shortCircuited\":%d," +
+                            "\"bulkheadRejected\":%d,\"budgetExhausted\":%d}",
+                    breaker.toJson(), maxConcurrentCalls - bulkhead.availablePermits(), calls.sum(), failures.sum(),
+                    shortCircuited.sum(), bulkheadRejected.sum(), budgetExhausted.sum());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.hotelchain.hotelservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelchain.hotelservice.entity.OutboxEvent;
+import com.hotelchain.hotelservice.entity.Room;
+import com.hotelchain.hotelservice.event.ChangeEvent;
+import com.hotelchain.hotelservice.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Înregistrează evenimentele de modificare în outbox, în tranzacția apelantului: evenimentul există
+ * dacă și numai dacă modificarea a fost salvată. Publicarea pe broker se face în fundal de {@link OutboxRelay}.
+ */
+@Service
+public class EventOutbox {
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Datele camerei de care au nevoie celelalte servicii la afișarea rezervărilor și review-urilor
+     */
+    public void recordRoomChanged(Room room, String hotelName) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("roomId", room.getId());
+        data.put("hotelId", room.getHotelId());
+        data.put("roomNumber", room.getRoomNumber());
+        data.put("hotelName", hotelName);
+        data.put("active", room.isActive());
+        data.put("available", room.isAvailable());
+        record(ChangeEvent.ROOM_CHANGED, room.getId(), data);
+    }
+
+    private void record(String type, Long aggregateId, Map<String, Object> data) {
+        // Modificarea agregatului se scrie întâi, ca blocarea rândului să preceadă id-ul evenimentului:
+        // două tranzacții pe același agregat primesc astfel id-uri în ordinea commit-urilor
+        entityManager.flush();
+
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " event", e);
+        }
+        outboxRepository.save(event);
+    }
+}
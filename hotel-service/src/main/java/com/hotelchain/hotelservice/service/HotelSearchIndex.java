@@ -0,0 +1,565 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.dto.HotelSuggestionDto;
+import com.hotelchain.hotelservice.entity.Hotel;
+import com.hotelchain.hotelservice.repository.HotelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index în memorie peste numele și locația hotelurilor, pentru căutări de tip "conține" fără
+ * LIKE '%x%' (pe care indexurile MySQL nu îl pot folosi) și pentru autocomplete.
+ * Textul este normalizat (litere mici, fără diacritice); fiecare câmp are liste de trigrame
+ * (filtrare "conține" și potrivire aproximativă) și un dicționar sortat de cuvinte (prefixe scurte).
+ * Citirile folosesc o imagine imutabilă, înlocuită la fiecare scriere; hotelurile sunt puține,
+ * deci reconstruirea imaginii costă mult mai puțin decât o singură căutare în baza de date.
+ * Scrierile locale sunt aplicate după commit, iar reîncărcarea periodică preia scrierile
+ * făcute de alte instanțe.
+ */
+@Component
+@Slf4j
+public class HotelSearchIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    // Similaritatea minimă (Jaccard pe trigrame) pentru potrivirile aproximative
+    private static final double MIN_SIMILARITY = 0.3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    // Toate hotelurile (inclusiv inactive), după id; modificat doar sub maintenance
+    private final Map<Long, IndexedHotel> hotels = new TreeMap<>();
+    // Lock explicit în loc de monitor: încărcarea face I/O pe JDBC și nu trebuie să fixeze firele virtuale
+    private final ReentrantLock maintenance = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+    private volatile long lastRebuildMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        resynchronize();
+    }
+
+    @Scheduled(initialDelayString = "${app.hotel-search.resync-interval-ms:60000}",
+            fixedDelayString = "${app.hotel-search.resync-interval-ms:60000}")
+    public void resynchronize() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Failed to rebuild hotel search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reîncarcă toate hotelurile din baza de date. Scrierile locale așteaptă pe același lock,
+     * deci o scriere confirmată în timpul citirii este aplicată după ce imaginea nouă e publicată.
+     */
+    public Map<String, Object> rebuild() {
+        maintenance.lock();
+        try {
+            long start = System.nanoTime();
+            List<Hotel> all = hotelRepository.findAll();
+
+            hotels.clear();
+            for (Hotel hotel : all) {
+                hotels.put(hotel.getId(), IndexedHotel.of(hotel));
+            }
+            publish();
+
+            lastRebuildMs = (System.nanoTime() - start) / 1_000_000;
+            rebuilds.increment();
+            return Map.of("hotels", all.size(), "durationMs", lastRebuildMs);
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    /**
+     * Aplică o creare / modificare / ștergere (soft) de hotel după commit
+     */
+    public void updateAfterCommit(Hotel hotel) {
+        IndexedHotel entry = IndexedHotel.of(hotel);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(entry);
+                }
+            });
+        } else {
+            put(entry);
+        }
+    }
+
+    /**
+     * Sugestii pentru textul tastat: locații (cu numărul de hoteluri active) și hoteluri active.
+     * Ordinea: potrivire la începutul textului, la începutul unui cuvânt, în interiorul unui cuvânt,
+     * apoi potrivirile aproximative (greșeli de tastare), în ordinea similarității.
+     */
+    public List<HotelSuggestionDto> suggest(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Query must contain letters or digits");
+        }
+        int max = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+
+        long start = System.nanoTime();
+        Snapshot current = current();
+        List<Candidate> candidates = new ArrayList<>();
+
+        for (Map.Entry<Integer, Double> match : match(current.locations, normalized, max).entrySet()) {
+            int position = match.getKey();
+            if (current.activeByLocation[position] > 0) {
+                candidates.add(new Candidate(match.getValue(), 0, current.activeByLocation[position],
+                        current.locationDisplay[position], null, null));
+            }
+        }
+        for (Map.Entry<Integer, Double> match : match(current.names, normalized, max).entrySet()) {
+            IndexedHotel hotel = current.hotels[match.getKey()];
+            if (hotel.active()) {
+                candidates.add(new Candidate(match.getValue(), 1, 0, hotel.name(), hotel.id(), hotel.location()));
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble(Candidate::score).reversed()
+                .thenComparingInt(Candidate::type)
+                .thenComparing(Comparator.comparingInt(Candidate::hotelCount).reversed())
+                .thenComparing(Candidate::value, String.CASE_INSENSITIVE_ORDER));
+
+        List<HotelSuggestionDto> suggestions = new ArrayList<>();
+        for (Candidate candidate : candidates.subList(0, Math.min(max, candidates.size()))) {
+            suggestions.add(candidate.toDto());
+        }
+        recordLookup(start);
+        return suggestions;
+    }
+
+    /**
+     * Id-urile hotelurilor active care conțin textele date în locație / nume și au stelele în interval,
+     * cu aceeași semantică "conține" ca vechiul LIKE, dar fără diferențe de diacritice
+     */
+    public List<Long> findHotelIds(String location, String name, Integer minStars, Integer maxStars) {
+        long start = System.nanoTime();
+        Snapshot current = current();
+
+        int[] positions = null;
+        String normalizedLocation = normalize(location);
+        if (!normalizedLocation.isEmpty()) {
+            positions = current.hotelsAt(current.locations.containing(normalizedLocation));
+        }
+        String normalizedName = normalize(name);
+        if (!normalizedName.isEmpty()) {
+            int[] byName = current.names.containing(normalizedName);
+            positions = positions == null ? byName : intersect(positions, byName);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        int count = positions == null ? current.hotels.length : positions.length;
+        for (int i = 0; i < count; i++) {
+            IndexedHotel hotel = current.hotels[positions == null ? i : positions[i]];
+            if (hotel.active()
+                    && (minStars == null || (hotel.starRating() != null && hotel.starRating() >= minStars))
+                    && (maxStars == null || (hotel.starRating() != null && hotel.starRating() <= maxStars))) {
+                ids.add(hotel.id());
+            }
+        }
+        recordLookup(start);
+        return ids;
+    }
+
+    /**
+     * Id-urile tuturor hotelurilor (inclusiv inactive) a căror locație conține textul dat; folosit de
+     * căutarea de camere, care filtrează după locația hotelului
+     */
+    public List<Long> findHotelIdsByLocation(String location) {
+        long start = System.nanoTime();
+        Snapshot current = current();
+
+        String normalized = normalize(location);
+        List<Long> ids = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            for (IndexedHotel hotel : current.hotels) {
+                ids.add(hotel.id());
+            }
+        } else {
+            for (int position : current.hotelsAt(current.locations.containing(normalized))) {
+                ids.add(current.hotels[position].id());
+            }
+        }
+        recordLookup(start);
+        return ids;
+    }
+
+    public String getStats() {
+        Snapshot current = snapshot;
+        long count = lookups.sum();
+        double avgMicros = count == 0 ? 0.0 : lookupNanos.sum() / 1000.0 / count;
+        int active = 0;
+        if (current != null) {
+            for (IndexedHotel hotel : current.hotels) {
+                active += hotel.active() ? 1 : 0;
+            }
+        }
+        return String.format(Locale.ROOT,
+                "{\"ready\":%b,\"hotels\":%d,\"activeHotels\":%d,\"locations\":%d,\"nameTrigrams\":%d," +
+                        "\"locationTrigrams\":%d,\"rebuilds\":%d,\"lastRebuildMs\":%d,\"updates\":%d," +
+                        "\"lookups\":%d,\"avgLookupMicros\":%.2f}",
+                current != null, current == null ? 0 : current.hotels.length, active,
+                current == null ? 0 : current.locationDisplay.length,
+                current == null ? 0 : current.names.trigrams.size(),
+                current == null ? 0 : current.locations.trigrams.size(),
+                rebuilds.sum(), lastRebuildMs, updates.sum(), count, avgMicros);
+    }
+
+    /**
+     * Litere mici, fără diacritice, orice secvență de caractere care nu sunt litere / cifre devine un spațiu
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(stripped.length());
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            } else if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        int end = normalized.length();
+        return end > 0 && normalized.charAt(end - 1) == ' ' ? normalized.substring(0, end - 1) : normalized.toString();
+    }
+
+    // HELPER METHODS
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    private Snapshot load() {
+        maintenance.lock();
+        try {
+            // Prima citire înainte de încărcarea de la pornire; celelalte fire așteaptă aceeași încărcare
+            if (snapshot == null) {
+                rebuild();
+            }
+            return snapshot;
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    private void put(IndexedHotel hotel) {
+        maintenance.lock();
+        try {
+            if (snapshot == null) {
+                // Încărcarea completă care urmează va citi oricum scrierea confirmată
+                return;
+            }
+            hotels.put(hotel.id(), hotel);
+            publish();
+            updates.increment();
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    private void publish() {
+        snapshot = new Snapshot(hotels.values().toArray(new IndexedHotel[0]));
+    }
+
+    private void recordLookup(long start) {
+        lookups.increment();
+        lookupNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Pozițiile care se potrivesc cu scorul lor: 3 = începutul textului, 2 = începutul unui cuvânt,
+     * 1 = în interiorul textului, sub 1 = similaritatea unei potriviri aproximative
+     */
+    private static Map<Integer, Double> match(TextField field, String query, int wanted) {
+        Map<Integer, Double> matches = new LinkedHashMap<>();
+        // Sub 3 caractere nu există trigrame: doar prefixe de cuvinte, altfel "a" s-ar potrivi cu aproape orice
+        int[] positions = query.length() < 3 ? field.withWordPrefix(query) : field.containing(query);
+        for (int position : positions) {
+            String text = field.texts[position];
+            matches.put(position, text.startsWith(query) ? 3.0 : text.contains(" " + query) ? 2.0 : 1.0);
+        }
+
+        if (query.length() >= 3 && matches.size() < wanted) {
+            field.similar(query).forEach(matches::putIfAbsent);
+        }
+        return matches;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private record IndexedHotel(Long id, String name, String location, Integer starRating, boolean active) {
+        static IndexedHotel of(Hotel hotel) {
+            return new IndexedHotel(hotel.getId(), hotel.getName(), hotel.getLocation(),
+                    hotel.getStarRating(), hotel.isActive());
+        }
+    }
+
+    private record Candidate(double score, int type, int hotelCount, String value, Long hotelId, String location) {
+        HotelSuggestionDto toDto() {
+            HotelSuggestionDto dto = new HotelSuggestionDto();
+            dto.setType(type == 0 ? "LOCATION" : "HOTEL");
+            dto.setValue(value);
+            dto.setHotelId(hotelId);
+            dto.setLocation(location);
+            dto.setHotelCount(type == 0 ? hotelCount : null);
+            return dto;
+        }
+    }
+
+    /**
+     * Imaginea imutabilă a indexului. Numele sunt indexate pe poziția hotelului; locațiile sunt
+     * deduplicate după forma normalizată și trimit la pozițiile hotelurilor lor.
+     */
+    private static final class Snapshot {
+        private final IndexedHotel[] hotels;
+        private final TextField names;
+        private final TextField locations;
+        private final String[] locationDisplay;
+        private final int[][] hotelsByLocation;
+        private final int[] activeByLocation;
+
+        private Snapshot(IndexedHotel[] hotels) {
+            this.hotels = hotels;
+
+            String[] nameTexts = new String[hotels.length];
+            Map<String, List<Integer>> byLocation = new LinkedHashMap<>();
+            for (int i = 0; i < hotels.length; i++) {
+                nameTexts[i] = normalize(hotels[i].name());
+                byLocation.computeIfAbsent(normalize(hotels[i].location()), key -> new ArrayList<>()).add(i);
+            }
+
+            String[] locationTexts = new String[byLocation.size()];
+            locationDisplay = new String[byLocation.size()];
+            hotelsByLocation = new int[byLocation.size()][];
+            activeByLocation = new int[byLocation.size()];
+            int position = 0;
+            for (Map.Entry<String, List<Integer>> entry : byLocation.entrySet()) {
+                locationTexts[position] = entry.getKey();
+                hotelsByLocation[position] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+                for (int hotel : hotelsByLocation[position]) {
+                    if (hotels[hotel].active()) {
+                        if (activeByLocation[position] == 0) {
+                            locationDisplay[position] = hotels[hotel].location();
+                        }
+                        activeByLocation[position]++;
+                    }
+                }
+                if (locationDisplay[position] == null) {
+                    locationDisplay[position] = hotels[hotelsByLocation[position][0]].location();
+                }
+                position++;
+            }
+
+            names = new TextField(nameTexts);
+            locations = new TextField(locationTexts);
+        }
+
+        private int[] hotelsAt(int[] locationPositions) {
+            BitSet positions = new BitSet(hotels.length);
+            for (int location : locationPositions) {
+                for (int hotel : hotelsByLocation[location]) {
+                    positions.set(hotel);
+                }
+            }
+            return positions.stream().toArray();
+        }
+    }
+
+    /**
+     * Un câmp text indexat: trigramele textului încadrat de spații (pozițiile sunt crescătoare în
+     * fiecare listă) și cuvintele sortate, fiecare cu pozițiile în care apare
+     */
+    private static final class TextField {
+        private final String[] texts;
+        private final Map<String, int[]> trigrams;
+        private final int[] trigramCounts;
+        private final String[] words;
+        private final int[][] wordPositions;
+
+        private TextField(String[] texts) {
+            this.texts = texts;
+            this.trigramCounts = new int[texts.length];
+
+            Map<String, List<Integer>> grams = new HashMap<>();
+            TreeMap<String, List<Integer>> dictionary = new TreeMap<>();
+            for (int i = 0; i < texts.length; i++) {
+                Set<String> textGrams = trigrams(" " + texts[i] + " ");
+                trigramCounts[i] = textGrams.size();
+                for (String gram : textGrams) {
+                    grams.computeIfAbsent(gram, key -> new ArrayList<>()).add(i);
+                }
+                for (String word : new HashSet<>(Arrays.asList(texts[i].split(" ")))) {
+                    if (!word.isEmpty()) {
+                        dictionary.computeIfAbsent(word, key -> new ArrayList<>()).add(i);
+                    }
+                }
+            }
+
+            this.trigrams = new HashMap<>(grams.size() * 2);
+            grams.forEach((gram, positions) ->
+                    trigrams.put(gram, positions.stream().mapToInt(Integer::intValue).toArray()));
+
+            this.words = dictionary.keySet().toArray(new String[0]);
+            this.wordPositions = new int[words.length][];
+            int i = 0;
+            for (List<Integer> positions : dictionary.values()) {
+                wordPositions[i++] = positions.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        /**
+         * Pozițiile (crescătoare) ale textelor care conțin interogarea
+         */
+        private int[] containing(String query) {
+            if (query.length() < 3) {
+                int[] result = new int[texts.length];
+                int size = 0;
+                for (int i = 0; i < texts.length; i++) {
+                    if (texts[i].contains(query)) {
+                        result[size++] = i;
+                    }
+                }
+                return Arrays.copyOf(result, size);
+            }
+
+            // Un text care conține interogarea conține toate trigramele ei; intersectăm de la lista cea mai scurtă
+            List<int[]> postings = new ArrayList<>();
+            for (String gram : trigrams(query)) {
+                int[] positions = trigrams.get(gram);
+                if (positions == null) {
+                    return new int[0];
+                }
+                postings.add(positions);
+            }
+            postings.sort(Comparator.comparingInt(positions -> positions.length));
+
+            int[] candidates = postings.get(0);
+            for (int i = 1; i < postings.size() && candidates.length > 0; i++) {
+                candidates = intersect(candidates, postings.get(i));
+            }
+
+            // Trigramele nu garantează ordinea, deci verificăm candidații
+            int size = 0;
+            int[] result = new int[candidates.length];
+            for (int candidate : candidates) {
+                if (texts[candidate].contains(query)) {
+                    result[size++] = candidate;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        /**
+         * Pozițiile (crescătoare) ale textelor care au un cuvânt ce începe cu prefixul dat
+         */
+        private int[] withWordPrefix(String prefix) {
+            int index = Arrays.binarySearch(words, prefix);
+            int first = index >= 0 ? index : -index - 1;
+
+            BitSet positions = new BitSet(texts.length);
+            for (int i = first; i < words.length && words[i].startsWith(prefix); i++) {
+                for (int position : wordPositions[i]) {
+                    positions.set(position);
+                }
+            }
+            return positions.stream().toArray();
+        }
+
+        /**
+         * Textele cu similaritate Jaccard pe trigrame de cel puțin MIN_SIMILARITY față de interogare
+         */
+        private Map<Integer, Double> similar(String query) {
+            Set<String> queryGrams = trigrams(" " + query + " ");
+            int[] shared = new int[texts.length];
+            for (String gram : queryGrams) {
+                int[] positions = trigrams.get(gram);
+                if (positions != null) {
+                    for (int position : positions) {
+                        shared[position]++;
+                    }
+                }
+            }
+
+            List<Map.Entry<Integer, Double>> similar = new ArrayList<>();
+            for (int i = 0; i < texts.length; i++) {
+                if (shared[i] > 0) {
+                    double similarity = (double) shared[i] / (queryGrams.size() + trigramCounts[i] - shared[i]);
+                    if (similarity >= MIN_SIMILARITY) {
+                        similar.add(Map.entry(i, similarity));
+                    }
+                }
+            }
+            similar.sort(Map.Entry.<Integer, Double>comparingByValue().reversed());
+
+            Map<Integer, Double> result = new LinkedHashMap<>();
+            similar.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+            return result;
+        }
+    }
+}
@@ -2,22 +2,58 @@ package com.hotelchain.hotelservice.service;
 
 import com.hotelchain.hotelservice.dto.*;
 import com.hotelchain.hotelservice.entity.Hotel;
+import com.hotelchain.hotelservice.entity.Room;
 import com.hotelchain.hotelservice.repository.HotelRepository;
+import com.hotelchain.hotelservice.repository.RoomRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class HotelService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_SUGGESTIONS = 10;
+
     @Autowired
     private HotelRepository hotelRepository;
 
+    @Autowired
+    private RoomRepository roomRepository;
+
     @Autowired
     private JwtValidationService jwtValidationService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private HotelSearchIndex hotelSearchIndex;
+
+    @Autowired
+    private RoomSearchEngine roomSearchEngine;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     // PUBLIC METHODS - fără autentificare
 
     /**
@@ -30,6 +66,13 @@ public class HotelService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Hotelurile active ca JSON, servite din cache
+     */
+    public byte[] getAllActiveHotelsJson() {
+        return catalogCache.get(CatalogCache.ACTIVE_HOTELS, () -> toJson(getAllActiveHotels()));
+    }
+
     /**
      * Obține un hotel după ID
      */
@@ -39,26 +82,47 @@ public class HotelService {
         return convertToDto(hotel);
     }
 
+    /**
+     * Hotelul ca JSON, servit din cache
+     */
+    public byte[] getHotelByIdJson(Long id) {
+        return catalogCache.get(CatalogCache.hotelKey(id), () -> toJson(getHotelById(id)));
+    }
+
     /**
      * Caută hoteluri după locație
      */
     public List<HotelDto> searchHotelsByLocation(String location) {
-        List<Hotel> hotels = hotelRepository.findByLocationContainingIgnoreCaseAndActiveTrue(location);
-        return hotels.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return searchHotels(location, null, null, null);
     }
 
     /**
-     * Caută hoteluri cu criterii multiple
+     * Caută hoteluri cu criterii multiple. Potrivirea se face în indexul din memorie; din baza de date
+     * se citesc doar hotelurile găsite, după cheia primară.
      */
     public List<HotelDto> searchHotels(String location, String name, Integer minStars, Integer maxStars) {
-        List<Hotel> hotels = hotelRepository.findHotelsWithCriteria(location, name, minStars, maxStars);
-        return hotels.stream()
+        List<Long> ids = hotelSearchIndex.findHotelIds(location, name, minStars, maxStars);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return hotelRepository.findAllById(ids).stream()
+                .filter(Hotel::isActive)
+                .sorted(Comparator.comparing(Hotel::getId))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Sugestii de locații și hoteluri pentru textul tastat, direct din indexul din memorie
+     */
+    public List<HotelSuggestionDto> autocomplete(String query, Integer limit) {
+        return hotelSearchIndex.suggest(query, limit != null ? limit : DEFAULT_SUGGESTIONS);
+    }
+
+    public String getSearchIndexStats() {
+        return hotelSearchIndex.getStats();
+    }
+
     // MANAGER METHODS - cu autentificare
 
     /**
@@ -76,18 +140,23 @@ public class HotelService {
         hotel.setActive(true);
 
         hotel = hotelRepository.save(hotel);
+        catalogCache.invalidateHotel(hotel.getId());
+        hotelSearchIndex.updateAfterCommit(hotel);
+        roomSearchEngine.updateHotelAfterCommit(hotel);
         return convertToDto(hotel);
     }
 
     /**
      * Actualizează un hotel
      */
+    @Transactional
     public HotelDto updateHotel(Long id, UpdateHotelRequest request, String token) {
         jwtValidationService.validateManagerRole(token);
 
         Hotel hotel = hotelRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Hotel not found"));
 
+        boolean renamed = request.getName() != null && !request.getName().equals(hotel.getName());
         if (request.getName() != null) {
             hotel.setName(request.getName());
         }
@@ -108,6 +177,15 @@ public class HotelService {
         }
 
         hotel = hotelRepository.save(hotel);
+        if (renamed) {
+            // Numele hotelului face parte din datele camerei copiate de celelalte servicii
+            for (Room room : roomRepository.findByHotelId(id)) {
+                eventOutbox.recordRoomChanged(room, hotel.getName());
+            }
+        }
+        catalogCache.invalidateHotel(id);
+        hotelSearchIndex.updateAfterCommit(hotel);
+        roomSearchEngine.updateHotelAfterCommit(hotel);
         return convertToDto(hotel);
     }
 
@@ -122,6 +200,9 @@ public class HotelService {
 
         hotel.setActive(false);
         hotelRepository.save(hotel);
+        catalogCache.invalidateHotel(id);
+        hotelSearchIndex.updateAfterCommit(hotel);
+        roomSearchEngine.updateHotelAfterCommit(hotel);
     }
 
     /**
@@ -136,8 +217,65 @@ public class HotelService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obține o pagină cu hotelurile (inclusiv inactive) pentru manageri, paginată keyset crescător după id
+     */
+    public CursorPage<HotelDto> getHotelsPage(String cursor, Integer size, String token) {
+        jwtValidationService.validateManagerRole(token);
+        return getHotelsPage(KeysetCursor.decode(cursor), pageSize(size));
+    }
+
+    /**
+     * Transmite toate hotelurile ca NDJSON, pagină cu pagină, cu memorie constantă
+     */
+    public StreamingResponseBody streamHotels(String token) {
+        jwtValidationService.validateManagerRole(token);
+
+        return output -> {
+            KeysetCursor cursor = KeysetCursor.FIRST;
+            while (cursor != null) {
+                CursorPage<HotelDto> page = getHotelsPage(cursor, MAX_PAGE_SIZE);
+                for (HotelDto dto : page.getItems()) {
+                    output.write(objectMapper.writeValueAsBytes(dto));
+                    output.write('\n');
+                }
+                output.flush();
+                // Entitățile paginii anterioare nu mai sunt necesare
+                entityManager.clear();
+                cursor = page.getNextCursor() != null ? KeysetCursor.decode(page.getNextCursor()) : null;
+            }
+        };
+    }
+
     // HELPER METHODS
 
+    private CursorPage<HotelDto> getHotelsPage(KeysetCursor cursor, int size) {
+        List<Hotel> rows = hotelRepository.findByIdGreaterThanOrderByIdAsc(cursor.id(), PageRequest.of(0, size));
+
+        String nextCursor = null;
+        if (rows.size() == size) {
+            nextCursor = new KeysetCursor(rows.get(rows.size() - 1).getId()).encode();
+        }
+        return new CursorPage<>(rows.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog entry", e);
+        }
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
     private HotelDto convertToDto(Hotel hotel) {
         HotelDto dto = new HotelDto();
         dto.setId(hotel.getId());
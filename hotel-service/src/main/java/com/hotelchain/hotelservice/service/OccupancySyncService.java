@@ -0,0 +1,125 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.dto.RoomOccupancyDto;
+import com.hotelchain.hotelservice.event.ChangeEvent;
+import com.hotelchain.hotelservice.event.EventBroker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sincronizează indexul de ocupare cu reservation-service.
+ * Schimbările individuale vin ca evenimente ReservationStatusChanged din outbox-ul reservation-service;
+ * aici se face și încărcarea inițială și reconcilierea periodică.
+ */
+@Service
+@Slf4j
+public class OccupancySyncService {
+
+    // Câte camere se verifică într-un apel de disponibilitate, ca URL-ul să rămână scurt
+    private static final int AVAILABILITY_BATCH_SIZE = 200;
+
+    // Răspunsurile din cache-ul gateway-ului care depind de ocuparea camerelor
+    private static final String[] AVAILABILITY_ROUTES = {"/api/hotels/rooms/search", "/api/hotels/rooms/available"};
+
+    @Autowired
+    private RoomOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private EventBroker eventBroker;
+
+    @Autowired
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Value("${spring.application.name:hotel-service}")
+    private String consumer;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${app.services.reservation:http://localhost:8083}")
+    private String reservationServiceUrl;
+
+    @Scheduled(initialDelayString = "${app.occupancy.initial-delay-ms:5000}",
+            fixedDelayString = "${app.occupancy.resync-interval-ms:300000}")
+    public void resynchronize() {
+        // Evenimentele sosite cât timp se descarcă imaginea sunt reaplicate peste ea
+        occupancyIndex.beginResync();
+        try {
+            String url = reservationServiceUrl + "/api/reservations/occupancy";
+            ResponseEntity<RoomOccupancyDto[]> response = restTemplate.getForEntity(url, RoomOccupancyDto[].class);
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                occupancyIndex.replaceAll(Arrays.asList(response.getBody()));
+                log.debug("Occupancy index synchronized with {} reservations", response.getBody().length);
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to synchronize occupancy index: {}", e.getMessage());
+        }
+        occupancyIndex.abortResync();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        eventBroker.subscribe(ChangeEvent.RESERVATION_STATUS_CHANGED, consumer, this::onReservationStatusChanged);
+    }
+
+    /**
+     * Evenimentul conține starea completă a rezervării, deci reaplicarea unui eveniment repetat nu schimbă indexul
+     */
+    void onReservationStatusChanged(ChangeEvent event) {
+        RoomOccupancyDto occupancy = new RoomOccupancyDto();
+        occupancy.setReservationId(event.aggregateId());
+        occupancy.setRoomId(event.getLong("roomId"));
+        occupancy.setStatus(event.getString("status"));
+        occupancy.setCheckInDate(LocalDate.parse(event.getString("checkInDate")));
+        occupancy.setCheckOutDate(LocalDate.parse(event.getString("checkOutDate")));
+        occupancyIndex.apply(occupancy);
+        gatewayCacheInvalidator.invalidateAfterCommit(AVAILABILITY_ROUTES);
+    }
+
+    /**
+     * Camerele libere în toate nopțile [checkIn, checkOut), verificate direct pe inventarul din
+     * reservation-service; folosit cât timp indexul nu a fost încă sincronizat
+     */
+    public Set<Long> findFreeRooms(Collection<Long> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        Set<Long> free = new HashSet<>();
+        List<Long> ids = new ArrayList<>(roomIds);
+        for (int from = 0; from < ids.size(); from += AVAILABILITY_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + AVAILABILITY_BATCH_SIZE, ids.size()));
+            String url = UriComponentsBuilder.fromUriString(reservationServiceUrl + "/api/reservations/availability")
+                    .queryParam("roomIds", batch.toArray())
+                    .queryParam("checkIn", checkIn)
+                    .queryParam("checkOut", checkOut)
+                    .toUriString();
+            try {
+                ResponseEntity<Long[]> response = restTemplate.getForEntity(url, Long[].class);
+                if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                    throw new IllegalStateException("Unexpected response " + response.getStatusCode());
+                }
+                free.addAll(Arrays.asList(response.getBody()));
+            } catch (Exception e) {
+                // Fără index și fără inventar nu se poate garanta că o cameră este liberă
+                log.warn("Failed to check room availability: {}", e.getMessage());
+                throw new IllegalStateException("Room availability is temporarily unavailable", e);
+            }
+        }
+        return free;
+    }
+}
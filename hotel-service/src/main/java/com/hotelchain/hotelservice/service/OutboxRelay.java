@@ -0,0 +1,129 @@
+package com.hotelchain.hotelservice.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelchain.hotelservice.entity.OutboxEvent;
+import com.hotelchain.hotelservice.event.ChangeEvent;
+import com.hotelchain.hotelservice.event.EventBroker;
+import com.hotelchain.hotelservice.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publică pe broker evenimentele din outbox, în ordinea înregistrării. La primul eșec lotul se oprește,
+ * ca evenimentele aceluiași agregat să nu ajungă în altă ordine; restul sunt reîncercate la următoarea rulare.
+ * Un eveniment poate fi publicat de două ori (brokerul a primit, dar commit-ul a eșuat) - consumatorii
+ * îl recunosc după secvență.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private EventBroker eventBroker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.application.name:hotel-service}")
+    private String source;
+
+    @Value("${app.events.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.events.retention-ms:86400000}")
+    private long retentionMs;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @Scheduled(initialDelayString = "${app.events.initial-delay-ms:5000}",
+            fixedDelayString = "${app.events.relay-interval-ms:500}")
+    public void relayPending() {
+        try {
+            // Lot după lot, până când outbox-ul este gol sau publicarea eșuează
+            while (relayBatch() == batchSize) {
+                log.debug("Event outbox batch full, relaying next batch");
+            }
+        } catch (Exception e) {
+            log.warn("Failed to relay outbox events: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Șterge evenimentele publicate mai vechi decât perioada de retenție
+     */
+    @Scheduled(initialDelayString = "${app.events.purge-interval-ms:3600000}",
+            fixedDelayString = "${app.events.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        Integer deleted = new TransactionTemplate(transactionManager).execute(status ->
+                outboxRepository.deletePublishedBefore(LocalDateTime.now().minusNanos(retentionMs * 1_000_000)));
+        if (deleted != null && deleted > 0) {
+            log.debug("Purged {} published outbox events", deleted);
+        }
+    }
+
+    /**
+     * Adâncimea outbox-ului și contoarele publicării, ca obiect JSON
+     */
+    public String getStats() {
+        return String.format(Locale.ROOT, "{\"pending\":%d,\"published\":%d,\"failed\":%d}",
+                outboxRepository.countByPublishedAtIsNull(), published.sum(), failed.sum());
+    }
+
+    int relayBatch() {
+        Integer relayed = new TransactionTemplate(transactionManager).execute(status -> {
+            List<OutboxEvent> pending = outboxRepository.findUnpublished(PageRequest.of(0, batchSize));
+            int count = 0;
+            for (OutboxEvent event : pending) {
+                try {
+                    eventBroker.publish(toChangeEvent(event));
+                } catch (Exception e) {
+                    event.setAttempts(event.getAttempts() + 1);
+                    String error = e.getMessage();
+                    event.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+                    failed.increment();
+                    log.warn("Publishing {} event {} failed (attempt {}): {}",
+                            event.getEventType(), event.getId(), event.getAttempts(), error);
+                    break;
+                }
+                event.setAttempts(event.getAttempts() + 1);
+                event.setPublishedAt(LocalDateTime.now());
+                event.setLastError(null);
+                published.increment();
+                count++;
+            }
+            outboxRepository.saveAll(pending);
+            return count;
+        });
+        return relayed != null ? relayed : 0;
+    }
+
+    private ChangeEvent toChangeEvent(OutboxEvent event) throws Exception {
+        return new ChangeEvent(source, event.getId(), event.getEventType(), event.getAggregateId(),
+                objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE),
+                event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}
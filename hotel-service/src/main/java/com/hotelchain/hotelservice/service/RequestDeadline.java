@@ -0,0 +1,94 @@
+package com.hotelchain.hotelservice.service;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bugetul de timp al cererii curente, primit de la apelant (gateway sau alt serviciu) în header-ul
+ * X-Request-Timeout-Ms, ca milisecunde rămase. Apelurile către alte servicii făcute pentru cerere
+ * trimit mai departe doar timpul rămas, iar o cerere sosită cu bugetul consumat este refuzată imediat.
+ */
+@Component
+public class RequestDeadline extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    // Termenul absolut (System.nanoTime()) al cererii servite pe firul curent
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long budgetMs = parse(request.getHeader(HEADER));
+        if (budgetMs == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (budgetMs <= 0) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Request timeout budget exhausted");
+            return;
+        }
+        Long previous = DEADLINE.get();
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Termenul cererii de pe firul curent (System.nanoTime()), sau null dacă apelantul nu a trimis buget
+     */
+    public static Long current() {
+        return DEADLINE.get();
+    }
+
+    /**
+     * Milisecundele rămase din bugetul cererii curente; Long.MAX_VALUE dacă nu există buget
+     */
+    public static long remainingMs() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    /**
+     * Rulează sarcina cu termenul dat, de exemplu pe un worker care lucrează pentru o cerere
+     */
+    public static <T> T callWithin(Long deadline, Supplier<T> task) {
+        Long previous = DEADLINE.get();
+        DEADLINE.set(deadline);
+        try {
+            return task.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(Long previous) {
+        if (previous != null) {
+            DEADLINE.set(previous);
+        } else {
+            DEADLINE.remove();
+        }
+    }
+
+    private static Long parse(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.dto.RoomOccupancyDto;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index în memorie al nopților ocupate pentru fiecare cameră.
+ * Fiecare cameră are un bitmap cu o poziție pe noapte, construit din rezervările
+ * primite de la reservation-service, astfel încât o căutare după date nu mai
+ * necesită apeluri HTTP sau SQL per cameră.
+ */
+@Component
+public class RoomOccupancyIndex {
+
+    // Prima noapte reprezentată în bitmap-uri; nopțile anterioare nu mai contează pentru căutări
+    private final long baseEpochDay = LocalDate.now().minusDays(1).toEpochDay();
+
+    // Imaginea curentă; o resincronizare construiește una nouă separat și o înlocuiește dintr-o singură atribuire
+    private volatile Snapshot snapshot = new Snapshot();
+
+    private volatile boolean synchronizedOnce = false;
+
+    // Schimbările aplicate cât timp o resincronizare își descarcă imaginea; null când nu rulează niciuna
+    private List<RoomOccupancyDto> appliedDuringResync;
+
+    /**
+     * Aplică o schimbare de rezervare (creare, schimbare status, anulare)
+     */
+    public synchronized void apply(RoomOccupancyDto event) {
+        snapshot.apply(event);
+        if (appliedDuringResync != null) {
+            appliedDuringResync.add(event);
+        }
+    }
+
+    /**
+     * Începe o resincronizare: schimbările aplicate de acum până la {@link #replaceAll} sunt reținute
+     * și reaplicate peste imaginea nouă, care poate fi mai veche decât ele
+     */
+    public synchronized void beginResync() {
+        appliedDuringResync = new ArrayList<>();
+    }
+
+    /**
+     * Renunță la resincronizarea începută; indexul curent rămâne neatins
+     */
+    public synchronized void abortResync() {
+        appliedDuringResync = null;
+    }
+
+    /**
+     * Înlocuiește tot conținutul indexului cu o imagine completă a rezervărilor, peste care se reaplică
+     * schimbările primite de la {@link #beginResync}. Căutările concurente văd fie imaginea veche,
+     * fie pe cea nouă, niciodată un index parțial reconstruit.
+     */
+    public void replaceAll(Collection<RoomOccupancyDto> occupancies) {
+        Snapshot rebuilt = new Snapshot();
+        occupancies.forEach(rebuilt::apply);
+        synchronized (this) {
+            if (appliedDuringResync != null) {
+                appliedDuringResync.forEach(rebuilt::apply);
+                appliedDuringResync = null;
+            }
+            snapshot = rebuilt;
+        }
+        synchronizedOnce = true;
+    }
+
+    /**
+     * Verifică dacă o cameră este liberă pentru toate nopțile din [checkIn, checkOut)
+     */
+    public boolean isFree(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = snapshot.calendars.get(roomId);
+        if (calendar == null) {
+            return true;
+        }
+        return calendar.isFree(checkIn.toEpochDay() - baseEpochDay, checkOut.toEpochDay() - baseEpochDay);
+    }
+
+    /**
+     * Adevărat după prima încărcare completă; până atunci indexul nu cunoaște rezervările existente
+     */
+    public boolean isSynchronized() {
+        return synchronizedOnce;
+    }
+
+    public int getTrackedReservations() {
+        return snapshot.roomByReservation.size();
+    }
+
+    private boolean occupiesRoom(RoomOccupancyDto event) {
+        return event.getCheckInDate() != null
+                && event.getCheckOutDate() != null
+                && event.getCheckOutDate().isAfter(event.getCheckInDate())
+                && !"CANCELLED".equalsIgnoreCase(event.getStatus());
+    }
+
+    /**
+     * Calendarele camerelor și camera fiecărei rezervări urmărite
+     */
+    private class Snapshot {
+        private final Map<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+        private final Map<Long, Long> roomByReservation = new ConcurrentHashMap<>();
+
+        void apply(RoomOccupancyDto event) {
+            if (event.getReservationId() == null || event.getRoomId() == null) {
+                return;
+            }
+
+            Long previousRoom = roomByReservation.get(event.getReservationId());
+            if (previousRoom != null && !previousRoom.equals(event.getRoomId())) {
+                calendarFor(previousRoom).remove(event.getReservationId());
+            }
+
+            if (occupiesRoom(event)) {
+                roomByReservation.put(event.getReservationId(), event.getRoomId());
+                calendarFor(event.getRoomId()).put(event.getReservationId(),
+                        event.getCheckInDate().toEpochDay() - baseEpochDay,
+                        event.getCheckOutDate().toEpochDay() - baseEpochDay);
+            } else {
+                roomByReservation.remove(event.getReservationId());
+                RoomCalendar calendar = calendars.get(event.getRoomId());
+                if (calendar != null) {
+                    calendar.remove(event.getReservationId());
+                }
+            }
+        }
+
+        private RoomCalendar calendarFor(Long roomId) {
+            return calendars.computeIfAbsent(roomId, id -> new RoomCalendar());
+        }
+    }
+
+    /**
+     * Calendarul unei camere: intervalele rezervărilor și bitmap-ul nopților ocupate
+     */
+    private static class RoomCalendar {
+        private final Map<Long, long[]> stays = new HashMap<>();
+        private final BitSet nights = new BitSet();
+
+        synchronized void put(Long reservationId, long fromNight, long toNight) {
+            long[] previous = stays.put(reservationId, new long[]{fromNight, toNight});
+            if (previous != null) {
+                rebuild();
+            } else {
+                mark(fromNight, toNight);
+            }
+        }
+
+        synchronized void remove(Long reservationId) {
+            if (stays.remove(reservationId) != null) {
+                rebuild();
+            }
+        }
+
+        synchronized boolean isFree(long fromNight, long toNight) {
+            int from = (int) Math.max(fromNight, 0);
+            int to = (int) Math.max(toNight, 0);
+            if (from >= to) {
+                return true;
+            }
+            int firstOccupied = nights.nextSetBit(from);
+            return firstOccupied == -1 || firstOccupied >= to;
+        }
+
+        private void rebuild() {
+            nights.clear();
+            stays.values().forEach(stay -> mark(stay[0], stay[1]));
+        }
+
+        private void mark(long fromNight, long toNight) {
+            int from = (int) Math.max(fromNight, 0);
+            int to = (int) Math.max(toNight, 0);
+            if (from < to) {
+                nights.set(from, to);
+            }
+        }
+    }
+}
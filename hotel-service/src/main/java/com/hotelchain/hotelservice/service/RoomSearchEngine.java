@@ -0,0 +1,539 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.entity.Hotel;
+import com.hotelchain.hotelservice.entity.Room;
+import com.hotelchain.hotelservice.entity.RoomFacility;
+import com.hotelchain.hotelservice.entity.RoomPosition;
+import com.hotelchain.hotelservice.entity.RoomType;
+import com.hotelchain.hotelservice.repository.HotelRepository;
+import com.hotelchain.hotelservice.repository.RoomFacilityRepository;
+import com.hotelchain.hotelservice.repository.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Motor de căutare fațetată în memorie peste camerele active, organizat pe coloane:
+ * fiecare atribut (preț în bani, număr de oaspeți, tip, poziție, hotel) are un vector primitiv
+ * indexat după slot, iar tipurile, pozițiile, facilitățile, hotelurile și disponibilitatea au câte
+ * un bitmap de sloturi. O combinație de filtre devine o intersecție de bitmap-uri plus o scanare
+ * a coloanelor de preț / oaspeți doar pe sloturile rămase; numărătorile pe fațete se fac pe rezultat.
+ * Încărcarea completă are loc la pornire și periodic (scrierile altor instanțe); scrierile locale
+ * sunt aplicate după commit. Sloturile camerelor dezactivate rămân goale până la următoarea încărcare.
+ */
+@Component
+@Slf4j
+public class RoomSearchEngine {
+
+    private static final RoomType[] TYPES = RoomType.values();
+    private static final RoomPosition[] POSITIONS = RoomPosition.values();
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomFacilityRepository facilityRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializează încărcările complete și scrierile locale, ca o scriere să nu fie pierdută de o încărcare
+    private final ReentrantLock maintenance = new ReentrantLock();
+
+    private Columns columns;
+    private volatile boolean ready;
+
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private volatile long lastRebuildMs;
+
+    /**
+     * Filtrele unei căutări; null înseamnă "oricare". hotelIds vine din HotelSearchIndex (locația),
+     * iar extraFilter primește id-ul camerei (ex. disponibilitatea pe perioadă din indexul de ocupare).
+     */
+    public record Query(Collection<Long> hotelIds, Boolean available, BigDecimal minPrice, BigDecimal maxPrice,
+                        RoomPosition position, RoomType roomType, Integer minGuests, Collection<String> facilities,
+                        LongPredicate extraFilter) {
+    }
+
+    /**
+     * Id-urile camerelor găsite, în ordinea cerută, și numărătorile pe fațete (null dacă nu au fost cerute)
+     */
+    public record Result(List<Long> roomIds, Facets facets) {
+    }
+
+    public record Facets(Map<String, Integer> roomTypes, Map<String, Integer> positions,
+                         Map<String, Integer> facilities, Map<Long, Integer> hotels,
+                         BigDecimal minPrice, BigDecimal maxPrice) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        resynchronize();
+    }
+
+    @Scheduled(initialDelayString = "${app.room-search.resync-interval-ms:60000}",
+            fixedDelayString = "${app.room-search.resync-interval-ms:60000}")
+    public void resynchronize() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Failed to rebuild room search engine: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reîncarcă toate camerele active, hotelurile și facilitățile și înlocuiește coloanele
+     */
+    public Map<String, Object> rebuild() {
+        maintenance.lock();
+        try {
+            long start = System.nanoTime();
+
+            Map<Long, String> locations = new HashMap<>();
+            for (Hotel hotel : hotelRepository.findAll()) {
+                locations.put(hotel.getId(), hotel.getLocation());
+            }
+            Map<Long, Set<String>> facilitiesByRoom = new HashMap<>();
+            for (RoomFacility facility : facilityRepository.findAll()) {
+                facilitiesByRoom.computeIfAbsent(facility.getRoomId(), id -> new HashSet<>()).add(facility.getFacility());
+            }
+            List<Room> rooms = new ArrayList<>(roomRepository.findByActiveTrue());
+            rooms.sort(Comparator.comparing(Room::getId));
+
+            Columns fresh = new Columns(rooms.size(), locations);
+            for (Room room : rooms) {
+                // Ca JOIN-ul vechi: camerele fără hotel nu apar în căutări
+                if (locations.containsKey(room.getHotelId())) {
+                    fresh.put(IndexedRoom.of(room, facilitiesByRoom.getOrDefault(room.getId(), Set.of())));
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                columns = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+
+            lastRebuildMs = (System.nanoTime() - start) / 1_000_000;
+            rebuilds.increment();
+            return Map.of("rooms", fresh.live.cardinality(), "durationMs", lastRebuildMs);
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    /**
+     * Aplică o scriere de cameră după commit. facilities = null păstrează facilitățile deja indexate.
+     */
+    public void updateAfterCommit(Room room, Collection<String> facilities) {
+        IndexedRoom entry = IndexedRoom.of(room, facilities == null ? null : new HashSet<>(facilities));
+        afterCommit(() -> apply(columns -> columns.put(entry)));
+    }
+
+    /**
+     * Locația hotelului contează doar pentru sortare; o actualizăm după commit
+     */
+    public void updateHotelAfterCommit(Hotel hotel) {
+        Long hotelId = hotel.getId();
+        String location = hotel.getLocation();
+        afterCommit(() -> apply(columns -> columns.hotelLocations.put(hotelId, location)));
+    }
+
+    public Result search(Query query, String sortBy, String sortDirection, boolean withFacets) {
+        if (!ready) {
+            maintenance.lock();
+            try {
+                if (!ready) {
+                    // Prima căutare înainte de încărcarea de la pornire
+                    rebuild();
+                }
+            } finally {
+                maintenance.unlock();
+            }
+        }
+
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            BitSet matches = columns.filter(query);
+            List<Long> roomIds = columns.sorted(matches, sortBy, sortDirection);
+            Facets facets = withFacets ? columns.facets(matches) : null;
+            return new Result(roomIds, facets);
+        } finally {
+            lock.readLock().unlock();
+            searches.increment();
+            searchNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public String getStats() {
+        int live = 0;
+        int slots = 0;
+        int facilities = 0;
+        int hotels = 0;
+        lock.readLock().lock();
+        try {
+            if (columns != null) {
+                live = columns.live.cardinality();
+                slots = columns.size;
+                facilities = columns.facilityNames.size();
+                hotels = columns.byHotel.size();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        long count = searches.sum();
+        double avgMicros = count == 0 ? 0.0 : searchNanos.sum() / 1000.0 / count;
+        return String.format(Locale.ROOT,
+                "{\"ready\":%b,\"rooms\":%d,\"slots\":%d,\"facilities\":%d,\"hotels\":%d,\"rebuilds\":%d," +
+                        "\"lastRebuildMs\":%d,\"updates\":%d,\"searches\":%d,\"avgSearchMicros\":%.2f}",
+                ready, live, slots, facilities, hotels, rebuilds.sum(), lastRebuildMs, updates.sum(), count, avgMicros);
+    }
+
+    // HELPER METHODS
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void apply(Consumer<Columns> change) {
+        maintenance.lock();
+        try {
+            if (!ready) {
+                // Încărcarea completă care urmează va citi oricum scrierea confirmată
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                change.accept(columns);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            updates.increment();
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        return price.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+
+    private record IndexedRoom(Long id, Long hotelId, String roomNumber, long priceCents, Integer maxGuests,
+                               RoomType roomType, RoomPosition position, boolean available, boolean active,
+                               Set<String> facilities) {
+        static IndexedRoom of(Room room, Set<String> facilities) {
+            return new IndexedRoom(room.getId(), room.getHotelId(), room.getRoomNumber(),
+                    toCents(room.getPricePerNight(), RoundingMode.HALF_UP), room.getMaxGuests(),
+                    room.getRoomType(), room.getPosition(), room.isAvailable(), room.isActive(), facilities);
+        }
+    }
+
+    /**
+     * Coloanele și bitmap-urile, modificate doar sub lock-ul de scriere
+     */
+    private static final class Columns {
+        private static final int NO_GUESTS = Integer.MIN_VALUE;
+        private static final byte NONE = -1;
+
+        private int size;
+        private long[] roomIds;
+        private long[] hotelIds;
+        private long[] priceCents;
+        private int[] maxGuests;
+        private byte[] roomTypes;
+        private byte[] positions;
+        private String[] roomNumbers;
+
+        private final Map<Long, Integer> slotByRoom = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final BitSet available = new BitSet();
+        private final BitSet[] byType = new BitSet[TYPES.length];
+        private final BitSet[] byPosition = new BitSet[POSITIONS.length];
+        private final Map<String, Integer> facilityIndex = new HashMap<>();
+        private final List<String> facilityNames = new ArrayList<>();
+        private final List<BitSet> byFacility = new ArrayList<>();
+        private final Map<Long, BitSet> byHotel = new HashMap<>();
+        private final Map<Long, String> hotelLocations;
+
+        private Columns(int capacity, Map<Long, String> hotelLocations) {
+            int initial = Math.max(16, capacity);
+            roomIds = new long[initial];
+            hotelIds = new long[initial];
+            priceCents = new long[initial];
+            maxGuests = new int[initial];
+            roomTypes = new byte[initial];
+            positions = new byte[initial];
+            roomNumbers = new String[initial];
+            for (int i = 0; i < byType.length; i++) {
+                byType[i] = new BitSet();
+            }
+            for (int i = 0; i < byPosition.length; i++) {
+                byPosition[i] = new BitSet();
+            }
+            this.hotelLocations = hotelLocations;
+        }
+
+        private void put(IndexedRoom room) {
+            Integer existing = slotByRoom.get(room.id());
+            if (existing == null && !room.active()) {
+                return;
+            }
+            int slot = existing != null ? existing : append(room.id());
+
+            // Scoatem slotul din bitmap-urile valorilor vechi; facilitățile doar dacă sunt înlocuite
+            live.clear(slot);
+            available.clear(slot);
+            clear(byType, roomTypes[slot], slot);
+            clear(byPosition, positions[slot], slot);
+            BitSet previousHotel = byHotel.get(hotelIds[slot]);
+            if (previousHotel != null) {
+                previousHotel.clear(slot);
+            }
+            if (room.facilities() != null) {
+                byFacility.forEach(rooms -> rooms.clear(slot));
+            }
+            if (!room.active()) {
+                return;
+            }
+
+            hotelIds[slot] = room.hotelId();
+            priceCents[slot] = room.priceCents();
+            maxGuests[slot] = room.maxGuests() != null ? room.maxGuests() : NO_GUESTS;
+            roomTypes[slot] = room.roomType() != null ? (byte) room.roomType().ordinal() : NONE;
+            positions[slot] = room.position() != null ? (byte) room.position().ordinal() : NONE;
+            roomNumbers[slot] = room.roomNumber();
+
+            live.set(slot);
+            if (room.available()) {
+                available.set(slot);
+            }
+            set(byType, roomTypes[slot], slot);
+            set(byPosition, positions[slot], slot);
+            byHotel.computeIfAbsent(room.hotelId(), id -> new BitSet()).set(slot);
+            if (room.facilities() != null) {
+                for (String facility : room.facilities()) {
+                    facilityBits(facility).set(slot);
+                }
+            }
+        }
+
+        private int append(Long roomId) {
+            if (size == roomIds.length) {
+                int capacity = size * 2;
+                roomIds = Arrays.copyOf(roomIds, capacity);
+                hotelIds = Arrays.copyOf(hotelIds, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                maxGuests = Arrays.copyOf(maxGuests, capacity);
+                roomTypes = Arrays.copyOf(roomTypes, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+                roomNumbers = Arrays.copyOf(roomNumbers, capacity);
+            }
+            int slot = size++;
+            roomIds[slot] = roomId;
+            roomTypes[slot] = NONE;
+            positions[slot] = NONE;
+            slotByRoom.put(roomId, slot);
+            return slot;
+        }
+
+        private BitSet facilityBits(String facility) {
+            Integer index = facilityIndex.get(facility);
+            if (index == null) {
+                index = facilityNames.size();
+                facilityIndex.put(facility, index);
+                facilityNames.add(facility);
+                byFacility.add(new BitSet());
+            }
+            return byFacility.get(index);
+        }
+
+        private BitSet filter(Query query) {
+            BitSet matches = (BitSet) live.clone();
+
+            if (query.hotelIds() != null) {
+                BitSet hotels = new BitSet();
+                for (Long hotelId : query.hotelIds()) {
+                    BitSet rooms = byHotel.get(hotelId);
+                    if (rooms != null) {
+                        hotels.or(rooms);
+                    }
+                }
+                matches.and(hotels);
+            }
+            if (query.available() != null) {
+                if (query.available()) {
+                    matches.and(available);
+                } else {
+                    matches.andNot(available);
+                }
+            }
+            if (query.roomType() != null) {
+                matches.and(byType[query.roomType().ordinal()]);
+            }
+            if (query.position() != null) {
+                matches.and(byPosition[query.position().ordinal()]);
+            }
+            if (query.facilities() != null) {
+                for (String facility : query.facilities()) {
+                    Integer index = facilityIndex.get(facility);
+                    if (index == null) {
+                        return new BitSet();
+                    }
+                    matches.and(byFacility.get(index));
+                }
+            }
+
+            // Intervalele se verifică pe coloanele primitive, doar pentru sloturile rămase
+            long minCents = query.minPrice() != null ? toCents(query.minPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long maxCents = query.maxPrice() != null ? toCents(query.maxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            Integer minGuests = query.minGuests();
+            if (minCents != Long.MIN_VALUE || maxCents != Long.MAX_VALUE || minGuests != null || query.extraFilter() != null) {
+                for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                    if (priceCents[slot] < minCents || priceCents[slot] > maxCents
+                            || (minGuests != null && (maxGuests[slot] == NO_GUESTS || maxGuests[slot] < minGuests))
+                            || (query.extraFilter() != null && !query.extraFilter().test(roomIds[slot]))) {
+                        matches.clear(slot);
+                    }
+                }
+            }
+            return matches;
+        }
+
+        private List<Long> sorted(BitSet matches, String sortBy, String sortDirection) {
+            int[] slots = matches.stream().toArray();
+            if (sortBy != null) {
+                Comparator<Integer> order;
+                switch (sortBy.toLowerCase()) {
+                    case "location":
+                        order = Comparator.comparing(slot -> location(hotelIds[slot]));
+                        break;
+                    case "roomnumber":
+                        order = Comparator.comparing(slot -> roomNumbers[slot]);
+                        break;
+                    case "price":
+                        order = Comparator.comparingLong(slot -> priceCents[slot]);
+                        break;
+                    default:
+                        order = Comparator.comparingLong(slot -> roomIds[slot]);
+                }
+                if ("DESC".equalsIgnoreCase(sortDirection)) {
+                    order = order.reversed();
+                }
+                Integer[] boxed = Arrays.stream(slots).boxed().toArray(Integer[]::new);
+                // Sortare stabilă: la egalitate rămâne ordinea sloturilor (crescătoare după id)
+                Arrays.sort(boxed, order);
+                slots = Arrays.stream(boxed).mapToInt(Integer::intValue).toArray();
+            }
+
+            List<Long> ids = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                ids.add(roomIds[slot]);
+            }
+            return ids;
+        }
+
+        private String location(long hotelId) {
+            String location = hotelLocations.get(hotelId);
+            return location != null ? location : "";
+        }
+
+        private Facets facets(BitSet matches) {
+            int[] typeCounts = new int[TYPES.length];
+            int[] positionCounts = new int[POSITIONS.length];
+            Map<Long, Integer> hotels = new TreeMap<>();
+            long minCents = Long.MAX_VALUE;
+            long maxCents = Long.MIN_VALUE;
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                if (roomTypes[slot] != NONE) {
+                    typeCounts[roomTypes[slot]]++;
+                }
+                if (positions[slot] != NONE) {
+                    positionCounts[positions[slot]]++;
+                }
+                hotels.merge(hotelIds[slot], 1, Integer::sum);
+                minCents = Math.min(minCents, priceCents[slot]);
+                maxCents = Math.max(maxCents, priceCents[slot]);
+            }
+
+            Map<String, Integer> types = new LinkedHashMap<>();
+            for (int i = 0; i < TYPES.length; i++) {
+                if (typeCounts[i] > 0) {
+                    types.put(TYPES[i].name(), typeCounts[i]);
+                }
+            }
+            Map<String, Integer> positionFacet = new LinkedHashMap<>();
+            for (int i = 0; i < POSITIONS.length; i++) {
+                if (positionCounts[i] > 0) {
+                    positionFacet.put(POSITIONS[i].name(), positionCounts[i]);
+                }
+            }
+            Map<String, Integer> facilities = new TreeMap<>();
+            for (int i = 0; i < facilityNames.size(); i++) {
+                BitSet withFacility = (BitSet) byFacility.get(i).clone();
+                withFacility.and(matches);
+                int count = withFacility.cardinality();
+                if (count > 0) {
+                    facilities.put(facilityNames.get(i), count);
+                }
+            }
+
+            boolean empty = minCents == Long.MAX_VALUE;
+            return new Facets(types, positionFacet, facilities, hotels,
+                    empty ? null : BigDecimal.valueOf(minCents, 2), empty ? null : BigDecimal.valueOf(maxCents, 2));
+        }
+
+        private static void clear(BitSet[] bitmaps, byte value, int slot) {
+            if (value != NONE) {
+                bitmaps[value].clear(slot);
+            }
+        }
+
+        private static void set(BitSet[] bitmaps, byte value, int slot) {
+            if (value != NONE) {
+                bitmaps[value].set(slot);
+            }
+        }
+    }
+}
@@ -3,11 +3,21 @@ package com.hotelchain.hotelservice.service;
 import com.hotelchain.hotelservice.dto.*;
 import com.hotelchain.hotelservice.entity.*;
 import com.hotelchain.hotelservice.repository.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,76 +38,87 @@ public class RoomService {
     @Autowired
     private JwtValidationService jwtValidationService;
 
+    @Autowired
+    private RoomOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private OccupancySyncService occupancySyncService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private HotelSearchIndex hotelSearchIndex;
+
+    @Autowired
+    private RoomSearchEngine roomSearchEngine;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // PUBLIC METHODS - fără autentificare
 
     /**
      * Obține toate camerele pentru un hotel, sortate după locație și număr
      */
     public List<RoomDto> getRoomsByHotelSorted(Long hotelId) {
-        List<Room> rooms = roomRepository.findByHotelIdAndActiveTrue(hotelId);
-        return rooms.stream()
+        List<Room> rooms = roomRepository.findByHotelIdAndActiveTrue(hotelId).stream()
                 .sorted((r1, r2) -> {
                     // Sortare după hotel.location apoi după roomNumber
                     int locationCompare = r1.getHotel().getLocation().compareTo(r2.getHotel().getLocation());
                     if (locationCompare != 0) return locationCompare;
                     return r1.getRoomNumber().compareTo(r2.getRoomNumber());
                 })
-                .map(this::convertToDto)
                 .collect(Collectors.toList());
+        return convertToDtos(rooms);
     }
 
     /**
-     * Caută camere cu criterii de filtrare
+     * Camerele unui hotel ca JSON, servite din cache
      */
-    public List<RoomDto> searchRooms(RoomSearchCriteria criteria) {
-        RoomPosition position = null;
-        if (criteria.getPosition() != null) {
-            try {
-                position = RoomPosition.valueOf(criteria.getPosition().toUpperCase());
-            } catch (IllegalArgumentException e) {
-                // Poziție invalidă, ignoră
-            }
-        }
+    public byte[] getRoomsByHotelSortedJson(Long hotelId) {
+        return catalogCache.get(CatalogCache.hotelRoomsKey(hotelId), () -> toJson(getRoomsByHotelSorted(hotelId)));
+    }
 
-        RoomType roomType = null;
-        if (criteria.getRoomType() != null) {
-            try {
-                roomType = RoomType.valueOf(criteria.getRoomType().toUpperCase());
-            } catch (IllegalArgumentException e) {
-                // Tip invalid, ignoră
-            }
-        }
+    /**
+     * Caută camere cu criterii de filtrare, în motorul de căutare din memorie
+     */
+    public List<RoomDto> searchRooms(RoomSearchCriteria criteria) {
+        RoomSearchEngine.Result result = runSearch(criteria, false);
+        return result != null ? loadInOrder(result.roomIds()) : Collections.emptyList();
+    }
 
-        List<Room> rooms = roomRepository.findRoomsWithCriteria(
-                criteria.getLocation(),
-                criteria.getAvailable(),
-                criteria.getMinPrice(),
-                criteria.getMaxPrice(),
-                position,
-                roomType,
-                criteria.getMinGuests()
-        );
-
-        // Filtrare suplimentară pe facilități dacă sunt specificate
-        if (criteria.getFacilities() != null && !criteria.getFacilities().isEmpty()) {
-            rooms = rooms.stream()
-                    .filter(room -> {
-                        List<String> roomFacilities = room.getFacilities().stream()
-                                .map(RoomFacility::getFacility)
-                                .collect(Collectors.toList());
-                        return roomFacilities.containsAll(criteria.getFacilities());
-                    })
-                    .collect(Collectors.toList());
+    /**
+     * Caută camere cu filtrare și întoarce și numărătorile pe fațete (tip, poziție, facilități, hotel, preț)
+     */
+    public FacetedRoomSearchResult searchRoomsWithFacets(RoomSearchCriteria criteria) {
+        FacetedRoomSearchResult page = new FacetedRoomSearchResult();
+        RoomSearchEngine.Result result = runSearch(criteria, true);
+        if (result == null) {
+            page.setItems(Collections.emptyList());
+            page.setRoomTypes(Collections.emptyMap());
+            page.setPositions(Collections.emptyMap());
+            page.setFacilities(Collections.emptyMap());
+            page.setHotels(Collections.emptyMap());
+            return page;
         }
 
-        // Sortare
-        if (criteria.getSortBy() != null) {
-            rooms = sortRooms(rooms, criteria.getSortBy(), criteria.getSortDirection());
-        }
+        page.setItems(loadInOrder(result.roomIds()));
+        page.setTotal(result.roomIds().size());
+        page.setRoomTypes(result.facets().roomTypes());
+        page.setPositions(result.facets().positions());
+        page.setFacilities(result.facets().facilities());
+        page.setHotels(result.facets().hotels());
+        page.setMinPrice(result.facets().minPrice());
+        page.setMaxPrice(result.facets().maxPrice());
+        return page;
+    }
 
-        return rooms.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public String getSearchEngineStats() {
+        return roomSearchEngine.getStats();
     }
 
     /**
@@ -105,9 +126,7 @@ public class RoomService {
      */
     public List<RoomDto> getAvailableRooms() {
         List<Room> rooms = roomRepository.findByAvailableTrueAndActiveTrue();
-        return rooms.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(rooms);
     }
 
     /**
@@ -119,6 +138,23 @@ public class RoomService {
         return convertToDto(room);
     }
 
+    /**
+     * Camera ca JSON, servită din cache
+     */
+    public byte[] getRoomByIdJson(Long id) {
+        return catalogCache.get(CatalogCache.roomKey(id), () -> toJson(getRoomById(id)));
+    }
+
+    /**
+     * Obține camerele cu ID-urile date (ID-urile inexistente sunt ignorate)
+     */
+    public List<RoomDto> getRoomsByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return convertToDtos(roomRepository.findAllById(new HashSet<>(ids)));
+    }
+
     // EMPLOYEE METHODS - cu autentificare
 
     /**
@@ -177,6 +213,10 @@ public class RoomService {
             }
         }
 
+        eventOutbox.recordRoomChanged(room, hotel.getName());
+        catalogCache.invalidateRoom(room.getId(), room.getHotelId());
+        roomSearchEngine.updateAfterCommit(room,
+                request.getFacilities() != null ? request.getFacilities() : Collections.emptyList());
         return convertToDto(room);
     }
 
@@ -229,12 +269,16 @@ public class RoomService {
             }
         }
 
+        recordRoomChanged(room);
+        catalogCache.invalidateRoom(room.getId(), room.getHotelId());
+        roomSearchEngine.updateAfterCommit(room, request.getFacilities());
         return convertToDto(room);
     }
 
     /**
      * Șterge o cameră (soft delete)
      */
+    @Transactional
     public void deleteRoom(Long id, String token) {
         jwtValidationService.validateEmployeeRole(token);
 
@@ -243,11 +287,15 @@ public class RoomService {
 
         room.setActive(false);
         roomRepository.save(room);
+        recordRoomChanged(room);
+        catalogCache.invalidateRoom(room.getId(), room.getHotelId());
+        roomSearchEngine.updateAfterCommit(room, null);
     }
 
     /**
      * Schimbă disponibilitatea unei camere
      */
+    @Transactional
     public RoomDto toggleRoomAvailability(Long id, String token) {
         jwtValidationService.validateEmployeeRole(token);
 
@@ -256,37 +304,148 @@ public class RoomService {
 
         room.setAvailable(!room.isAvailable());
         room = roomRepository.save(room);
+        recordRoomChanged(room);
+        catalogCache.invalidateRoom(room.getId(), room.getHotelId());
+        roomSearchEngine.updateAfterCommit(room, null);
 
         return convertToDto(room);
     }
 
     // HELPER METHODS
 
-    private List<Room> sortRooms(List<Room> rooms, String sortBy, String sortDirection) {
-        boolean ascending = !"DESC".equalsIgnoreCase(sortDirection);
+    private void recordRoomChanged(Room room) {
+        String hotelName = hotelRepository.findById(room.getHotelId()).map(Hotel::getName).orElse(null);
+        eventOutbox.recordRoomChanged(room, hotelName);
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog entry", e);
+        }
+    }
+
+    /**
+     * Rulează căutarea în motorul din memorie; null dacă locația nu se potrivește cu niciun hotel
+     */
+    private RoomSearchEngine.Result runSearch(RoomSearchCriteria criteria, boolean withFacets) {
+        RoomPosition position = null;
+        if (criteria.getPosition() != null) {
+            try {
+                position = RoomPosition.valueOf(criteria.getPosition().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // Poziție invalidă, ignoră
+            }
+        }
+
+        RoomType roomType = null;
+        if (criteria.getRoomType() != null) {
+            try {
+                roomType = RoomType.valueOf(criteria.getRoomType().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // Tip invalid, ignoră
+            }
+        }
+
+        boolean periodRequested = criteria.getCheckIn() != null && criteria.getCheckOut() != null;
+        if (periodRequested && !criteria.getCheckOut().isAfter(criteria.getCheckIn())) {
+            throw new RuntimeException("Check-out date must be after check-in date");
+        }
+
+        // Locația se rezolvă în indexul de hoteluri, în locul unui LIKE '%x%' pe tabelul hotels
+        Collection<Long> hotelIds = null;
+        if (criteria.getLocation() != null && !criteria.getLocation().isBlank()) {
+            hotelIds = hotelSearchIndex.findHotelIdsByLocation(criteria.getLocation());
+            if (hotelIds.isEmpty()) {
+                return null;
+            }
+        }
+
+        Collection<Long> matchingHotels = hotelIds;
+        RoomPosition matchingPosition = position;
+        RoomType matchingType = roomType;
+        Function<LongPredicate, RoomSearchEngine.Query> query = periodFilter -> new RoomSearchEngine.Query(
+                matchingHotels, criteria.getAvailable(), criteria.getMinPrice(), criteria.getMaxPrice(),
+                matchingPosition, matchingType, criteria.getMinGuests(),
+                criteria.getFacilities() != null && !criteria.getFacilities().isEmpty() ? criteria.getFacilities() : null,
+                periodFilter);
+
+        // Filtrare după perioada dorită, din indexul de ocupare din memorie
+        LongPredicate freeInPeriod = null;
+        if (periodRequested) {
+            if (occupancyIndex.isSynchronized()) {
+                freeInPeriod = roomId -> occupancyIndex.isFree(roomId, criteria.getCheckIn(), criteria.getCheckOut());
+            } else {
+                // Până la prima sincronizare indexul nu cunoaște rezervările: camerele găsite fără filtrul
+                // de perioadă se verifică pe inventarul din reservation-service
+                List<Long> candidates = roomSearchEngine.search(query.apply(null), criteria.getSortBy(),
+                        criteria.getSortDirection(), false).roomIds();
+                Set<Long> free = occupancySyncService.findFreeRooms(candidates, criteria.getCheckIn(),
+                        criteria.getCheckOut());
+                freeInPeriod = free::contains;
+            }
+        }
+        return roomSearchEngine.search(query.apply(freeInPeriod), criteria.getSortBy(), criteria.getSortDirection(),
+                withFacets);
+    }
+
+    /**
+     * Încarcă camerele după id și construiește DTO-urile în ordinea dată de motorul de căutare
+     */
+    private List<RoomDto> loadInOrder(List<Long> roomIds) {
+        if (roomIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Room> roomsById = roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        return convertToDtos(roomIds.stream()
+                .map(roomsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+    }
+
+    private RoomDto convertToDto(Room room) {
+        return convertToDtos(List.of(room)).get(0);
+    }
+
+    /**
+     * Construiește DTO-urile pentru o listă de camere cu câte o singură interogare
+     * pentru hoteluri, facilități și imagini, indiferent de numărul de camere
+     */
+    private List<RoomDto> convertToDtos(List<Room> rooms) {
+        if (rooms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> roomIds = rooms.stream()
+                .map(Room::getId)
+                .collect(Collectors.toSet());
+        Set<Long> hotelIds = rooms.stream()
+                .map(Room::getHotelId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Hotel> hotelsById = hotelRepository.findAllById(hotelIds).stream()
+                .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+
+        Map<Long, List<String>> facilitiesByRoom = facilityRepository.findByRoomIdIn(roomIds).stream()
+                .collect(Collectors.groupingBy(RoomFacility::getRoomId,
+                        Collectors.mapping(RoomFacility::getFacility, Collectors.toList())));
+
+        Map<Long, List<RoomImageDto>> imagesByRoom = imageRepository
+                .findByRoomIdInOrderByRoomIdAscDisplayOrderAsc(roomIds).stream()
+                .collect(Collectors.groupingBy(RoomImage::getRoomId,
+                        Collectors.mapping(this::convertImageToDto, Collectors.toList())));
 
         return rooms.stream()
-                .sorted((r1, r2) -> {
-                    int result = 0;
-                    switch (sortBy.toLowerCase()) {
-                        case "location":
-                            result = r1.getHotel().getLocation().compareTo(r2.getHotel().getLocation());
-                            break;
-                        case "roomnumber":
-                            result = r1.getRoomNumber().compareTo(r2.getRoomNumber());
-                            break;
-                        case "price":
-                            result = r1.getPricePerNight().compareTo(r2.getPricePerNight());
-                            break;
-                        default:
-                            result = r1.getId().compareTo(r2.getId());
-                    }
-                    return ascending ? result : -result;
-                })
+                .map(room -> convertToDto(room,
+                        hotelsById.get(room.getHotelId()),
+                        facilitiesByRoom.getOrDefault(room.getId(), Collections.emptyList()),
+                        imagesByRoom.getOrDefault(room.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
     }
 
-    private RoomDto convertToDto(Room room) {
+    private RoomDto convertToDto(Room room, Hotel hotel, List<String> facilities, List<RoomImageDto> images) {
         RoomDto dto = new RoomDto();
         dto.setId(room.getId());
         dto.setHotelId(room.getHotelId());
@@ -301,29 +460,13 @@ public class RoomService {
         dto.setActive(room.isActive());
 
         // Adaugă informații despre hotel
-        if (room.getHotel() != null) {
-            dto.setHotelName(room.getHotel().getName());
-            dto.setHotelLocation(room.getHotel().getLocation());
-        } else {
-            // Încarcă hotelul dacă nu este deja încărcat
-            Hotel hotel = hotelRepository.findById(room.getHotelId()).orElse(null);
-            if (hotel != null) {
-                dto.setHotelName(hotel.getName());
-                dto.setHotelLocation(hotel.getLocation());
-            }
+        if (hotel != null) {
+            dto.setHotelName(hotel.getName());
+            dto.setHotelLocation(hotel.getLocation());
         }
 
-        // Adaugă facilitățile
-        List<RoomFacility> facilities = facilityRepository.findByRoomId(room.getId());
-        dto.setFacilities(facilities.stream()
-                .map(RoomFacility::getFacility)
-                .collect(Collectors.toList()));
-
-        // Adaugă imaginile
-        List<RoomImage> images = imageRepository.findByRoomIdOrderByDisplayOrder(room.getId());
-        dto.setImages(images.stream()
-                .map(this::convertImageToDto)
-                .collect(Collectors.toList()));
+        dto.setFacilities(facilities);
+        dto.setImages(images);
 
         return dto;
     }
@@ -0,0 +1,160 @@
+package com.hotelchain.hotelservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelchain.hotelservice.dto.UpdateHotelRequest;
+import com.hotelchain.hotelservice.entity.Hotel;
+import com.hotelchain.hotelservice.entity.Room;
+import com.hotelchain.hotelservice.entity.RoomType;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "app.catalog-cache.max-entries=3"
+})
+@Import({HotelService.class, RoomService.class, JwtValidationService.class, RoomOccupancyIndex.class, CatalogCache.class, HotelSearchIndex.class, RoomSearchEngine.class,
+        EventOutbox.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class CatalogCacheTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private OccupancySyncService occupancySyncService;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    private final String token = "Bearer " + Jwts.builder()
+            .claim("role", "MANAGER")
+            .claim("userId", 1L)
+            .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+            .compact();
+
+    private Hotel hotel;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        hotel = new Hotel();
+        hotel.setName("Grand");
+        hotel.setLocation("Cluj");
+        hotel = entityManager.persist(hotel);
+
+        room = new Room();
+        room.setHotelId(hotel.getId());
+        room.setRoomNumber("101");
+        room.setRoomType(RoomType.DOUBLE);
+        room.setPricePerNight(BigDecimal.valueOf(120));
+        room = entityManager.persist(room);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void hitsSkipTheDatabase() throws Exception {
+        hotelService.getAllActiveHotelsJson();
+        hotelService.getHotelByIdJson(hotel.getId());
+        roomService.getRoomByIdJson(room.getId());
+
+        long statements = countStatements(() -> {
+            for (int i = 0; i < 100; i++) {
+                hotelService.getAllActiveHotelsJson();
+                hotelService.getHotelByIdJson(hotel.getId());
+                roomService.getRoomByIdJson(room.getId());
+            }
+        });
+
+        assertThat(statements).isZero();
+        JsonNode cachedRoom = objectMapper.readTree(roomService.getRoomByIdJson(room.getId()));
+        assertThat(cachedRoom.get("roomNumber").asText()).isEqualTo("101");
+        assertThat(cachedRoom.get("hotelName").asText()).isEqualTo("Grand");
+        assertThat(catalogCache.getStats()).contains("\"hits\":301", "\"misses\":3", "\"key\":\"room:" + room.getId());
+    }
+
+    @Test
+    void writesInvalidateDependentEntries() throws Exception {
+        roomService.getRoomsByHotelSortedJson(hotel.getId());
+        roomService.getRoomByIdJson(room.getId());
+
+        roomService.toggleRoomAvailability(room.getId(), token);
+        assertThat(objectMapper.readTree(roomService.getRoomByIdJson(room.getId())).get("available").asBoolean()).isFalse();
+        assertThat(objectMapper.readTree(roomService.getRoomsByHotelSortedJson(hotel.getId())).get(0)
+                .get("available").asBoolean()).isFalse();
+
+        hotelService.getAllActiveHotelsJson();
+        UpdateHotelRequest rename = new UpdateHotelRequest();
+        rename.setName("Grand Plaza");
+        hotelService.updateHotel(hotel.getId(), rename, token);
+
+        assertThat(objectMapper.readTree(hotelService.getAllActiveHotelsJson()).get(0).get("name").asText())
+                .isEqualTo("Grand Plaza");
+        assertThat(objectMapper.readTree(roomService.getRoomByIdJson(room.getId())).get("hotelName").asText())
+                .isEqualTo("Grand Plaza");
+
+        hotelService.deleteHotel(hotel.getId(), token);
+        assertThat(objectMapper.readTree(hotelService.getAllActiveHotelsJson())).isEmpty();
+    }
+
+    @Test
+    void missingEntriesAreNotCachedAndSizeIsBounded() {
+        assertThatThrownBy(() -> hotelService.getHotelByIdJson(404L)).hasMessage("Hotel not found");
+
+        hotelService.getAllActiveHotelsJson();
+        hotelService.getHotelByIdJson(hotel.getId());
+        roomService.getRoomByIdJson(room.getId());
+        roomService.getRoomsByHotelSortedJson(hotel.getId());
+
+        assertThat(catalogCache.getStats()).contains("\"size\":3", "\"evictions\":1")
+                .doesNotContain("hotel:404", "hotels:active");
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,188 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.dto.CreateHotelRequest;
+import com.hotelchain.hotelservice.dto.HotelDto;
+import com.hotelchain.hotelservice.dto.HotelSuggestionDto;
+import com.hotelchain.hotelservice.dto.RoomDto;
+import com.hotelchain.hotelservice.dto.RoomSearchCriteria;
+import com.hotelchain.hotelservice.dto.UpdateHotelRequest;
+import com.hotelchain.hotelservice.entity.Room;
+import com.hotelchain.hotelservice.entity.RoomType;
+import com.hotelchain.hotelservice.repository.RoomRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.hotel-search.resync-interval-ms=3600000"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({HotelService.class, RoomService.class, JwtValidationService.class, RoomOccupancyIndex.class,
+        CatalogCache.class, HotelSearchIndex.class, RoomSearchEngine.class, EventOutbox.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class HotelSearchIndexTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private HotelSearchIndex hotelSearchIndex;
+
+    @Autowired
+    private RoomSearchEngine roomSearchEngine;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private OccupancySyncService occupancySyncService;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    private final String token = "Bearer " + Jwts.builder()
+            .claim("role", "MANAGER")
+            .claim("userId", 1L)
+            .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+            .compact();
+
+    private HotelDto grand;
+    private HotelDto transilvania;
+    private HotelDto napoca;
+
+    @BeforeEach
+    void setUp() {
+        hotelSearchIndex.rebuild();
+        grand = create("Grand Hotel", "Cluj-Napoca", 4);
+        transilvania = create("Hotel Transilvania", "Brașov", 3);
+        napoca = create("Napoca Inn", "Cluj-Napoca", 2);
+        create("Sea View", "Constanța", 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM rooms");
+        jdbcTemplate.update("DELETE FROM hotels");
+    }
+
+    @Test
+    void suggestionsRankPrefixesFirstAndTolerateTypos() {
+        List<HotelSuggestionDto> clu = hotelService.autocomplete("clu", null);
+        assertThat(clu.get(0).getType()).isEqualTo("LOCATION");
+        assertThat(clu.get(0).getValue()).isEqualTo("Cluj-Napoca");
+        assertThat(clu.get(0).getHotelCount()).isEqualTo(2);
+
+        // "Napoca Inn" începe cu "na", "Cluj-Napoca" are doar un cuvânt care începe cu "na"
+        List<HotelSuggestionDto> na = hotelService.autocomplete("Na", 5);
+        assertThat(na).extracting(HotelSuggestionDto::getValue).startsWith("Napoca Inn", "Cluj-Napoca");
+        assertThat(na.get(0).getHotelId()).isEqualTo(napoca.getId());
+
+        assertThat(hotelService.autocomplete("brasov", null)).extracting(HotelSuggestionDto::getValue)
+                .containsExactly("Brașov");
+        assertThat(hotelService.autocomplete("constnta", null)).extracting(HotelSuggestionDto::getValue)
+                .containsExactly("Constanța");
+        assertThat(hotelService.autocomplete("hotel", 1)).hasSize(1);
+        assertThatThrownBy(() -> hotelService.autocomplete(" - ", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void searchUsesTheIndexAndFollowsWrites() {
+        assertThat(ids(hotelService.searchHotels("cluj", null, 3, null))).containsExactly(grand.getId());
+        assertThat(ids(hotelService.searchHotels(null, "HOTEL", null, null)))
+                .containsExactly(grand.getId(), transilvania.getId());
+        assertThat(ids(hotelService.searchHotelsByLocation("brasov"))).containsExactly(transilvania.getId());
+        assertThat(hotelService.searchHotels("cluj", "sea", null, null)).isEmpty();
+
+        UpdateHotelRequest move = new UpdateHotelRequest();
+        move.setLocation("Sibiu");
+        hotelService.updateHotel(transilvania.getId(), move, token);
+        assertThat(hotelService.searchHotelsByLocation("brasov")).isEmpty();
+        assertThat(hotelService.autocomplete("sib", null)).extracting(HotelSuggestionDto::getValue)
+                .containsExactly("Sibiu");
+
+        hotelService.deleteHotel(grand.getId(), token);
+        assertThat(ids(hotelService.searchHotelsByLocation("cluj"))).containsExactly(napoca.getId());
+        assertThat(hotelService.autocomplete("cluj", null).get(0).getHotelCount()).isEqualTo(1);
+    }
+
+    @Test
+    void resynchronizationPicksUpWritesFromOtherInstances() {
+        jdbcTemplate.update("INSERT INTO hotels (name, location, star_rating, active) VALUES ('Lake Resort', 'Sovata', 4, true)");
+        assertThat(hotelService.searchHotelsByLocation("sovata")).isEmpty();
+
+        hotelSearchIndex.resynchronize();
+        assertThat(hotelService.searchHotelsByLocation("sovata")).extracting(HotelDto::getName)
+                .containsExactly("Lake Resort");
+        assertThat(hotelSearchIndex.getStats()).contains("\"ready\":true", "\"hotels\":5");
+    }
+
+    @Test
+    void roomSearchResolvesLocationThroughTheIndex() {
+        room(grand.getId(), "101");
+        room(napoca.getId(), "201");
+        room(transilvania.getId(), "301");
+        roomSearchEngine.rebuild();
+
+        RoomSearchCriteria criteria = new RoomSearchCriteria();
+        criteria.setLocation("napoca");
+        assertThat(roomService.searchRooms(criteria)).extracting(RoomDto::getRoomNumber)
+                .containsExactlyInAnyOrder("101", "201");
+
+        criteria.setLocation("timisoara");
+        assertThat(roomService.searchRooms(criteria)).isEmpty();
+
+        criteria.setLocation(null);
+        assertThat(roomService.searchRooms(criteria)).hasSize(3);
+    }
+
+    private HotelDto create(String name, String location, int stars) {
+        CreateHotelRequest request = new CreateHotelRequest();
+        request.setName(name);
+        request.setLocation(location);
+        request.setStarRating(stars);
+        return hotelService.createHotel(request, token);
+    }
+
+    private void room(Long hotelId, String number) {
+        Room room = new Room();
+        room.setHotelId(hotelId);
+        room.setRoomNumber(number);
+        room.setRoomType(RoomType.DOUBLE);
+        room.setPricePerNight(BigDecimal.valueOf(100));
+        roomRepository.save(room);
+    }
+
+    private List<Long> ids(List<HotelDto> hotels) {
+        return hotels.stream().map(HotelDto::getId).toList();
+    }
+}
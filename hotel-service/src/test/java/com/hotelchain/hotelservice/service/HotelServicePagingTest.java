@@ -0,0 +1,95 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.dto.CursorPage;
+import com.hotelchain.hotelservice.dto.HotelDto;
+import com.hotelchain.hotelservice.entity.Hotel;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({HotelService.class, JwtValidationService.class, CatalogCache.class, HotelSearchIndex.class, RoomSearchEngine.class,
+        EventOutbox.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class HotelServicePagingTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = "Bearer " + Jwts.builder()
+                .claim("role", "MANAGER")
+                .claim("userId", 1L)
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        for (int i = 0; i < 7; i++) {
+            Hotel hotel = new Hotel();
+            hotel.setName("Hotel " + i);
+            hotel.setLocation("City " + i);
+            hotel.setActive(i % 2 == 0);
+            entityManager.persist(hotel);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesFollowCursorUntilExhausted() {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<HotelDto> page = hotelService.getHotelsPage(cursor, 3, token);
+            page.getItems().forEach(hotel -> names.add(hotel.getName()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(names).containsExactly("Hotel 0", "Hotel 1", "Hotel 2", "Hotel 3",
+                "Hotel 4", "Hotel 5", "Hotel 6");
+    }
+
+    @Test
+    void streamWritesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        hotelService.streamHotels(token).writeTo(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(7);
+        assertThat(lines[0]).startsWith("{").contains("\"name\":\"Hotel 0\"");
+    }
+}
@@ -0,0 +1,85 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.dto.RoomOccupancyDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomOccupancyIndexTest {
+
+    private final RoomOccupancyIndex index = new RoomOccupancyIndex();
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void overlappingStaysAreNotFree() {
+        index.apply(occupancy(1L, 10L, today.plusDays(5), today.plusDays(8), "CONFIRMED"));
+
+        assertThat(index.isFree(10L, today.plusDays(6), today.plusDays(7))).isFalse();
+        assertThat(index.isFree(10L, today.plusDays(3), today.plusDays(6))).isFalse();
+        assertThat(index.isFree(10L, today.plusDays(7), today.plusDays(12))).isFalse();
+        assertThat(index.isFree(11L, today.plusDays(6), today.plusDays(7))).isTrue();
+    }
+
+    @Test
+    void backToBackStaysAreFree() {
+        index.apply(occupancy(1L, 10L, today.plusDays(5), today.plusDays(8), "CONFIRMED"));
+
+        assertThat(index.isFree(10L, today.plusDays(8), today.plusDays(10))).isTrue();
+        assertThat(index.isFree(10L, today.plusDays(2), today.plusDays(5))).isTrue();
+    }
+
+    @Test
+    void cancellationReleasesNightsButKeepsOtherStays() {
+        index.apply(occupancy(1L, 10L, today.plusDays(5), today.plusDays(8), "CONFIRMED"));
+        index.apply(occupancy(2L, 10L, today.plusDays(10), today.plusDays(12), "CONFIRMED"));
+
+        index.apply(occupancy(1L, 10L, today.plusDays(5), today.plusDays(8), "CANCELLED"));
+
+        assertThat(index.isFree(10L, today.plusDays(5), today.plusDays(8))).isTrue();
+        assertThat(index.isFree(10L, today.plusDays(11), today.plusDays(13))).isFalse();
+    }
+
+    @Test
+    void replaceAllDropsStaleReservations() {
+        index.apply(occupancy(1L, 10L, today.plusDays(5), today.plusDays(8), "CONFIRMED"));
+
+        index.replaceAll(List.of(occupancy(2L, 20L, today.plusDays(1), today.plusDays(2), "CHECKED_IN")));
+
+        assertThat(index.isFree(10L, today.plusDays(5), today.plusDays(8))).isTrue();
+        assertThat(index.isFree(20L, today.plusDays(1), today.plusDays(2))).isFalse();
+        assertThat(index.isSynchronized()).isTrue();
+    }
+
+    @Test
+    void changesAppliedDuringResyncAreKeptOverTheOlderSnapshot() {
+        index.apply(occupancy(1L, 10L, today.plusDays(5), today.plusDays(8), "CONFIRMED"));
+
+        index.beginResync();
+        // Imaginea a fost citită înainte de anularea rezervării 1 și de crearea rezervării 2
+        List<RoomOccupancyDto> snapshot = List.of(occupancy(1L, 10L, today.plusDays(5), today.plusDays(8), "CONFIRMED"));
+        index.apply(occupancy(1L, 10L, today.plusDays(5), today.plusDays(8), "CANCELLED"));
+        index.apply(occupancy(2L, 20L, today.plusDays(1), today.plusDays(3), "CONFIRMED"));
+        index.replaceAll(snapshot);
+
+        assertThat(index.isFree(10L, today.plusDays(5), today.plusDays(8))).isTrue();
+        assertThat(index.isFree(20L, today.plusDays(1), today.plusDays(3))).isFalse();
+
+        // După înlocuire nu se mai rețin schimbări pentru următoarea resincronizare
+        index.apply(occupancy(3L, 30L, today.plusDays(1), today.plusDays(2), "CONFIRMED"));
+        index.replaceAll(List.of());
+        assertThat(index.isFree(30L, today.plusDays(1), today.plusDays(2))).isTrue();
+    }
+
+    private RoomOccupancyDto occupancy(Long reservationId, Long roomId, LocalDate checkIn, LocalDate checkOut, String status) {
+        RoomOccupancyDto dto = new RoomOccupancyDto();
+        dto.setReservationId(reservationId);
+        dto.setRoomId(roomId);
+        dto.setCheckInDate(checkIn);
+        dto.setCheckOutDate(checkOut);
+        dto.setStatus(status);
+        return dto;
+    }
+}
@@ -0,0 +1,196 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.entity.Room;
+import com.hotelchain.hotelservice.entity.RoomFacility;
+import com.hotelchain.hotelservice.entity.RoomPosition;
+import com.hotelchain.hotelservice.entity.RoomType;
+import com.hotelchain.hotelservice.repository.RoomFacilityRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compară căutarea de camere prin vechiul JPQL (SELECT DISTINCT cu LEFT JOIN pe facilități și
+ * predicate ":x IS NULL OR", plus filtrarea facilităților în Java) cu motorul pe coloane din memorie,
+ * pe aceleași combinații aleatoare de filtre. Implicit 200.000 de camere în 1.000 de hoteluri.
+ * Rulare: mvn test -Dtest=RoomSearchBenchmarkTest -Droom.search.benchmark=true [-Droom.search.benchmark.rows=500000]
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.room-search.resync-interval-ms=3600000"
+})
+@Import(RoomSearchEngine.class)
+@EnabledIfSystemProperty(named = "room.search.benchmark", matches = "true")
+class RoomSearchBenchmarkTest {
+
+    private static final int HOTELS = 1_000;
+    private static final int JPQL_QUERIES = 20;
+    private static final int ENGINE_QUERIES = 2_000;
+    private static final List<String> FACILITIES = List.of("WiFi", "TV", "Air Conditioning", "Minibar", "Balcony",
+            "Safe", "Bathtub", "Kitchenette", "Coffee Machine", "Desk", "Sofa", "Sauna");
+
+    private static final String JPQL = "SELECT DISTINCT r FROM Room r " +
+            "JOIN FETCH r.hotel h " +
+            "LEFT JOIN r.facilities f " +
+            "WHERE r.active = true " +
+            "AND (:available IS NULL OR r.available = :available) " +
+            "AND (:minPrice IS NULL OR r.pricePerNight >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR r.pricePerNight <= :maxPrice) " +
+            "AND (:position IS NULL OR r.position = :position) " +
+            "AND (:roomType IS NULL OR r.roomType = :roomType) " +
+            "AND (:minGuests IS NULL OR r.maxGuests >= :minGuests)";
+
+    @Autowired
+    private RoomSearchEngine roomSearchEngine;
+
+    @Autowired
+    private RoomFacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void columnarEngineAgainstJpql() {
+        int rows = Integer.getInteger("room.search.benchmark.rows", 200_000);
+        seed(rows);
+
+        long start = System.nanoTime();
+        roomSearchEngine.rebuild();
+        long buildMs = (System.nanoTime() - start) / 1_000_000;
+
+        List<RoomSearchEngine.Query> queries = queries(new Random(7), 64);
+        for (RoomSearchEngine.Query query : queries.subList(0, 5)) {
+            assertThat(roomSearchEngine.search(query, null, null, false).roomIds()).isEqualTo(jpql(query));
+        }
+
+        start = System.nanoTime();
+        for (int i = 0; i < JPQL_QUERIES; i++) {
+            jpql(queries.get(i % queries.size()));
+        }
+        long jpqlMicros = (System.nanoTime() - start) / 1000 / JPQL_QUERIES;
+
+        for (int i = 0; i < ENGINE_QUERIES / 10; i++) {
+            roomSearchEngine.search(queries.get(i % queries.size()), "price", "ASC", true);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < ENGINE_QUERIES; i++) {
+            roomSearchEngine.search(queries.get(i % queries.size()), null, null, false);
+        }
+        long engineMicros = (System.nanoTime() - start) / 1000 / ENGINE_QUERIES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ENGINE_QUERIES; i++) {
+            roomSearchEngine.search(queries.get(i % queries.size()), "price", "ASC", true);
+        }
+        long facetedMicros = (System.nanoTime() - start) / 1000 / ENGINE_QUERIES;
+
+        System.out.printf("%,d rooms: JPQL + facility filter %d us/query | engine built in %d ms, " +
+                "%d us/query, %d us/query sorted with facets%n", rows, jpqlMicros, buildMs, engineMicros, facetedMicros);
+        System.out.println("engine stats: " + roomSearchEngine.getStats());
+    }
+
+    /**
+     * Calea veche din RoomService.searchRooms: JPQL, apoi facilitățile încărcate și filtrate în Java
+     */
+    private List<Long> jpql(RoomSearchEngine.Query query) {
+        List<Room> rooms = entityManager.createQuery(JPQL, Room.class)
+                .setParameter("available", query.available())
+                .setParameter("minPrice", query.minPrice())
+                .setParameter("maxPrice", query.maxPrice())
+                .setParameter("position", query.position())
+                .setParameter("roomType", query.roomType())
+                .setParameter("minGuests", query.minGuests())
+                .getResultList();
+
+        if (query.facilities() != null && !rooms.isEmpty()) {
+            Set<Long> roomIds = rooms.stream().map(Room::getId).collect(Collectors.toSet());
+            Map<Long, Set<String>> facilitiesByRoom = facilityRepository.findByRoomIdIn(roomIds).stream()
+                    .collect(Collectors.groupingBy(RoomFacility::getRoomId,
+                            Collectors.mapping(RoomFacility::getFacility, Collectors.toSet())));
+            rooms = rooms.stream()
+                    .filter(room -> facilitiesByRoom.getOrDefault(room.getId(), Collections.emptySet())
+                            .containsAll(query.facilities()))
+                    .collect(Collectors.toList());
+        }
+
+        List<Long> ids = rooms.stream().map(Room::getId).sorted().collect(Collectors.toList());
+        entityManager.clear();
+        return ids;
+    }
+
+    private List<RoomSearchEngine.Query> queries(Random random, int count) {
+        List<RoomSearchEngine.Query> queries = new ArrayList<>();
+        RoomType[] types = RoomType.values();
+        RoomPosition[] positions = RoomPosition.values();
+        for (int i = 0; i < count; i++) {
+            int minPrice = 50 + random.nextInt(200);
+            queries.add(new RoomSearchEngine.Query(null,
+                    random.nextBoolean() ? Boolean.TRUE : null,
+                    BigDecimal.valueOf(minPrice),
+                    random.nextBoolean() ? BigDecimal.valueOf(minPrice + 50 + random.nextInt(150)) : null,
+                    random.nextInt(3) == 0 ? positions[random.nextInt(positions.length)] : null,
+                    random.nextBoolean() ? types[random.nextInt(types.length)] : null,
+                    random.nextBoolean() ? 1 + random.nextInt(4) : null,
+                    List.of(FACILITIES.get(random.nextInt(3)), FACILITIES.get(3 + random.nextInt(FACILITIES.size() - 3))),
+                    null));
+        }
+        return queries;
+    }
+
+    private void seed(int rows) {
+        Random random = new Random(42);
+        List<Object[]> hotels = new ArrayList<>();
+        for (int h = 1; h <= HOTELS; h++) {
+            hotels.add(new Object[]{(long) h, "Hotel " + h, "City " + (h % 200), 1 + random.nextInt(5)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO hotels (id, name, location, star_rating, active) " +
+                "VALUES (?, ?, ?, ?, true)", hotels);
+
+        List<Object[]> rooms = new ArrayList<>();
+        List<Object[]> facilities = new ArrayList<>();
+        RoomType[] types = RoomType.values();
+        RoomPosition[] positions = RoomPosition.values();
+        for (long id = 1; id <= rows; id++) {
+            rooms.add(new Object[]{id, 1 + id % HOTELS, "R" + id, types[random.nextInt(types.length)].name(),
+                    BigDecimal.valueOf(4_000 + random.nextInt(40_000), 2), positions[random.nextInt(positions.length)].name(),
+                    1 + random.nextInt(6), random.nextInt(10) != 0});
+            for (String facility : FACILITIES) {
+                if (random.nextInt(3) == 0) {
+                    facilities.add(new Object[]{id, facility});
+                }
+            }
+            if (rooms.size() == 10_000) {
+                flush(rooms, facilities);
+            }
+        }
+        flush(rooms, facilities);
+    }
+
+    private void flush(List<Object[]> rooms, List<Object[]> facilities) {
+        jdbcTemplate.batchUpdate("INSERT INTO rooms (id, hotel_id, room_number, room_type, price_per_night, position, " +
+                "max_guests, available, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, true)", rooms);
+        jdbcTemplate.batchUpdate("INSERT INTO room_facilities (room_id, facility) VALUES (?, ?)", facilities);
+        rooms.clear();
+        facilities.clear();
+    }
+}
@@ -0,0 +1,232 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.dto.CreateHotelRequest;
+import com.hotelchain.hotelservice.dto.CreateRoomRequest;
+import com.hotelchain.hotelservice.dto.FacetedRoomSearchResult;
+import com.hotelchain.hotelservice.dto.HotelDto;
+import com.hotelchain.hotelservice.dto.RoomDto;
+import com.hotelchain.hotelservice.dto.RoomSearchCriteria;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.hotel-search.resync-interval-ms=3600000",
+        "app.room-search.resync-interval-ms=3600000"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({HotelService.class, RoomService.class, JwtValidationService.class, RoomOccupancyIndex.class,
+        CatalogCache.class, HotelSearchIndex.class, RoomSearchEngine.class, EventOutbox.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class RoomSearchEngineTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private RoomSearchEngine roomSearchEngine;
+
+    @Autowired
+    private HotelSearchIndex hotelSearchIndex;
+
+    @Autowired
+    private RoomOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private OccupancySyncService occupancySyncService;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    private final String token = "Bearer " + Jwts.builder()
+            .claim("role", "MANAGER")
+            .claim("userId", 1L)
+            .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+            .compact();
+
+    private HotelDto cluj;
+    private HotelDto mamaia;
+    private RoomDto single;
+    private RoomDto suite;
+    private RoomDto family;
+
+    @BeforeEach
+    void setUp() {
+        hotelSearchIndex.rebuild();
+        roomSearchEngine.rebuild();
+        cluj = hotel("Grand", "Cluj");
+        mamaia = hotel("Sea View", "Mamaia");
+        single = room(cluj, "101", "SINGLE", "CITY_VIEW", "89.99", 1, List.of("WiFi"));
+        suite = room(mamaia, "201", "SUITE", "OCEAN_VIEW", "250.00", 4, List.of("WiFi", "TV", "Minibar"));
+        family = room(mamaia, "102", "FAMILY", "GARDEN_VIEW", "180.50", 5, List.of("WiFi", "TV"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM room_facilities");
+        jdbcTemplate.update("DELETE FROM room_images");
+        jdbcTemplate.update("DELETE FROM rooms");
+        jdbcTemplate.update("DELETE FROM hotels");
+    }
+
+    @Test
+    void filtersCombineAsBitmapIntersections() {
+        RoomSearchCriteria criteria = new RoomSearchCriteria();
+        criteria.setFacilities(List.of("WiFi", "TV"));
+        criteria.setSortBy("price");
+        criteria.setSortDirection("DESC");
+        assertThat(ids(roomService.searchRooms(criteria))).containsExactly(suite.getId(), family.getId());
+
+        criteria.setMinGuests(5);
+        assertThat(ids(roomService.searchRooms(criteria))).containsExactly(family.getId());
+
+        criteria = new RoomSearchCriteria();
+        criteria.setMinPrice(new BigDecimal("89.99"));
+        criteria.setMaxPrice(new BigDecimal("180.5"));
+        criteria.setSortBy("roomNumber");
+        assertThat(ids(roomService.searchRooms(criteria))).containsExactly(single.getId(), family.getId());
+
+        criteria.setMinPrice(new BigDecimal("89.991"));
+        assertThat(ids(roomService.searchRooms(criteria))).containsExactly(family.getId());
+
+        criteria = new RoomSearchCriteria();
+        criteria.setLocation("mamaia");
+        criteria.setPosition("ocean_view");
+        assertThat(ids(roomService.searchRooms(criteria))).containsExactly(suite.getId());
+
+        criteria.setPosition(null);
+        criteria.setFacilities(List.of("Sauna"));
+        assertThat(roomService.searchRooms(criteria)).isEmpty();
+    }
+
+    @Test
+    void facetsAreCountedOverTheResult() {
+        RoomSearchCriteria criteria = new RoomSearchCriteria();
+        criteria.setFacilities(List.of("WiFi"));
+        criteria.setSortBy("location");
+
+        FacetedRoomSearchResult result = roomService.searchRoomsWithFacets(criteria);
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getItems()).extracting(RoomDto::getHotelLocation).containsExactly("Cluj", "Mamaia", "Mamaia");
+        assertThat(result.getRoomTypes()).containsExactly(Map.entry("SINGLE", 1), Map.entry("SUITE", 1), Map.entry("FAMILY", 1));
+        assertThat(result.getFacilities()).containsExactly(Map.entry("Minibar", 1), Map.entry("TV", 2), Map.entry("WiFi", 3));
+        assertThat(result.getHotels()).containsEntry(cluj.getId(), 1).containsEntry(mamaia.getId(), 2);
+        assertThat(result.getMinPrice()).isEqualByComparingTo("89.99");
+        assertThat(result.getMaxPrice()).isEqualByComparingTo("250.00");
+
+        criteria.setLocation("nowhere");
+        assertThat(roomService.searchRoomsWithFacets(criteria).getTotal()).isZero();
+    }
+
+    @Test
+    void periodIsCheckedOnReservationInventoryUntilOccupancyIndexIsSynchronized() {
+        ReflectionTestUtils.setField(occupancyIndex, "synchronizedOnce", false);
+        LocalDate checkIn = LocalDate.now().plusDays(3);
+        LocalDate checkOut = checkIn.plusDays(2);
+        when(occupancySyncService.findFreeRooms(any(), eq(checkIn), eq(checkOut))).thenReturn(Set.of(suite.getId()));
+
+        RoomSearchCriteria criteria = new RoomSearchCriteria();
+        criteria.setCheckIn(checkIn);
+        criteria.setCheckOut(checkOut);
+        assertThat(ids(roomService.searchRooms(criteria))).containsExactly(suite.getId());
+        verify(occupancySyncService).findFreeRooms(
+                argThat(rooms -> rooms.containsAll(List.of(single.getId(), suite.getId(), family.getId()))),
+                eq(checkIn), eq(checkOut));
+
+        occupancyIndex.replaceAll(List.of());
+        assertThat(ids(roomService.searchRooms(criteria)))
+                .containsExactlyInAnyOrder(single.getId(), suite.getId(), family.getId());
+        verifyNoMoreInteractions(occupancySyncService);
+    }
+
+    @Test
+    void writesAreAppliedAfterCommit() {
+        CreateRoomRequest change = new CreateRoomRequest();
+        change.setFacilities(List.of("Sauna"));
+        change.setPricePerNight(new BigDecimal("75"));
+        roomService.updateRoom(family.getId(), change, token);
+
+        RoomSearchCriteria sauna = new RoomSearchCriteria();
+        sauna.setFacilities(List.of("Sauna"));
+        sauna.setMaxPrice(new BigDecimal("80"));
+        assertThat(ids(roomService.searchRooms(sauna))).containsExactly(family.getId());
+
+        // Fără lista de facilități, cele existente rămân indexate
+        roomService.toggleRoomAvailability(family.getId(), token);
+        RoomSearchCriteria available = new RoomSearchCriteria();
+        available.setAvailable(true);
+        available.setFacilities(List.of("WiFi"));
+        assertThat(ids(roomService.searchRooms(available))).containsExactlyInAnyOrder(single.getId(), suite.getId());
+        assertThat(ids(roomService.searchRooms(sauna))).containsExactly(family.getId());
+
+        roomService.deleteRoom(suite.getId(), token);
+        assertThat(ids(roomService.searchRooms(available))).containsExactly(single.getId());
+        assertThat(roomSearchEngine.getStats()).contains("\"rooms\":2", "\"slots\":3");
+
+        roomSearchEngine.rebuild();
+        assertThat(roomSearchEngine.getStats()).contains("\"rooms\":2", "\"slots\":2");
+    }
+
+    private HotelDto hotel(String name, String location) {
+        CreateHotelRequest request = new CreateHotelRequest();
+        request.setName(name);
+        request.setLocation(location);
+        return hotelService.createHotel(request, token);
+    }
+
+    private RoomDto room(HotelDto hotel, String number, String type, String position, String price, int guests,
+                         List<String> facilities) {
+        CreateRoomRequest request = new CreateRoomRequest();
+        request.setHotelId(hotel.getId());
+        request.setRoomNumber(number);
+        request.setRoomType(type);
+        request.setPosition(position);
+        request.setPricePerNight(new BigDecimal(price));
+        request.setMaxGuests(guests);
+        request.setFacilities(facilities);
+        return roomService.createRoom(request, token);
+    }
+
+    private List<Long> ids(List<RoomDto> rooms) {
+        return rooms.stream().map(RoomDto::getId).toList();
+    }
+}
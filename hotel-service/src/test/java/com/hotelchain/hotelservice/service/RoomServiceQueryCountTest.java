@@ -0,0 +1,143 @@
+package com.hotelchain.hotelservice.service;
+
+import com.hotelchain.hotelservice.dto.RoomDto;
+import com.hotelchain.hotelservice.dto.RoomSearchCriteria;
+import com.hotelchain.hotelservice.entity.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({RoomService.class, JwtValidationService.class, RoomOccupancyIndex.class, CatalogCache.class, HotelSearchIndex.class, RoomSearchEngine.class,
+        EventOutbox.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class RoomServiceQueryCountTest {
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private RoomSearchEngine roomSearchEngine;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private OccupancySyncService occupancySyncService;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Test
+    void searchRoomsUsesConstantNumberOfStatements() {
+        seed(3, 4);
+        roomSearchEngine.rebuild();
+        long small = countStatements(() -> roomService.searchRooms(criteria()));
+
+        seed(10, 40);
+        roomSearchEngine.rebuild();
+        long large = countStatements(() -> roomService.searchRooms(criteria()));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void availableRoomsUsesConstantNumberOfStatements() {
+        seed(2, 3);
+        long small = countStatements(() -> roomService.getAvailableRooms());
+
+        seed(8, 50);
+        long large = countStatements(() -> roomService.getAvailableRooms());
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void roomsByHotelAreFullyEnriched() {
+        Hotel hotel = seed(1, 5).get(0);
+
+        List<RoomDto> rooms = roomService.getRoomsByHotelSorted(hotel.getId());
+
+        assertThat(rooms).hasSize(5);
+        assertThat(rooms).allSatisfy(room -> {
+            assertThat(room.getHotelName()).isEqualTo(hotel.getName());
+            assertThat(room.getFacilities()).containsExactlyInAnyOrder("WiFi", "TV");
+            assertThat(room.getImages()).extracting("displayOrder").containsExactly(1, 2);
+        });
+    }
+
+    private RoomSearchCriteria criteria() {
+        RoomSearchCriteria criteria = new RoomSearchCriteria();
+        criteria.setFacilities(List.of("WiFi"));
+        criteria.setSortBy("location");
+        criteria.setSortDirection("ASC");
+        return criteria;
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Hotel> seed(int hotelCount, int roomsPerHotel) {
+        List<Hotel> hotels = new java.util.ArrayList<>();
+        for (int h = 0; h < hotelCount; h++) {
+            Hotel hotel = new Hotel();
+            hotel.setName("Hotel " + h);
+            hotel.setLocation("City " + h);
+            hotel = entityManager.persist(hotel);
+            hotels.add(hotel);
+
+            for (int r = 0; r < roomsPerHotel; r++) {
+                Room room = new Room();
+                room.setHotelId(hotel.getId());
+                room.setRoomNumber(h + "-" + r);
+                room.setRoomType(RoomType.DOUBLE);
+                room.setPricePerNight(BigDecimal.valueOf(100 + r));
+                room = entityManager.persist(room);
+
+                for (String facility : List.of("WiFi", "TV")) {
+                    RoomFacility roomFacility = new RoomFacility();
+                    roomFacility.setRoomId(room.getId());
+                    roomFacility.setFacility(facility);
+                    entityManager.persist(roomFacility);
+                }
+                for (int order = 2; order >= 1; order--) {
+                    RoomImage image = new RoomImage();
+                    image.setRoomId(room.getId());
+                    image.setImageUrl("http://images/" + room.getId() + "/" + order);
+                    image.setDisplayOrder(order);
+                    entityManager.persist(image);
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return hotels;
+    }
+}
@@ -1,13 +1,26 @@
 package com.hotelchain.reservationservice.controller;
 
 import com.hotelchain.reservationservice.dto.*;
+import com.hotelchain.reservationservice.export.ExportFormat;
+import com.hotelchain.reservationservice.service.DownstreamGuard;
+import com.hotelchain.reservationservice.service.EnrichmentStage;
+import com.hotelchain.reservationservice.service.InternalServiceCredential;
+import com.hotelchain.reservationservice.service.JwtValidationService;
+import com.hotelchain.reservationservice.service.OutboxRelay;
+import com.hotelchain.reservationservice.service.PooledHttpClientFactory;
+import com.hotelchain.reservationservice.service.ReferenceDataDirectory;
+import com.hotelchain.reservationservice.service.ReferenceDataProjector;
+import com.hotelchain.reservationservice.service.ReservationNotificationQueue;
 import com.hotelchain.reservationservice.service.ReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,6 +31,33 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private JwtValidationService jwtValidationService;
+
+    @Autowired
+    private ReferenceDataDirectory referenceDataDirectory;
+
+    @Autowired
+    private ReservationNotificationQueue notificationQueue;
+
+    @Autowired
+    private EnrichmentStage enrichmentStage;
+
+    @Autowired
+    private DownstreamGuard downstreamGuard;
+
+    @Autowired
+    private PooledHttpClientFactory httpClientFactory;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ReferenceDataProjector referenceDataProjector;
+
+    @Autowired
+    private InternalServiceCredential internalServiceCredential;
+
     // Test endpoints
     @GetMapping("/test")
     public String test() {
@@ -29,6 +69,103 @@ public class ReservationController {
         return "{\"status\":\"UP\",\"service\":\"reservation-service\"}";
     }
 
+    @GetMapping("/auth-cache/stats")
+    public String authCacheStats() {
+        return jwtValidationService.getCacheStats();
+    }
+
+    @GetMapping("/notifications/stats")
+    public String notificationStats() {
+        return notificationQueue.getStats();
+    }
+
+    @GetMapping("/directory/stats")
+    public String directoryStats() {
+        return referenceDataDirectory.getStats();
+    }
+
+    @GetMapping("/enrichment/stats")
+    public String enrichmentStats() {
+        return enrichmentStage.getStats();
+    }
+
+    @GetMapping("/downstream/stats")
+    public String downstreamStats() {
+        return downstreamGuard.getStats();
+    }
+
+    // Ocuparea pool-ului de conexiuni către celelalte servicii
+    @GetMapping("/http-client/stats")
+    public String httpClientStats() {
+        return httpClientFactory.getStats();
+    }
+
+    // Evenimentele ReservationStatusChanged încă nepublicate pe broker și contoarele publicării
+    @GetMapping("/events/outbox/stats")
+    public String outboxStats() {
+        return outboxRelay.getStats();
+    }
+
+    // Proiecțiile locale ale camerelor și clienților, actualizate din evenimente
+    @GetMapping("/events/projection/stats")
+    public String projectionStats() {
+        return referenceDataProjector.getStats();
+    }
+
+    // INTERNAL ENDPOINTS - apelate de hotel-service
+
+    /**
+     * Obține ocuparea curentă a camerelor pentru indexul din hotel-service; doar de la hotel-service
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<List<RoomOccupancyDto>> getCurrentOccupancy(
+            @RequestHeader(value = InternalServiceCredential.HEADER, required = false) String internalToken) {
+        if (!internalServiceCredential.isTrusted(internalToken)) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(reservationService.getCurrentOccupancy());
+    }
+
+    /**
+     * Camerele din listă libere în toate nopțile [checkIn, checkOut), verificate pe inventarul de nopți
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<Long>> getAvailableRooms(@RequestParam List<Long> roomIds,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        try {
+            return ResponseEntity.ok(reservationService.getAvailableRooms(roomIds, checkIn, checkOut));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Invalidează datele unei camere din copia locală folosită la îmbogățire; doar de la celelalte servicii
+     */
+    @PostMapping("/directory/rooms/{roomId}/invalidate")
+    public ResponseEntity<Void> invalidateRoom(@PathVariable Long roomId,
+            @RequestHeader(value = InternalServiceCredential.HEADER, required = false) String internalToken) {
+        if (!internalServiceCredential.isTrusted(internalToken)) {
+            return ResponseEntity.status(403).build();
+        }
+        referenceDataDirectory.invalidateRoom(roomId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Invalidează datele unui client din copia locală folosită la îmbogățire; doar de la celelalte servicii
+     */
+    @PostMapping("/directory/clients/{clientId}/invalidate")
+    public ResponseEntity<Void> invalidateClient(@PathVariable Long clientId,
+            @RequestHeader(value = InternalServiceCredential.HEADER, required = false) String internalToken) {
+        if (!internalServiceCredential.isTrusted(internalToken)) {
+            return ResponseEntity.status(403).build();
+        }
+        referenceDataDirectory.invalidateClient(clientId);
+        return ResponseEntity.ok().build();
+    }
+
     // EMPLOYEE ENDPOINTS - cu autentificare
 
     /**
@@ -56,6 +193,36 @@ public class ReservationController {
         }
     }
 
+    /**
+     * Obține o pagină de rezervări (paginare keyset, cursorul vine din pagina anterioară)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<ReservationDto>> getReservationsPage(@RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer size,
+                                                                          @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(reservationService.getReservationsPage(cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(403).body(null);
+        }
+    }
+
+    /**
+     * Transmite toate rezervările ca NDJSON (un obiect JSON pe linie)
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamReservations(@RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body(reservationService.streamReservations(token));
+        } catch (Exception e) {
+            return ResponseEntity.status(403).build();
+        }
+    }
+
     /**
      * Obține rezervările pentru un client specific
      */
@@ -97,42 +264,24 @@ public class ReservationController {
     }
 
     /**
-     * Export rezervări în diferite formate
+     * Export rezervări în diferite formate, transmis pe măsură ce este generat
      */
     @GetMapping("/export/{format}")
-    public ResponseEntity<byte[]> exportReservations(@PathVariable String format,
-                                                     @RequestHeader("Authorization") String token) {
+    public ResponseEntity<StreamingResponseBody> exportReservations(@PathVariable String format,
+                                                                    @RequestHeader("Authorization") String token) {
         try {
-            byte[] data = reservationService.exportReservations(format, token);
+            ExportFormat exportFormat = ExportFormat.fromName(format);
+            StreamingResponseBody body = reservationService.exportReservations(format, token);
 
             HttpHeaders headers = new HttpHeaders();
-            String filename = "reservations." + format.toLowerCase();
-
-            switch (format.toLowerCase()) {
-                case "csv":
-                    headers.setContentType(MediaType.parseMediaType("text/csv"));
-                    break;
-                case "json":
-                    headers.setContentType(MediaType.APPLICATION_JSON);
-                    break;
-                case "xml":
-                    headers.setContentType(MediaType.APPLICATION_XML);
-                    break;
-                case "doc":
-                    headers.setContentType(MediaType.parseMediaType("application/msword"));
-                    break;
-                default:
-                    headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            }
-
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(data.length);
+            headers.setContentType(MediaType.parseMediaType(exportFormat.getContentType()));
+            headers.setContentDispositionFormData("attachment", "reservations." + exportFormat.getExtension());
 
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(data);
+                    .body(body);
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(null);
+            return ResponseEntity.badRequest().build();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.hotelchain.reservationservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Poziția ultimului rând dintr-o pagină, transmisă clientului ca șir opac.
+ * createdAt lipsește pentru listările ordonate doar după id.
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    // Poziția de start pentru listările descrescătoare: înaintea oricărui rând existent
+    public static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = (createdAt != null ? createdAt.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            String createdAt = raw.substring(0, separator);
+            return new KeysetCursor(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
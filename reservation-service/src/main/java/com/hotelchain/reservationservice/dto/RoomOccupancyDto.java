@@ -0,0 +1,13 @@
+package com.hotelchain.reservationservice.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+public class RoomOccupancyDto {
+    private Long reservationId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private String status;
+}
@@ -0,0 +1,37 @@
+package com.hotelchain.reservationservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia locală a clientului din user-service, actualizată din evenimentele UserChanged.
+ * eventSequence este secvența ultimului eveniment aplicat; evenimentele mai vechi sau repetate sunt ignorate.
+ */
+@Entity
+@Table(name = "client_projection")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientProjection {
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    private String username;
+
+    private String email;
+
+    private String role;
+
+    private boolean active;
+
+    @Column(name = "event_sequence", nullable = false)
+    private long eventSequence;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,44 @@
+package com.hotelchain.reservationservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Eveniment de modificare salvat în aceeași tranzacție cu modificarea agregatului și publicat ulterior
+ * pe broker de {@link com.hotelchain.reservationservice.service.OutboxRelay}
+ */
+@Entity
+@Table(name = "event_outbox", indexes = @Index(name = "idx_event_outbox_published", columnList = "published_at, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -10,7 +10,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_reservations_room_dates", columnList = "room_id, check_in_date, check_out_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,21 @@
+package com.hotelchain.reservationservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Un rând per cameră, blocat cu SELECT ... FOR UPDATE pe durata unei rezervări,
+ * astfel încât rezervările pentru aceeași cameră se serializează, iar cele pentru camere diferite nu.
+ */
+@Entity
+@Table(name = "room_calendar")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomCalendar {
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+}
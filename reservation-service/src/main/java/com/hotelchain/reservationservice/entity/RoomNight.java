@@ -0,0 +1,34 @@
+package com.hotelchain.reservationservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * O noapte ocupată dintr-o cameră. Constrângerea unică (room_id, night) face imposibilă
+ * suprapunerea a două rezervări active la nivelul bazei de date.
+ */
+@Entity
+@Table(name = "room_nights",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_nights_room_night", columnNames = {"room_id", "night"}),
+        indexes = @Index(name = "idx_room_nights_reservation", columnList = "reservation_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomNight {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(nullable = false)
+    private LocalDate night;
+
+    @Column(name = "reservation_id", nullable = false)
+    private Long reservationId;
+}
@@ -0,0 +1,30 @@
+package com.hotelchain.reservationservice.event;
+
+import java.util.Map;
+
+/**
+ * Eveniment de modificare transmis prin broker. Sursa și secvența (id-ul din outbox-ul sursei) îl
+ * identifică unic și cresc odată cu modificările aceluiași agregat, iar data conține starea completă
+ * a agregatului după modificare, deci un consumator poate ignora orice eveniment mai vechi decât ce are deja.
+ */
+public record ChangeEvent(String source, long sequence, String type, Long aggregateId,
+                          Map<String, Object> data, long occurredAt) {
+
+    public static final String ROOM_CHANGED = "RoomChanged";
+    public static final String USER_CHANGED = "UserChanged";
+    public static final String RESERVATION_STATUS_CHANGED = "ReservationStatusChanged";
+
+    public Long getLong(String field) {
+        Object value = data.get(field);
+        return value != null ? Long.valueOf(value.toString()) : null;
+    }
+
+    public String getString(String field) {
+        Object value = data.get(field);
+        return value != null ? value.toString() : null;
+    }
+
+    public boolean getBoolean(String field) {
+        return Boolean.parseBoolean(getString(field));
+    }
+}
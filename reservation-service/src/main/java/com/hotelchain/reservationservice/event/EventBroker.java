@@ -0,0 +1,22 @@
+package com.hotelchain.reservationservice.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Brokerul prin care serviciile își transmit evenimentele de modificare. Livrarea este "cel puțin o dată",
+ * în ordinea publicării pe fiecare tip de eveniment: un handler care aruncă excepție primește din nou
+ * evenimentul, deci handler-ele trebuie să fie idempotente.
+ */
+public interface EventBroker extends AutoCloseable {
+
+    void publish(ChangeEvent event);
+
+    /**
+     * Abonează consumatorul la un tip de eveniment; poziția fiecărui consumator este ținută separat
+     */
+    void subscribe(String type, String consumer, Consumer<ChangeEvent> handler);
+
+    @Override
+    default void close() {
+    }
+}
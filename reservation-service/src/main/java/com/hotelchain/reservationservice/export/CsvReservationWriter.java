@@ -0,0 +1,60 @@
+package com.hotelchain.reservationservice.export;
+
+import com.hotelchain.reservationservice.dto.ReservationDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+class CsvReservationWriter implements ReservationExportWriter {
+
+    private final Writer writer;
+
+    CsvReservationWriter(OutputStream output) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void begin() throws IOException {
+        writer.write("ID,Room,Hotel,Client,Employee,Check-in,Check-out,Total Price,Status\n");
+    }
+
+    @Override
+    public void write(ReservationDto reservation) throws IOException {
+        writer.write(String.format("%d,%s,%s,%s,%s,%s,%s,%.2f,%s\n",
+                reservation.getId(),
+                escape(reservation.getRoomNumber()),
+                escape(reservation.getHotelName()),
+                escape(reservation.getClientName()),
+                escape(reservation.getEmployeeName()),
+                reservation.getCheckInDate(),
+                reservation.getCheckOutDate(),
+                reservation.getTotalPrice(),
+                reservation.getStatus()
+        ));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    // Valorile cu virgule sau ghilimele (ex. "Room 101 at Grand, Cluj") se pun între ghilimele
+    private String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,123 @@
+package com.hotelchain.reservationservice.export;
+
+import com.hotelchain.reservationservice.dto.ReservationDto;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Document Word (.docx) scris incremental: pachetul OOXML este un zip, iar word/document.xml
+ * este generat paragraf cu paragraf direct în intrarea zip-ului. XWPFDocument din POI păstrează
+ * tot documentul în memorie, de aceea nu este folosit aici.
+ */
+class DocxReservationWriter implements ReservationExportWriter {
+
+    private static final String WORD_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private static final String CONTENT_TYPES = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/word/document.xml\" "
+            + "ContentType=\"application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml\"/>"
+            + "</Types>";
+
+    private static final String RELATIONSHIPS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" "
+            + "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" "
+            + "Target=\"word/document.xml\"/>"
+            + "</Relationships>";
+
+    private final ZipOutputStream zip;
+    private XMLStreamWriter xml;
+
+    DocxReservationWriter(OutputStream output) {
+        this.zip = new ZipOutputStream(output, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void begin() throws IOException {
+        writeEntry("[Content_Types].xml", CONTENT_TYPES);
+        writeEntry("_rels/.rels", RELATIONSHIPS);
+
+        zip.putNextEntry(new ZipEntry("word/document.xml"));
+        try {
+            xml = XMLOutputFactory.newInstance().createXMLStreamWriter(zip, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.setPrefix("w", WORD_NS);
+            xml.writeStartElement(WORD_NS, "document");
+            xml.writeNamespace("w", WORD_NS);
+            xml.writeStartElement(WORD_NS, "body");
+            paragraph("RESERVATIONS REPORT", true);
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to export to DOC", e);
+        }
+    }
+
+    @Override
+    public void write(ReservationDto reservation) throws IOException {
+        try {
+            paragraph("Reservation ID: " + reservation.getId(), true);
+            paragraph("Room: " + reservation.getRoomNumber(), false);
+            paragraph("Client: " + reservation.getClientName(), false);
+            paragraph("Dates: " + reservation.getCheckInDate() + " to " + reservation.getCheckOutDate(), false);
+            paragraph(String.format("Total: $%.2f", reservation.getTotalPrice()), false);
+            paragraph("Status: " + reservation.getStatus(), false);
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to export to DOC", e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        try {
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to export to DOC", e);
+        }
+        zip.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to export to DOC", e);
+        }
+        zip.closeEntry();
+        // finish() scrie directorul central fără să închidă stream-ul răspunsului
+        zip.finish();
+    }
+
+    private void paragraph(String text, boolean bold) throws XMLStreamException {
+        xml.writeStartElement(WORD_NS, "p");
+        xml.writeStartElement(WORD_NS, "r");
+        if (bold) {
+            xml.writeStartElement(WORD_NS, "rPr");
+            xml.writeEmptyElement(WORD_NS, "b");
+            xml.writeEndElement();
+        }
+        xml.writeStartElement(WORD_NS, "t");
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
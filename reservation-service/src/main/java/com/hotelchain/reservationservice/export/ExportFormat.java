@@ -0,0 +1,49 @@
+package com.hotelchain.reservationservice.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Formatele suportate de export, cu tipul de conținut și extensia fișierului descărcat
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    JSON("application/json", "json"),
+    XML("application/xml", "xml"),
+    DOC("application/vnd.openxmlformats-officedocument.wordprocessingml.document", "docx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public ReservationExportWriter createWriter(OutputStream output, ObjectMapper objectMapper) {
+        return switch (this) {
+            case CSV -> new CsvReservationWriter(output);
+            case JSON -> new JsonReservationWriter(output, objectMapper);
+            case XML -> new XmlReservationWriter(output);
+            case DOC -> new DocxReservationWriter(output);
+        };
+    }
+
+    public static ExportFormat fromName(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hotelchain.reservationservice.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelchain.reservationservice.dto.ReservationDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+class JsonReservationWriter implements ReservationExportWriter {
+
+    private final OutputStream output;
+    private final ObjectMapper objectMapper;
+    private JsonGenerator generator;
+
+    JsonReservationWriter(OutputStream output, ObjectMapper objectMapper) {
+        this.output = output;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        generator = objectMapper.getFactory().createGenerator(output);
+        // Stream-ul răspunsului este închis de container, nu de generator
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void write(ReservationDto reservation) throws IOException {
+        objectMapper.writeValue(generator, reservation);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.hotelchain.reservationservice.export;
+
+import com.hotelchain.reservationservice.dto.ReservationDto;
+
+import java.io.IOException;
+
+/**
+ * Scrie rezervările direct în stream-ul de ieșire, una câte una, fără a păstra documentul în memorie.
+ * Ordinea apelurilor: begin(), write() pentru fiecare rezervare, finish().
+ */
+public interface ReservationExportWriter {
+
+    void begin() throws IOException;
+
+    void write(ReservationDto reservation) throws IOException;
+
+    /**
+     * Golește bufferele proprii în stream-ul de ieșire, apelat după fiecare lot
+     */
+    void flush() throws IOException;
+
+    void finish() throws IOException;
+}
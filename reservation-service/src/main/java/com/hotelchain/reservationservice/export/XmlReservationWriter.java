@@ -0,0 +1,80 @@
+package com.hotelchain.reservationservice.export;
+
+import com.hotelchain.reservationservice.dto.ReservationDto;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+
+class XmlReservationWriter implements ReservationExportWriter {
+
+    private final OutputStream output;
+    private XMLStreamWriter xml;
+
+    XmlReservationWriter(OutputStream output) {
+        this.output = output;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        try {
+            xml = XMLOutputFactory.newInstance().createXMLStreamWriter(output, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters("\n");
+            xml.writeStartElement("reservations");
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to export to XML", e);
+        }
+    }
+
+    @Override
+    public void write(ReservationDto reservation) throws IOException {
+        try {
+            xml.writeCharacters("\n  ");
+            xml.writeStartElement("reservation");
+            element("id", reservation.getId());
+            element("roomNumber", reservation.getRoomNumber());
+            element("hotelName", reservation.getHotelName());
+            element("clientName", reservation.getClientName());
+            element("checkInDate", reservation.getCheckInDate());
+            element("checkOutDate", reservation.getCheckOutDate());
+            element("totalPrice", reservation.getTotalPrice());
+            element("status", reservation.getStatus());
+            xml.writeCharacters("\n  ");
+            xml.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to export to XML", e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        try {
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to export to XML", e);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            xml.writeCharacters("\n");
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to export to XML", e);
+        }
+    }
+
+    private void element(String name, Object value) throws XMLStreamException {
+        xml.writeCharacters("\n    ");
+        xml.writeStartElement(name);
+        xml.writeCharacters(String.valueOf(value));
+        xml.writeEndElement();
+    }
+}
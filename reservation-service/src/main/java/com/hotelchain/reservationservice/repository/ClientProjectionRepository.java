@@ -0,0 +1,7 @@
+package com.hotelchain.reservationservice.repository;
+
+import com.hotelchain.reservationservice.entity.ClientProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ClientProjectionRepository extends JpaRepository<ClientProjection, Long> {
+}
@@ -2,12 +2,18 @@ package com.hotelchain.reservationservice.repository;
 
 import com.hotelchain.reservationservice.entity.Reservation;
 import com.hotelchain.reservationservice.entity.ReservationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
@@ -23,14 +29,38 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     // Găsește rezervările pentru un angajat specific
     List<Reservation> findByEmployeeIdOrderByCreatedAtDesc(Long employeeId);
 
+    // Paginare keyset pe (createdAt, id), de la cele mai noi; employeeId null = toate rezervările
+    @Query("SELECT r FROM Reservation r " +
+            "WHERE (:employeeId IS NULL OR r.employeeId = :employeeId) " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Reservation> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     @Param("employeeId") Long employeeId,
+                                     Pageable pageable);
+
+    // Citire cu cursor JDBC pentru export; trebuie consumat într-o tranzacție și închis după folosire
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reservation r " +
+            "WHERE (:employeeId IS NULL OR r.employeeId = :employeeId) " +
+            "ORDER BY r.id")
+    Stream<Reservation> streamForExport(@Param("employeeId") Long employeeId);
+
     // Găsește rezervările care se suprapun pentru o cameră (pentru verificarea disponibilității)
+    // Nopțile sunt [checkIn, checkOut), deci ziua de check-out poate fi check-in pentru altă rezervare
     @Query("SELECT r FROM Reservation r WHERE r.roomId = :roomId " +
             "AND r.status NOT IN ('CANCELLED') " +
-            "AND ((r.checkInDate <= :checkOut AND r.checkOutDate >= :checkIn))")
+            "AND ((r.checkInDate < :checkOut AND r.checkOutDate > :checkIn))")
     List<Reservation> findConflictingReservations(@Param("roomId") Long roomId,
                                                   @Param("checkIn") LocalDate checkIn,
                                                   @Param("checkOut") LocalDate checkOut);
 
+    // Găsește rezervările care ocupă încă nopți (pentru indexul de ocupare din hotel-service)
+    List<Reservation> findByStatusNotAndCheckOutDateAfter(ReservationStatus status, LocalDate date);
+
     // REMOVED: Cross-service query that was causing the error
     // This should be handled in the service layer by calling the user-service
     // List<Reservation> findByEmployeeHotelId(@Param("hotelId") Long hotelId);
@@ -0,0 +1,18 @@
+package com.hotelchain.reservationservice.repository;
+
+import com.hotelchain.reservationservice.entity.RoomCalendar;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RoomCalendarRepository extends JpaRepository<RoomCalendar, Long> {
+
+    // SELECT ... FOR UPDATE pe rândul camerei; ține blocarea până la sfârșitul tranzacției
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM RoomCalendar c WHERE c.roomId = :roomId")
+    Optional<RoomCalendar> lockByRoomId(@Param("roomId") Long roomId);
+}
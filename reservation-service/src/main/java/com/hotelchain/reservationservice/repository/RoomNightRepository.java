@@ -0,0 +1,28 @@
+package com.hotelchain.reservationservice.repository;
+
+import com.hotelchain.reservationservice.entity.RoomNight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface RoomNightRepository extends JpaRepository<RoomNight, Long> {
+
+    // Căutare pe indexul unic (room_id, night): citește cel mult câte o intrare pentru fiecare noapte cerută
+    boolean existsByRoomIdAndNightGreaterThanEqualAndNightLessThan(Long roomId, LocalDate from, LocalDate to);
+
+    // Camerele din listă care au cel puțin o noapte ocupată în [from, to)
+    @Query("SELECT DISTINCT n.roomId FROM RoomNight n WHERE n.roomId IN :roomIds AND n.night >= :from AND n.night < :to")
+    List<Long> findOccupiedRoomIds(@Param("roomIds") Collection<Long> roomIds,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    // Eliberează nopțile unei rezervări anulate
+    @Modifying
+    @Query("DELETE FROM RoomNight n WHERE n.reservationId = :reservationId")
+    int deleteByReservationId(@Param("reservationId") Long reservationId);
+}
@@ -0,0 +1,7 @@
+package com.hotelchain.reservationservice.repository;
+
+import com.hotelchain.reservationservice.entity.RoomProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RoomProjectionRepository extends JpaRepository<RoomProjection, Long> {
+}
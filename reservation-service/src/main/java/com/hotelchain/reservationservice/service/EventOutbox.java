@@ -0,0 +1,62 @@
+package com.hotelchain.reservationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelchain.reservationservice.entity.OutboxEvent;
+import com.hotelchain.reservationservice.entity.Reservation;
+import com.hotelchain.reservationservice.event.ChangeEvent;
+import com.hotelchain.reservationservice.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Înregistrează evenimentele de modificare în outbox, în tranzacția apelantului: evenimentul există
+ * dacă și numai dacă modificarea a fost salvată. Publicarea pe broker se face în fundal de {@link OutboxRelay}.
+ */
+@Service
+public class EventOutbox {
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rezervarea cu statusul curent, de care are nevoie review-service la validarea review-urilor
+     */
+    public void recordReservationStatusChanged(Reservation reservation) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("reservationId", reservation.getId());
+        data.put("clientId", reservation.getClientId());
+        data.put("roomId", reservation.getRoomId());
+        data.put("status", reservation.getStatus().name());
+        data.put("checkInDate", reservation.getCheckInDate().toString());
+        data.put("checkOutDate", reservation.getCheckOutDate().toString());
+        record(ChangeEvent.RESERVATION_STATUS_CHANGED, reservation.getId(), data);
+    }
+
+    private void record(String type, Long aggregateId, Map<String, Object> data) {
+        // Modificarea agregatului se scrie întâi, ca blocarea rândului să preceadă id-ul evenimentului:
+        // două tranzacții pe același agregat primesc astfel id-uri în ordinea commit-urilor
+        entityManager.flush();
+
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " event", e);
+        }
+        outboxRepository.save(event);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hotelchain.reservationservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoate din cache-ul de răspunsuri al gateway-ului rutele schimbate de scrieri care nu au trecut prin gateway.
+ * Apelul poartă token-ul intern (adăugat de InternalServiceCredential); dacă gateway-ul nu răspunde,
+ * intrările lui expiră oricum după TTL.
+ */
+@Slf4j
+@Component
+public class GatewayCacheInvalidator {
+
+    private static final int QUEUE_CAPACITY = 1000;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${app.services.gateway:http://localhost:8080}")
+    private String gatewayUrl;
+
+    // Un singur fir, ca invalidările să nu întârzie cererea care a făcut scrierea
+    private final ExecutorService executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "gateway-cache-invalidator");
+                thread.setDaemon(true);
+                return thread;
+            }, (task, pool) -> log.warn("Gateway cache invalidation queue full, entries will expire by TTL"));
+
+    /**
+     * Invalidează prefixele după commit-ul tranzacției curente (imediat, dacă nu există tranzacție)
+     */
+    public void invalidateAfterCommit(String... prefixes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> invalidate(prefixes));
+                }
+            });
+        } else {
+            executor.execute(() -> invalidate(prefixes));
+        }
+    }
+
+    /**
+     * Invalidează prefixele pe firul curent, pentru apelanții care rulează deja după commit
+     */
+    public void invalidate(String... prefixes) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(gatewayUrl + "/gateway/cache/invalidate");
+        for (String prefix : prefixes) {
+            builder.queryParam("prefix", prefix);
+        }
+        URI uri = builder.build().encode().toUri();
+        try {
+            restTemplate.postForEntity(uri, null, String.class);
+        } catch (Exception e) {
+            log.warn("Failed to invalidate gateway cache for {}: {}", Arrays.toString(prefixes), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
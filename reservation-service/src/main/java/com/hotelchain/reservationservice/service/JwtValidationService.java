@@ -2,29 +2,129 @@ package com.hotelchain.reservationservice.service;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class JwtValidationService {
 
     private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
-    }
+    // Header-e de identitate semnate de API Gateway după verificarea token-ului
+    private static final String USER_ID_HEADER = "X-Auth-User-Id";
+    private static final String ROLE_HEADER = "X-Auth-Role";
+    private static final String HOTEL_ID_HEADER = "X-Auth-Hotel-Id";
+    private static final String EXPIRES_HEADER = "X-Auth-Expires";
+    private static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private static final String REQUEST_CLAIMS_ATTRIBUTE = JwtValidationService.class.getName() + ".claims.";
+    private static final int MAX_CACHED_TOKENS = 10000;
+
+    // Cheia și parser-ul sunt imutabile și thread-safe, deci se construiesc o singură dată
+    private static final Key SIGNING_KEY = Keys.hmacShaKeyFor(SECRET.getBytes());
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(SIGNING_KEY)
+            .build();
+
+    @Value("${app.identity.secret:}")
+    private String identitySecret;
+
+    // Claim-urile token-urilor folosite des, păstrate până la expirarea token-ului
+    private final Map<String, Claims> claimsCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                    return size() > MAX_CACHED_TOKENS;
+                }
+            });
+
+    private final LongAdder requestHits = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
     public Claims validateToken(String token) {
         if (token.startsWith("Bearer ")) {
             token = token.substring(7);
         }
 
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        // Un token este parsat cel mult o dată pe cerere
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        String attributeName = REQUEST_CLAIMS_ATTRIBUTE + token;
+        if (attributes != null) {
+            Claims claims = (Claims) attributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+            if (claims != null && !isExpired(claims)) {
+                requestHits.increment();
+                return claims;
+            }
+        }
+
+        Claims claims = resolveClaims(token);
+        if (attributes != null) {
+            attributes.setAttribute(attributeName, claims, RequestAttributes.SCOPE_REQUEST);
+        }
+        return claims;
+    }
+
+    /**
+     * Statistici pentru cache-ul de claim-uri
+     */
+    public String getCacheStats() {
+        long request = requestHits.sum();
+        long shared = cacheHits.sum();
+        long missed = misses.sum();
+        long total = request + shared + missed;
+        double hitRate = total == 0 ? 0.0 : (double) (request + shared) / total;
+        return String.format(Locale.ROOT,
+                "{\"requestHits\":%d,\"cacheHits\":%d,\"misses\":%d,\"hitRate\":%.4f,\"cachedTokens\":%d}",
+                request, shared, missed, hitRate, claimsCache.size());
+    }
+
+    private Claims resolveClaims(String token) {
+        Claims cached = claimsCache.get(token);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                cacheHits.increment();
+                return cached;
+            }
+            claimsCache.remove(token);
+        }
+
+        misses.increment();
+        Claims trusted = claimsFromGatewayHeaders(token);
+        if (trusted != null) {
+            return trusted;
+        }
+
+        // Token-urile invalide sau expirate aruncă excepție și nu ajung în cache
+        Claims claims = PARSER.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            claimsCache.put(token, claims);
+        }
+        return claims;
+    }
+
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && !expiration.after(new Date());
     }
 
     public void validateEmployeeRole(String token) {
@@ -78,4 +178,62 @@ public class JwtValidationService {
             return true;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Calea rapidă: acceptă identitatea semnată de gateway dacă semnătura corespunde
+     * exact acestui token și nu a expirat. Altfel se revine la parsarea JWT-ului.
+     */
+    private Claims claimsFromGatewayHeaders(String token) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (identitySecret.isEmpty() || !(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        String expires = request.getHeader(EXPIRES_HEADER);
+        if (signature == null || expires == null) {
+            return null;
+        }
+
+        String userId = headerOrEmpty(request, USER_ID_HEADER);
+        String role = headerOrEmpty(request, ROLE_HEADER);
+        String hotelId = headerOrEmpty(request, HOTEL_ID_HEADER);
+        try {
+            long expiresAt = Long.parseLong(expires);
+            if (expiresAt <= System.currentTimeMillis()) {
+                return null;
+            }
+
+            String payload = String.join("|", sha256(token), userId, role, hotelId, expires);
+            byte[] expected = hmac(payload);
+            if (!MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(signature))) {
+                return null;
+            }
+
+            Claims claims = Jwts.claims();
+            claims.put("role", role.isEmpty() ? null : role);
+            claims.put("userId", userId.isEmpty() ? null : Long.valueOf(userId));
+            claims.put("hotelId", hotelId.isEmpty() ? null : Long.valueOf(hotelId));
+            claims.setExpiration(new Date(expiresAt));
+            return claims;
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    private String headerOrEmpty(HttpServletRequest request, String name) {
+        String value = request.getHeader(name);
+        return value != null ? value : "";
+    }
+
+    private byte[] hmac(String payload) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String sha256(String token) throws GeneralSecurityException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,266 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.entity.ClientProjection;
+import com.hotelchain.reservationservice.entity.RoomProjection;
+import com.hotelchain.reservationservice.repository.ClientProjectionRepository;
+import com.hotelchain.reservationservice.repository.RoomProjectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Copie locală a datelor despre camere și clienți folosite la îmbogățirea rezervărilor.
+ * Intrările sunt limitate ca număr (LRU) și reîncărcate prin endpoint-urile batch din
+ * hotel-service / user-service după expirarea TTL-ului; dacă reîncărcarea eșuează
+ * se păstrează valoarea veche. Cererile simultane pentru aceleași id-uri sunt comasate într-un singur
+ * apel, iar id-urile negăsite sau a căror încărcare a eșuat nu sunt recerute timp de negative-ttl-ms.
+ * Camerele și clienții se citesc întâi din proiecțiile locale, ținute la zi din evenimentele celorlalte
+ * servicii; apelul HTTP rămâne doar pentru id-urile care nu au ajuns încă în proiecții.
+ */
+@Component
+public class ReferenceDataDirectory {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private RoomProjectionRepository roomProjectionRepository;
+
+    @Autowired
+    private ClientProjectionRepository clientProjectionRepository;
+
+    @Value("${app.services.user:http://localhost:8081}")
+    private String userServiceUrl;
+
+    @Value("${app.services.hotel:http://localhost:8082}")
+    private String hotelServiceUrl;
+
+    @Value("${app.directory.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${app.directory.max-entries:20000}")
+    private int maxEntries;
+
+    @Value("${app.directory.negative-ttl-ms:2000}")
+    private long negativeTtlMs;
+
+    private final Map<Long, Entry<RoomInfo>> rooms = boundedMap();
+    private final Map<Long, Entry<ClientInfo>> clients = boundedMap();
+
+    private final SingleFlight<Long, RoomInfo> roomLoads = new SingleFlight<>();
+    private final SingleFlight<Long, ClientInfo> clientLoads = new SingleFlight<>();
+
+    public RoomInfo getRoom(Long roomId) {
+        if (roomId == null) {
+            return RoomInfo.unknown(null);
+        }
+        prefetchRooms(List.of(roomId));
+        Entry<RoomInfo> entry = rooms.get(roomId);
+        return entry != null ? entry.value() : RoomInfo.unknown(roomId);
+    }
+
+    public ClientInfo getClient(Long clientId) {
+        if (clientId == null) {
+            return ClientInfo.UNKNOWN;
+        }
+        prefetchClients(List.of(clientId));
+        Entry<ClientInfo> entry = clients.get(clientId);
+        return entry != null ? entry.value() : ClientInfo.UNKNOWN;
+    }
+
+    /**
+     * Camera din copia locală (chiar expirată), fără apel către hotel-service
+     */
+    public RoomInfo getCachedRoom(Long roomId) {
+        Entry<RoomInfo> entry = roomId != null ? rooms.get(roomId) : null;
+        return entry != null ? entry.value() : RoomInfo.unknown(roomId);
+    }
+
+    /**
+     * Clientul din copia locală (chiar expirat), fără apel către user-service
+     */
+    public ClientInfo getCachedClient(Long clientId) {
+        Entry<ClientInfo> entry = clientId != null ? clients.get(clientId) : null;
+        return entry != null ? entry.value() : ClientInfo.UNKNOWN;
+    }
+
+    /**
+     * Încarcă într-un singur apel batch camerele lipsă sau expirate dintr-o pagină de rezultate
+     */
+    public void prefetchRooms(Collection<Long> roomIds) {
+        refresh(rooms, roomIds, roomLoads, this::fetchRooms);
+    }
+
+    /**
+     * Încarcă într-un singur apel batch clienții lipsă sau expirați dintr-o pagină de rezultate
+     */
+    public void prefetchClients(Collection<Long> clientIds) {
+        refresh(clients, clientIds, clientLoads, this::fetchClients);
+    }
+
+    /**
+     * Invalidare explicită, apelată când datele camerei se schimbă în hotel-service
+     */
+    public void invalidateRoom(Long roomId) {
+        rooms.remove(roomId);
+        roomLoads.forget(roomId);
+    }
+
+    /**
+     * Invalidare explicită, apelată când datele clientului se schimbă în user-service
+     */
+    public void invalidateClient(Long clientId) {
+        clients.remove(clientId);
+        clientLoads.forget(clientId);
+    }
+
+    /**
+     * Camera primită printr-un eveniment RoomChanged; înlocuiește intrarea din cache fără apel către hotel-service
+     */
+    public void putRoom(RoomInfo room) {
+        rooms.put(room.roomId(), new Entry<>(room, System.currentTimeMillis()));
+        roomLoads.forget(room.roomId());
+    }
+
+    /**
+     * Clientul primit printr-un eveniment UserChanged; înlocuiește intrarea din cache fără apel către user-service
+     */
+    public void putClient(Long clientId, ClientInfo client) {
+        clients.put(clientId, new Entry<>(client, System.currentTimeMillis()));
+        clientLoads.forget(clientId);
+    }
+
+    /**
+     * Dimensiunea copiei locale și contoarele de coalescing pentru camere și clienți
+     */
+    public String getStats() {
+        return String.format(Locale.ROOT, "{\"rooms\":%d,\"clients\":%d,\"roomLoads\":%s,\"clientLoads\":%s}",
+                rooms.size(), clients.size(), roomLoads.getStats(), clientLoads.getStats());
+    }
+
+    private <T> void refresh(Map<Long, Entry<T>> cache, Collection<Long> ids, SingleFlight<Long, T> loads,
+                             Function<Set<Long>, Map<Long, T>> loader) {
+        long now = System.currentTimeMillis();
+        Set<Long> stale = new HashSet<>();
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            Entry<T> entry = cache.get(id);
+            if (entry == null || now - entry.loadedAt() >= ttlMs) {
+                stale.add(id);
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        // Dacă reîncărcarea eșuează, intrările vechi rămân în cache
+        loads.load(stale, loader, negativeTtlMs).forEach((id, value) -> cache.put(id, new Entry<>(value, now)));
+    }
+
+    private Map<Long, RoomInfo> fetchRooms(Set<Long> roomIds) {
+        Map<Long, RoomInfo> result = new HashMap<>();
+        for (RoomProjection room : roomProjectionRepository.findAllById(roomIds)) {
+            result.put(room.getRoomId(), new RoomInfo(room.getRoomId(), room.getRoomNumber(), room.getHotelName()));
+        }
+        Set<Long> missing = new HashSet<>(roomIds);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        try {
+            String url = hotelServiceUrl + "/api/hotels/rooms/batch";
+            ResponseEntity<Map[]> response = restTemplate.postForEntity(url, missing, Map[].class);
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                for (Map<String, Object> room : response.getBody()) {
+                    Long id = Long.valueOf(room.get("id").toString());
+                    result.put(id, new RoomInfo(id, asString(room.get("roomNumber")), asString(room.get("hotelName"))));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to get room info: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private Map<Long, ClientInfo> fetchClients(Set<Long> clientIds) {
+        Map<Long, ClientInfo> result = new HashMap<>();
+        for (ClientProjection client : clientProjectionRepository.findAllById(clientIds)) {
+            result.put(client.getClientId(), new ClientInfo(client.getUsername(), client.getEmail()));
+        }
+        Set<Long> missing = new HashSet<>(clientIds);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        try {
+            String url = userServiceUrl + "/api/users/batch";
+            ResponseEntity<Map[]> response = restTemplate.postForEntity(url, missing, Map[].class);
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                for (Map<String, Object> user : response.getBody()) {
+                    Long id = Long.valueOf(user.get("id").toString());
+                    result.put(id, new ClientInfo(asString(user.get("username")), asString(user.get("email"))));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to get client info: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private <T> Map<Long, Entry<T>> boundedMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<T>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+    public record RoomInfo(Long roomId, String roomNumber, String hotelName) {
+
+        static RoomInfo unknown(Long roomId) {
+            return new RoomInfo(roomId, null, null);
+        }
+
+        /**
+         * Descrierea afișată în rezervări și email-uri
+         */
+        public String describe() {
+            if (roomNumber == null) {
+                return "Room #" + roomId;
+            }
+            return String.format("Room %s at %s", roomNumber, hotelName);
+        }
+    }
+
+    public record ClientInfo(String username, String email) {
+
+        static final ClientInfo UNKNOWN = new ClientInfo(null, "unknown@hotelchain.com");
+    }
+}
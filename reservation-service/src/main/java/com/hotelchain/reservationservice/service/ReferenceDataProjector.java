@@ -0,0 +1,115 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.entity.ClientProjection;
+import com.hotelchain.reservationservice.entity.RoomProjection;
+import com.hotelchain.reservationservice.event.ChangeEvent;
+import com.hotelchain.reservationservice.event.EventBroker;
+import com.hotelchain.reservationservice.repository.ClientProjectionRepository;
+import com.hotelchain.reservationservice.repository.RoomProjectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ține la zi proiecțiile locale ale camerelor și clienților din evenimentele publicate de hotel-service
+ * și user-service, apoi actualizează copia din memorie a {@link ReferenceDataDirectory}.
+ * Brokerul poate livra un eveniment de mai multe ori sau după unul mai nou; se aplică doar evenimentele
+ * cu secvență mai mare decât ultima aplicată pe acel agregat.
+ */
+@Component
+public class ReferenceDataProjector {
+
+    @Autowired
+    private EventBroker eventBroker;
+
+    @Autowired
+    private RoomProjectionRepository roomProjectionRepository;
+
+    @Autowired
+    private ClientProjectionRepository clientProjectionRepository;
+
+    @Autowired
+    private ReferenceDataDirectory referenceDataDirectory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.application.name:reservation-service}")
+    private String consumer;
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        eventBroker.subscribe(ChangeEvent.ROOM_CHANGED, consumer, this::onRoomChanged);
+        eventBroker.subscribe(ChangeEvent.USER_CHANGED, consumer, this::onUserChanged);
+    }
+
+    /**
+     * Numărul de evenimente aplicate și ignorate (repetate sau mai vechi decât proiecția)
+     */
+    public String getStats() {
+        return String.format(Locale.ROOT, "{\"rooms\":%d,\"clients\":%d,\"applied\":%d,\"skipped\":%d}",
+                roomProjectionRepository.count(), clientProjectionRepository.count(), applied.sum(), skipped.sum());
+    }
+
+    void onRoomChanged(ChangeEvent event) {
+        RoomProjection room = new TransactionTemplate(transactionManager).execute(status -> {
+            RoomProjection projection = roomProjectionRepository.findById(event.aggregateId())
+                    .orElseGet(RoomProjection::new);
+            if (event.sequence() <= projection.getEventSequence()) {
+                return null;
+            }
+            projection.setRoomId(event.aggregateId());
+            projection.setHotelId(event.getLong("hotelId"));
+            projection.setRoomNumber(event.getString("roomNumber"));
+            projection.setHotelName(event.getString("hotelName"));
+            projection.setActive(event.getBoolean("active"));
+            projection.setAvailable(event.getBoolean("available"));
+            projection.setEventSequence(event.sequence());
+            projection.setUpdatedAt(LocalDateTime.now());
+            return roomProjectionRepository.save(projection);
+        });
+        if (room == null) {
+            skipped.increment();
+            return;
+        }
+        applied.increment();
+        referenceDataDirectory.putRoom(new ReferenceDataDirectory.RoomInfo(
+                room.getRoomId(), room.getRoomNumber(), room.getHotelName()));
+    }
+
+    void onUserChanged(ChangeEvent event) {
+        ClientProjection client = new TransactionTemplate(transactionManager).execute(status -> {
+            ClientProjection projection = clientProjectionRepository.findById(event.aggregateId())
+                    .orElseGet(ClientProjection::new);
+            if (event.sequence() <= projection.getEventSequence()) {
+                return null;
+            }
+            projection.setClientId(event.aggregateId());
+            projection.setUsername(event.getString("username"));
+            projection.setEmail(event.getString("email"));
+            projection.setRole(event.getString("role"));
+            projection.setActive(event.getBoolean("active"));
+            projection.setEventSequence(event.sequence());
+            projection.setUpdatedAt(LocalDateTime.now());
+            return clientProjectionRepository.save(projection);
+        });
+        if (client == null) {
+            skipped.increment();
+            return;
+        }
+        applied.increment();
+        referenceDataDirectory.putClient(client.getClientId(),
+                new ReferenceDataDirectory.ClientInfo(client.getUsername(), client.getEmail()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.hotelchain.reservationservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coadă limitată pentru notificările rezervărilor (email, actualizarea ocupării).
+ * Sarcinile sunt puse în coadă abia după commit, deci tranzacția și conexiunea la baza de date
+ * nu rămân deschise pe durata apelurilor de rețea, iar firul cererii nu așteaptă după ele.
+ * Când coada este plină, notificarea este renunțată și numărată, nu executată pe firul cererii.
+ */
+@Slf4j
+@Component
+public class ReservationNotificationQueue {
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public ReservationNotificationQueue(int workers, int queueCapacity) {
+        this(workers, queueCapacity, workers, null);
+    }
+
+    /**
+     * Cu fire virtuale active, fiecare worker este un fir virtual și pot rula mai mulți în paralel
+     * (virtual-workers); coada rămâne limitată, deci nici SMTP-ul, nici hotel-service nu primesc
+     * mai multe apeluri simultane decât numărul de workeri configurat
+     */
+    @Autowired
+    public ReservationNotificationQueue(@Value("${app.notifications.workers:4}") int workers,
+                                        @Value("${app.notifications.queue-capacity:1000}") int queueCapacity,
+                                        @Value("${app.notifications.virtual-workers:32}") int virtualWorkers,
+                                        Environment environment) {
+        boolean virtual = environment != null && Threading.VIRTUAL.isActive(environment);
+        int poolSize = virtual ? virtualWorkers : workers;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                virtual ? new VirtualThreadTaskExecutor("reservation-notifications-").getVirtualThreadFactory()
+                        : platformThreads(),
+                (task, pool) -> {
+                    dropped.increment();
+                    log.warn("Notification queue full, dropping notification");
+                });
+    }
+
+    /**
+     * Execută notificarea după commit-ul tranzacției curente; fără tranzacție activă este pusă imediat în coadă
+     */
+    public void publishAfterCommit(Runnable notification) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(notification);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(notification);
+            }
+        });
+    }
+
+    public String getStats() {
+        return String.format("{\"queued\":%d,\"active\":%d,\"submitted\":%d,\"completed\":%d,\"failed\":%d,\"dropped\":%d}",
+                executor.getQueue().size(), executor.getActiveCount(),
+                submitted.sum(), completed.sum(), failed.sum(), dropped.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Notificările deja puse în coadă au câteva secunde să se termine
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static ThreadFactory platformThreads() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "reservation-notifications-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private void submit(Runnable notification) {
+        submitted.increment();
+        executor.execute(() -> {
+            try {
+                notification.run();
+                completed.increment();
+            } catch (Exception e) {
+                failed.increment();
+                log.warn("Notification failed: {}", e.getMessage());
+            }
+        });
+    }
+}
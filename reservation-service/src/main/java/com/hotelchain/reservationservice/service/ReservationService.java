@@ -5,22 +5,44 @@ import com.hotelchain.reservationservice.entity.Reservation;
 import com.hotelchain.reservationservice.entity.ReservationStatus;
 import com.hotelchain.reservationservice.repository.ReservationRepository;
 import com.hotelchain.reservationservice.adapter.ExternalServiceAdapter;
+import com.hotelchain.reservationservice.export.ExportFormat;
+import com.hotelchain.reservationservice.export.ReservationExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReservationService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_BATCH_SIZE = 500;
+    private static final String HOTEL_SERVICE = "hotel-service";
+    private static final String USER_SERVICE = "user-service";
+    // Răspunsurile din cache-ul gateway-ului care depind de ocuparea camerelor
+    private static final String[] AVAILABILITY_ROUTES = {"/api/hotels/rooms/search", "/api/hotels/rooms/available"};
+
     @Autowired
     private ReservationRepository reservationRepository;
 
@@ -30,24 +52,48 @@ public class ReservationService {
     @Autowired
     private ExternalServiceAdapter externalServiceAdapter;
 
+    @Autowired
+    private ReferenceDataDirectory referenceDataDirectory;
+
+    @Autowired
+    private ReservationNotificationQueue notificationQueue;
+
+    @Autowired
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Autowired
+    private EnrichmentStage enrichmentStage;
+
+    @Autowired
+    private RoomInventoryService roomInventoryService;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Value("${app.services.user:http://localhost:8081}")
     private String userServiceUrl;
 
-    @Value("${app.services.hotel:http://localhost:8082}")
-    private String hotelServiceUrl;
-
     @Value("${app.services.export:true}")
     private boolean exportEnabled;
 
     // EMPLOYEE METHODS - pentru angajați
 
     /**
-     * Creează o rezervare nouă (doar EMPLOYEE, MANAGER, ADMIN)
+     * Creează o rezervare nouă (doar EMPLOYEE, MANAGER, ADMIN). Lock-ul camerei se ține doar cât durează
+     * tranzacția de rezervare; îmbogățirea răspunsului, care poate apela alte servicii, rulează după commit.
      */
-    @Transactional
     public ReservationDto createReservation(CreateReservationRequest request, String token) {
         jwtValidationService.validateEmployeeRole(token);
 
@@ -59,6 +105,21 @@ public class ReservationService {
             clientId = createNewClient(request, token);
         }
 
+        if (request.getCheckInDate() == null || request.getCheckOutDate() == null
+                || !request.getCheckOutDate().isAfter(request.getCheckInDate())) {
+            throw new RuntimeException("Check-out date must be after check-in date");
+        }
+
+        Long bookedClientId = clientId;
+        Reservation saved = new TransactionTemplate(transactionManager)
+                .execute(status -> bookRoom(request, bookedClientId, employeeId));
+        return convertToDto(saved);
+    }
+
+    private Reservation bookRoom(CreateReservationRequest request, Long clientId, Long employeeId) {
+        // Rezervările concurente pentru aceeași cameră așteaptă aici până la commit-ul celei curente
+        roomInventoryService.lockRoom(request.getRoomId());
+
         // Verifică disponibilitatea camerei
         if (!isRoomAvailable(request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate())) {
             throw new RuntimeException("Room is not available for the selected dates");
@@ -74,12 +135,16 @@ public class ReservationService {
         reservation.setTotalPrice(request.getTotalPrice());
         reservation.setStatus(ReservationStatus.CONFIRMED);
 
-        reservation = reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
 
-        // Trimite email de confirmare către client
-        sendConfirmationEmail(reservation);
+        // Constrângerea unică din room_nights respinge orice suprapunere rămasă
+        roomInventoryService.reserveNights(saved);
+        recordOccupancyChange(saved);
 
-        return convertToDto(reservation);
+        // Email-ul de confirmare pleacă după commit
+        notificationQueue.publishAfterCommit(() -> sendConfirmationEmail(saved));
+
+        return saved;
     }
 
     /**
@@ -102,9 +167,37 @@ public class ReservationService {
             reservations = reservationRepository.findByEmployeeIdOrderByCreatedAtDesc(employeeId);
         }
 
-        return reservations.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(reservations);
+    }
+
+    /**
+     * Obține o pagină de rezervări, paginată keyset pe (createdAt, id)
+     */
+    public CursorPage<ReservationDto> getReservationsPage(String cursor, Integer size, String token) {
+        Long employeeFilter = resolveEmployeeFilter(token);
+        return getReservationsPage(KeysetCursor.decode(cursor), pageSize(size), employeeFilter);
+    }
+
+    /**
+     * Transmite toate rezervările vizibile ca NDJSON, pagină cu pagină, cu memorie constantă
+     */
+    public StreamingResponseBody streamReservations(String token) {
+        Long employeeFilter = resolveEmployeeFilter(token);
+
+        return output -> {
+            KeysetCursor cursor = KeysetCursor.FIRST;
+            while (cursor != null) {
+                CursorPage<ReservationDto> page = getReservationsPage(cursor, MAX_PAGE_SIZE, employeeFilter);
+                for (ReservationDto dto : page.getItems()) {
+                    output.write(objectMapper.writeValueAsBytes(dto));
+                    output.write('\n');
+                }
+                output.flush();
+                // Entitățile paginii anterioare nu mai sunt necesare
+                entityManager.clear();
+                cursor = page.getNextCursor() != null ? KeysetCursor.decode(page.getNextCursor()) : null;
+            }
+        };
     }
 
     /**
@@ -114,71 +207,164 @@ public class ReservationService {
         jwtValidationService.validateEmployeeRole(token);
 
         List<Reservation> reservations = reservationRepository.findByClientIdOrderByCreatedAtDesc(clientId);
-        return reservations.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(reservations);
     }
 
     /**
-     * Actualizează statusul unei rezervări
+     * Actualizează statusul unei rezervări; răspunsul este îmbogățit după commit
      */
     public ReservationDto updateReservationStatus(Long reservationId, String status, String token) {
         jwtValidationService.validateEmployeeRole(token);
 
+        ReservationStatus newStatus;
+        try {
+            newStatus = ReservationStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid status: " + status);
+        }
+
+        Reservation saved = new TransactionTemplate(transactionManager)
+                .execute(transaction -> changeStatus(reservationId, newStatus));
+        return convertToDto(saved);
+    }
+
+    private Reservation changeStatus(Long reservationId, ReservationStatus newStatus) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
-        try {
-            ReservationStatus newStatus = ReservationStatus.valueOf(status.toUpperCase());
-            reservation.setStatus(newStatus);
-            reservation = reservationRepository.save(reservation);
+        ReservationStatus previousStatus = reservation.getStatus();
+        if (newStatus == ReservationStatus.CANCELLED && previousStatus != ReservationStatus.CANCELLED) {
+            roomInventoryService.releaseNights(reservation.getId());
+        } else if (previousStatus == ReservationStatus.CANCELLED && newStatus != ReservationStatus.CANCELLED) {
+            // Reactivarea unei rezervări anulate ocupă din nou nopțile, dacă sunt încă libere
+            roomInventoryService.lockRoom(reservation.getRoomId());
+            roomInventoryService.reserveNights(reservation);
+        }
 
-            // Notifică clientul despre schimbarea statusului
-            notifyClientStatusChange(reservation, newStatus);
+        reservation.setStatus(newStatus);
+        Reservation saved = reservationRepository.save(reservation);
+        recordOccupancyChange(saved);
 
-            return convertToDto(reservation);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Invalid status: " + status);
-        }
+        // Notifică clientul despre schimbarea statusului, după commit
+        notificationQueue.publishAfterCommit(() -> notifyClientStatusChange(saved, newStatus));
+
+        return saved;
     }
 
     /**
-     * Anulează o rezervare
+     * Anulează o rezervare; răspunsul este îmbogățit după commit
      */
     public ReservationDto cancelReservation(Long reservationId, String token) {
         jwtValidationService.validateEmployeeRole(token);
 
+        Reservation saved = new TransactionTemplate(transactionManager)
+                .execute(transaction -> cancel(reservationId));
+        return convertToDto(saved);
+    }
+
+    private Reservation cancel(Long reservationId) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
+        if (reservation.getStatus() != ReservationStatus.CANCELLED) {
+            roomInventoryService.releaseNights(reservation.getId());
+        }
         reservation.setStatus(ReservationStatus.CANCELLED);
-        reservation = reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        recordOccupancyChange(saved);
 
-        // Notifică clientul despre anulare
-        notifyCancellation(reservation);
+        // Notifică clientul despre anulare, după commit
+        notificationQueue.publishAfterCommit(() -> notifyCancellation(saved));
 
-        return convertToDto(reservation);
+        return saved;
     }
 
     /**
-     * Export rezervări în diferite formate
+     * Obține rezervările care ocupă camere de azi înainte (pentru indexul de ocupare)
      */
-    public byte[] exportReservations(String format, String token) {
-        jwtValidationService.validateEmployeeRole(token);
+    public List<RoomOccupancyDto> getCurrentOccupancy() {
+        return reservationRepository
+                .findByStatusNotAndCheckOutDateAfter(ReservationStatus.CANCELLED, LocalDate.now())
+                .stream()
+                .map(this::convertToOccupancyDto)
+                .collect(Collectors.toList());
+    }
 
-        List<ReservationDto> reservations = getAllReservations(token);
+    /**
+     * Camerele din listă libere pentru toate nopțile [checkIn, checkOut)
+     */
+    public List<Long> getAvailableRooms(List<Long> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        return roomInventoryService.findAvailableRooms(roomIds, checkIn, checkOut);
+    }
 
-        return switch (format.toLowerCase()) {
-            case "csv" -> exportToCsv(reservations);
-            case "json" -> exportToJson(reservations);
-            case "xml" -> exportToXml(reservations);
-            case "doc" -> exportToDoc(reservations);
-            default -> throw new RuntimeException("Unsupported format: " + format);
+    /**
+     * Export rezervări în diferite formate. Rezervările sunt citite cu un cursor JDBC,
+     * îmbogățite pe loturi și scrise direct în răspuns, deci memoria nu crește cu numărul de rânduri.
+     */
+    public StreamingResponseBody exportReservations(String format, String token) {
+        Long employeeFilter = resolveEmployeeFilter(token);
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+
+        return output -> {
+            ReservationExportWriter writer = exportFormat.createWriter(output, objectMapper);
+            writer.begin();
+
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Reservation> rows = reservationRepository.streamForExport(employeeFilter)) {
+                    List<Reservation> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+                    rows.forEach(reservation -> {
+                        batch.add(reservation);
+                        if (batch.size() == EXPORT_BATCH_SIZE) {
+                            exportBatch(batch, writer);
+                        }
+                    });
+                    exportBatch(batch, writer);
+                }
+            });
+
+            writer.finish();
         };
     }
 
     // HELPER METHODS
 
+    /**
+     * Admin și Manager văd toate rezervările (null), Employee doar pe cele făcute de el
+     */
+    private Long resolveEmployeeFilter(String token) {
+        jwtValidationService.validateEmployeeRole(token);
+
+        String role = jwtValidationService.getRoleFromToken(token);
+        if ("ADMIN".equals(role) || "MANAGER".equals(role)) {
+            return null;
+        }
+        return jwtValidationService.getUserIdFromToken(token);
+    }
+
+    private CursorPage<ReservationDto> getReservationsPage(KeysetCursor cursor, int size, Long employeeFilter) {
+        List<Reservation> reservations = reservationRepository.findPageBefore(
+                cursor.createdAt(), cursor.id(), employeeFilter, PageRequest.of(0, size));
+
+        String nextCursor = null;
+        if (reservations.size() == size) {
+            Reservation last = reservations.get(reservations.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(convertToDtos(reservations), nextCursor);
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
     private Long createNewClient(CreateReservationRequest request, String token) {
         try {
             Map<String, Object> clientData = new HashMap<>();
@@ -210,9 +396,7 @@ public class ReservationService {
     }
 
     private boolean isRoomAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
-        List<Reservation> conflictingReservations = reservationRepository
-                .findConflictingReservations(roomId, checkIn, checkOut);
-        return conflictingReservations.isEmpty();
+        return roomInventoryService.isAvailable(roomId, checkIn, checkOut);
     }
 
     private void sendConfirmationEmail(Reservation reservation) {
@@ -307,118 +491,87 @@ public class ReservationService {
         }
     }
 
-    private String getClientEmail(Long clientId) {
-        try {
-            String url = userServiceUrl + "/api/users/" + clientId;
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+    /**
+     * Schimbarea de ocupare ajunge la indexul din hotel-service prin outbox, în aceeași tranzacție cu rezervarea,
+     * deci nu se pierde dacă hotel-service sau coada de notificări nu sunt disponibile. Gateway-ul este anunțat
+     * după commit, iar hotel-service îl anunță din nou după ce aplică evenimentul.
+     */
+    private void recordOccupancyChange(Reservation reservation) {
+        eventOutbox.recordReservationStatusChanged(reservation);
+        gatewayCacheInvalidator.invalidateAfterCommit(AVAILABILITY_ROUTES);
+    }
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return (String) response.getBody().get("email");
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to get client email: " + e.getMessage());
-        }
-        return "unknown@hotelchain.com";
+    private String getClientEmail(Long clientId) {
+        return referenceDataDirectory.getClient(clientId).email();
     }
 
     private String getRoomInfo(Long roomId) {
-        try {
-            String url = hotelServiceUrl + "/api/hotels/rooms/" + roomId;
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Map<String, Object> room = response.getBody();
-                return String.format("Room %s at %s",
-                        room.get("roomNumber"),
-                        room.get("hotelName"));
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to get room info: " + e.getMessage());
-        }
-        return "Room #" + roomId;
+        return referenceDataDirectory.getRoom(roomId).describe();
     }
 
-    private byte[] exportToCsv(List<ReservationDto> reservations) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Room,Hotel,Client,Employee,Check-in,Check-out,Total Price,Status\n");
-
-        for (ReservationDto reservation : reservations) {
-            csv.append(String.format("%d,%s,%s,%s,%s,%s,%s,%.2f,%s\n",
-                    reservation.getId(),
-                    reservation.getRoomNumber(),
-                    reservation.getHotelName(),
-                    reservation.getClientName(),
-                    reservation.getEmployeeName(),
-                    reservation.getCheckInDate(),
-                    reservation.getCheckOutDate(),
-                    reservation.getTotalPrice(),
-                    reservation.getStatus()
-            ));
+    /**
+     * Scrie un lot din export și eliberează entitățile deja scrise din contextul de persistență
+     */
+    private void exportBatch(List<Reservation> batch, ReservationExportWriter writer) {
+        if (batch.isEmpty()) {
+            return;
         }
-
-        return csv.toString().getBytes();
-    }
-
-    private byte[] exportToJson(List<ReservationDto> reservations) {
         try {
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            return mapper.writeValueAsBytes(reservations);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to export to JSON", e);
+            for (ReservationDto dto : convertToDtos(batch)) {
+                writer.write(dto);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write export", e);
         }
+        batch.clear();
+        entityManager.clear();
     }
 
-    private byte[] exportToXml(List<ReservationDto> reservations) {
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<reservations>\n");
-
-        for (ReservationDto reservation : reservations) {
-            xml.append("  <reservation>\n");
-            xml.append("    <id>").append(reservation.getId()).append("</id>\n");
-            xml.append("    <roomNumber>").append(reservation.getRoomNumber()).append("</roomNumber>\n");
-            xml.append("    <hotelName>").append(reservation.getHotelName()).append("</hotelName>\n");
-            xml.append("    <clientName>").append(reservation.getClientName()).append("</clientName>\n");
-            xml.append("    <checkInDate>").append(reservation.getCheckInDate()).append("</checkInDate>\n");
-            xml.append("    <checkOutDate>").append(reservation.getCheckOutDate()).append("</checkOutDate>\n");
-            xml.append("    <totalPrice>").append(reservation.getTotalPrice()).append("</totalPrice>\n");
-            xml.append("    <status>").append(reservation.getStatus()).append("</status>\n");
-            xml.append("  </reservation>\n");
-        }
-
-        xml.append("</reservations>");
-        return xml.toString().getBytes();
+    private RoomOccupancyDto convertToOccupancyDto(Reservation reservation) {
+        RoomOccupancyDto dto = new RoomOccupancyDto();
+        dto.setReservationId(reservation.getId());
+        dto.setRoomId(reservation.getRoomId());
+        dto.setCheckInDate(reservation.getCheckInDate());
+        dto.setCheckOutDate(reservation.getCheckOutDate());
+        dto.setStatus(reservation.getStatus().name());
+        return dto;
     }
 
-    private byte[] exportToDoc(List<ReservationDto> reservations) {
-        // Implementation using Apache POI for DOC export
-        // This is a simplified version - you'd need proper POI implementation
-        StringBuilder doc = new StringBuilder();
-        doc.append("RESERVATIONS REPORT\n\n");
-
-        for (ReservationDto reservation : reservations) {
-            doc.append(String.format(
-                    "Reservation ID: %d\n" +
-                            "Room: %s at %s\n" +
-                            "Client: %s\n" +
-                            "Dates: %s to %s\n" +
-                            "Total: $%.2f\n" +
-                            "Status: %s\n\n",
-                    reservation.getId(),
-                    reservation.getRoomNumber(),
-                    reservation.getHotelName(),
-                    reservation.getClientName(),
-                    reservation.getCheckInDate(),
-                    reservation.getCheckOutDate(),
-                    reservation.getTotalPrice(),
-                    reservation.getStatus()
-            ));
-        }
+    /**
+     * Îmbogățește o pagină de rezervări cu un apel batch pentru camere și unul pentru clienți, pornite
+     * în paralel; ce nu sosește până la termenul paginii rămâne "Room #id" / clientul necunoscut
+     */
+    private List<ReservationDto> convertToDtos(List<Reservation> reservations) {
+        Set<Long> roomIds = reservations.stream()
+                .map(Reservation::getRoomId)
+                .collect(Collectors.toSet());
+        Set<Long> clientIds = reservations.stream()
+                .map(Reservation::getClientId)
+                .collect(Collectors.toSet());
+
+        long deadline = enrichmentStage.startPage();
+        CompletableFuture<Void> roomLookup = enrichmentStage.submit(HOTEL_SERVICE, () -> {
+            referenceDataDirectory.prefetchRooms(roomIds);
+            return null;
+        });
+        CompletableFuture<Void> clientLookup = enrichmentStage.submit(USER_SERVICE, () -> {
+            referenceDataDirectory.prefetchClients(clientIds);
+            return null;
+        });
+        enrichmentStage.await(HOTEL_SERVICE, roomLookup, deadline, null);
+        enrichmentStage.await(USER_SERVICE, clientLookup, deadline, null);
 
-        return doc.toString().getBytes();
+        return reservations.stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
     }
 
     private ReservationDto convertToDto(Reservation reservation) {
+        return convertToDtos(List.of(reservation)).get(0);
+    }
+
+    private ReservationDto toDto(Reservation reservation) {
         ReservationDto dto = new ReservationDto();
         dto.setId(reservation.getId());
         dto.setRoomId(reservation.getRoomId());
@@ -431,14 +584,13 @@ public class ReservationService {
         dto.setCreatedAt(reservation.getCreatedAt());
         dto.setUpdatedAt(reservation.getUpdatedAt());
 
-        // Încarcă informații suplimentare prin API-uri externe
-        try {
-            dto.setRoomNumber(getRoomInfo(reservation.getRoomId()));
-            dto.setClientEmail(getClientEmail(reservation.getClientId()));
-        } catch (Exception e) {
-            // Log but don't fail
-            System.err.println("Failed to load additional reservation info: " + e.getMessage());
-        }
+        // Informațiile suplimentare vin din copia locală, fără apeluri HTTP pe rând
+        ReferenceDataDirectory.RoomInfo room = referenceDataDirectory.getCachedRoom(reservation.getRoomId());
+        ReferenceDataDirectory.ClientInfo client = referenceDataDirectory.getCachedClient(reservation.getClientId());
+        dto.setRoomNumber(room.describe());
+        dto.setHotelName(room.hotelName());
+        dto.setClientName(client.username());
+        dto.setClientEmail(client.email());
 
         return dto;
     }
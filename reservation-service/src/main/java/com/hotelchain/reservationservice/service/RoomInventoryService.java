@@ -0,0 +1,133 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.entity.Reservation;
+import com.hotelchain.reservationservice.entity.ReservationStatus;
+import com.hotelchain.reservationservice.entity.RoomNight;
+import com.hotelchain.reservationservice.repository.ReservationRepository;
+import com.hotelchain.reservationservice.repository.RoomCalendarRepository;
+import com.hotelchain.reservationservice.repository.RoomNightRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Nopțile ocupate ale camerelor. Rezervările pentru aceeași cameră sunt serializate prin blocarea
+ * rândului din room_calendar, iar constrângerea unică din room_nights garantează că două rezervări
+ * active nu pot ocupa aceeași noapte, chiar dacă blocarea ar fi ocolită.
+ */
+@Service
+public class RoomInventoryService {
+
+    @Autowired
+    private RoomCalendarRepository roomCalendarRepository;
+
+    @Autowired
+    private RoomNightRepository roomNightRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Blochează camera până la sfârșitul tranzacției curente (trebuie apelat într-o tranzacție)
+     */
+    public void lockRoom(Long roomId) {
+        if (!roomCalendarRepository.existsById(roomId)) {
+            try {
+                // Prin JDBC, ca o cheie duplicată să nu invalideze sesiunea Hibernate
+                jdbcTemplate.update("INSERT INTO room_calendar (room_id) VALUES (?)", roomId);
+            } catch (DuplicateKeyException e) {
+                // Rândul a fost creat între timp de o altă rezervare
+            }
+        }
+        roomCalendarRepository.lockByRoomId(roomId);
+    }
+
+    /**
+     * Verifică dacă toate nopțile [checkIn, checkOut) ale camerei sunt libere
+     */
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        return !roomNightRepository.existsByRoomIdAndNightGreaterThanEqualAndNightLessThan(roomId, checkIn, checkOut);
+    }
+
+    /**
+     * Întoarce camerele din listă libere în toate nopțile [checkIn, checkOut), într-o singură interogare
+     */
+    public List<Long> findAvailableRooms(Collection<Long> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        Set<Long> candidates = new LinkedHashSet<>(roomIds);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        roomNightRepository.findOccupiedRoomIds(candidates, checkIn, checkOut).forEach(candidates::remove);
+        return new ArrayList<>(candidates);
+    }
+
+    /**
+     * Ocupă nopțile [checkIn, checkOut) ale rezervării; eșuează dacă oricare este deja ocupată
+     */
+    public void reserveNights(Reservation reservation) {
+        try {
+            roomNightRepository.saveAllAndFlush(nightsOf(reservation));
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Room is not available for the selected dates");
+        }
+    }
+
+    /**
+     * Eliberează nopțile unei rezervări anulate
+     */
+    public void releaseNights(Long reservationId) {
+        roomNightRepository.deleteByReservationId(reservationId);
+    }
+
+    /**
+     * La prima pornire populează room_nights din rezervările active care nu s-au terminat încă.
+     * Suprapunerile existente (rezervări duble din trecut) sunt raportate și sărite.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (roomNightRepository.count() > 0) {
+            return;
+        }
+
+        List<Reservation> active = reservationRepository
+                .findByStatusNotAndCheckOutDateAfter(ReservationStatus.CANCELLED, LocalDate.now());
+        Set<String> taken = new HashSet<>();
+        List<RoomNight> nights = new ArrayList<>();
+        for (Reservation reservation : active) {
+            for (RoomNight night : nightsOf(reservation)) {
+                if (taken.add(night.getRoomId() + "|" + night.getNight())) {
+                    nights.add(night);
+                } else {
+                    System.err.println("Reservation " + reservation.getId() + " overlaps another reservation on "
+                            + night.getNight() + " for room " + night.getRoomId());
+                }
+            }
+        }
+        roomNightRepository.saveAll(nights);
+    }
+
+    private List<RoomNight> nightsOf(Reservation reservation) {
+        List<RoomNight> nights = new ArrayList<>();
+        for (LocalDate night = reservation.getCheckInDate(); night.isBefore(reservation.getCheckOutDate()); night = night.plusDays(1)) {
+            nights.add(new RoomNight(null, reservation.getRoomId(), night, reservation.getId()));
+        }
+        return nights;
+    }
+}
@@ -0,0 +1,126 @@
+package com.hotelchain.reservationservice.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalescing pentru căutări identice simultane ("single-flight"): un apelant care cere o cheie deja
+ * în curs de încărcare așteaptă rezultatul acelei încărcări în loc să facă propriul apel downstream.
+ * Cheile pentru care încărcarea a eșuat sau nu a întors nimic sunt ținute scurt într-un cache negativ,
+ * ca un serviciu căzut să nu fie lovit din nou de fiecare cerere.
+ */
+public class SingleFlight<K, V> {
+
+    // Peste această dimensiune, cache-ul negativ este curățat de intrările expirate
+    private static final int NEGATIVE_PRUNE_THRESHOLD = 10_000;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Map<K, Long> negativeUntil = new ConcurrentHashMap<>();
+
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadedKeys = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+
+    /**
+     * Întoarce valorile pentru chei; cheile fără încărcare în curs sunt cerute printr-un singur apel
+     * al loader-ului, celelalte așteaptă încărcarea deja pornită. Cheile fără valoare lipsesc din rezultat.
+     */
+    public Map<K, V> load(Collection<K> keys, Function<Set<K>, Map<K, V>> loader, long negativeTtlMs) {
+        long now = System.currentTimeMillis();
+        Map<K, CompletableFuture<V>> owned = new HashMap<>();
+        Map<K, CompletableFuture<V>> joined = new HashMap<>();
+
+        for (K key : keys) {
+            if (key == null || owned.containsKey(key) || joined.containsKey(key)) {
+                continue;
+            }
+            requested.increment();
+
+            Long until = negativeUntil.get(key);
+            if (until != null) {
+                if (now < until) {
+                    negativeHits.increment();
+                    continue;
+                }
+                negativeUntil.remove(key, until);
+            }
+
+            CompletableFuture<V> created = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                owned.put(key, created);
+            } else {
+                coalesced.increment();
+                joined.put(key, existing);
+            }
+        }
+
+        Map<K, V> result = new HashMap<>();
+        if (!owned.isEmpty()) {
+            loads.increment();
+            Map<K, V> loaded = null;
+            try {
+                loaded = loader.apply(new HashSet<>(owned.keySet()));
+            } finally {
+                // Și la excepție: cei care așteaptă primesc "fără valoare", iar cheile intră în cache-ul negativ
+                long negativeExpiry = System.currentTimeMillis() + negativeTtlMs;
+                for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+                    V value = loaded != null ? loaded.get(entry.getKey()) : null;
+                    if (value != null) {
+                        loadedKeys.increment();
+                        result.put(entry.getKey(), value);
+                    } else if (negativeTtlMs > 0) {
+                        negativeUntil.put(entry.getKey(), negativeExpiry);
+                    }
+                    inFlight.remove(entry.getKey(), entry.getValue());
+                    entry.getValue().complete(value);
+                }
+                pruneNegative();
+            }
+        }
+
+        // Încărcările proprii sunt terminate înainte de a aștepta pe ale altora, deci nu există așteptări circulare
+        joined.forEach((key, future) -> {
+            V value = future.join();
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Scoate cheia din cache-ul negativ, de exemplu după o invalidare explicită
+     */
+    public void forget(K key) {
+        negativeUntil.remove(key);
+    }
+
+    /**
+     * Contoarele de coalescing, ca obiect JSON
+     */
+    public String getStats() {
+        return String.format(Locale.ROOT,
+                "{\"requested\":%d,\"loads\":%d,\"loadedKeys\":%d,\"coalesced\":%d,\"negativeHits\":%d," +
+                        "\"inFlight\":%d,\"negativeEntries\":%d}",
+                requested.sum(), loads.sum(), loadedKeys.sum(), coalesced.sum(), negativeHits.sum(),
+                inFlight.size(), negativeUntil.size());
+    }
+
+    private void pruneNegative() {
+        if (negativeUntil.size() > NEGATIVE_PRUNE_THRESHOLD) {
+            long now = System.currentTimeMillis();
+            negativeUntil.values().removeIf(until -> until <= now);
+        }
+    }
+}
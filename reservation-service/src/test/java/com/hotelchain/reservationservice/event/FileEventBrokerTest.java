@@ -0,0 +1,145 @@
+package com.hotelchain.reservationservice.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileEventBrokerTest {
+
+    // Polling-ul din fundal nu pornește în timpul testului; livrarea se face explicit cu pollAll()
+    private static final long POLL_MS = 60_000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void eventsAreDeliveredInOrderAndOffsetSurvivesRestart() {
+        FileEventBroker publisher = new FileEventBroker(directory, POLL_MS, MAX_ATTEMPTS);
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            publisher.publish(roomChanged(sequence));
+        }
+
+        List<Long> received = new ArrayList<>();
+        FileEventBroker consumer = new FileEventBroker(directory, POLL_MS, MAX_ATTEMPTS);
+        consumer.subscribe(ChangeEvent.ROOM_CHANGED, "reservation-service", event -> received.add(event.sequence()));
+        consumer.pollAll();
+        consumer.close();
+        assertThat(received).containsExactly(1L, 2L, 3L);
+
+        publisher.publish(roomChanged(4));
+        List<Long> afterRestart = new ArrayList<>();
+        FileEventBroker restarted = new FileEventBroker(directory, POLL_MS, MAX_ATTEMPTS);
+        restarted.subscribe(ChangeEvent.ROOM_CHANGED, "reservation-service", event -> afterRestart.add(event.sequence()));
+        restarted.subscribe(ChangeEvent.ROOM_CHANGED, "review-service", event -> { });
+        restarted.pollAll();
+        restarted.close();
+        assertThat(afterRestart).containsExactly(4L);
+    }
+
+    @Test
+    void eventIsRedeliveredAfterHandlerFailure() {
+        FileEventBroker broker = new FileEventBroker(directory, POLL_MS, MAX_ATTEMPTS);
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            broker.publish(roomChanged(sequence));
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        List<Long> received = new ArrayList<>();
+        broker.subscribe(ChangeEvent.ROOM_CHANGED, "reservation-service", event -> {
+            if (event.sequence() == 2 && failures.getAndIncrement() == 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+            received.add(event.sequence());
+        });
+
+        broker.pollAll();
+        assertThat(received).containsExactly(1L);
+        broker.pollAll();
+        broker.close();
+        assertThat(received).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void poisonEventIsDeadLetteredAfterMaxAttempts() throws Exception {
+        FileEventBroker broker = new FileEventBroker(directory, POLL_MS, MAX_ATTEMPTS);
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            broker.publish(roomChanged(sequence));
+        }
+
+        List<Long> received = new ArrayList<>();
+        broker.subscribe(ChangeEvent.ROOM_CHANGED, "reservation-service", event -> {
+            if (event.sequence() == 2) {
+                throw new IllegalStateException("cannot apply");
+            }
+            received.add(event.sequence());
+        });
+
+        for (int poll = 1; poll < MAX_ATTEMPTS; poll++) {
+            broker.pollAll();
+            assertThat(received).containsExactly(1L);
+        }
+        broker.pollAll();
+        broker.close();
+        assertThat(received).containsExactly(1L, 3L);
+
+        List<String> deadLetters = Files.readAllLines(directory.resolve(ChangeEvent.ROOM_CHANGED + ".reservation-service.dead"));
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0)).contains("\"sequence\":2");
+    }
+
+    @Test
+    void lineLongerThanABatchIsDeadLetteredInsteadOfBlockingTheLog() throws Exception {
+        Path log = directory.resolve(ChangeEvent.ROOM_CHANGED + ".log");
+        Files.writeString(log, "{\"padding\":\"" + "x".repeat(1 << 21) + "\"}\n", StandardCharsets.UTF_8);
+        FileEventBroker broker = new FileEventBroker(directory, POLL_MS, MAX_ATTEMPTS);
+        broker.publish(roomChanged(1));
+
+        List<Long> received = new ArrayList<>();
+        broker.subscribe(ChangeEvent.ROOM_CHANGED, "reservation-service", event -> received.add(event.sequence()));
+        broker.pollAll();
+        broker.pollAll();
+        broker.close();
+
+        assertThat(received).containsExactly(1L);
+        assertThat(Files.size(directory.resolve(ChangeEvent.ROOM_CHANGED + ".reservation-service.dead")))
+                .isGreaterThan(1 << 21);
+    }
+
+    @Test
+    void partiallyWrittenLineWaitsForTheNextPoll() throws Exception {
+        FileEventBroker broker = new FileEventBroker(directory, POLL_MS, MAX_ATTEMPTS);
+        broker.publish(roomChanged(1));
+        Path log = directory.resolve(ChangeEvent.ROOM_CHANGED + ".log");
+        String complete = Files.readString(log);
+        Files.writeString(log, complete.substring(0, complete.length() - 10), StandardCharsets.UTF_8,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        List<ChangeEvent> received = new ArrayList<>();
+        broker.subscribe(ChangeEvent.ROOM_CHANGED, "reservation-service", received::add);
+        broker.pollAll();
+        assertThat(received).isEmpty();
+
+        Files.writeString(log, complete, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+        broker.pollAll();
+        broker.close();
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).getString("hotelName")).isEqualTo("Grand");
+        assertThat(received.get(0).getLong("roomId")).isEqualTo(10L);
+    }
+
+    private ChangeEvent roomChanged(long sequence) {
+        return new ChangeEvent("hotel-service", sequence, ChangeEvent.ROOM_CHANGED, 10L,
+                Map.of("roomId", 10L, "roomNumber", "10" + sequence, "hotelName", "Grand"), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,186 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.repository.ClientProjectionRepository;
+import com.hotelchain.reservationservice.repository.RoomProjectionRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class DownstreamGuardTest {
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer downstream;
+    private String baseUrl;
+    private String authority;
+    private DownstreamGuard guard;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        downstream.createContext("/", this::handle);
+        downstream.setExecutor(Executors.newCachedThreadPool());
+        downstream.start();
+        authority = "localhost:" + downstream.getAddress().getPort();
+        baseUrl = "http://" + authority;
+
+        // Un singur apel simultan, circuit deschis după 2 eșecuri din 4 apeluri, timeout de citire 200 ms
+        guard = new DownstreamGuard(1, 4, 4, 50, 60_000, 200);
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(200);
+        requestFactory.setReadTimeout(200);
+        restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(guard);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        downstream.stop(0);
+    }
+
+    @Test
+    void failingServiceOpensTheCircuitAndIsNoLongerCalled() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/fail", String.class))
+                    .isInstanceOf(HttpServerErrorException.class);
+        }
+        assertThat(guard.getState(authority)).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/fail", String.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasCauseInstanceOf(DownstreamGuard.RejectedCallException.class);
+        assertThat(hits.get()).isEqualTo(4);
+        assertThat(guard.getStats()).contains("\"state\":\"OPEN\"", "\"shortCircuited\":1");
+    }
+
+    @Test
+    void openCircuitFallsBackToTheDefaultDescription() {
+        ReferenceDataDirectory directory = new ReferenceDataDirectory();
+        ReflectionTestUtils.setField(directory, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(directory, "hotelServiceUrl", baseUrl);
+        ReflectionTestUtils.setField(directory, "userServiceUrl", baseUrl);
+        ReflectionTestUtils.setField(directory, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(directory, "maxEntries", 100);
+        ReflectionTestUtils.setField(directory, "negativeTtlMs", 0L);
+        ReflectionTestUtils.setField(directory, "roomProjectionRepository", mock(RoomProjectionRepository.class));
+        ReflectionTestUtils.setField(directory, "clientProjectionRepository", mock(ClientProjectionRepository.class));
+
+        for (long roomId = 1; roomId <= 6; roomId++) {
+            assertThat(directory.getRoom(roomId).describe()).isEqualTo("Room #" + roomId);
+        }
+        // Doar primele 4 cereri ajung la hotel-service; restul sunt refuzate local
+        assertThat(hits.get()).isEqualTo(4);
+    }
+
+    @Test
+    void slowServiceFailsAtTheReadTimeout() {
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/slow", String.class))
+                .isInstanceOf(ResourceAccessException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(guard.getStats()).contains("\"failures\":1", "\"inFlight\":0");
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() throws Exception {
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> {
+            try {
+                restTemplate.getForObject(baseUrl + "/block", String.class);
+            } catch (ResourceAccessException ignored) {
+                // timeout-ul de citire eliberează apelul
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/budget", String.class))
+                .hasCauseInstanceOf(DownstreamGuard.RejectedCallException.class)
+                .hasMessageContaining("too many concurrent calls");
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        assertThat(guard.getStats()).contains("\"bulkheadRejected\":1");
+    }
+
+    @Test
+    void remainingBudgetIsPropagatedAndAnExhaustedBudgetFailsFast() {
+        String propagated = RequestDeadline.callWithin(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100),
+                () -> restTemplate.getForObject(baseUrl + "/budget", String.class));
+        assertThat(Long.parseLong(propagated)).isBetween(1L, 100L);
+
+        // Fără buget pe fir, serviciul primește timeout-ul de citire
+        assertThat(restTemplate.getForObject(baseUrl + "/budget", String.class)).isEqualTo("200");
+
+        assertThatThrownBy(() -> RequestDeadline.callWithin(System.nanoTime() - 1,
+                () -> restTemplate.getForObject(baseUrl + "/budget", String.class)))
+                .hasCauseInstanceOf(DownstreamGuard.RejectedCallException.class);
+        assertThat(hits.get()).isEqualTo(2);
+        assertThat(guard.getStats()).contains("\"budgetExhausted\":1");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        String path = exchange.getRequestURI().getPath();
+        int status = 200;
+        String body = "{}";
+        if (path.equals("/fail") || path.endsWith("/batch")) {
+            status = 500;
+        } else if (path.equals("/slow")) {
+            sleep(500);
+        } else if (path.equals("/block")) {
+            entered.countDown();
+            awaitQuietly(release);
+        } else if (path.equals("/budget")) {
+            body = String.valueOf(exchange.getRequestHeaders().getFirst(RequestDeadline.HEADER));
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException ignored) {
+            // clientul a renunțat după timeout
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
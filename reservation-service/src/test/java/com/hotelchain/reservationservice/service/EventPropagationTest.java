@@ -0,0 +1,150 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.entity.Reservation;
+import com.hotelchain.reservationservice.entity.ReservationStatus;
+import com.hotelchain.reservationservice.event.ChangeEvent;
+import com.hotelchain.reservationservice.event.EventBroker;
+import com.hotelchain.reservationservice.event.InMemoryEventBroker;
+import com.hotelchain.reservationservice.repository.OutboxEventRepository;
+import com.hotelchain.reservationservice.repository.ReservationRepository;
+import com.hotelchain.reservationservice.repository.RoomProjectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:events;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.events.broker=memory",
+        "app.events.initial-delay-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({EventOutbox.class, OutboxRelay.class, ReferenceDataProjector.class, ReferenceDataDirectory.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EventPropagationTest {
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ReferenceDataProjector projector;
+
+    @Autowired
+    private ReferenceDataDirectory directory;
+
+    @Autowired
+    private EventBroker eventBroker;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private RoomProjectionRepository roomProjectionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void cleanDatabase() {
+        outboxRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        roomProjectionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void committedChangesAreRelayedOnceAndRolledBackChangesNever() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Reservation committed = transaction.execute(status -> {
+            Reservation reservation = reservationRepository.save(reservation(ReservationStatus.CONFIRMED));
+            eventOutbox.recordReservationStatusChanged(reservation);
+            return reservation;
+        });
+        transaction.executeWithoutResult(status -> {
+            eventOutbox.recordReservationStatusChanged(reservationRepository.save(reservation(ReservationStatus.CHECKED_OUT)));
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxRelay.relayBatch()).isEqualTo(1);
+        assertThat(outboxRelay.relayBatch()).isZero();
+
+        List<ChangeEvent> published = ((InMemoryEventBroker) eventBroker)
+                .getPublished(ChangeEvent.RESERVATION_STATUS_CHANGED);
+        assertThat(published).hasSize(1);
+        assertThat(published.get(0).aggregateId()).isEqualTo(committed.getId());
+        assertThat(published.get(0).getString("status")).isEqualTo("CONFIRMED");
+        assertThat(published.get(0).getLong("clientId")).isEqualTo(5L);
+        assertThat(outboxRelay.getStats()).contains("\"pending\":0", "\"published\":1");
+    }
+
+    @Test
+    void projectionAppliesOnlyNewerEventsAndServesLookupsLocally() {
+        projector.subscribe();
+
+        eventBroker.publish(roomChanged(5, "101", "Grand"));
+        eventBroker.publish(roomChanged(5, "101", "Grand"));
+        eventBroker.publish(roomChanged(3, "099", "Old Name"));
+
+        assertThat(directory.getRoom(42L).describe()).isEqualTo("Room 101 at Grand");
+        assertThat(roomProjectionRepository.findById(42L)).hasValueSatisfying(room -> {
+            assertThat(room.getEventSequence()).isEqualTo(5L);
+            assertThat(room.getHotelId()).isEqualTo(7L);
+        });
+        assertThat(projector.getStats()).contains("\"rooms\":1", "\"applied\":1", "\"skipped\":2");
+
+        eventBroker.publish(roomChanged(8, "101", "Grand Renamed"));
+        assertThat(directory.getRoom(42L).describe()).isEqualTo("Room 101 at Grand Renamed");
+        verify(restTemplate, never()).postForEntity(anyString(), any(), eq(Map[].class));
+    }
+
+    private Reservation reservation(ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setRoomId(42L);
+        reservation.setClientId(5L);
+        reservation.setCheckInDate(LocalDate.of(2027, 5, 1));
+        reservation.setCheckOutDate(LocalDate.of(2027, 5, 4));
+        reservation.setTotalPrice(new BigDecimal("300.00"));
+        reservation.setStatus(status);
+        return reservation;
+    }
+
+    private ChangeEvent roomChanged(long sequence, String roomNumber, String hotelName) {
+        return new ChangeEvent("hotel-service", sequence, ChangeEvent.ROOM_CHANGED, 42L,
+                Map.of("roomId", 42L, "hotelId", 7L, "roomNumber", roomNumber, "hotelName", hotelName,
+                        "active", true, "available", true),
+                System.currentTimeMillis());
+    }
+}
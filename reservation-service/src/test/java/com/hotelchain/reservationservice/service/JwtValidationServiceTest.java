@@ -0,0 +1,182 @@
+package com.hotelchain.reservationservice.service;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtValidationServiceTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+    private static final String IDENTITY_SECRET = "hotelChainGatewayIdentitySigningSecretKey";
+
+    private final JwtValidationService service = new JwtValidationService();
+    private MockHttpServletRequest request;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "identitySecret", IDENTITY_SECRET);
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        token = Jwts.builder()
+                .claim("role", "EMPLOYEE")
+                .claim("userId", 7L)
+                .claim("hotelId", 3L)
+                .setSubject("employee")
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void signedGatewayHeadersAreTrusted() throws Exception {
+        addGatewayHeaders(token, "7", "MANAGER", "3");
+
+        // Rolul vine din header-ele semnate, nu din token, deci calea rapidă a fost folosită
+        assertThat(service.getRoleFromToken("Bearer " + token)).isEqualTo("MANAGER");
+        assertThat(service.getUserIdFromToken("Bearer " + token)).isEqualTo(7L);
+        assertThat(service.getHotelIdFromToken("Bearer " + token)).isEqualTo(3L);
+    }
+
+    @Test
+    void headersSignedForAnotherTokenAreIgnored() throws Exception {
+        addGatewayHeaders("other-token", "7", "MANAGER", "3");
+
+        assertThat(service.getRoleFromToken("Bearer " + token)).isEqualTo("EMPLOYEE");
+    }
+
+    @Test
+    void tamperedHeadersAreIgnored() throws Exception {
+        addGatewayHeaders(token, "7", "EMPLOYEE", "3");
+        request.removeHeader("X-Auth-Role");
+        request.addHeader("X-Auth-Role", "ADMIN");
+
+        assertThat(service.getRoleFromToken("Bearer " + token)).isEqualTo("EMPLOYEE");
+    }
+
+    @Test
+    void invalidTokenWithoutHeadersIsRejected() {
+        assertThatThrownBy(() -> service.validateToken("Bearer " + token + "x")).isInstanceOf(Exception.class);
+    }
+
+    @Test
+    void tokenIsParsedOncePerRequestAndReusedAcrossRequests() {
+        String bearer = "Bearer " + token;
+        service.validateEmployeeRole(bearer);
+        service.getRoleFromToken(bearer);
+        service.getUserIdFromToken(bearer);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        service.getUserIdFromToken(bearer);
+
+        assertThat(service.getCacheStats())
+                .contains("\"requestHits\":2", "\"cacheHits\":1", "\"misses\":1", "\"cachedTokens\":1");
+    }
+
+    @Test
+    void expiredTokensAreNotServedFromCache() {
+        String expired = Jwts.builder()
+                .claim("role", "EMPLOYEE")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThatThrownBy(() -> service.validateToken("Bearer " + expired)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(service.getCacheStats()).contains("\"cachedTokens\":0");
+    }
+
+    /**
+     * Costul autentificării pe cerere în getAllReservations (trei validări ale aceluiași token):
+     * cold = fiecare cerere are alt token, warm = token refolosit, gateway = header-e semnate.
+     * Rulare: mvn test -Dtest=JwtValidationServiceTest -Dauth.benchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "auth.benchmark", matches = "true")
+    void perRequestAuthOverhead() throws Exception {
+        int requests = 50_000;
+        String[] coldTokens = new String[requests];
+        for (int i = 0; i < requests; i++) {
+            coldTokens[i] = "Bearer " + Jwts.builder()
+                    .claim("role", "EMPLOYEE")
+                    .claim("userId", (long) i)
+                    .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                    .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                    .compact();
+        }
+        String[] warmTokens = new String[requests];
+        Arrays.fill(warmTokens, "Bearer " + token);
+
+        measure(warmTokens, null);
+        long cold = measure(coldTokens, null);
+        long warm = measure(warmTokens, null);
+        long gateway = measure(warmTokens, new JwtValidationService());
+
+        System.out.printf("cold validation per request: %d ns%n", cold / requests);
+        System.out.printf("warm validation per request: %d ns%n", warm / requests);
+        System.out.printf("gateway headers per request: %d ns%n", gateway / requests);
+        System.out.println(service.getCacheStats());
+        assertThat(warm).isLessThan(cold);
+    }
+
+    private long measure(String[] bearers, JwtValidationService gatewayService) throws Exception {
+        JwtValidationService target = gatewayService != null ? gatewayService : service;
+        if (gatewayService != null) {
+            ReflectionTestUtils.setField(gatewayService, "identitySecret", IDENTITY_SECRET);
+        }
+        long start = System.nanoTime();
+        for (String bearer : bearers) {
+            // O cerere HTTP nouă pentru fiecare iterație
+            request = new MockHttpServletRequest();
+            if (gatewayService != null) {
+                addGatewayHeaders(token, "7", "EMPLOYEE", "3");
+            }
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            target.validateEmployeeRole(bearer);
+            target.getRoleFromToken(bearer);
+            target.getUserIdFromToken(bearer);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void addGatewayHeaders(String signedToken, String userId, String role, String hotelId) throws Exception {
+        String expires = Long.toString(System.currentTimeMillis() + 3_600_000);
+        String tokenHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(signedToken.getBytes(StandardCharsets.UTF_8)));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(IDENTITY_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String signature = Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(
+                String.join("|", tokenHash, userId, role, hotelId, expires).getBytes(StandardCharsets.UTF_8)));
+
+        request.addHeader("X-Auth-User-Id", userId);
+        request.addHeader("X-Auth-Role", role);
+        request.addHeader("X-Auth-Hotel-Id", hotelId);
+        request.addHeader("X-Auth-Expires", expires);
+        request.addHeader("X-Auth-Signature", signature);
+    }
+}
@@ -0,0 +1,147 @@
+package com.hotelchain.reservationservice.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledHttpClientFactoryTest {
+
+    private static final String BODY = "{\"rooms\":\"" + "R".repeat(4_000) + "\"}";
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger compressedResponses = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer downstream;
+    private String baseUrl;
+    private PooledHttpClientFactory factory;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        downstream.createContext("/", this::handle);
+        downstream.setExecutor(Executors.newCachedThreadPool());
+        downstream.start();
+        baseUrl = "http://localhost:" + downstream.getAddress().getPort();
+
+        factory = new PooledHttpClientFactory(PooledHttpClientFactory.Protocol.HTTP_1_1,
+                10, 2, 1_000, 2_000, 5_000, 30_000, false);
+        restTemplate = new RestTemplate(factory.requestFactory());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        release.countDown();
+        factory.close();
+        downstream.stop(0);
+    }
+
+    @Test
+    void sequentialCallsReuseOneKeepAliveConnection() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(restTemplate.getForObject(baseUrl + "/rooms", String.class)).isEqualTo(BODY);
+        }
+
+        assertThat(clientPorts).hasSize(1);
+        assertThat(factory.getStats()).contains("\"protocol\":\"HTTP_1_1\"",
+                "\"localhost:" + downstream.getAddress().getPort() + "\":{\"leased\":0,\"available\":1");
+    }
+
+    @Test
+    void responsesAreRequestedCompressedAndDecodedTransparently() {
+        assertThat(restTemplate.getForObject(baseUrl + "/rooms", String.class)).isEqualTo(BODY);
+        assertThat(compressedResponses.get()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentCallsToOneServiceAreCappedPerRoute() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> restTemplate.getForObject(baseUrl + "/block", String.class),
+                    callers));
+        }
+        long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!factory.getStats().contains("\"pending\":4") && System.nanoTime() < waitUntil) {
+            Thread.sleep(10);
+        }
+        assertThat(factory.getStats()).contains("\"leased\":2", "\"pending\":4");
+
+        release.countDown();
+        for (CompletableFuture<String> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo(BODY);
+        }
+        assertThat(maxInFlight.get()).isEqualTo(2);
+        callers.shutdown();
+    }
+
+    @Test
+    void callWaitsOnlyForTheRemainingRequestBudget() {
+        long started = System.nanoTime();
+        Long deadline = started + TimeUnit.MILLISECONDS.toNanos(300);
+
+        assertThatThrownBy(() -> RequestDeadline.callWithin(deadline,
+                () -> restTemplate.getForObject(baseUrl + "/block", String.class)))
+                .isInstanceOf(ResourceAccessException.class);
+        // Timeout-ul de citire este 2 s; apelul se oprește la termenul cererii
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1_500);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (exchange.getRequestURI().getPath().equals("/block")) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+        byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            compressedResponses.incrementAndGet();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.entity.RoomProjection;
+import com.hotelchain.reservationservice.repository.ClientProjectionRepository;
+import com.hotelchain.reservationservice.repository.RoomProjectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReferenceDataDirectoryTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final RoomProjectionRepository roomProjections = mock(RoomProjectionRepository.class);
+    private final ReferenceDataDirectory directory = new ReferenceDataDirectory();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(directory, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(directory, "hotelServiceUrl", "http://hotel");
+        ReflectionTestUtils.setField(directory, "userServiceUrl", "http://user");
+        ReflectionTestUtils.setField(directory, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(directory, "maxEntries", 2);
+        ReflectionTestUtils.setField(directory, "roomProjectionRepository", roomProjections);
+        ReflectionTestUtils.setField(directory, "clientProjectionRepository", mock(ClientProjectionRepository.class));
+
+        when(restTemplate.postForEntity(anyString(), any(), eq(Map[].class))).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(1);
+            return ResponseEntity.ok(ids.stream()
+                    .map(id -> Map.of("id", id, "roomNumber", "R" + id, "hotelName", "Grand",
+                            "username", "client" + id, "email", "client" + id + "@mail.com"))
+                    .toArray(Map[]::new));
+        });
+    }
+
+    @Test
+    void repeatedLookupsAreServedLocally() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(directory.getRoom(1L).describe()).isEqualTo("Room R1 at Grand");
+            assertThat(directory.getClient(5L).email()).isEqualTo("client5@mail.com");
+        }
+
+        verify(restTemplate, times(1)).postForEntity("http://hotel/api/hotels/rooms/batch", Set.of(1L), Map[].class);
+        verify(restTemplate, times(1)).postForEntity("http://user/api/users/batch", Set.of(5L), Map[].class);
+    }
+
+    @Test
+    void pageIsLoadedWithOneBatchCallSkippingFreshEntries() {
+        directory.getRoom(1L);
+        directory.prefetchRooms(List.of(1L, 2L, 2L));
+
+        assertThat(directory.getRoom(2L).describe()).isEqualTo("Room R2 at Grand");
+        verify(restTemplate, times(1)).postForEntity("http://hotel/api/hotels/rooms/batch", Set.of(2L), Map[].class);
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedBeyondMaxSize() {
+        directory.getRoom(1L);
+        directory.getRoom(2L);
+        directory.getRoom(3L);
+        directory.getRoom(1L);
+
+        verify(restTemplate, times(2)).postForEntity("http://hotel/api/hotels/rooms/batch", Set.of(1L), Map[].class);
+    }
+
+    @Test
+    void invalidationAndExpiryTriggerReload() {
+        directory.getClient(5L);
+        directory.invalidateClient(5L);
+        directory.getClient(5L);
+
+        ReflectionTestUtils.setField(directory, "ttlMs", 0L);
+        directory.getClient(5L);
+
+        verify(restTemplate, times(3)).postForEntity("http://user/api/users/batch", Set.of(5L), Map[].class);
+    }
+
+    @Test
+    void staleValueIsKeptWhenReloadFails() {
+        directory.getRoom(1L);
+        ReflectionTestUtils.setField(directory, "ttlMs", 0L);
+        doThrow(new ResourceAccessException("down"))
+                .when(restTemplate).postForEntity(anyString(), any(), eq(Map[].class));
+
+        assertThat(directory.getRoom(1L).describe()).isEqualTo("Room R1 at Grand");
+        assertThat(directory.getRoom(9L).describe()).isEqualTo("Room #9");
+        assertThat(directory.getClient(9L).email()).isEqualTo("unknown@hotelchain.com");
+    }
+
+    @Test
+    void projectedRoomsAreServedWithoutCallingHotelService() {
+        when(roomProjections.findAllById(any())).thenReturn(List.of(
+                new RoomProjection(1L, 10L, "P1", "Projected", true, true, 7L, null)));
+
+        directory.prefetchRooms(List.of(1L, 2L));
+
+        assertThat(directory.getRoom(1L).describe()).isEqualTo("Room P1 at Projected");
+        assertThat(directory.getRoom(2L).describe()).isEqualTo("Room R2 at Grand");
+        verify(restTemplate, times(1)).postForEntity("http://hotel/api/hotels/rooms/batch", Set.of(2L), Map[].class);
+    }
+
+    @Test
+    void roomChangeEventReplacesCachedEntry() {
+        directory.getRoom(1L);
+        directory.putRoom(new ReferenceDataDirectory.RoomInfo(1L, "101", "Renamed"));
+
+        assertThat(directory.getRoom(1L).describe()).isEqualTo("Room 101 at Renamed");
+        verify(restTemplate, times(1)).postForEntity("http://hotel/api/hotels/rooms/batch", Set.of(1L), Map[].class);
+    }
+}
@@ -0,0 +1,248 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.adapter.ExternalServiceAdapter;
+import com.hotelchain.reservationservice.dto.CreateReservationRequest;
+import com.hotelchain.reservationservice.dto.ReservationDto;
+import com.hotelchain.reservationservice.entity.Reservation;
+import com.hotelchain.reservationservice.entity.ReservationStatus;
+import com.hotelchain.reservationservice.entity.RoomNight;
+import com.hotelchain.reservationservice.repository.ReservationRepository;
+import com.hotelchain.reservationservice.repository.RoomCalendarRepository;
+import com.hotelchain.reservationservice.repository.RoomNightRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReservationService.class, JwtValidationService.class, ReferenceDataDirectory.class,
+        ReservationNotificationQueue.class, RoomInventoryService.class, EnrichmentStage.class, EventOutbox.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ReservationBookingConcurrencyTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+    private static final LocalDate BASE = LocalDate.of(2027, 3, 1);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomNightRepository roomNightRepository;
+
+    @Autowired
+    private RoomCalendarRepository roomCalendarRepository;
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    @MockitoBean
+    private ExternalServiceAdapter externalServiceAdapter;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    private final String token = "Bearer " + Jwts.builder()
+            .claim("role", "EMPLOYEE")
+            .claim("userId", 7L)
+            .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+            .compact();
+
+    @BeforeEach
+    void cleanDatabase() {
+        roomNightRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        roomCalendarRepository.deleteAllInBatch();
+    }
+
+    /**
+     * 64 de fire rezervă intervale care se suprapun pe 4 camere; nicio noapte nu poate fi ocupată de două ori
+     */
+    @Test
+    void concurrentOverlappingBookingsNeverDoubleBook() throws Exception {
+        int threads = 64;
+        int attemptsPerThread = 25;
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Map<String, Integer> errors = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    LocalDate checkIn = BASE.plusDays(random.nextInt(20));
+                    try {
+                        reservationService.createReservation(
+                                request(1L + random.nextInt(4), checkIn, checkIn.plusDays(1 + random.nextInt(4))), token);
+                        booked.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        if ("Room is not available for the selected dates".equals(e.getMessage())) {
+                            rejected.incrementAndGet();
+                        } else {
+                            errors.merge(e.getClass().getSimpleName() + ": " + e.getMessage(), 1, Integer::sum);
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        List<Reservation> reservations = reservationRepository.findAll();
+        int overlaps = countOverlaps(reservations);
+        long bookedNights = reservations.stream()
+                .mapToLong(r -> r.getCheckOutDate().toEpochDay() - r.getCheckInDate().toEpochDay())
+                .sum();
+
+        System.out.printf("%d attempts in %.2f s (%.0f attempts/s): %d booked, %d rejected, %d errors, %d overlaps%n",
+                threads * attemptsPerThread, seconds, threads * attemptsPerThread / seconds,
+                booked.get(), rejected.get(), errors.values().stream().mapToInt(Integer::intValue).sum(), overlaps);
+
+        assertThat(errors).isEmpty();
+        assertThat(booked.get() + rejected.get()).isEqualTo(threads * attemptsPerThread);
+        assertThat(reservations).hasSize(booked.get());
+        assertThat(overlaps).isZero();
+        assertThat(roomNightRepository.count()).isEqualTo(bookedNights);
+    }
+
+    @Test
+    void databaseRejectsTheSameNightTwice() {
+        roomNightRepository.saveAndFlush(new RoomNight(null, 1L, BASE, 100L));
+
+        assertThatThrownBy(() -> roomNightRepository.saveAndFlush(new RoomNight(null, 1L, BASE, 200L)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void checkOutDayCanBeBookedAndCancellationFreesNights() {
+        ReservationDto first = reservationService.createReservation(request(1L, BASE, BASE.plusDays(3)), token);
+        reservationService.createReservation(request(1L, BASE.plusDays(3), BASE.plusDays(5)), token);
+
+        assertThatThrownBy(() -> reservationService.createReservation(request(1L, BASE.plusDays(2), BASE.plusDays(4)), token))
+                .hasMessage("Room is not available for the selected dates");
+
+        reservationService.cancelReservation(first.getId(), token);
+        ReservationDto replacement = reservationService.createReservation(request(1L, BASE, BASE.plusDays(3)), token);
+        assertThat(replacement.getStatus()).isEqualTo(ReservationStatus.CONFIRMED.name());
+
+        // Rezervarea anulată nu mai poate fi reactivată, nopțile ei sunt acum ocupate
+        assertThatThrownBy(() -> reservationService.updateReservationStatus(first.getId(), "CONFIRMED", token))
+                .hasMessage("Room is not available for the selected dates");
+        assertThat(reservationRepository.findById(first.getId()).orElseThrow().getStatus())
+                .isEqualTo(ReservationStatus.CANCELLED);
+    }
+
+    @Test
+    void responseIsEnrichedOnlyAfterTheBookingCommits() {
+        AtomicLong committedWhenEnriching = new AtomicLong(-1);
+        when(restTemplate.postForEntity(anyString(), any(), eq(Map[].class))).thenAnswer(invocation -> {
+            // Citirea rulează pe firul de îmbogățire, cu altă conexiune, deci vede doar rezervările comise
+            committedWhenEnriching.compareAndSet(-1, reservationRepository.count());
+            return ResponseEntity.ok(new Map[0]);
+        });
+
+        reservationService.createReservation(request(9001L, BASE, BASE.plusDays(2)), token);
+
+        assertThat(committedWhenEnriching.get()).isEqualTo(1);
+    }
+
+    @Test
+    void multiRoomAvailabilityExcludesRoomsWithAnyTakenNight() {
+        reservationService.createReservation(request(1L, BASE, BASE.plusDays(2)), token);
+        reservationService.createReservation(request(2L, BASE.plusDays(4), BASE.plusDays(6)), token);
+        reservationService.createReservation(request(3L, BASE.plusDays(6), BASE.plusDays(8)), token);
+
+        assertThat(reservationService.getAvailableRooms(List.of(1L, 2L, 3L, 4L), BASE.plusDays(1), BASE.plusDays(5)))
+                .containsExactly(3L, 4L);
+        assertThat(reservationService.getAvailableRooms(List.of(1L, 2L, 3L), BASE.plusDays(2), BASE.plusDays(4)))
+                .containsExactly(1L, 2L, 3L);
+        assertThatThrownBy(() -> reservationService.getAvailableRooms(List.of(1L), BASE, BASE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int countOverlaps(List<Reservation> reservations) {
+        int overlaps = 0;
+        Map<Long, List<Reservation>> byRoom = reservations.stream()
+                .filter(r -> r.getStatus() != ReservationStatus.CANCELLED)
+                .collect(Collectors.groupingBy(Reservation::getRoomId));
+        for (List<Reservation> room : byRoom.values()) {
+            List<Reservation> sorted = new ArrayList<>(room);
+            sorted.sort(Comparator.comparing(Reservation::getCheckInDate));
+            LocalDate occupiedUntil = LocalDate.MIN;
+            for (Reservation reservation : sorted) {
+                if (reservation.getCheckInDate().isBefore(occupiedUntil)) {
+                    overlaps++;
+                }
+                if (reservation.getCheckOutDate().isAfter(occupiedUntil)) {
+                    occupiedUntil = reservation.getCheckOutDate();
+                }
+            }
+        }
+        return overlaps;
+    }
+
+    private CreateReservationRequest request(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setRoomId(roomId);
+        request.setClientId(42L);
+        request.setCheckInDate(checkIn);
+        request.setCheckOutDate(checkOut);
+        request.setTotalPrice(BigDecimal.valueOf(100));
+        return request;
+    }
+}
@@ -0,0 +1,182 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.adapter.ExternalServiceAdapter;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Exportă 1.000.000 de rezervări sintetice în toate formatele cu heap limitat la 256MB.
+ * Baza H2 este pe disc ca rândurile să nu ocupe heap-ul măsurat.
+ * Rulare: mvn test -Dtest=ReservationExportBenchmarkTest -Dexport.benchmark=true -DargLine=-Xmx256m
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/export-benchmark;CACHE_SIZE=16384",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReservationService.class, JwtValidationService.class, ReferenceDataDirectory.class, EnrichmentStage.class,
+        EventOutbox.class, ReservationExportBenchmarkTest.DirectoryStubConfig.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@EnabledIfSystemProperty(named = "export.benchmark", matches = "true")
+class ReservationExportBenchmarkTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+    private static final int ROWS = 1_000_000;
+    private static final long HEAP_LIMIT = 256L * 1024 * 1024;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ExternalServiceAdapter externalServiceAdapter;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Test
+    void exportsOneMillionReservationsWithinHeapLimit() throws Exception {
+        assumeTrue(Runtime.getRuntime().maxMemory() <= HEAP_LIMIT, "run with -DargLine=-Xmx256m");
+
+        seed();
+
+        String token = "Bearer " + Jwts.builder()
+                .claim("role", "MANAGER")
+                .claim("userId", 1L)
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        for (String format : List.of("csv", "json", "xml", "doc")) {
+            CountingOutputStream output = new CountingOutputStream();
+            resetPeakHeap();
+            long start = System.nanoTime();
+            reservationService.exportReservations(format, token).writeTo(output);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("%s: %d rows, %d MB written in %d ms (%.0f rows/s), peak heap %d MB%n",
+                    format, ROWS, output.bytes / (1024 * 1024), elapsedMs,
+                    ROWS * 1000.0 / Math.max(elapsedMs, 1), peakHeap() / (1024 * 1024));
+            assertThat(output.bytes).isGreaterThan(ROWS * 50L);
+        }
+    }
+
+    private void seed() {
+        LocalDate checkIn = LocalDate.of(2026, 1, 1);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 12, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{
+                    (long) (i % 5_000) + 1, (long) (i % 50_000) + 1, (long) (i % 20) + 1,
+                    java.sql.Date.valueOf(checkIn.plusDays(i % 365)), java.sql.Date.valueOf(checkIn.plusDays(i % 365 + 3)),
+                    BigDecimal.valueOf(300), "CONFIRMED",
+                    Timestamp.valueOf(createdAt.plusSeconds(i)), Timestamp.valueOf(createdAt.plusSeconds(i))
+            });
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (room_id, client_id, employee_id, check_in_date, " +
+                "check_out_date, total_price, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private void resetPeakHeap() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    private long peakHeap() {
+        return heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    /**
+     * Răspunde la apelurile batch ale directorului fără să rețină invocările, spre deosebire de un mock
+     */
+    @TestConfiguration
+    static class DirectoryStubConfig {
+
+        @Bean
+        RestTemplate restTemplate() {
+            return new RestTemplate() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> ResponseEntity<T> postForEntity(String url, Object request, Class<T> responseType,
+                                                           Object... uriVariables) {
+                    Collection<Long> ids = (Collection<Long>) request;
+                    return (ResponseEntity<T>) ResponseEntity.ok(ids.stream()
+                            .map(id -> Map.of("id", id, "roomNumber", "R" + id, "hotelName", "Grand",
+                                    "username", "client" + id, "email", "client" + id + "@mail.com"))
+                            .toArray(Map[]::new));
+                }
+            };
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
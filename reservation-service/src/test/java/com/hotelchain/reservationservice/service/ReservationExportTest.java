@@ -0,0 +1,168 @@
+package com.hotelchain.reservationservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelchain.reservationservice.adapter.ExternalServiceAdapter;
+import com.hotelchain.reservationservice.entity.Reservation;
+import com.hotelchain.reservationservice.entity.ReservationStatus;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.client.RestTemplate;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({ReservationService.class, JwtValidationService.class, ReferenceDataDirectory.class,
+        EnrichmentStage.class, EventOutbox.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ReservationExportTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    @MockitoBean
+    private ExternalServiceAdapter externalServiceAdapter;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        when(restTemplate.postForEntity(anyString(), any(), eq(Map[].class))).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(1);
+            return ResponseEntity.ok(ids.stream()
+                    .map(id -> Map.of("id", id, "roomNumber", "R" + id, "hotelName", "Grand, Cluj",
+                            "username", "client" + id, "email", "client" + id + "@mail.com"))
+                    .toArray(Map[]::new));
+        });
+
+        persist(1L, 10L, 7L);
+        persist(2L, 11L, 7L);
+        persist(3L, 12L, 8L);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void csvQuotesValuesContainingSeparators() throws Exception {
+        String[] lines = export("csv", token("MANAGER", 1L)).split("\n");
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).startsWith("ID,Room,Hotel");
+        assertThat(lines[1]).contains("\"Room R1 at Grand, Cluj\"", "client10", "2026-01-01", "CONFIRMED");
+    }
+
+    @Test
+    void jsonIsAnArrayWithIsoDates() throws Exception {
+        JsonNode root = objectMapper.readTree(export("json", token("MANAGER", 1L)));
+
+        assertThat(root.isArray()).isTrue();
+        assertThat(root).hasSize(3);
+        assertThat(root.get(0).get("checkInDate").asText()).isEqualTo("2026-01-01");
+        assertThat(root.get(2).get("clientEmail").asText()).isEqualTo("client12@mail.com");
+    }
+
+    @Test
+    void xmlIsWellFormed() throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(export("xml", token("MANAGER", 1L)).getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(document.getElementsByTagName("reservation").getLength()).isEqualTo(3);
+        assertThat(document.getElementsByTagName("hotelName").item(0).getTextContent()).isEqualTo("Grand, Cluj");
+    }
+
+    @Test
+    void docIsAWordDocument() throws Exception {
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(exportBytes("doc", token("MANAGER", 1L))))) {
+            assertThat(document.getParagraphs()).hasSize(1 + 3 * 6);
+            assertThat(document.getParagraphs().get(0).getText()).isEqualTo("RESERVATIONS REPORT");
+            assertThat(document.getParagraphs().stream().map(XWPFParagraph::getText))
+                    .contains("Room: Room R3 at Grand, Cluj", "Total: $300.00");
+        }
+    }
+
+    @Test
+    void employeeExportsOnlyOwnReservations() throws Exception {
+        assertThat(export("csv", token("EMPLOYEE", 7L)).split("\n")).hasSize(3);
+    }
+
+    @Test
+    void unsupportedFormatIsRejectedBeforeStreaming() {
+        assertThatThrownBy(() -> reservationService.exportReservations("pdf", token("MANAGER", 1L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String export(String format, String token) throws Exception {
+        return new String(exportBytes(format, token), StandardCharsets.UTF_8);
+    }
+
+    private byte[] exportBytes(String format, String token) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        reservationService.exportReservations(format, token).writeTo(output);
+        return output.toByteArray();
+    }
+
+    private void persist(Long roomId, Long clientId, Long employeeId) {
+        Reservation reservation = new Reservation();
+        reservation.setRoomId(roomId);
+        reservation.setClientId(clientId);
+        reservation.setEmployeeId(employeeId);
+        reservation.setCheckInDate(LocalDate.of(2026, 1, 1));
+        reservation.setCheckOutDate(LocalDate.of(2026, 1, 4));
+        reservation.setTotalPrice(BigDecimal.valueOf(100 * roomId));
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        entityManager.persist(reservation);
+    }
+
+    private String token(String role, Long userId) {
+        return "Bearer " + Jwts.builder()
+                .claim("role", role)
+                .claim("userId", userId)
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,97 @@
+package com.hotelchain.reservationservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationNotificationQueueTest {
+
+    private final ReservationNotificationQueue queue = new ReservationNotificationQueue(1, 1);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        queue.shutdown();
+    }
+
+    @Test
+    void notificationRunsOnlyAfterCommitAndOffTheCallingThread() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        Thread[] worker = new Thread[1];
+
+        TransactionSynchronizationManager.initSynchronization();
+        queue.publishAfterCommit(() -> {
+            worker[0] = Thread.currentThread();
+            done.countDown();
+        });
+        assertThat(done.await(200, TimeUnit.MILLISECONDS)).isFalse();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(worker[0]).isNotSameAs(caller);
+    }
+
+    @Test
+    void rolledBackTransactionsDoNotNotify() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        queue.publishAfterCommit(done::countDown);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(done.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(queue.getStats()).contains("\"submitted\":0");
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlockingTheCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        // Un worker ocupat și o coadă de capacitate 1: a treia notificare nu mai încape
+        queue.publishAfterCommit(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        queue.publishAfterCommit(() -> { });
+
+        long start = System.nanoTime();
+        queue.publishAfterCommit(() -> { });
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+
+        assertThat(queue.getStats()).contains("\"queued\":1", "\"dropped\":1");
+        release.countDown();
+    }
+
+    @Test
+    void failingNotificationIsCountedAndDoesNotStopTheWorker() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+
+        queue.publishAfterCommit(() -> {
+            throw new IllegalStateException("smtp down");
+        });
+        queue.publishAfterCommit(done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queue.getStats()).contains("\"failed\":1");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compară verificarea disponibilității prin interogarea JPQL pe reservations cu inventarul room_nights,
+ * pe măsură ce istoricul crește până la numărul de rezervări cerut (implicit 1.000.000).
+ * Rulare: mvn test -Dtest=RoomAvailabilityBenchmarkTest -Dinventory.benchmark=true [-Dinventory.benchmark.rows=3000000]
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/availability-benchmark",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(RoomInventoryService.class)
+@EnabledIfSystemProperty(named = "inventory.benchmark", matches = "true")
+class RoomAvailabilityBenchmarkTest {
+
+    private static final int ROOMS = 2_000;
+    private static final int STAY_NIGHTS = 3;
+    private static final int QUERIES = 20_000;
+    private static final LocalDate BASE = LocalDate.of(2020, 1, 1);
+
+    @Autowired
+    private RoomInventoryService roomInventoryService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void inventoryLookupStaysFlatAsHistoryGrows() {
+        int maxRows = Integer.getInteger("inventory.benchmark.rows", 1_000_000);
+        int seeded = 0;
+
+        for (int rows = 10_000; rows <= maxRows; rows *= 10) {
+            seed(seeded, rows);
+            seeded = rows;
+
+            // Istoricul acoperă rows / ROOMS sejururi consecutive pe fiecare cameră
+            int days = (rows / ROOMS) * (STAY_NIGHTS + 1);
+            long jpql = measure(days, (roomId, checkIn) -> () ->
+                    reservationRepository.findConflictingReservations(roomId, checkIn, checkIn.plusDays(STAY_NIGHTS)).isEmpty());
+            long inventory = measure(days, (roomId, checkIn) -> () ->
+                    roomInventoryService.isAvailable(roomId, checkIn, checkIn.plusDays(STAY_NIGHTS)));
+
+            List<Long> fiftyRooms = new ArrayList<>();
+            for (long id = 1; id <= 50; id++) {
+                fiftyRooms.add(id);
+            }
+            LocalDate checkIn = BASE.plusDays(days / 2);
+            long start = System.nanoTime();
+            for (int i = 0; i < 200; i++) {
+                roomInventoryService.findAvailableRooms(fiftyRooms, checkIn, checkIn.plusDays(STAY_NIGHTS));
+            }
+            long multiRoom = (System.nanoTime() - start) / 200;
+
+            System.out.printf("%,d reservations: JPQL %d us/check, inventory %d us/check, 50-room query %d us%n",
+                    rows, jpql / 1000, inventory / 1000, multiRoom / 1000);
+            assertThat(roomInventoryService.isAvailable(1L, BASE, BASE.plusDays(1))).isFalse();
+        }
+    }
+
+    private long measure(int days, CheckFactory factory) {
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            long roomId = 1 + random.nextInt(ROOMS);
+            LocalDate checkIn = BASE.plusDays(random.nextInt(Math.max(days, 1)));
+            factory.create(roomId, checkIn).getAsBoolean();
+        }
+        return (System.nanoTime() - start) / QUERIES;
+    }
+
+    /**
+     * Rezervarea i ocupă camera (i % ROOMS) + 1 pentru STAY_NIGHTS nopți, cu o noapte liberă între sejururi
+     */
+    private void seed(int from, int to) {
+        List<Object[]> reservations = new ArrayList<>();
+        List<Object[]> nights = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int i = from; i < to; i++) {
+            long id = i + 1L;
+            long roomId = (i % ROOMS) + 1L;
+            LocalDate checkIn = BASE.plusDays((long) (i / ROOMS) * (STAY_NIGHTS + 1));
+            reservations.add(new Object[]{id, roomId, 1L, 1L, Date.valueOf(checkIn),
+                    Date.valueOf(checkIn.plusDays(STAY_NIGHTS)), 300, "CONFIRMED", now, now});
+            for (int n = 0; n < STAY_NIGHTS; n++) {
+                nights.add(new Object[]{roomId, Date.valueOf(checkIn.plusDays(n)), id});
+            }
+
+            if (reservations.size() == 10_000) {
+                flush(reservations, nights);
+            }
+        }
+        flush(reservations, nights);
+    }
+
+    private void flush(List<Object[]> reservations, List<Object[]> nights) {
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (id, room_id, client_id, employee_id, check_in_date, " +
+                "check_out_date, total_price, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", reservations);
+        jdbcTemplate.batchUpdate("INSERT INTO room_nights (room_id, night, reservation_id) VALUES (?, ?, ?)", nights);
+        reservations.clear();
+        nights.clear();
+    }
+
+    @FunctionalInterface
+    private interface CheckFactory {
+        BooleanSupplier create(long roomId, LocalDate checkIn);
+    }
+}
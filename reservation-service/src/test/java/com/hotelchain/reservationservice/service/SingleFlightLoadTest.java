@@ -0,0 +1,153 @@
+package com.hotelchain.reservationservice.service;
+
+import com.hotelchain.reservationservice.repository.ClientProjectionRepository;
+import com.hotelchain.reservationservice.repository.RoomProjectionRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Vârf de trafic pe aceeași cameră: compară numărul de apeluri către hotel-service când fiecare cerere
+ * face propriul apel cu cazul în care cererile trec prin ReferenceDataDirectory (single-flight, fără TTL),
+ * apoi verifică faptul că, cu hotel-service căzut, cache-ul negativ oprește repetarea apelurilor.
+ * Rulare: mvn test -Dtest=SingleFlightLoadTest -Dsingleflight.loadtest=true
+ */
+@EnabledIfSystemProperty(named = "singleflight.loadtest", matches = "true")
+class SingleFlightLoadTest {
+
+    private static final int THREADS = 64;
+    private static final int REQUESTS_PER_THREAD = 50;
+    private static final int DOWNSTREAM_DELAY_MS = 20;
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private volatile boolean downstreamFailing;
+
+    private HttpServer downstream;
+    private ExecutorService pool;
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ReferenceDataDirectory directory = new ReferenceDataDirectory();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        downstream.createContext("/", this::handleDownstream);
+        downstream.setExecutor(Executors.newCachedThreadPool());
+        downstream.start();
+        pool = Executors.newFixedThreadPool(THREADS);
+
+        ReflectionTestUtils.setField(directory, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(directory, "hotelServiceUrl", "http://localhost:" + downstream.getAddress().getPort());
+        ReflectionTestUtils.setField(directory, "userServiceUrl", "http://localhost:" + downstream.getAddress().getPort());
+        // Fără TTL: fiecare cerere ar merge la hotel-service, deci diferența vine doar din coalescing
+        ReflectionTestUtils.setField(directory, "ttlMs", 0L);
+        ReflectionTestUtils.setField(directory, "maxEntries", 1000);
+        ReflectionTestUtils.setField(directory, "negativeTtlMs", 1000L);
+        ReflectionTestUtils.setField(directory, "roomProjectionRepository", mock(RoomProjectionRepository.class));
+        ReflectionTestUtils.setField(directory, "clientProjectionRepository", mock(ClientProjectionRepository.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        downstream.stop(0);
+    }
+
+    @Test
+    void coalescingCutsDownstreamFanOutForAHotRoom() throws Exception {
+        String batchUrl = "http://localhost:" + downstream.getAddress().getPort() + "/api/hotels/rooms/batch";
+
+        long start = System.nanoTime();
+        run(() -> restTemplate.postForEntity(batchUrl, Set.of(42L), Map[].class).getStatusCode());
+        long directMs = (System.nanoTime() - start) / 1_000_000;
+        int directCalls = downstreamCalls.getAndSet(0);
+
+        start = System.nanoTime();
+        List<String> descriptions = run(() -> directory.getRoom(42L).describe());
+        long coalescedMs = (System.nanoTime() - start) / 1_000_000;
+        int coalescedCalls = downstreamCalls.getAndSet(0);
+
+        System.out.printf("single-flight: %d requests -> direct %d downstream calls (%d ms), coalesced %d calls (%d ms)%n",
+                THREADS * REQUESTS_PER_THREAD, directCalls, directMs, coalescedCalls, coalescedMs);
+        System.out.println("directory stats: " + directory.getStats());
+
+        assertThat(descriptions).allMatch("Room R42 at Grand"::equals);
+        assertThat(directCalls).isEqualTo(THREADS * REQUESTS_PER_THREAD);
+        assertThat(coalescedCalls).isLessThan(directCalls / 5);
+    }
+
+    @Test
+    void negativeCacheShieldsAFailingService() throws Exception {
+        downstreamFailing = true;
+
+        long start = System.currentTimeMillis();
+        List<String> descriptions = run(() -> directory.getRoom(7L).describe());
+        long elapsedMs = System.currentTimeMillis() - start;
+        int failedCalls = downstreamCalls.get();
+
+        System.out.printf("negative cache: %d requests in %d ms -> %d downstream calls while failing%n",
+                THREADS * REQUESTS_PER_THREAD, elapsedMs, failedCalls);
+
+        assertThat(descriptions).allMatch("Room #7"::equals);
+        // Cel mult un apel la fiecare expirare a intrării negative (1s), plus încărcarea inițială
+        assertThat(failedCalls).isLessThanOrEqualTo((int) (elapsedMs / 1000) + 2);
+    }
+
+    private <T> List<T> run(Callable<T> request) throws Exception {
+        List<Future<List<T>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                List<T> results = new ArrayList<>();
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    results.add(request.call());
+                }
+                return results;
+            }));
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<List<T>> future : futures) {
+            results.addAll(future.get());
+        }
+        return results;
+    }
+
+    private void handleDownstream(HttpExchange exchange) throws IOException {
+        downstreamCalls.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(DOWNSTREAM_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int status = downstreamFailing ? 503 : 200;
+        byte[] bytes = (downstreamFailing ? "{}" : "[{\"id\":42,\"roomNumber\":\"R42\",\"hotelName\":\"Grand\"}]")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
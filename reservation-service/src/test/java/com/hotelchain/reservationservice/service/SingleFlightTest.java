@@ -0,0 +1,84 @@
+package com.hotelchain.reservationservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> flight = new SingleFlight<>();
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersForTheSameKeyShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Set<Long>, Map<Long, String>> loader = ids -> {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> "room" + id));
+        };
+
+        List<Future<Map<Long, String>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> flight.load(List.of(1L), loader, 0)));
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!flight.getStats().contains("\"coalesced\":7") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (Future<Map<Long, String>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).containsEntry(1L, "room1");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(flight.getStats()).contains("\"coalesced\":7", "\"inFlight\":0");
+    }
+
+    @Test
+    void failedAndMissingKeysAreNegativelyCachedUntilForgotten() {
+        Function<Set<Long>, Map<Long, String>> failing = ids -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("down");
+        };
+
+        assertThatThrownBy(() -> flight.load(List.of(1L), failing, 60_000)).hasMessage("down");
+        assertThat(flight.load(List.of(1L), failing, 60_000)).isEmpty();
+        assertThat(loads.get()).isEqualTo(1);
+
+        Function<Set<Long>, Map<Long, String>> partial = ids -> {
+            loads.incrementAndGet();
+            return Map.of(2L, "room2");
+        };
+        flight.forget(1L);
+        assertThat(flight.load(List.of(1L, 2L), partial, 60_000)).containsOnlyKeys(2L);
+        assertThat(flight.load(List.of(1L), partial, 60_000)).isEmpty();
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(flight.getStats()).contains("\"negativeHits\":2");
+    }
+}
@@ -0,0 +1,139 @@
+package com.hotelchain.reservationservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Cum crește numărul de cereri servite simultan cu memorie fixă: fiecare cerere ține o conexiune din
+ * pool-ul bazei de date pentru o interogare scurtă, apoi așteaptă un apel blocant la alt serviciu.
+ * Compară pool-ul de 200 de fire platformă (implicit în Tomcat) cu un fir virtual per cerere,
+ * la 200, 1.000 și 5.000 de clienți simultani; pool-ul de conexiuni rămâne de 20 în ambele cazuri.
+ * Partea cu fire virtuale rulează doar pe Java 21+.
+ * Rulare: mvn test -Dtest=VirtualThreadLoadTest -Dvirtualthreads.loadtest=true -DargLine=-Xmx256m
+ */
+@EnabledIfSystemProperty(named = "virtualthreads.loadtest", matches = "true")
+class VirtualThreadLoadTest {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int DB_POOL_SIZE = 20;
+    private static final int QUERY_MS = 1;
+    private static final int REMOTE_CALL_MS = 50;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final int[] CONCURRENCY = {200, 1_000, 5_000};
+
+    private final Semaphore connections = new Semaphore(DB_POOL_SIZE, true);
+    private final AtomicInteger connectionsInUse = new AtomicInteger();
+    private final AtomicInteger peakConnections = new AtomicInteger();
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    void platformThreadPool() throws Exception {
+        for (int clients : CONCURRENCY) {
+            ExecutorService pool = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+            try {
+                report("platform-" + TOMCAT_MAX_THREADS, clients, run(pool, clients));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        assertThat(peakConnections.get()).isLessThanOrEqualTo(DB_POOL_SIZE);
+    }
+
+    @Test
+    void virtualThreadPerRequest() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21+");
+
+        ExecutorService pool = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        Result platform;
+        try {
+            platform = run(pool, 1_000);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Result virtual = null;
+        for (int clients : CONCURRENCY) {
+            Result result = run(new VirtualThreadTaskExecutor("load-"), clients);
+            report("virtual", clients, result);
+            if (clients == 1_000) {
+                virtual = result;
+            }
+        }
+
+        // Fără limita de 200 de fire, blocajul devine pool-ul de conexiuni, care rămâne respectat
+        assertThat(peakConnections.get()).isLessThanOrEqualTo(DB_POOL_SIZE);
+        assertThat(virtual.throughput()).isGreaterThan(platform.throughput() * 2);
+    }
+
+    private Result run(Executor executor, int clients) throws InterruptedException {
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(clients);
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            executor.execute(() -> {
+                try {
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        handleRequest();
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertThat(done.await(10, TimeUnit.MINUTES)).isTrue();
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        assertThat(failures.get()).isZero();
+        return new Result(elapsedMs, clients * REQUESTS_PER_CLIENT * 1000L / elapsedMs,
+                threads.getPeakThreadCount(), Math.max(0, heapAfter - heapBefore) / (1024 * 1024));
+    }
+
+    /**
+     * O cerere tipică: o interogare scurtă cu o conexiune din pool, eliberată înainte de apelul la alt serviciu
+     */
+    private void handleRequest() throws InterruptedException {
+        if (!connections.tryAcquire(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Connection pool exhausted");
+        }
+        try {
+            peakConnections.accumulateAndGet(connectionsInUse.incrementAndGet(), Math::max);
+            Thread.sleep(QUERY_MS);
+        } finally {
+            connectionsInUse.decrementAndGet();
+            connections.release();
+        }
+        Thread.sleep(REMOTE_CALL_MS);
+    }
+
+    private void report(String mode, int clients, Result result) {
+        System.out.printf("%-12s %,6d clients: %,7d req/s in %,6d ms | peak platform threads %,5d | heap +%d MB%n",
+                mode, clients, result.throughput(), result.elapsedMs(), result.peakThreads(), result.heapMb());
+    }
+
+    private record Result(long elapsedMs, long throughput, int peakThreads, long heapMb) {
+    }
+}
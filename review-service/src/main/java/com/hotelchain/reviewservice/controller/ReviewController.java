@@ -1,10 +1,16 @@
 package com.hotelchain.reviewservice.controller;
 
 import com.hotelchain.reviewservice.dto.*;
+import com.hotelchain.reviewservice.service.DownstreamGuard;
+import com.hotelchain.reviewservice.service.JwtValidationService;
+import com.hotelchain.reviewservice.service.PooledHttpClientFactory;
+import com.hotelchain.reviewservice.service.ReferenceDataProjector;
 import com.hotelchain.reviewservice.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -17,6 +23,18 @@ public class ReviewController {
     @Autowired
     private ReviewService reviewService;
 
+    @Autowired
+    private JwtValidationService jwtValidationService;
+
+    @Autowired
+    private DownstreamGuard downstreamGuard;
+
+    @Autowired
+    private PooledHttpClientFactory httpClientFactory;
+
+    @Autowired
+    private ReferenceDataProjector referenceDataProjector;
+
     // Test endpoints
     @GetMapping("/test")
     public String test() {
@@ -28,6 +46,38 @@ public class ReviewController {
         return "{\"status\":\"UP\",\"service\":\"review-service\"}";
     }
 
+    @GetMapping("/auth-cache/stats")
+    public String authCacheStats() {
+        return jwtValidationService.getCacheStats();
+    }
+
+    @GetMapping("/lookups/stats")
+    public String lookupStats() {
+        return reviewService.getLookupStats();
+    }
+
+    @GetMapping("/search/stats")
+    public String searchIndexStats() {
+        return reviewService.getSearchIndexStats();
+    }
+
+    @GetMapping("/downstream/stats")
+    public String downstreamStats() {
+        return downstreamGuard.getStats();
+    }
+
+    // Ocuparea pool-ului de conexiuni către celelalte servicii
+    @GetMapping("/http-client/stats")
+    public String httpClientStats() {
+        return httpClientFactory.getStats();
+    }
+
+    // Proiecțiile locale ale camerelor, clienților și rezervărilor, actualizate din evenimente
+    @GetMapping("/events/projection/stats")
+    public String projectionStats() {
+        return referenceDataProjector.getStats();
+    }
+
     // PUBLIC ENDPOINTS - fără autentificare
 
     /**
@@ -47,6 +97,34 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.getRoomReviewStats(roomId));
     }
 
+    /**
+     * Obține statistici review-uri pentru toate camerele unui hotel
+     */
+    @GetMapping("/hotel/{hotelId}/stats")
+    public ResponseEntity<Map<String, Object>> getHotelReviewStats(@PathVariable Long hotelId) {
+        try {
+            return ResponseEntity.ok(reviewService.getHotelReviewStats(hotelId));
+        } catch (Exception e) {
+            return ResponseEntity.status(503).body(null);
+        }
+    }
+
+    /**
+     * Căutare full-text în titlul și comentariul review-urilor, ordonată după relevanță
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SearchPage<ReviewDto>> searchReviews(@RequestParam("q") String query,
+                                                               @RequestParam(required = false) Integer page,
+                                                               @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(reviewService.searchReviews(query, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(null);
+        }
+    }
+
     // CLIENT ENDPOINTS - cu autentificare
 
     /**
@@ -116,6 +194,36 @@ public class ReviewController {
         }
     }
 
+    /**
+     * Obține o pagină de review-uri (paginare keyset, cursorul vine din pagina anterioară)
+     */
+    @GetMapping("/all/page")
+    public ResponseEntity<CursorPage<ReviewDto>> getReviewsPage(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size,
+                                                                @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(reviewService.getReviewsPage(cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(403).body(null);
+        }
+    }
+
+    /**
+     * Transmite toate review-urile active ca NDJSON (un obiect JSON pe linie)
+     */
+    @GetMapping("/all/stream")
+    public ResponseEntity<StreamingResponseBody> streamReviews(@RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body(reviewService.streamReviews(token));
+        } catch (Exception e) {
+            return ResponseEntity.status(403).build();
+        }
+    }
+
     /**
      * Obține statistici generale despre review-uri
      */
@@ -128,6 +236,30 @@ public class ReviewController {
         }
     }
 
+    /**
+     * Reconstruiește agregatele de rating din review-uri (reconciliere)
+     */
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildReviewStatistics(@RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(reviewService.rebuildReviewStatistics(token));
+        } catch (Exception e) {
+            return ResponseEntity.status(403).body(null);
+        }
+    }
+
+    /**
+     * Reconstruiește indexul de căutare din review-urile active
+     */
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex(@RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(reviewService.rebuildSearchIndex(token));
+        } catch (Exception e) {
+            return ResponseEntity.status(403).body(null);
+        }
+    }
+
     /**
      * Moderează un review (ascunde/afișează)
      */
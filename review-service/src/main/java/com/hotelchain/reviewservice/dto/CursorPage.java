@@ -0,0 +1,18 @@
+package com.hotelchain.reviewservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * O pagină dintr-o listare paginată keyset; nextCursor este null pe ultima pagină
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
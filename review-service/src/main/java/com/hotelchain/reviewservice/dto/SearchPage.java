@@ -0,0 +1,20 @@
+package com.hotelchain.reviewservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * O pagină de rezultate ordonate după relevanță; total este numărul tuturor rezultatelor găsite
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPage<T> {
+    private List<T> items;
+    private long total;
+    private int page;
+    private int size;
+}
@@ -0,0 +1,45 @@
+package com.hotelchain.reviewservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Copia locală a rezervării din reservation-service, actualizată din evenimentele ReservationStatusChanged;
+ * folosită la verificarea că un client poate lăsa review pentru rezervare.
+ * eventSequence este secvența ultimului eveniment aplicat; evenimentele mai vechi sau repetate sunt ignorate.
+ */
+@Entity
+@Table(name = "reservation_projection")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationProjection {
+    @Id
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Column(name = "room_id")
+    private Long roomId;
+
+    private String status;
+
+    @Column(name = "check_in_date")
+    private LocalDate checkInDate;
+
+    @Column(name = "check_out_date")
+    private LocalDate checkOutDate;
+
+    @Column(name = "event_sequence", nullable = false)
+    private long eventSequence;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -8,7 +8,11 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_active_created_id", columnList = "active, created_at, id"),
+        @Index(name = "idx_reviews_room_active_rating", columnList = "room_id, active, rating"),
+        @Index(name = "idx_reviews_updated_id", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,10 +43,20 @@ public class Review {
 
     private boolean active = true;
 
+    // Ultima modificare; indexul de căutare preia de aici scrierile făcute de alte instanțe
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 }
\ No newline at end of file
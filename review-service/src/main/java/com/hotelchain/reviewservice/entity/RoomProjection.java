@@ -0,0 +1,42 @@
+package com.hotelchain.reviewservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia locală a camerei din hotel-service, actualizată din evenimentele RoomChanged.
+ * eventSequence este secvența ultimului eveniment aplicat; evenimentele mai vechi sau repetate sunt ignorate.
+ */
+@Entity
+@Table(name = "room_projection")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomProjection {
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    @Column(name = "room_number")
+    private String roomNumber;
+
+    @Column(name = "hotel_name")
+    private String hotelName;
+
+    private boolean active;
+
+    private boolean available;
+
+    @Column(name = "event_sequence", nullable = false)
+    private long eventSequence;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
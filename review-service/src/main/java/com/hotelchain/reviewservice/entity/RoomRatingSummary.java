@@ -0,0 +1,47 @@
+package com.hotelchain.reviewservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Agregatul review-urilor active ale unei camere (număr, sumă, număr per stea),
+ * actualizat incremental la fiecare scriere, astfel încât statisticile nu mai citesc review-urile.
+ * hotelId este hotelul camerei, ca statisticile unui hotel să fie o singură sumă locală.
+ */
+@Entity
+@Table(name = "room_rating_summaries",
+        indexes = @Index(name = "idx_room_rating_summaries_hotel", columnList = "hotel_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomRatingSummary {
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "one_star_count", nullable = false)
+    private long oneStarCount;
+
+    @Column(name = "two_star_count", nullable = false)
+    private long twoStarCount;
+
+    @Column(name = "three_star_count", nullable = false)
+    private long threeStarCount;
+
+    @Column(name = "four_star_count", nullable = false)
+    private long fourStarCount;
+
+    @Column(name = "five_star_count", nullable = false)
+    private long fiveStarCount;
+}
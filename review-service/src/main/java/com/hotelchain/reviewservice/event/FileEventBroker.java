@@ -0,0 +1,252 @@
+package com.hotelchain.reviewservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Broker pe fișiere, comun tuturor serviciilor care folosesc același director: fiecare tip de eveniment
+ * este un jurnal append-only (o linie JSON per eveniment, scrisă sub lock de fișier, deci mai multe procese
+ * pot publica în paralel), iar fiecare consumator își ține poziția în jurnal într-un fișier separat.
+ * Poziția se salvează după procesare, deci după o oprire bruscă ultimele evenimente pot fi livrate din nou.
+ * Un eveniment care eșuează de maxAttempts ori la rând (sau o linie mai lungă decât un lot) este mutat în
+ * fișierul dead-letter al consumatorului, ca restul jurnalului să nu rămână blocat în spatele lui.
+ */
+public class FileEventBroker implements EventBroker {
+
+    private static final int MAX_BATCH_BYTES = 1 << 20;
+    private static final int SCAN_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long pollMs;
+    private final int maxAttempts;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService poller;
+
+    public FileEventBroker(Path directory, long pollMs, int maxAttempts) {
+        this.directory = directory;
+        this.pollMs = pollMs;
+        this.maxAttempts = maxAttempts;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void publish(ChangeEvent event) {
+        try {
+            byte[] line = (objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(logFile(event.type()),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                 FileLock ignored = channel.lock()) {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(String type, String consumer, Consumer<ChangeEvent> handler) {
+        Path offsetFile = directory.resolve(type + "." + consumer + ".offset");
+        Path deadLetterFile = directory.resolve(type + "." + consumer + ".dead");
+        subscriptions.add(new Subscription(type, offsetFile, deadLetterFile, readOffset(offsetFile), handler));
+        if (poller == null) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "event-broker-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::pollAll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Livrează evenimentele noi tuturor abonaților; rulat periodic de firul de polling
+     */
+    public void pollAll() {
+        for (Subscription subscription : subscriptions) {
+            try {
+                poll(subscription);
+            } catch (Exception e) {
+                System.err.println("Event broker poll failed for " + subscription.type + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    private synchronized void poll(Subscription subscription) throws IOException {
+        Path log = logFile(subscription.type);
+        if (!Files.exists(log)) {
+            return;
+        }
+        long startOffset = subscription.offset;
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+            long available = channel.size() - subscription.offset;
+            if (available <= 0) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(available, MAX_BATCH_BYTES));
+            channel.read(buffer, subscription.offset);
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            boolean lineFound = false;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                lineFound = true;
+                // Doar liniile complete; o linie aflată încă în scriere se citește la următorul poll
+                if (!deliver(subscription, bytes, lineStart, i + 1 - lineStart)) {
+                    break;
+                }
+                lineStart = i + 1;
+                subscription.offset = startOffset + lineStart;
+            }
+            if (!lineFound && buffer.position() == MAX_BATCH_BYTES) {
+                skipOversizedLine(channel, subscription);
+            }
+        }
+        if (subscription.offset != startOffset) {
+            writeOffset(subscription.offsetFile, subscription.offset);
+        }
+    }
+
+    /**
+     * Adevărat dacă evenimentul a fost procesat sau, după maxAttempts eșecuri, mutat în dead-letter;
+     * fals dacă trebuie reîncercat la următorul poll
+     */
+    private boolean deliver(Subscription subscription, byte[] bytes, int start, int length) throws IOException {
+        try {
+            String line = new String(bytes, start, length - 1, StandardCharsets.UTF_8);
+            subscription.handler.accept(objectMapper.readValue(line, ChangeEvent.class));
+        } catch (Exception e) {
+            subscription.failures++;
+            if (subscription.failures < maxAttempts) {
+                System.err.println("Event handler failed for " + subscription.type + " (attempt "
+                        + subscription.failures + "/" + maxAttempts + "), will retry: " + e.getMessage());
+                return false;
+            }
+            System.err.println("Event handler failed for " + subscription.type + " " + maxAttempts
+                    + " times, moved to " + subscription.deadLetterFile + ": " + e.getMessage());
+            try (FileChannel deadLetter = openDeadLetter(subscription)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, start, length);
+                while (buffer.hasRemaining()) {
+                    deadLetter.write(buffer);
+                }
+            }
+        }
+        subscription.failures = 0;
+        return true;
+    }
+
+    /**
+     * O linie mai lungă decât un lot nu ar fi citită niciodată întreagă: este copiată în dead-letter
+     * direct din jurnal, odată ce s-a terminat de scris
+     */
+    private void skipOversizedLine(FileChannel channel, Subscription subscription) throws IOException {
+        long end = findLineEnd(channel, subscription.offset + MAX_BATCH_BYTES);
+        if (end < 0) {
+            return;
+        }
+        try (FileChannel deadLetter = openDeadLetter(subscription)) {
+            long position = subscription.offset;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, deadLetter);
+            }
+        }
+        System.err.println("Event of " + (end + 1 - subscription.offset) + " bytes for " + subscription.type
+                + " exceeds the batch limit, moved to " + subscription.deadLetterFile);
+        subscription.offset = end + 1;
+        subscription.failures = 0;
+    }
+
+    private static long findLineEnd(FileChannel channel, long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+        long position = from;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static FileChannel openDeadLetter(Subscription subscription) throws IOException {
+        return FileChannel.open(subscription.deadLetterFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path logFile(String type) {
+        return directory.resolve(type + ".log");
+    }
+
+    private static long readOffset(Path offsetFile) {
+        try {
+            return Files.exists(offsetFile) ? Long.parseLong(Files.readString(offsetFile).trim()) : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeOffset(Path offsetFile, long offset) throws IOException {
+        Path temp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(offset));
+        Files.move(temp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static class Subscription {
+        private final String type;
+        private final Path offsetFile;
+        private final Path deadLetterFile;
+        private final Consumer<ChangeEvent> handler;
+        private long offset;
+        // Eșecurile consecutive ale evenimentului de la offset
+        private int failures;
+
+        private Subscription(String type, Path offsetFile, Path deadLetterFile, long offset,
+                             Consumer<ChangeEvent> handler) {
+            this.type = type;
+            this.offsetFile = offsetFile;
+            this.deadLetterFile = deadLetterFile;
+            this.offset = offset;
+            this.handler = handler;
+        }
+    }
+}
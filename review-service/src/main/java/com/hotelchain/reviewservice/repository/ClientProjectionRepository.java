@@ -0,0 +1,7 @@
+package com.hotelchain.reviewservice.repository;
+
+import com.hotelchain.reviewservice.entity.ClientProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ClientProjectionRepository extends JpaRepository<ClientProjection, Long> {
+}
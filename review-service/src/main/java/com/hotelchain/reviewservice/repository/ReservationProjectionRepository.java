@@ -0,0 +1,7 @@
+package com.hotelchain.reviewservice.repository;
+
+import com.hotelchain.reviewservice.entity.ReservationProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReservationProjectionRepository extends JpaRepository<ReservationProjection, Long> {
+}
@@ -1,13 +1,21 @@
 package com.hotelchain.reviewservice.repository;
 
 import com.hotelchain.reviewservice.entity.Review;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
@@ -29,6 +37,14 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     // Găsește toate review-urile active
     List<Review> findByActiveTrueOrderByCreatedAtDesc();
 
+    // Paginare keyset pe (createdAt, id) pentru review-urile active, de la cele mai noi
+    @Query("SELECT r FROM Review r WHERE r.active = true " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findActivePageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
     // Găsește toate review-urile active (fără sortare)
     List<Review> findByActiveTrue();
 
@@ -48,6 +64,19 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.roomId = :roomId AND r.active = true")
     Double getAverageRatingForRoom(@Param("roomId") Long roomId);
 
+    // Statistici - numărul de review-uri active per rating pentru o cameră (reconstruirea agregatelor)
+    @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.roomId = :roomId AND r.active = true GROUP BY r.rating")
+    List<Object[]> getRatingDistributionForRoom(@Param("roomId") Long roomId);
+
+    // Camerele care au cel puțin un review (activ sau nu)
+    @Query("SELECT DISTINCT r.roomId FROM Review r")
+    List<Long> findDistinctRoomIds();
+
+    // Review-ul blocat pentru scriere, ca modificările concurente să nu numere de două ori în agregat
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> lockById(@Param("id") Long id);
+
     // Statistici - numărul de review-uri per rating
     @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.active = true GROUP BY r.rating ORDER BY r.rating")
     List<Object[]> getRatingDistribution();
@@ -55,12 +84,29 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     // Găsește review-urile cu un anumit rating
     List<Review> findByRatingAndActiveTrueOrderByCreatedAtDesc(Integer rating);
 
-    // Căutare în review-uri după text
+    // Căutare în review-uri după text, folosită doar până la încărcarea indexului de căutare
     @Query("SELECT r FROM Review r WHERE r.active = true " +
             "AND (LOWER(r.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
             "OR LOWER(r.comment) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
             "ORDER BY r.createdAt DESC")
-    List<Review> searchReviews(@Param("searchTerm") String searchTerm);
+    Page<Review> searchReviews(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    // Textul review-urilor active în ordinea id-urilor, pentru construirea indexului de căutare;
+    // trebuie consumat într-o tranzacție și închis după folosire
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.id, r.title, r.comment, r.updatedAt FROM Review r WHERE r.active = true ORDER BY r.id")
+    Stream<Object[]> streamActiveText();
+
+    // Review-urile modificate după (updatedAt, id), paginate keyset, pentru actualizarea indexului de căutare
+    @Query("SELECT r FROM Review r WHERE r.updatedAt > :updatedAt " +
+            "OR (r.updatedAt = :updatedAt AND r.id > :id) " +
+            "ORDER BY r.updatedAt, r.id")
+    List<Review> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
 
     // Top review-uri (cele mai bine cotate)
     List<Review> findByActiveTrueAndRatingGreaterThanEqualOrderByRatingDescCreatedAtDesc(Integer minRating);
@@ -0,0 +1,7 @@
+package com.hotelchain.reviewservice.repository;
+
+import com.hotelchain.reviewservice.entity.RoomProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RoomProjectionRepository extends JpaRepository<RoomProjection, Long> {
+}
@@ -0,0 +1,44 @@
+package com.hotelchain.reviewservice.repository;
+
+import com.hotelchain.reviewservice.entity.RoomRatingSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomRatingSummaryRepository extends JpaRepository<RoomRatingSummary, Long> {
+
+    // SELECT ... FOR UPDATE pe agregatul camerei; scrierile pentru aceeași cameră se serializează
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM RoomRatingSummary s WHERE s.roomId = :roomId")
+    Optional<RoomRatingSummary> lockByRoomId(@Param("roomId") Long roomId);
+
+    // Totalurile pe toate camerele: un rând (count, sum, 1..5 stele)
+    @Query("SELECT COALESCE(SUM(s.reviewCount), 0), COALESCE(SUM(s.ratingSum), 0), " +
+            "COALESCE(SUM(s.oneStarCount), 0), COALESCE(SUM(s.twoStarCount), 0), COALESCE(SUM(s.threeStarCount), 0), " +
+            "COALESCE(SUM(s.fourStarCount), 0), COALESCE(SUM(s.fiveStarCount), 0) FROM RoomRatingSummary s")
+    List<Object[]> sumAll();
+
+    // Totalurile camerelor unui hotel, același format ca sumAll
+    @Query("SELECT COALESCE(SUM(s.reviewCount), 0), COALESCE(SUM(s.ratingSum), 0), " +
+            "COALESCE(SUM(s.oneStarCount), 0), COALESCE(SUM(s.twoStarCount), 0), COALESCE(SUM(s.threeStarCount), 0), " +
+            "COALESCE(SUM(s.fourStarCount), 0), COALESCE(SUM(s.fiveStarCount), 0) FROM RoomRatingSummary s " +
+            "WHERE s.hotelId = :hotelId")
+    List<Object[]> sumByHotelId(@Param("hotelId") Long hotelId);
+
+    // Hotelul camerei, din proiecția camerelor sau din hotel-service; nu atinge contoarele
+    @Modifying
+    @Query("UPDATE RoomRatingSummary s SET s.hotelId = :hotelId WHERE s.roomId = :roomId")
+    int assignHotel(@Param("roomId") Long roomId, @Param("hotelId") Long hotelId);
+
+    @Query("SELECT s.roomId FROM RoomRatingSummary s WHERE s.hotelId IS NULL")
+    List<Long> findRoomIdsWithoutHotel();
+
+    @Query("SELECT s.roomId FROM RoomRatingSummary s")
+    List<Long> findAllRoomIds();
+}
@@ -0,0 +1,184 @@
+package com.hotelchain.reviewservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Îmbogățirea unei pagini de rezultate: apelurile către user-service și hotel-service pornesc în paralel,
+ * pe un executor limitat, și sunt așteptate cel mult până la termenul paginii. Ce nu a sosit la timp
+ * este înlocuit de valorile implicite ale apelantului; apelul întârziat continuă în fundal și își
+ * înregistrează latența. Pentru fiecare dependență se păstrează o histogramă a latențelor.
+ */
+@Component
+public class EnrichmentStage {
+
+    // Limitele superioare ale intervalelor histogramei, în milisecunde; ultimul interval e nelimitat
+    private static final long[] BUCKET_BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500};
+
+    private final ThreadPoolExecutor executor;
+    private final long deadlineMs;
+
+    private final Map<String, Dependency> dependencies = new ConcurrentHashMap<>();
+    private final LongAdder pages = new LongAdder();
+
+    public EnrichmentStage(int workers, int queueCapacity, long deadlineMs) {
+        this(workers, queueCapacity, deadlineMs, null);
+    }
+
+    @Autowired
+    public EnrichmentStage(@Value("${app.enrichment.workers:16}") int workers,
+                           @Value("${app.enrichment.queue-capacity:256}") int queueCapacity,
+                           @Value("${app.enrichment.deadline-ms:800}") long deadlineMs,
+                           Environment environment) {
+        this.deadlineMs = deadlineMs;
+        boolean virtual = environment != null && Threading.VIRTUAL.isActive(environment);
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                virtual ? new VirtualThreadTaskExecutor("review-enrichment-").getVirtualThreadFactory()
+                        : platformThreads());
+    }
+
+    /**
+     * Termenul pentru o pagină nouă (System.nanoTime()), comun tuturor căutărilor paginii
+     */
+    public long startPage() {
+        pages.increment();
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+    }
+
+    /**
+     * Pornește o căutare către o dependență, cu bugetul de timp al cererii curente;
+     * dacă executorul este plin, căutarea eșuează imediat
+     */
+    public <T> CompletableFuture<T> submit(String dependency, Supplier<T> lookup) {
+        Dependency stats = dependency(dependency);
+        Long requestDeadline = RequestDeadline.current();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return RequestDeadline.callWithin(requestDeadline, lookup);
+                } finally {
+                    stats.record(System.nanoTime() - start);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            stats.rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Rezultatul căutării sau valoarea implicită, dacă termenul paginii a trecut ori căutarea a eșuat
+     */
+    public <T> T await(String dependency, CompletableFuture<T> lookup, long deadline, T fallback) {
+        Dependency stats = dependency(dependency);
+        try {
+            T value = lookup.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return value != null ? value : fallback;
+        } catch (TimeoutException e) {
+            stats.timeouts.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof RejectedExecutionException)) {
+                stats.failures.increment();
+            }
+            System.err.println("Enrichment lookup to " + dependency + " failed: " + e.getCause().getMessage());
+        }
+        return fallback;
+    }
+
+    /**
+     * Histogramele de latență și contoarele de timeout / eșec, pe dependență, ca obiect JSON
+     */
+    public String getStats() {
+        List<String> entries = new ArrayList<>();
+        dependencies.forEach((name, stats) -> entries.add("\"" + name + "\":" + stats.toJson()));
+        return String.format(Locale.ROOT, "{\"pages\":%d,\"deadlineMs\":%d,\"queued\":%d,\"active\":%d,\"dependencies\":{%s}}",
+                pages.sum(), deadlineMs, executor.getQueue().size(), executor.getActiveCount(), String.join(",", entries));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Dependency dependency(String name) {
+        return dependencies.computeIfAbsent(name, key -> new Dependency());
+    }
+
+    private static ThreadFactory platformThreads() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "review-enrichment-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Dependency {
+
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        Dependency() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MS.length && millis > BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            calls.increment();
+            totalNanos.add(nanos);
+        }
+
+        String toJson() {
+            StringBuilder histogram = new StringBuilder();
+            for (int i = 0; i < buckets.length; i++) {
+                if (i > 0) {
+                    histogram.append(',');
+                }
+                String bound = i < BUCKET_BOUNDS_MS.length ? "le" + BUCKET_BOUNDS_MS[i] : "inf";
+                histogram.append('"').append(bound).append("\":").append(buckets[i].sum());
+            }
+            long count = calls.sum();
+            return String.format(Locale.ROOT,
+                    "{\"calls\":%d,\"avgMs\":%.2f,\"timeouts\":%d,\"failures\":%d,\"rejected\":%d,\"latencyMs\":{%s}}",
+                    count, count == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / count,
+                    timeouts.sum(), failures.sum(), rejected.sum(), histogram);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hotelchain.reviewservice.service;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Credențialul comun cu care serviciile își apelează endpoint-urile interne (batch, sincronizări).
+ * Ca interceptor RestTemplate îl adaugă doar pe apelurile către serviciile configurate; gateway-ul îl șterge
+ * din cererile clienților, deci endpoint-urile interne nu pot fi apelate din exterior.
+ */
+public class InternalServiceCredential implements ClientHttpRequestInterceptor {
+
+    public static final String HEADER = "X-Internal-Token";
+
+    private final byte[] token;
+    private final List<String> internalServiceUrls;
+
+    public InternalServiceCredential(String token, Collection<String> internalServiceUrls) {
+        this.token = token != null ? token.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        this.internalServiceUrls = List.copyOf(internalServiceUrls);
+    }
+
+    /**
+     * Adevărat doar dacă apelantul a trimis exact token-ul configurat; fără token configurat nu este acceptat nimeni
+     */
+    public boolean isTrusted(String presented) {
+        if (token.length == 0 || presented == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String uri = request.getURI().toString();
+        if (token.length > 0 && internalServiceUrls.stream().anyMatch(uri::startsWith)) {
+            request.getHeaders().set(HEADER, new String(token, StandardCharsets.UTF_8));
+        }
+        return execution.execute(request, body);
+    }
+}
@@ -0,0 +1,145 @@
+package com.hotelchain.reviewservice.service;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Clientul HTTP comun pentru apelurile către celelalte servicii.
+ * Implicit (HTTP_1_1): pool de conexiuni keep-alive cu limită totală și pe serviciu (host:port),
+ * răspunsuri comprimate gzip/deflate decomprimate transparent și conexiuni inactive închise în fundal.
+ * Cu HTTP_2, clientul din JDK negociază HTTP/2 (ALPN pe TLS, upgrade h2c pe HTTP) și multiplexează
+ * apelurile pe o singură conexiune per serviciu, revenind la HTTP/1.1 dacă serviciul nu îl suportă.
+ * Fiecare apel așteaptă răspunsul cel mult cât a mai rămas din bugetul cererii ({@link RequestDeadline}),
+ * limitat la timeout-ul de citire.
+ */
+public class PooledHttpClientFactory {
+
+    public enum Protocol { HTTP_1_1, HTTP_2 }
+
+    private final Protocol protocol;
+    private final int maxTotal;
+    private final int maxPerRoute;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient pooledClient;
+    private final ClientHttpRequestFactory requestFactory;
+
+    public PooledHttpClientFactory(Protocol protocol, int maxTotal, int maxPerRoute, int connectTimeoutMs,
+                                   int readTimeoutMs, int acquireTimeoutMs, long maxIdleMs, boolean virtualThreads) {
+        this.protocol = protocol;
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+
+        if (protocol == Protocol.HTTP_2) {
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs));
+            if (virtualThreads) {
+                builder.executor(new VirtualThreadTaskExecutor("http-client-"));
+            }
+            HttpClient jdkClient = builder.build();
+            this.connectionManager = null;
+            this.pooledClient = null;
+            // Timeout-ul de citire este fixat pe fabrică, deci fiecare apel primește una nouă (doar referințe)
+            this.requestFactory = (uri, httpMethod) -> {
+                JdkClientHttpRequestFactory jdkRequestFactory = new JdkClientHttpRequestFactory(jdkClient);
+                jdkRequestFactory.setReadTimeout(Duration.ofMillis(responseTimeoutMs(readTimeoutMs)));
+                return jdkRequestFactory.createRequest(uri, httpMethod);
+            };
+            return;
+        }
+
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // O conexiune nefolosită de peste o secundă este verificată înainte de reutilizare
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+                        .build())
+                .build();
+        this.pooledClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Cât așteaptă un apel după o conexiune liberă când pool-ul serviciului e plin
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(maxIdleMs))
+                .disableCookieManagement()
+                .build();
+        HttpComponentsClientHttpRequestFactory pooledRequestFactory = new HttpComponentsClientHttpRequestFactory(pooledClient);
+        pooledRequestFactory.setHttpContextFactory((httpMethod, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                    .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs(readTimeoutMs)))
+                    .build());
+            return context;
+        });
+        this.requestFactory = pooledRequestFactory;
+    }
+
+    public ClientHttpRequestFactory requestFactory() {
+        return requestFactory;
+    }
+
+    /**
+     * Ocuparea pool-ului, total și pe fiecare serviciu apelat, ca obiect JSON
+     */
+    public String getStats() {
+        if (connectionManager == null) {
+            // Clientul din JDK nu expune starea conexiunilor
+            return String.format(Locale.ROOT, "{\"protocol\":\"%s\"}", protocol);
+        }
+        PoolStats total = connectionManager.getTotalStats();
+        List<String> routes = new ArrayList<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            routes.add("\"" + route.getTargetHost().toHostString() + "\":" + toJson(connectionManager.getStats(route)));
+        }
+        return String.format(Locale.ROOT,
+                "{\"protocol\":\"%s\",\"maxTotal\":%d,\"maxPerRoute\":%d,\"leased\":%d,\"available\":%d,\"pending\":%d,\"routes\":{%s}}",
+                protocol, maxTotal, maxPerRoute, total.getLeased(), total.getAvailable(), total.getPending(),
+                String.join(",", routes));
+    }
+
+    public void close() throws IOException {
+        if (pooledClient != null) {
+            pooledClient.close();
+        }
+    }
+
+    /**
+     * Timpul rămas din bugetul cererii de pe firul curent, cel mult timeout-ul de citire
+     */
+    private static long responseTimeoutMs(int readTimeoutMs) {
+        return Math.max(1, Math.min(RequestDeadline.remainingMs(), readTimeoutMs));
+    }
+
+    private static String toJson(PoolStats stats) {
+        return String.format(Locale.ROOT, "{\"leased\":%d,\"available\":%d,\"pending\":%d,\"max\":%d}",
+                stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+}
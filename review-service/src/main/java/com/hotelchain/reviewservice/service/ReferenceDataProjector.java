@@ -0,0 +1,142 @@
+package com.hotelchain.reviewservice.service;
+
+import com.hotelchain.reviewservice.entity.ClientProjection;
+import com.hotelchain.reviewservice.entity.ReservationProjection;
+import com.hotelchain.reviewservice.entity.RoomProjection;
+import com.hotelchain.reviewservice.event.ChangeEvent;
+import com.hotelchain.reviewservice.event.EventBroker;
+import com.hotelchain.reviewservice.repository.ClientProjectionRepository;
+import com.hotelchain.reviewservice.repository.ReservationProjectionRepository;
+import com.hotelchain.reviewservice.repository.RoomProjectionRepository;
+import com.hotelchain.reviewservice.repository.RoomRatingSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ține la zi proiecțiile locale ale camerelor, clienților și rezervărilor din evenimentele publicate de
+ * hotel-service, user-service și reservation-service, folosite de {@link ReviewService} în locul apelurilor HTTP.
+ * Brokerul poate livra un eveniment de mai multe ori sau după unul mai nou; se aplică doar evenimentele
+ * cu secvență mai mare decât ultima aplicată pe acel agregat.
+ */
+@Component
+public class ReferenceDataProjector {
+
+    @Autowired
+    private EventBroker eventBroker;
+
+    @Autowired
+    private RoomProjectionRepository roomProjectionRepository;
+
+    @Autowired
+    private ClientProjectionRepository clientProjectionRepository;
+
+    @Autowired
+    private ReservationProjectionRepository reservationProjectionRepository;
+
+    @Autowired
+    private RoomRatingSummaryRepository roomRatingSummaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.application.name:review-service}")
+    private String consumer;
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        eventBroker.subscribe(ChangeEvent.ROOM_CHANGED, consumer, this::onRoomChanged);
+        eventBroker.subscribe(ChangeEvent.USER_CHANGED, consumer, this::onUserChanged);
+        eventBroker.subscribe(ChangeEvent.RESERVATION_STATUS_CHANGED, consumer, this::onReservationStatusChanged);
+    }
+
+    /**
+     * Dimensiunea proiecțiilor și numărul de evenimente aplicate și ignorate (repetate sau mai vechi decât proiecția)
+     */
+    public String getStats() {
+        return String.format(Locale.ROOT, "{\"rooms\":%d,\"clients\":%d,\"reservations\":%d,\"applied\":%d,\"skipped\":%d}",
+                roomProjectionRepository.count(), clientProjectionRepository.count(),
+                reservationProjectionRepository.count(), applied.sum(), skipped.sum());
+    }
+
+    void onRoomChanged(ChangeEvent event) {
+        count(new TransactionTemplate(transactionManager).execute(status -> {
+            RoomProjection projection = roomProjectionRepository.findById(event.aggregateId())
+                    .orElseGet(RoomProjection::new);
+            if (event.sequence() <= projection.getEventSequence()) {
+                return false;
+            }
+            projection.setRoomId(event.aggregateId());
+            projection.setHotelId(event.getLong("hotelId"));
+            projection.setRoomNumber(event.getString("roomNumber"));
+            projection.setHotelName(event.getString("hotelName"));
+            projection.setActive(event.getBoolean("active"));
+            projection.setAvailable(event.getBoolean("available"));
+            projection.setEventSequence(event.sequence());
+            projection.setUpdatedAt(LocalDateTime.now());
+            roomProjectionRepository.save(projection);
+            // Agregatul de rating al camerei ține minte hotelul pentru statisticile pe hotel
+            roomRatingSummaryRepository.assignHotel(projection.getRoomId(), projection.getHotelId());
+            return true;
+        }));
+    }
+
+    void onUserChanged(ChangeEvent event) {
+        count(new TransactionTemplate(transactionManager).execute(status -> {
+            ClientProjection projection = clientProjectionRepository.findById(event.aggregateId())
+                    .orElseGet(ClientProjection::new);
+            if (event.sequence() <= projection.getEventSequence()) {
+                return false;
+            }
+            projection.setClientId(event.aggregateId());
+            projection.setUsername(event.getString("username"));
+            projection.setEmail(event.getString("email"));
+            projection.setRole(event.getString("role"));
+            projection.setActive(event.getBoolean("active"));
+            projection.setEventSequence(event.sequence());
+            projection.setUpdatedAt(LocalDateTime.now());
+            clientProjectionRepository.save(projection);
+            return true;
+        }));
+    }
+
+    void onReservationStatusChanged(ChangeEvent event) {
+        count(new TransactionTemplate(transactionManager).execute(status -> {
+            ReservationProjection projection = reservationProjectionRepository.findById(event.aggregateId())
+                    .orElseGet(ReservationProjection::new);
+            if (event.sequence() <= projection.getEventSequence()) {
+                return false;
+            }
+            projection.setReservationId(event.aggregateId());
+            projection.setClientId(event.getLong("clientId"));
+            projection.setRoomId(event.getLong("roomId"));
+            projection.setStatus(event.getString("status"));
+            projection.setCheckInDate(LocalDate.parse(event.getString("checkInDate")));
+            projection.setCheckOutDate(LocalDate.parse(event.getString("checkOutDate")));
+            projection.setEventSequence(event.sequence());
+            projection.setUpdatedAt(LocalDateTime.now());
+            reservationProjectionRepository.save(projection);
+            return true;
+        }));
+    }
+
+    private void count(Boolean wasApplied) {
+        if (Boolean.TRUE.equals(wasApplied)) {
+            applied.increment();
+        } else {
+            skipped.increment();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.hotelchain.reviewservice.service;
+
+import com.hotelchain.reviewservice.entity.RoomProjection;
+import com.hotelchain.reviewservice.entity.RoomRatingSummary;
+import com.hotelchain.reviewservice.repository.ReviewRepository;
+import com.hotelchain.reviewservice.repository.RoomProjectionRepository;
+import com.hotelchain.reviewservice.repository.RoomRatingSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Întreține agregatele de rating per cameră (room_rating_summaries). Fiecare scriere pe un review
+ * aplică o diferență pe rândul camerei, blocat pe durata tranzacției, deci statisticile se citesc
+ * dintr-un singur rând indiferent de numărul de review-uri. Rândul ține și hotelul camerei, luat din
+ * proiecția camerelor (sau o singură dată din hotel-service), deci statisticile unui hotel sunt o sumă locală.
+ */
+@Service
+public class ReviewAggregateService {
+
+    @Autowired
+    private RoomRatingSummaryRepository summaryRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoomProjectionRepository roomProjectionRepository;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.services.hotel:http://localhost:8082}")
+    private String hotelServiceUrl;
+
+    /**
+     * Adaugă (delta = 1) sau scoate (delta = -1) un rating din agregatul camerei.
+     * Trebuie apelat în tranzacția scrierii, înainte de modificarea review-ului.
+     */
+    public void apply(Long roomId, int rating, int delta) {
+        ensureSummary(roomId);
+        RoomRatingSummary summary = summaryRepository.lockByRoomId(roomId)
+                .orElseThrow(() -> new IllegalStateException("Missing rating summary for room " + roomId));
+        add(summary, rating, delta);
+        summaryRepository.save(summary);
+    }
+
+    /**
+     * Agregatul unei camere; o cameră fără review-uri are toate contoarele 0
+     */
+    public RoomRatingSummary getRoomSummary(Long roomId) {
+        return summaryRepository.findById(roomId).orElseGet(() -> empty(roomId));
+    }
+
+    /**
+     * Totalul camerelor unui hotel, calculat în baza de date din agregatele camerelor lui
+     */
+    public RoomRatingSummary sumHotel(Long hotelId) {
+        return toSummary(summaryRepository.sumByHotelId(hotelId).get(0));
+    }
+
+    /**
+     * Totalul pe toate camerele, calculat în baza de date dintr-un rând per cameră
+     */
+    public RoomRatingSummary sumAll() {
+        return toSummary(summaryRepository.sumAll().get(0));
+    }
+
+    /**
+     * Reconstruiește agregatele din review-uri, cameră cu cameră, fiecare într-o tranzacție scurtă.
+     * Rândul camerei este blocat înainte de numărare, deci scrierile concurente nu se pierd.
+     */
+    public Map<String, Object> rebuild() {
+        Set<Long> roomIds = new TreeSet<>(reviewRepository.findDistinctRoomIds());
+        roomIds.addAll(summaryRepository.findAllRoomIds());
+        Map<Long, Long> hotelIds = findHotelIds(roomIds);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int corrected = 0;
+        for (Long roomId : roomIds) {
+            // În afara tranzacției de reconstruire, ca numărarea să vadă tot ce s-a confirmat înainte de blocare
+            ensureSummary(roomId, hotelIds.get(roomId));
+            Boolean changed = transactionTemplate.execute(status -> rebuildRoom(roomId, hotelIds.get(roomId)));
+            if (Boolean.TRUE.equals(changed)) {
+                corrected++;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rooms", roomIds.size());
+        result.put("corrected", corrected);
+        return result;
+    }
+
+    /**
+     * La prima pornire (tabel gol) agregatele sunt calculate din review-urile existente;
+     * rândurile create înainte de coloana hotel_id primesc hotelul camerei
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (summaryRepository.count() == 0 && reviewRepository.count() > 0) {
+            rebuild();
+            return;
+        }
+        List<Long> withoutHotel = summaryRepository.findRoomIdsWithoutHotel();
+        if (withoutHotel.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        findHotelIds(withoutHotel).forEach((roomId, hotelId) ->
+                transactionTemplate.executeWithoutResult(status -> summaryRepository.assignHotel(roomId, hotelId)));
+    }
+
+    private boolean rebuildRoom(Long roomId, Long hotelId) {
+        RoomRatingSummary summary = summaryRepository.lockByRoomId(roomId)
+                .orElseThrow(() -> new IllegalStateException("Missing rating summary for room " + roomId));
+
+        RoomRatingSummary actual = empty(roomId);
+        actual.setHotelId(hotelId != null ? hotelId : summary.getHotelId());
+        for (Object[] row : reviewRepository.getRatingDistributionForRoom(roomId)) {
+            add(actual, ((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+        if (actual.equals(summary)) {
+            return false;
+        }
+
+        System.err.println("Rating summary for room " + roomId + " was out of sync: " + summary + " -> " + actual);
+        summaryRepository.save(actual);
+        return true;
+    }
+
+    private void ensureSummary(Long roomId) {
+        if (!summaryRepository.existsById(roomId)) {
+            ensureSummary(roomId, findHotelIds(Set.of(roomId)).get(roomId));
+        }
+    }
+
+    private void ensureSummary(Long roomId, Long hotelId) {
+        if (!summaryRepository.existsById(roomId)) {
+            try {
+                // Prin JDBC, ca o cheie duplicată să nu invalideze sesiunea Hibernate
+                jdbcTemplate.update("INSERT INTO room_rating_summaries (room_id, hotel_id, review_count, rating_sum, " +
+                        "one_star_count, two_star_count, three_star_count, four_star_count, five_star_count) " +
+                        "VALUES (?, ?, 0, 0, 0, 0, 0, 0, 0)", roomId, hotelId);
+            } catch (DuplicateKeyException e) {
+                // Rândul a fost creat între timp de o altă scriere
+            }
+        }
+    }
+
+    /**
+     * Hotelul camerelor din proiecția locală; apelul batch către hotel-service doar pentru camerele care lipsesc.
+     * O cameră pe care hotel-service nu o întoarce rămâne fără hotel până la primul eveniment RoomChanged.
+     */
+    private Map<Long, Long> findHotelIds(Collection<Long> roomIds) {
+        Map<Long, Long> hotelIds = new HashMap<>();
+        for (RoomProjection room : roomProjectionRepository.findAllById(roomIds)) {
+            if (room.getHotelId() != null) {
+                hotelIds.put(room.getRoomId(), room.getHotelId());
+            }
+        }
+        Set<Long> missing = new HashSet<>(roomIds);
+        missing.removeAll(hotelIds.keySet());
+        if (missing.isEmpty()) {
+            return hotelIds;
+        }
+
+        try {
+            String url = hotelServiceUrl + "/api/hotels/rooms/batch";
+            ResponseEntity<Map[]> response = restTemplate.postForEntity(url, missing, Map[].class);
+
+            if (response != null && response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                for (Map<String, Object> room : response.getBody()) {
+                    if (room.get("hotelId") != null) {
+                        hotelIds.put(Long.valueOf(room.get("id").toString()), Long.valueOf(room.get("hotelId").toString()));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to get hotels of rooms: " + e.getMessage());
+        }
+        return hotelIds;
+    }
+
+    private void add(RoomRatingSummary summary, int rating, long delta) {
+        summary.setReviewCount(summary.getReviewCount() + delta);
+        summary.setRatingSum(summary.getRatingSum() + rating * delta);
+        switch (rating) {
+            case 1 -> summary.setOneStarCount(summary.getOneStarCount() + delta);
+            case 2 -> summary.setTwoStarCount(summary.getTwoStarCount() + delta);
+            case 3 -> summary.setThreeStarCount(summary.getThreeStarCount() + delta);
+            case 4 -> summary.setFourStarCount(summary.getFourStarCount() + delta);
+            case 5 -> summary.setFiveStarCount(summary.getFiveStarCount() + delta);
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+    }
+
+    private RoomRatingSummary empty(Long roomId) {
+        return new RoomRatingSummary(roomId, null, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    private RoomRatingSummary toSummary(Object[] row) {
+        return new RoomRatingSummary(null, null, asLong(row[0]), asLong(row[1]), asLong(row[2]),
+                asLong(row[3]), asLong(row[4]), asLong(row[5]), asLong(row[6]));
+    }
+
+    private long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,736 @@
+package com.hotelchain.reviewservice.service;
+
+import com.hotelchain.reviewservice.entity.Review;
+import com.hotelchain.reviewservice.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Index inversat în memorie pentru căutarea full-text în review-urile active (titlu și comentariu).
+ * Textul este normalizat (litere mici, fără diacritice) și împărțit în cuvinte; fiecare cuvânt are lista
+ * sortată a review-urilor în care apare, deci o căutare citește doar listele cuvintelor cerute.
+ * Rezultatele conțin toate cuvintele din cerere și sunt ordonate BM25, cu cuvintele din titlu cu pondere dublă.
+ * Scrierile locale actualizează indexul după commit; modificările făcute de alte instanțe sunt preluate
+ * periodic după updated_at, iar indexul este salvat periodic pe disc ca o repornire să nu-l reconstruiască.
+ */
+@Component
+public class ReviewSearchIndex {
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int SNAPSHOT_MAGIC = 0x52534958;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    // Cel mai slab rezultat în vârful cozii: scor mai mic, apoi review mai vechi
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+            .thenComparingLong(Hit::reviewId);
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.review-search.snapshot-path:}")
+    private String snapshotPath;
+
+    @Value("${app.review-search.catch-up-batch:1000}")
+    private int catchUpBatch;
+
+    @Value("${app.review-search.catch-up-overlap-ms:10000}")
+    private long catchUpOverlapMs;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+
+    // Reconstruirea, preluarea modificărilor și salvarea pe disc nu rulează în paralel
+    private final ReentrantLock maintenance = new ReentrantLock();
+
+    // Modificările din baza de date cu updated_at până aici sunt deja în index
+    private LocalDateTime watermark = EPOCH;
+
+    private volatile boolean ready;
+    private volatile boolean dirty;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder caughtUp = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+
+    /**
+     * La pornire indexul este încărcat de pe disc (dacă există) și completat cu modificările ulterioare,
+     * altfel este construit din baza de date. Dacă baza de date nu răspunde, se reîncearcă la următorul catch-up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        maintenance.lock();
+        try {
+            if (ready) {
+                return;
+            }
+            try {
+                if (!restoreSnapshot()) {
+                    rebuildFromDatabase();
+                }
+                catchUpFromDatabase();
+                ready = true;
+            } catch (Exception e) {
+                System.err.println("Failed to build review search index: " + e.getMessage());
+            }
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    /**
+     * Reconstruiește indexul din review-urile active (reconciliere manuală)
+     */
+    public Map<String, Object> rebuild() {
+        maintenance.lock();
+        try {
+            long started = System.currentTimeMillis();
+            rebuildFromDatabase();
+            catchUpFromDatabase();
+            ready = true;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            lock.readLock().lock();
+            try {
+                result.put("reviews", data.liveCount);
+                result.put("terms", data.terms.size());
+            } finally {
+                lock.readLock().unlock();
+            }
+            result.put("durationMs", System.currentTimeMillis() - started);
+            return result;
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    /**
+     * Preia review-urile modificate după ultima trecere (inclusiv de alte instanțe ale serviciului)
+     */
+    @Scheduled(initialDelayString = "${app.review-search.catch-up-interval-ms:5000}",
+            fixedDelayString = "${app.review-search.catch-up-interval-ms:5000}")
+    public void catchUp() {
+        if (!ready) {
+            start();
+            return;
+        }
+        try {
+            maintenance.lock();
+            try {
+                catchUpFromDatabase();
+            } finally {
+                maintenance.unlock();
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to update review search index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Salvează indexul pe disc dacă s-a schimbat de la ultima salvare
+     */
+    @Scheduled(initialDelayString = "${app.review-search.snapshot-interval-ms:600000}",
+            fixedDelayString = "${app.review-search.snapshot-interval-ms:600000}")
+    public void snapshot() {
+        if (!ready || !dirty || snapshotPath == null || snapshotPath.isBlank()) {
+            return;
+        }
+        maintenance.lock();
+        try {
+            try {
+                writeSnapshot(Path.of(snapshotPath));
+                snapshots.increment();
+            } catch (IOException e) {
+                dirty = true;
+                System.err.println("Failed to write review search index snapshot: " + e.getMessage());
+            }
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    /**
+     * Aplică review-ul în index după commit-ul tranzacției curente (imediat dacă nu există tranzacție).
+     * Valorile sunt citite la commit, după ce @PreUpdate a actualizat updated_at.
+     */
+    public void updateAfterCommit(Review review) {
+        Runnable update = () -> apply(review.getId(), review.isActive(), review.getUpdatedAt(),
+                review.getTitle(), review.getComment());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Adevărat după ce indexul a fost încărcat sau construit; până atunci căutarea merge în baza de date
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Review-urile care conțin toate cuvintele cererii, ordonate după relevanță, de la poziția offset
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Review search index is not ready");
+        }
+        Set<String> queryTerms = new LinkedHashSet<>(tokens(query));
+        if (queryTerms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+
+        long started = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return search(data, queryTerms, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+            searches.increment();
+            searchNanos.add(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Dimensiunea indexului și contoarele de căutare
+     */
+    public String getStats() {
+        long count = searches.sum();
+        long avgMicros = count == 0 ? 0 : searchNanos.sum() / count / 1000;
+        lock.readLock().lock();
+        try {
+            long postings = 0;
+            for (Postings list : data.terms.values()) {
+                postings += list.size;
+            }
+            return String.format(Locale.ROOT,
+                    "{\"ready\":%b,\"reviews\":%d,\"terms\":%d,\"postings\":%d,\"deletedSlots\":%d," +
+                            "\"searches\":%d,\"avgSearchMicros\":%d,\"caughtUp\":%d,\"snapshots\":%d,\"watermark\":\"%s\"}",
+                    ready, data.liveCount, data.terms.size(), postings, data.slotCount - data.liveCount,
+                    count, avgMicros, caughtUp.sum(), snapshots.sum(), watermark);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalizează textul (litere mici, fără diacritice) și îl împarte în cuvinte
+     */
+    static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (token.length() >= MIN_TOKEN_LENGTH && token.length() <= MAX_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private SearchResult search(IndexData index, Set<String> queryTerms, int offset, int limit) {
+        List<Postings> lists = new ArrayList<>();
+        for (String term : queryTerms) {
+            Postings list = index.terms.get(term);
+            if (list == null) {
+                return new SearchResult(0, List.of());
+            }
+            lists.add(list);
+        }
+        // Parcurgem lista cea mai scurtă și căutăm fiecare review în celelalte
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int documents = Math.max(index.liveCount, 1);
+        double averageLength = Math.max((double) index.liveLength / documents, 1.0);
+        double[] idf = new double[lists.size()];
+        for (int t = 0; t < lists.size(); t++) {
+            int df = Math.min(lists.get(t).size, documents);
+            idf[t] = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+        }
+
+        int wanted = offset + limit;
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(wanted, 1) + 1, WORST_FIRST);
+        int[] cursors = new int[lists.size()];
+        long total = 0;
+
+        Postings shortest = lists.get(0);
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            int slot = shortest.slots[i];
+            if (index.deadSlots.get(slot)) {
+                continue;
+            }
+            double lengthNorm = K1 * (1 - B + B * index.slotLength[slot] / averageLength);
+            double score = idf[0] * bm25(shortest.freqs[i], lengthNorm);
+
+            for (int t = 1; t < lists.size(); t++) {
+                Postings other = lists.get(t);
+                int position = other.advance(cursors[t], slot);
+                cursors[t] = position;
+                if (position >= other.size) {
+                    // Lista s-a terminat, deci niciun review următor nu mai conține cuvântul
+                    break candidates;
+                }
+                if (other.slots[position] != slot) {
+                    continue candidates;
+                }
+                score += idf[t] * bm25(other.freqs[position], lengthNorm);
+            }
+
+            total++;
+            if (wanted > 0) {
+                top.offer(new Hit(index.slotReview[slot], score));
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(WORST_FIRST.reversed());
+        List<Long> reviewIds = new ArrayList<>();
+        for (int i = offset; i < ranked.size(); i++) {
+            reviewIds.add(ranked.get(i).reviewId());
+        }
+        return new SearchResult(total, reviewIds);
+    }
+
+    private double bm25(int frequency, double lengthNorm) {
+        return frequency * (K1 + 1) / (frequency + lengthNorm);
+    }
+
+    private void apply(Long reviewId, boolean active, LocalDateTime updatedAt, String title, String comment) {
+        long version = version(updatedAt);
+        lock.writeLock().lock();
+        try {
+            IndexData index = data;
+            int slot = index.slotOf(reviewId);
+            // O stare mai veche decât cea din index (ex. citită înaintea unui commit local) este ignorată
+            if (slot >= 0 && index.slotVersion[slot] >= version) {
+                return;
+            }
+            if (active) {
+                index.add(reviewId, version, title, comment);
+            } else if (slot >= 0) {
+                index.remove(reviewId);
+            } else {
+                return;
+            }
+            index.compactIfNeeded();
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildFromDatabase() {
+        // Modificările confirmate în timpul citirii sunt preluate apoi de catch-up, de la începutul reconstruirii
+        LocalDateTime startedAt = LocalDateTime.now();
+        IndexData fresh = new IndexData();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = reviewRepository.streamActiveText()) {
+                rows.forEach(row -> fresh.add(((Number) row[0]).longValue(), version((LocalDateTime) row[3]),
+                        (String) row[1], (String) row[2]));
+            }
+        });
+        fresh.trim();
+
+        lock.writeLock().lock();
+        try {
+            data = fresh;
+            watermark = startedAt;
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void catchUpFromDatabase() {
+        // Re-citim o fereastră scurtă înapoi, pentru commit-urile întârziate față de updated_at
+        LocalDateTime after = watermark.minus(catchUpOverlapMs, ChronoUnit.MILLIS);
+        if (after.isBefore(EPOCH)) {
+            after = EPOCH;
+        }
+        long afterId = 0;
+        LocalDateTime newest = watermark;
+
+        List<Review> batch;
+        do {
+            batch = reviewRepository.findChangedAfter(after, afterId, PageRequest.of(0, catchUpBatch));
+            for (Review review : batch) {
+                apply(review.getId(), review.isActive(), review.getUpdatedAt(), review.getTitle(), review.getComment());
+                after = review.getUpdatedAt();
+                afterId = review.getId();
+                if (after.isAfter(newest)) {
+                    newest = after;
+                }
+            }
+            caughtUp.add(batch.size());
+        } while (batch.size() == catchUpBatch);
+
+        watermark = newest;
+    }
+
+    private void writeSnapshot(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        dirty = false;
+
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            IndexData index = data;
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeUTF(watermark.toString());
+
+            // Doar review-urile vii, renumerotate consecutiv
+            int[] renumber = new int[index.slotCount];
+            out.writeInt(index.liveCount);
+            int next = 0;
+            for (int slot = 0; slot < index.slotCount; slot++) {
+                if (index.deadSlots.get(slot)) {
+                    renumber[slot] = -1;
+                    continue;
+                }
+                renumber[slot] = next++;
+                out.writeLong(index.slotReview[slot]);
+                out.writeLong(index.slotVersion[slot]);
+                out.writeInt(index.slotLength[slot]);
+            }
+
+            out.writeInt(index.terms.size());
+            for (Map.Entry<String, Postings> entry : index.terms.entrySet()) {
+                Postings list = entry.getValue();
+                int live = 0;
+                for (int i = 0; i < list.size; i++) {
+                    if (renumber[list.slots[i]] >= 0) {
+                        live++;
+                    }
+                }
+                out.writeUTF(entry.getKey());
+                out.writeInt(live);
+                for (int i = 0; i < list.size; i++) {
+                    int slot = renumber[list.slots[i]];
+                    if (slot >= 0) {
+                        out.writeInt(slot);
+                        out.writeShort(list.freqs[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean restoreSnapshot() {
+        if (snapshotPath == null || snapshotPath.isBlank() || !Files.isRegularFile(Path.of(snapshotPath))) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Path.of(snapshotPath)), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                System.err.println("Ignoring review search index snapshot with unknown format: " + snapshotPath);
+                return false;
+            }
+            LocalDateTime savedWatermark = LocalDateTime.parse(in.readUTF());
+
+            IndexData restored = new IndexData();
+            int reviews = in.readInt();
+            for (int i = 0; i < reviews; i++) {
+                restored.addSlot(in.readLong(), in.readLong(), in.readInt());
+            }
+            int terms = in.readInt();
+            for (int i = 0; i < terms; i++) {
+                String term = in.readUTF();
+                int size = in.readInt();
+                Postings list = new Postings(Math.max(size, 1));
+                for (int j = 0; j < size; j++) {
+                    list.add(in.readInt(), in.readShort());
+                }
+                restored.terms.put(term, list);
+            }
+
+            lock.writeLock().lock();
+            try {
+                data = restored;
+                watermark = savedWatermark;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to restore review search index snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static long version(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return 0;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    public record SearchResult(long total, List<Long> reviewIds) {
+    }
+
+    private record Hit(long reviewId, double score) {
+    }
+
+    /**
+     * Structura indexului. Fiecare review indexat ocupă un slot; o modificare marchează slotul vechi
+     * ca șters și adaugă unul nou, iar sloturile șterse sunt eliminate din liste când devin majoritare.
+     * Id-urile review-urilor sunt IDENTITY (dense), deci legătura review -> slot este un tablou indexat după id.
+     */
+    private static final class IndexData {
+
+        private static final int COMPACT_MIN_DELETED = 10_000;
+
+        private final Map<String, Postings> terms = new HashMap<>();
+        private long[] slotReview = new long[1024];
+        private long[] slotVersion = new long[1024];
+        private int[] slotLength = new int[1024];
+        private int slotCount;
+        private final BitSet deadSlots = new BitSet();
+
+        // reviewId -> slot + 1; 0 înseamnă neindexat
+        private int[] slotByReview = new int[1024];
+
+        private int liveCount;
+        private long liveLength;
+
+        private int slotOf(long reviewId) {
+            return reviewId >= 0 && reviewId < slotByReview.length ? slotByReview[(int) reviewId] - 1 : -1;
+        }
+
+        private void add(long reviewId, long version, String title, String comment) {
+            remove(reviewId);
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            for (String token : tokens(title)) {
+                frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+                length += TITLE_WEIGHT;
+            }
+            for (String token : tokens(comment)) {
+                frequencies.merge(token, 1, Integer::sum);
+                length++;
+            }
+
+            int slot = addSlot(reviewId, version, length);
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), term -> new Postings(4)).add(slot, entry.getValue());
+            }
+        }
+
+        private int addSlot(long reviewId, long version, int length) {
+            if (reviewId < 0 || reviewId >= Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Review id out of range for the search index: " + reviewId);
+            }
+            if (slotCount == slotReview.length) {
+                int capacity = slotCount * 2;
+                slotReview = Arrays.copyOf(slotReview, capacity);
+                slotVersion = Arrays.copyOf(slotVersion, capacity);
+                slotLength = Arrays.copyOf(slotLength, capacity);
+            }
+            if (reviewId >= slotByReview.length) {
+                slotByReview = Arrays.copyOf(slotByReview, (int) Math.min(Math.max(reviewId + 1, slotByReview.length * 2L),
+                        Integer.MAX_VALUE - 8));
+            }
+
+            int slot = slotCount++;
+            slotReview[slot] = reviewId;
+            slotVersion[slot] = version;
+            slotLength[slot] = length;
+            slotByReview[(int) reviewId] = slot + 1;
+            liveCount++;
+            liveLength += length;
+            return slot;
+        }
+
+        private void remove(long reviewId) {
+            int slot = slotOf(reviewId);
+            if (slot < 0) {
+                return;
+            }
+            deadSlots.set(slot);
+            slotByReview[(int) reviewId] = 0;
+            liveCount--;
+            liveLength -= slotLength[slot];
+        }
+
+        private void compactIfNeeded() {
+            int deleted = slotCount - liveCount;
+            if (deleted < COMPACT_MIN_DELETED || deleted < liveCount) {
+                return;
+            }
+
+            int[] renumber = new int[slotCount];
+            int next = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (deadSlots.get(slot)) {
+                    renumber[slot] = -1;
+                    continue;
+                }
+                renumber[slot] = next;
+                slotReview[next] = slotReview[slot];
+                slotVersion[next] = slotVersion[slot];
+                slotLength[next] = slotLength[slot];
+                slotByReview[(int) slotReview[next]] = next + 1;
+                next++;
+            }
+            terms.values().removeIf(list -> list.retain(renumber) == 0);
+            slotCount = next;
+            deadSlots.clear();
+        }
+
+        private void trim() {
+            terms.values().forEach(Postings::trim);
+        }
+    }
+
+    /**
+     * Sloturile (crescătoare) în care apare un cuvânt și frecvența cuvântului în fiecare
+     */
+    private static final class Postings {
+        private int[] slots;
+        private short[] freqs;
+        private int size;
+
+        private Postings(int capacity) {
+            slots = new int[capacity];
+            freqs = new short[capacity];
+        }
+
+        private void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            slots[size] = slot;
+            freqs[size] = (short) Math.min(frequency, Short.MAX_VALUE);
+            size++;
+        }
+
+        /**
+         * Prima poziție de la from încolo cu slot >= target (căutare exponențială, apoi binară)
+         */
+        private int advance(int from, int target) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && slots[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (slots[middle] < target) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int retain(int[] renumber) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = renumber[slots[i]];
+                if (slot >= 0) {
+                    slots[kept] = slot;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            trim();
+            return size;
+        }
+
+        private void trim() {
+            if (slots.length > size) {
+                slots = Arrays.copyOf(slots, Math.max(size, 1));
+                freqs = Arrays.copyOf(freqs, Math.max(size, 1));
+            }
+        }
+    }
+}
@@ -1,31 +1,86 @@
 package com.hotelchain.reviewservice.service;
 
 import com.hotelchain.reviewservice.dto.*;
+import com.hotelchain.reviewservice.entity.ClientProjection;
+import com.hotelchain.reviewservice.entity.ReservationProjection;
 import com.hotelchain.reviewservice.entity.Review;
+import com.hotelchain.reviewservice.entity.RoomProjection;
+import com.hotelchain.reviewservice.entity.RoomRatingSummary;
+import com.hotelchain.reviewservice.repository.ClientProjectionRepository;
+import com.hotelchain.reviewservice.repository.ReservationProjectionRepository;
 import com.hotelchain.reviewservice.repository.ReviewRepository;
+import com.hotelchain.reviewservice.repository.RoomProjectionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 public class ReviewService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 10_000;
+    private static final String USER_SERVICE = "user-service";
+    private static final String HOTEL_SERVICE = "hotel-service";
+    private static final String ROOM_REVIEWS_ROUTE = "/api/reviews/room/";
+
     @Autowired
     private ReviewRepository reviewRepository;
 
     @Autowired
     private JwtValidationService jwtValidationService;
 
+    @Autowired
+    private ReviewAggregateService reviewAggregateService;
+
+    @Autowired
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Autowired
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Autowired
+    private EnrichmentStage enrichmentStage;
+
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private RoomProjectionRepository roomProjectionRepository;
+
+    @Autowired
+    private ClientProjectionRepository clientProjectionRepository;
+
+    @Autowired
+    private ReservationProjectionRepository reservationProjectionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Value("${app.services.user:http://localhost:8081}")
     private String userServiceUrl;
 
@@ -35,6 +90,13 @@ public class ReviewService {
     @Value("${app.services.reservation:http://localhost:8083}")
     private String reservationServiceUrl;
 
+    @Value("${app.lookups.negative-ttl-ms:2000}")
+    private long lookupNegativeTtlMs;
+
+    // Paginile cerute simultan (ex. aceeași cameră populară) împart apelurile batch către user/hotel-service
+    private final SingleFlight<Long, String> clientNameLoads = new SingleFlight<>();
+    private final SingleFlight<Long, Map<String, Object>> roomInfoLoads = new SingleFlight<>();
+
     // PUBLIC METHODS - fără autentificare
 
     /**
@@ -42,37 +104,58 @@ public class ReviewService {
      */
     public List<ReviewDto> getReviewsForRoom(Long roomId) {
         List<Review> reviews = reviewRepository.findByRoomIdAndActiveTrueOrderByCreatedAtDesc(roomId);
-        return reviews.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(reviews);
     }
     /**
      * Obține statistici review-uri pentru o cameră
      */
     public Map<String, Object> getRoomReviewStats(Long roomId) {
-        List<Review> reviews = reviewRepository.findByRoomIdAndActiveTrue(roomId);
-
-        if (reviews.isEmpty()) {
-            return Map.of(
-                    "totalReviews", 0,
-                    "averageRating", 0.0,
-                    "ratingDistribution", Map.of()
-            );
+        // Citit din agregatul precalculat al camerei, nu din review-uri
+        return toStats(reviewAggregateService.getRoomSummary(roomId));
+    }
+
+    /**
+     * Obține statistici review-uri pentru toate camerele unui hotel
+     */
+    public Map<String, Object> getHotelReviewStats(Long hotelId) {
+        return toStats(reviewAggregateService.sumHotel(hotelId));
+    }
+
+    /**
+     * Caută în titlul și comentariul review-urilor active; rezultatele sunt ordonate după relevanță
+     */
+    public SearchPage<ReviewDto> searchReviews(String query, Integer page, Integer size) {
+        int pageSize = pageSize(size);
+        int pageNumber = page != null ? page : 0;
+        if (pageNumber < 0 || (long) (pageNumber + 1) * pageSize > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Search page out of range");
+        }
+        if (!reviewSearchIndex.isReady()) {
+            return searchReviewsInDatabase(query, pageNumber, pageSize);
         }
 
-        double averageRating = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
+        ReviewSearchIndex.SearchResult result = reviewSearchIndex.search(query, pageNumber * pageSize, pageSize);
 
-        Map<Integer, Long> ratingDistribution = reviews.stream()
-                .collect(Collectors.groupingBy(Review::getRating, Collectors.counting()));
+        // Indexul poate fi cu câteva milisecunde în urmă, deci review-urile ascunse între timp sunt sărite
+        Map<Long, Review> reviews = reviewRepository.findAllById(result.reviewIds()).stream()
+                .filter(Review::isActive)
+                .collect(Collectors.toMap(Review::getId, review -> review));
+        List<Review> ranked = result.reviewIds().stream()
+                .map(reviews::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
 
-        return Map.of(
-                "totalReviews", reviews.size(),
-                "averageRating", Math.round(averageRating * 100.0) / 100.0,
-                "ratingDistribution", ratingDistribution
-        );
+        return new SearchPage<>(convertToDtos(ranked), result.total(), pageNumber, pageSize);
+    }
+
+    // Până la prima încărcare a indexului (pornire la rece) căutarea este un LIKE în baza de date,
+    // cu rezultatele cele mai noi primele în loc de ordinea după relevanță
+    private SearchPage<ReviewDto> searchReviewsInDatabase(String query, int pageNumber, int pageSize) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        Page<Review> reviews = reviewRepository.searchReviews(query.trim(), PageRequest.of(pageNumber, pageSize));
+        return new SearchPage<>(convertToDtos(reviews.getContent()), reviews.getTotalElements(), pageNumber, pageSize);
     }
 
     // CLIENT METHODS - cu autentificare ca CLIENT
@@ -80,15 +163,20 @@ public class ReviewService {
     /**
      * Adaugă un review pentru o cameră rezervată (doar CLIENT)
      */
+    @Transactional
     public ReviewDto addReview(CreateReviewRequest request, String token) {
         // Validează că utilizatorul este CLIENT
         jwtValidationService.validateClientRole(token);
         Long clientId = jwtValidationService.getUserIdFromToken(token);
 
-        // Verifică că review-ul este pentru o rezervare validă a clientului
-        if (!isValidReservationForClient(request.getReservationId(), clientId)) {
+        // Verifică că review-ul este pentru o rezervare validă a clientului, iar camera este cea din rezervare
+        Long roomId = findReviewableRoom(request.getReservationId(), clientId);
+        if (roomId == null) {
             throw new RuntimeException("You can only review rooms from your completed reservations");
         }
+        if (request.getRoomId() != null && !roomId.equals(request.getRoomId())) {
+            throw new RuntimeException("The reservation is for a different room");
+        }
 
         // Verifică că clientul nu a dat deja review pentru această rezervare
         if (reviewRepository.findByReservationIdAndClientId(request.getReservationId(), clientId).isPresent()) {
@@ -100,8 +188,11 @@ public class ReviewService {
             throw new RuntimeException("Rating must be between 1 and 5");
         }
 
+        // Agregatul camerei este blocat înaintea scrierii review-ului
+        reviewAggregateService.apply(roomId, request.getRating(), 1);
+
         Review review = new Review();
-        review.setRoomId(request.getRoomId());
+        review.setRoomId(roomId);
         review.setClientId(clientId);
         review.setReservationId(request.getReservationId());
         review.setRating(request.getRating());
@@ -109,6 +200,8 @@ public class ReviewService {
         review.setComment(request.getComment());
 
         review = reviewRepository.save(review);
+        reviewSearchIndex.updateAfterCommit(review);
+        gatewayCacheInvalidator.invalidateAfterCommit(ROOM_REVIEWS_ROUTE + review.getRoomId());
         return convertToDto(review);
     }
 
@@ -117,9 +210,7 @@ public class ReviewService {
         List<Review> reviews = reviewRepository.findRecentReviews(weekAgo);
         // Alternative: List<Review> reviews = reviewRepository.findByActiveTrueAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(weekAgo);
 
-        return reviews.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(reviews);
     }
 
     /**
@@ -138,19 +229,18 @@ public class ReviewService {
         Long clientId = jwtValidationService.getUserIdFromToken(token);
 
         List<Review> reviews = reviewRepository.findByClientIdAndActiveTrueOrderByCreatedAtDesc(clientId);
-        return reviews.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(reviews);
     }
 
     /**
      * Actualizează un review (doar al clientului)
      */
+    @Transactional
     public ReviewDto updateReview(Long reviewId, CreateReviewRequest request, String token) {
         jwtValidationService.validateClientRole(token);
         Long clientId = jwtValidationService.getUserIdFromToken(token);
 
-        Review review = reviewRepository.findById(reviewId)
+        Review review = reviewRepository.lockById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
         // Verifică că review-ul aparține clientului
@@ -163,22 +253,30 @@ public class ReviewService {
             throw new RuntimeException("Rating must be between 1 and 5");
         }
 
+        if (review.isActive() && !review.getRating().equals(request.getRating())) {
+            reviewAggregateService.apply(review.getRoomId(), review.getRating(), -1);
+            reviewAggregateService.apply(review.getRoomId(), request.getRating(), 1);
+        }
+
         review.setRating(request.getRating());
         review.setTitle(request.getTitle());
         review.setComment(request.getComment());
 
         review = reviewRepository.save(review);
+        reviewSearchIndex.updateAfterCommit(review);
+        gatewayCacheInvalidator.invalidateAfterCommit(ROOM_REVIEWS_ROUTE + review.getRoomId());
         return convertToDto(review);
     }
 
     /**
      * Șterge un review (doar al clientului)
      */
+    @Transactional
     public void deleteReview(Long reviewId, String token) {
         jwtValidationService.validateClientRole(token);
         Long clientId = jwtValidationService.getUserIdFromToken(token);
 
-        Review review = reviewRepository.findById(reviewId)
+        Review review = reviewRepository.lockById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
         // Verifică că review-ul aparține clientului
@@ -187,8 +285,13 @@ public class ReviewService {
         }
 
         // Soft delete
+        if (review.isActive()) {
+            reviewAggregateService.apply(review.getRoomId(), review.getRating(), -1);
+        }
         review.setActive(false);
         reviewRepository.save(review);
+        reviewSearchIndex.updateAfterCommit(review);
+        gatewayCacheInvalidator.invalidateAfterCommit(ROOM_REVIEWS_ROUTE + review.getRoomId());
     }
 
     // MANAGER METHODS - cu autentificare ca MANAGER
@@ -200,64 +303,145 @@ public class ReviewService {
         jwtValidationService.validateManagerRole(token);
 
         List<Review> reviews = reviewRepository.findByActiveTrueOrderByCreatedAtDesc();
-        return reviews.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(reviews);
     }
 
     /**
-     * Obține statistici generale despre review-uri (pentru manageri)
+     * Obține o pagină de review-uri active, paginată keyset pe (createdAt, id)
      */
-    public Map<String, Object> getReviewStatistics(String token) {
+    public CursorPage<ReviewDto> getReviewsPage(String cursor, Integer size, String token) {
         jwtValidationService.validateManagerRole(token);
+        return getReviewsPage(KeysetCursor.decode(cursor), pageSize(size));
+    }
 
-        List<Review> allReviews = reviewRepository.findByActiveTrue();
+    /**
+     * Transmite toate review-urile active ca NDJSON, pagină cu pagină, cu memorie constantă
+     */
+    public StreamingResponseBody streamReviews(String token) {
+        jwtValidationService.validateManagerRole(token);
 
-        if (allReviews.isEmpty()) {
-            return Map.of(
-                    "totalReviews", 0,
-                    "averageRating", 0.0,
-                    "ratingDistribution", Map.of(),
-                    "reviewsThisMonth", 0
-            );
-        }
+        return output -> {
+            KeysetCursor cursor = KeysetCursor.FIRST;
+            while (cursor != null) {
+                CursorPage<ReviewDto> page = getReviewsPage(cursor, MAX_PAGE_SIZE);
+                for (ReviewDto dto : page.getItems()) {
+                    output.write(objectMapper.writeValueAsBytes(dto));
+                    output.write('\n');
+                }
+                output.flush();
+                // Entitățile paginii anterioare nu mai sunt necesare
+                entityManager.clear();
+                cursor = page.getNextCursor() != null ? KeysetCursor.decode(page.getNextCursor()) : null;
+            }
+        };
+    }
 
-        double averageRating = allReviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
+    /**
+     * Obține statistici generale despre review-uri (pentru manageri)
+     */
+    public Map<String, Object> getReviewStatistics(String token) {
+        jwtValidationService.validateManagerRole(token);
 
-        Map<Integer, Long> ratingDistribution = allReviews.stream()
-                .collect(Collectors.groupingBy(Review::getRating, Collectors.counting()));
+        Map<String, Object> statistics = toStats(reviewAggregateService.sumAll());
+        statistics.put("reviewsThisMonth", reviewRepository.countReviewsThisMonth());
+        return statistics;
+    }
+
+    /**
+     * Reconstruiește agregatele de rating din review-uri (reconciliere)
+     */
+    public Map<String, Object> rebuildReviewStatistics(String token) {
+        jwtValidationService.validateManagerRole(token);
+        return reviewAggregateService.rebuild();
+    }
 
-        long reviewsThisMonth = reviewRepository.countReviewsThisMonth();
+    /**
+     * Reconstruiește indexul de căutare din review-urile active
+     */
+    public Map<String, Object> rebuildSearchIndex(String token) {
+        jwtValidationService.validateManagerRole(token);
+        return reviewSearchIndex.rebuild();
+    }
 
-        return Map.of(
-                "totalReviews", allReviews.size(),
-                "averageRating", Math.round(averageRating * 100.0) / 100.0,
-                "ratingDistribution", ratingDistribution,
-                "reviewsThisMonth", reviewsThisMonth
-        );
+    public String getSearchIndexStats() {
+        return reviewSearchIndex.getStats();
     }
 
     /**
      * Moderează un review (ascunde/afișează)
      */
+    @Transactional
     public ReviewDto moderateReview(Long reviewId, boolean active, String token) {
         jwtValidationService.validateManagerRole(token);
 
-        Review review = reviewRepository.findById(reviewId)
+        Review review = reviewRepository.lockById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
+        if (review.isActive() != active) {
+            reviewAggregateService.apply(review.getRoomId(), review.getRating(), active ? 1 : -1);
+        }
         review.setActive(active);
         review = reviewRepository.save(review);
+        reviewSearchIndex.updateAfterCommit(review);
+        gatewayCacheInvalidator.invalidateAfterCommit(ROOM_REVIEWS_ROUTE + review.getRoomId());
 
         return convertToDto(review);
     }
 
     // HELPER METHODS
 
-    private boolean isValidReservationForClient(Long reservationId, Long clientId) {
+    private Map<String, Object> toStats(RoomRatingSummary summary) {
+        long[] stars = {summary.getOneStarCount(), summary.getTwoStarCount(), summary.getThreeStarCount(),
+                summary.getFourStarCount(), summary.getFiveStarCount()};
+        Map<Integer, Long> ratingDistribution = new LinkedHashMap<>();
+        for (int i = 0; i < stars.length; i++) {
+            if (stars[i] > 0) {
+                ratingDistribution.put(i + 1, stars[i]);
+            }
+        }
+
+        double averageRating = summary.getReviewCount() > 0
+                ? (double) summary.getRatingSum() / summary.getReviewCount()
+                : 0.0;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalReviews", summary.getReviewCount());
+        stats.put("averageRating", Math.round(averageRating * 100.0) / 100.0);
+        stats.put("ratingDistribution", ratingDistribution);
+        return stats;
+    }
+
+    private CursorPage<ReviewDto> getReviewsPage(KeysetCursor cursor, int size) {
+        List<Review> reviews = reviewRepository.findActivePageBefore(
+                cursor.createdAt(), cursor.id(), PageRequest.of(0, size));
+
+        String nextCursor = null;
+        if (reviews.size() == size) {
+            Review last = reviews.get(reviews.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(convertToDtos(reviews), nextCursor);
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Rezervarea se verifică întâi în proiecția locală; dacă proiecția nu arată încă o rezervare încheiată
+     * a clientului (eveniment neajuns), decide reservation-service. Întoarce camera rezervării sau null
+     */
+    private Long findReviewableRoom(Long reservationId, Long clientId) {
+        ReservationProjection projection = reservationId != null
+                ? reservationProjectionRepository.findById(reservationId).orElse(null) : null;
+        if (projection != null && Objects.equals(projection.getClientId(), clientId)
+                && "CHECKED_OUT".equals(projection.getStatus()) && projection.getRoomId() != null) {
+            return projection.getRoomId();
+        }
+
         try {
             String url = reservationServiceUrl + "/api/reservations/" + reservationId;
             ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
@@ -266,53 +450,143 @@ public class ReviewService {
                 Map<String, Object> reservation = response.getBody();
                 Long reservationClientId = Long.valueOf(reservation.get("clientId").toString());
                 String status = (String) reservation.get("status");
+                Object roomId = reservation.get("roomId");
 
                 // Verifică că rezervarea aparține clientului și este completată
-                return reservationClientId.equals(clientId) &&
-                        ("CHECKED_OUT".equals(status) || "COMPLETED".equals(status));
+                if (reservationClientId.equals(clientId) && roomId != null &&
+                        ("CHECKED_OUT".equals(status) || "COMPLETED".equals(status))) {
+                    return Long.valueOf(roomId.toString());
+                }
             }
         } catch (Exception e) {
             System.err.println("Failed to validate reservation: " + e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Contoarele de coalescing și latențele pe dependență pentru apelurile batch de îmbogățire
+     */
+    public String getLookupStats() {
+        return String.format(Locale.ROOT, "{\"clientNames\":%s,\"roomInfos\":%s,\"enrichment\":%s}",
+                clientNameLoads.getStats(), roomInfoLoads.getStats(), enrichmentStage.getStats());
     }
 
-    private String getClientName(Long clientId) {
+    /**
+     * Numele clienților pentru o pagină de review-uri, într-un singur apel batch
+     */
+    private Map<Long, String> getClientNames(Set<Long> clientIds) {
+        if (clientIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return clientNameLoads.load(clientIds, this::fetchClientNames, lookupNegativeTtlMs);
+    }
+
+    /**
+     * Datele camerelor pentru o pagină de review-uri, într-un singur apel batch
+     */
+    private Map<Long, Map<String, Object>> getRoomInfos(Set<Long> roomIds) {
+        if (roomIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return roomInfoLoads.load(roomIds, this::fetchRoomInfos, lookupNegativeTtlMs);
+    }
+
+    /**
+     * Numele din proiecția locală a clienților; apelul către user-service doar pentru clienții care lipsesc
+     */
+    private Map<Long, String> fetchClientNames(Set<Long> clientIds) {
+        Map<Long, String> names = new HashMap<>();
+        for (ClientProjection client : clientProjectionRepository.findAllById(clientIds)) {
+            names.put(client.getClientId(), client.getUsername());
+        }
+        Set<Long> missing = new HashSet<>(clientIds);
+        missing.removeAll(names.keySet());
+        if (missing.isEmpty()) {
+            return names;
+        }
+
         try {
-            String url = userServiceUrl + "/api/users/" + clientId;
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            String url = userServiceUrl + "/api/users/batch";
+            ResponseEntity<Map[]> response = restTemplate.postForEntity(url, missing, Map[].class);
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return (String) response.getBody().get("username");
+                for (Map<String, Object> user : response.getBody()) {
+                    names.put(Long.valueOf(user.get("id").toString()), (String) user.get("username"));
+                }
             }
         } catch (Exception e) {
-            System.err.println("Failed to get client name: " + e.getMessage());
+            System.err.println("Failed to get client names: " + e.getMessage());
         }
-        return "Anonymous";
+        return names;
     }
 
-    private Map<String, Object> getRoomInfo(Long roomId) {
+    /**
+     * Datele din proiecția locală a camerelor; apelul către hotel-service doar pentru camerele care lipsesc
+     */
+    private Map<Long, Map<String, Object>> fetchRoomInfos(Set<Long> roomIds) {
+        Map<Long, Map<String, Object>> rooms = new HashMap<>();
+        for (RoomProjection room : roomProjectionRepository.findAllById(roomIds)) {
+            Map<String, Object> info = new HashMap<>();
+            info.put("id", room.getRoomId());
+            info.put("roomNumber", room.getRoomNumber());
+            info.put("hotelName", room.getHotelName());
+            rooms.put(room.getRoomId(), info);
+        }
+        Set<Long> missing = new HashSet<>(roomIds);
+        missing.removeAll(rooms.keySet());
+        if (missing.isEmpty()) {
+            return rooms;
+        }
+
         try {
-            String url = hotelServiceUrl + "/api/hotels/rooms/" + roomId;
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            String url = hotelServiceUrl + "/api/hotels/rooms/batch";
+            ResponseEntity<Map[]> response = restTemplate.postForEntity(url, missing, Map[].class);
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Map<String, Object> room = response.getBody();
-                return Map.of(
-                        "roomNumber", room.get("roomNumber"),
-                        "hotelName", room.get("hotelName")
-                );
+                for (Map<String, Object> room : response.getBody()) {
+                    rooms.put(Long.valueOf(room.get("id").toString()), room);
+                }
             }
         } catch (Exception e) {
             System.err.println("Failed to get room info: " + e.getMessage());
         }
-        return Map.of(
-                "roomNumber", "Room #" + roomId,
-                "hotelName", "Unknown Hotel"
-        );
+        return rooms;
+    }
+
+    /**
+     * Cele două apeluri batch ale paginii pornesc în paralel; ce nu sosește până la termenul paginii
+     * rămâne "Anonymous" / "Unknown Hotel"
+     */
+    private List<ReviewDto> convertToDtos(List<Review> reviews) {
+        Set<Long> clientIds = reviews.stream()
+                .map(Review::getClientId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> roomIds = reviews.stream()
+                .map(Review::getRoomId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        long deadline = enrichmentStage.startPage();
+        CompletableFuture<Map<Long, String>> clientNameLookup =
+                enrichmentStage.submit(USER_SERVICE, () -> getClientNames(clientIds));
+        CompletableFuture<Map<Long, Map<String, Object>>> roomInfoLookup =
+                enrichmentStage.submit(HOTEL_SERVICE, () -> getRoomInfos(roomIds));
+        Map<Long, String> clientNames = enrichmentStage.await(USER_SERVICE, clientNameLookup, deadline, Map.of());
+        Map<Long, Map<String, Object>> rooms = enrichmentStage.await(HOTEL_SERVICE, roomInfoLookup, deadline, Map.of());
+
+        return reviews.stream()
+                .map(review -> convertToDto(review, clientNames, rooms))
+                .collect(Collectors.toList());
     }
 
     private ReviewDto convertToDto(Review review) {
+        return convertToDtos(List.of(review)).get(0);
+    }
+
+    private ReviewDto convertToDto(Review review, Map<Long, String> clientNames,
+                                   Map<Long, Map<String, Object>> rooms) {
         ReviewDto dto = new ReviewDto();
         dto.setId(review.getId());
         dto.setRoomId(review.getRoomId());
@@ -324,20 +598,19 @@ public class ReviewService {
         dto.setCreatedAt(review.getCreatedAt());
         dto.setActive(review.isActive());
 
-        // Încarcă informații suplimentare
-        try {
-            dto.setClientName(getClientName(review.getClientId()));
-            Map<String, Object> roomInfo = getRoomInfo(review.getRoomId());
-            dto.setRoomNumber((String) roomInfo.get("roomNumber"));
-            dto.setHotelName((String) roomInfo.get("hotelName"));
-        } catch (Exception e) {
-            // Log but don't fail
-            System.err.println("Failed to load additional review info: " + e.getMessage());
-            dto.setClientName("Anonymous");
+        // Informațiile suplimentare vin din apelurile batch făcute în paralel pentru toată pagina
+        String clientName = clientNames.get(review.getClientId());
+        dto.setClientName(clientName != null ? clientName : "Anonymous");
+
+        Map<String, Object> room = rooms.get(review.getRoomId());
+        if (room != null) {
+            dto.setRoomNumber((String) room.get("roomNumber"));
+            dto.setHotelName((String) room.get("hotelName"));
+        } else {
             dto.setRoomNumber("Room #" + review.getRoomId());
             dto.setHotelName("Unknown Hotel");
         }
 
         return dto;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.hotelchain.reviewservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnrichmentStageTest {
+
+    private final EnrichmentStage stage = new EnrichmentStage(2, 1, 200);
+
+    @AfterEach
+    void tearDown() {
+        stage.shutdown();
+    }
+
+    @Test
+    void lookupsOfAPageRunConcurrently() {
+        long deadline = stage.startPage();
+        long start = System.nanoTime();
+        CompletableFuture<String> users = stage.submit("user-service", () -> sleepThen(120, "alice"));
+        CompletableFuture<String> rooms = stage.submit("hotel-service", () -> sleepThen(120, "Grand"));
+
+        assertThat(stage.await("user-service", users, deadline, "Anonymous")).isEqualTo("alice");
+        assertThat(stage.await("hotel-service", rooms, deadline, "Unknown Hotel")).isEqualTo("Grand");
+        // Secvențial ar fi depășit termenul de 200 ms al paginii
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(200);
+    }
+
+    @Test
+    void slowDependencyFallsBackAtThePageDeadline() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        long deadline = stage.startPage();
+        CompletableFuture<Map<Long, String>> users = stage.submit("user-service", () -> {
+            awaitQuietly(release);
+            return Map.of(5L, "alice");
+        });
+        CompletableFuture<String> rooms = stage.submit("hotel-service", () -> "Grand");
+
+        long start = System.nanoTime();
+        assertThat(stage.await("user-service", users, deadline, Map.of())).isEmpty();
+        assertThat(stage.await("hotel-service", rooms, deadline, "Unknown Hotel")).isEqualTo("Grand");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+
+        // Apelul întârziat se termină în fundal și ajunge în histogramă
+        release.countDown();
+        users.get(5, TimeUnit.SECONDS);
+        assertThat(stage.getStats()).contains("\"pages\":1",
+                "\"user-service\":{\"calls\":1", "\"timeouts\":1", "\"hotel-service\":{\"calls\":1");
+    }
+
+    @Test
+    void saturatedExecutorFailsFastWithTheDefault() {
+        CountDownLatch release = new CountDownLatch(1);
+        long deadline = stage.startPage();
+        // Doi workeri ocupați și o coadă de capacitate 1: a patra căutare este respinsă
+        for (int i = 0; i < 3; i++) {
+            stage.submit("hotel-service", () -> {
+                awaitQuietly(release);
+                return "Grand";
+            });
+        }
+
+        CompletableFuture<String> rejected = stage.submit("hotel-service", () -> "Grand");
+        assertThat(stage.await("hotel-service", rejected, deadline, "Unknown Hotel")).isEqualTo("Unknown Hotel");
+        assertThat(stage.getStats()).contains("\"rejected\":1", "\"timeouts\":0");
+        release.countDown();
+    }
+
+    private static <T> T sleepThen(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
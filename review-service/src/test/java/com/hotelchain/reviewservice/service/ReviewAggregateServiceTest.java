@@ -0,0 +1,190 @@
+package com.hotelchain.reviewservice.service;
+
+import com.hotelchain.reviewservice.dto.CreateReviewRequest;
+import com.hotelchain.reviewservice.dto.ReviewDto;
+import com.hotelchain.reviewservice.entity.RoomProjection;
+import com.hotelchain.reviewservice.repository.RoomProjectionRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({ReviewService.class, ReviewAggregateService.class, JwtValidationService.class, EnrichmentStage.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ReviewAggregateServiceTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoomProjectionRepository roomProjectionRepository;
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @MockitoBean
+    private ReviewSearchIndex reviewSearchIndex;
+
+    private final String client = token("CLIENT", 5L);
+    private final String manager = token("MANAGER", 1L);
+    private final Map<Long, Long> reservationRooms = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        // Orice rezervare aparține clientului 5 și este încheiată, pe camera din cererea de test
+        when(restTemplate.getForEntity(anyString(), eq(Map.class))).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            Long reservationId = Long.valueOf(url.substring(url.lastIndexOf('/') + 1));
+            return ResponseEntity.ok(Map.of("clientId", 5, "status", "CHECKED_OUT",
+                    "roomId", reservationRooms.get(reservationId)));
+        });
+    }
+
+    @Test
+    void reviewIsRejectedForARoomOutsideTheReservation() {
+        CreateReviewRequest request = request(10L, 1L, 5);
+        request.setRoomId(11L);
+
+        assertThatThrownBy(() -> reviewService.addReview(request, client))
+                .hasMessage("The reservation is for a different room");
+        assertStats(reviewService.getRoomReviewStats(11L), 0, 0.0, Map.of());
+        assertStats(reviewService.getRoomReviewStats(10L), 0, 0.0, Map.of());
+    }
+
+    @Test
+    void statsFollowEveryReviewWrite() {
+        ReviewDto first = reviewService.addReview(request(10L, 1L, 5), client);
+        ReviewDto second = reviewService.addReview(request(10L, 2L, 3), client);
+        reviewService.addReview(request(11L, 3L, 1), client);
+        assertStats(reviewService.getRoomReviewStats(10L), 2, 4.0, Map.of(5, 1L, 3, 1L));
+
+        reviewService.updateReview(second.getId(), request(10L, 2L, 4), client);
+        assertStats(reviewService.getRoomReviewStats(10L), 2, 4.5, Map.of(5, 1L, 4, 1L));
+
+        reviewService.moderateReview(first.getId(), false, manager);
+        reviewService.moderateReview(first.getId(), false, manager);
+        assertStats(reviewService.getRoomReviewStats(10L), 1, 4.0, Map.of(4, 1L));
+
+        // Un review ascuns poate fi editat fără să apară în statistici
+        reviewService.updateReview(first.getId(), request(10L, 1L, 2), client);
+        assertStats(reviewService.getRoomReviewStats(10L), 1, 4.0, Map.of(4, 1L));
+
+        reviewService.moderateReview(first.getId(), true, manager);
+        reviewService.deleteReview(second.getId(), client);
+        assertStats(reviewService.getRoomReviewStats(10L), 1, 2.0, Map.of(2, 1L));
+
+        Map<String, Object> global = reviewService.getReviewStatistics(manager);
+        assertStats(global, 2, 1.5, Map.of(1, 1L, 2, 1L));
+        assertThat(global.get("reviewsThisMonth")).isEqualTo(2L);
+
+        // Agregatele incrementale coincid cu recalcularea din review-uri
+        assertThat(reviewService.rebuildReviewStatistics(manager)).containsEntry("corrected", 0);
+    }
+
+    @Test
+    void rebuildRepairsDriftedSummaries() {
+        reviewService.addReview(request(10L, 1L, 5), client);
+        reviewService.addReview(request(10L, 2L, 4), client);
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE room_rating_summaries SET review_count = 7, five_star_count = 6 WHERE room_id = 10");
+        jdbcTemplate.update("INSERT INTO room_rating_summaries (room_id, review_count, rating_sum, one_star_count, " +
+                "two_star_count, three_star_count, four_star_count, five_star_count) VALUES (99, 1, 3, 0, 0, 1, 0, 0)");
+        entityManager.clear();
+
+        assertThat(reviewService.rebuildReviewStatistics(manager))
+                .containsEntry("rooms", 2)
+                .containsEntry("corrected", 2);
+        assertStats(reviewService.getRoomReviewStats(10L), 2, 4.5, Map.of(5, 1L, 4, 1L));
+        assertStats(reviewService.getRoomReviewStats(99L), 0, 0.0, Map.of());
+    }
+
+    @Test
+    void hotelStatsSumTheHotelRooms() {
+        roomProjectionRepository.save(room(10L, 3L));
+        roomProjectionRepository.save(room(12L, 4L));
+        // Camera 11 lipsește din proiecție: hotelul ei este cerut de la hotel-service la primul review
+        when(restTemplate.postForEntity(eq("http://localhost:8082/api/hotels/rooms/batch"), any(), eq(Map[].class)))
+                .thenReturn(ResponseEntity.ok(new Map[]{Map.of("id", 11, "hotelId", 3)}));
+        reviewService.addReview(request(10L, 1L, 5), client);
+        reviewService.addReview(request(11L, 2L, 2), client);
+        reviewService.addReview(request(12L, 3L, 1), client);
+
+        assertStats(reviewService.getHotelReviewStats(3L), 2, 3.5, Map.of(5, 1L, 2, 1L));
+        assertStats(reviewService.getHotelReviewStats(4L), 1, 1.0, Map.of(1, 1L));
+        // Statisticile pe hotel nu mai cer lista camerelor de la hotel-service
+        verify(restTemplate, never()).getForEntity(anyString(), eq(Map[].class));
+    }
+
+    private RoomProjection room(Long roomId, Long hotelId) {
+        RoomProjection room = new RoomProjection();
+        room.setRoomId(roomId);
+        room.setHotelId(hotelId);
+        room.setActive(true);
+        room.setAvailable(true);
+        return room;
+    }
+
+    private void assertStats(Map<String, Object> stats, long total, double average, Map<Integer, Long> distribution) {
+        assertThat(stats.get("totalReviews")).isEqualTo(total);
+        assertThat(stats.get("averageRating")).isEqualTo(average);
+        assertThat(stats.get("ratingDistribution")).isEqualTo(distribution);
+    }
+
+    private CreateReviewRequest request(Long roomId, Long reservationId, int rating) {
+        reservationRooms.put(reservationId, roomId);
+        CreateReviewRequest request = new CreateReviewRequest();
+        request.setRoomId(roomId);
+        request.setReservationId(reservationId);
+        request.setRating(rating);
+        request.setTitle("Stay " + reservationId);
+        return request;
+    }
+
+    private static String token(String role, Long userId) {
+        return "Bearer " + Jwts.builder()
+                .claim("role", role)
+                .claim("userId", userId)
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,198 @@
+package com.hotelchain.reviewservice.service;
+
+import com.hotelchain.reviewservice.repository.ReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compară căutarea LIKE '%termen%' pe tabelul reviews cu indexul inversat, pe un volum de review-uri
+ * cu vocabular Zipf (implicit 5.000.000), plus timpii de construire, salvare și restaurare a indexului.
+ * Rulare: mvn test -Dtest=ReviewSearchBenchmarkTest -Dreview.search.benchmark=true -DargLine=-Xmx6g
+ * [-Dreview.search.benchmark.rows=1000000]
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/review-search-benchmark",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.review-search.snapshot-path=target/review-search-benchmark.snapshot",
+        "app.review-search.catch-up-interval-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ReviewSearchIndex.class)
+@EnabledIfSystemProperty(named = "review.search.benchmark", matches = "true")
+class ReviewSearchBenchmarkTest {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int TITLE_WORDS = 4;
+    private static final int COMMENT_WORDS = 25;
+    private static final int LIKE_QUERIES = 5;
+    private static final int INDEX_QUERIES = 2_000;
+    private static final Path SNAPSHOT = Path.of("target/review-search-benchmark.snapshot");
+
+    @Autowired
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String[] words = vocabulary();
+    private final double[] cumulative = zipf();
+
+    @Test
+    void invertedIndexAgainstLikeScan() throws Exception {
+        int rows = Integer.getInteger("review.search.benchmark.rows", 5_000_000);
+        seed(rows);
+
+        // Cuvinte de frecvență medie: nici omniprezente, nici unice
+        Random random = new Random(7);
+        String[] singleTerms = new String[LIKE_QUERIES];
+        for (int i = 0; i < LIKE_QUERIES; i++) {
+            singleTerms[i] = words[50 + random.nextInt(500)];
+        }
+
+        long start = System.nanoTime();
+        for (String term : singleTerms) {
+            jdbcTemplate.queryForList("SELECT id FROM reviews WHERE active = true " +
+                    "AND (LOWER(title) LIKE ? OR LOWER(comment) LIKE ?) ORDER BY created_at DESC LIMIT 20",
+                    Long.class, "%" + term + "%", "%" + term + "%");
+        }
+        long likeMs = (System.nanoTime() - start) / 1_000_000 / LIKE_QUERIES;
+
+        System.gc();
+        long heapBefore = usedHeap();
+        start = System.nanoTime();
+        reviewSearchIndex.rebuild();
+        long buildMs = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long indexMb = (usedHeap() - heapBefore) / (1024 * 1024);
+
+        long singleMicros = measure(() -> reviewSearchIndex.search(singleTerms[random.nextInt(LIKE_QUERIES)], 0, 20));
+        long twoTermMicros = measure(() -> reviewSearchIndex.search(
+                words[random.nextInt(200)] + " " + words[200 + random.nextInt(2_000)], 0, 20));
+        long deepPageMicros = measure(() -> reviewSearchIndex.search(words[random.nextInt(20)], 2_000, 20));
+
+        start = System.nanoTime();
+        reviewSearchIndex.snapshot();
+        long snapshotMs = (System.nanoTime() - start) / 1_000_000;
+
+        ReviewSearchIndex restored = new ReviewSearchIndex();
+        ReflectionTestUtils.setField(restored, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(restored, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(restored, "snapshotPath", SNAPSHOT.toString());
+        ReflectionTestUtils.setField(restored, "catchUpBatch", 1000);
+        ReflectionTestUtils.setField(restored, "catchUpOverlapMs", 10_000L);
+        start = System.nanoTime();
+        restored.start();
+        long restoreMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%,d reviews: LIKE %d ms/query | index build %d ms, ~%d MB heap, snapshot %d MB written in %d ms, " +
+                        "restored in %d ms | 1 term %d us, 2 terms %d us, page 100 %d us%n",
+                rows, likeMs, buildMs, indexMb, Files.size(SNAPSHOT) / (1024 * 1024), snapshotMs, restoreMs,
+                singleMicros, twoTermMicros, deepPageMicros);
+        System.out.println("index stats: " + reviewSearchIndex.getStats());
+
+        ReviewSearchIndex.SearchResult result = restored.search(singleTerms[0], 0, 20);
+        assertThat(result.total()).isPositive();
+        assertThat(result.reviewIds()).isEqualTo(reviewSearchIndex.search(singleTerms[0], 0, 20).reviewIds());
+        Files.deleteIfExists(SNAPSHOT);
+    }
+
+    private long measure(Runnable query) {
+        for (int i = 0; i < INDEX_QUERIES / 10; i++) {
+            query.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < INDEX_QUERIES; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / INDEX_QUERIES / 1000;
+    }
+
+    private void seed(int rows) {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.now().minusYears(3);
+        List<Object[]> batch = new ArrayList<>();
+
+        for (int i = 0; i < rows; i++) {
+            Timestamp createdAt = Timestamp.valueOf(base.plusSeconds(i * 15L));
+            batch.add(new Object[]{(i % 5_000) + 1L, (i % 50_000) + 1L, i + 1L, 1 + random.nextInt(5),
+                    text(random, TITLE_WORDS), text(random, COMMENT_WORDS), createdAt, random.nextInt(50) != 0, createdAt});
+            if (batch.size() == 10_000) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO reviews (room_id, client_id, reservation_id, rating, title, comment, " +
+                "created_at, active, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private String text(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            text.append(words[index >= 0 ? index : Math.min(-index - 1, VOCABULARY - 1)]);
+        }
+        return text.toString();
+    }
+
+    private static String[] vocabulary() {
+        String[] vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            vocabulary[i] = "w" + Integer.toString(i * 7919 + 1000, 36);
+        }
+        return vocabulary;
+    }
+
+    private static double[] zipf() {
+        double[] weights = new double[VOCABULARY];
+        double total = 0;
+        for (int i = 0; i < VOCABULARY; i++) {
+            total += 1.0 / (i + 1);
+            weights[i] = total;
+        }
+        for (int i = 0; i < VOCABULARY; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    private long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,200 @@
+package com.hotelchain.reviewservice.service;
+
+import com.hotelchain.reviewservice.dto.CreateReviewRequest;
+import com.hotelchain.reviewservice.dto.ReviewDto;
+import com.hotelchain.reviewservice.dto.SearchPage;
+import com.hotelchain.reviewservice.repository.ReviewRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.review-search.snapshot-path=target/review-search-test.snapshot",
+        "app.review-search.catch-up-interval-ms=3600000"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReviewService.class, ReviewAggregateService.class, JwtValidationService.class, ReviewSearchIndex.class,
+        EnrichmentStage.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ReviewSearchIndexTest {
+
+    private static final String SECRET = "mySecretKeyForHotelChainApplicationThatIsLongEnough";
+    private static final Path SNAPSHOT = Path.of("target/review-search-test.snapshot");
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    @MockitoBean
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    private final String client = token("CLIENT", 5L);
+    private final String manager = token("MANAGER", 1L);
+    private long nextReservation = 1;
+
+    @BeforeEach
+    void setUp() {
+        when(restTemplate.getForEntity(anyString(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("clientId", 5, "status", "CHECKED_OUT", "roomId", 10)));
+        reviewSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jdbcTemplate.update("DELETE FROM reviews");
+        jdbcTemplate.update("DELETE FROM room_rating_summaries");
+        Files.deleteIfExists(SNAPSHOT);
+    }
+
+    @Test
+    void writesAreSearchableAndRankedByRelevance() {
+        ReviewDto quiet = add("Quiet room", "Very quiet and clean, great breakfast");
+        ReviewDto noisy = add("Noisy street", "Clean room but not quiet at night");
+        add("Breakfast", "Great breakfast");
+        ReviewDto romanian = add("Cameră", "Multă liniște și curățenie");
+
+        SearchPage<ReviewDto> results = reviewService.searchReviews("QUIET clean", null, null);
+        assertThat(results.getTotal()).isEqualTo(2);
+        assertThat(ids(results)).containsExactly(quiet.getId(), noisy.getId());
+        assertThat(ids(reviewService.searchReviews("liniste curatenie", null, null))).containsExactly(romanian.getId());
+        assertThat(reviewService.searchReviews("quiet pool", null, null).getTotal()).isZero();
+
+        SearchPage<ReviewDto> first = reviewService.searchReviews("great", 0, 1);
+        SearchPage<ReviewDto> second = reviewService.searchReviews("great", 1, 1);
+        assertThat(first.getTotal()).isEqualTo(2);
+        assertThat(ids(first)).doesNotContainAnyElementsOf(ids(second));
+
+        reviewService.updateReview(noisy.getId(), request("Noisy street", "Clean room, loud at night"), client);
+        assertThat(ids(reviewService.searchReviews("quiet clean", null, null))).containsExactly(quiet.getId());
+        assertThat(ids(reviewService.searchReviews("loud", null, null))).containsExactly(noisy.getId());
+
+        reviewService.moderateReview(quiet.getId(), false, manager);
+        assertThat(reviewService.searchReviews("quiet", null, null).getTotal()).isZero();
+        reviewService.moderateReview(quiet.getId(), true, manager);
+        assertThat(ids(reviewService.searchReviews("quiet", null, null))).containsExactly(quiet.getId());
+
+        reviewService.deleteReview(quiet.getId(), client);
+        assertThat(reviewService.searchReviews("quiet", null, null).getTotal()).isZero();
+    }
+
+    @Test
+    void searchFallsBackToTheDatabaseUntilTheIndexIsReady() {
+        ReviewDto quiet = add("Quiet room", "Very quiet and clean");
+        add("Breakfast", "Great breakfast");
+        ReflectionTestUtils.setField(reviewSearchIndex, "ready", false);
+
+        SearchPage<ReviewDto> results = reviewService.searchReviews("quiet", null, null);
+        assertThat(results.getTotal()).isEqualTo(1);
+        assertThat(ids(results)).containsExactly(quiet.getId());
+    }
+
+    @Test
+    void catchUpAppliesChangesMadeByOtherInstances() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO reviews (room_id, client_id, reservation_id, rating, title, comment, " +
+                        "created_at, active, updated_at) VALUES (1, 2, 3, 4, 'Rooftop pool', 'Lovely view', ?, true, ?)",
+                Timestamp.valueOf(now), Timestamp.valueOf(now));
+        assertThat(reviewSearchIndex.search("rooftop", 0, 10).total()).isZero();
+
+        reviewSearchIndex.catchUp();
+        assertThat(reviewSearchIndex.search("rooftop view", 0, 10).total()).isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE reviews SET active = false, updated_at = ?", Timestamp.valueOf(now.plusSeconds(1)));
+        reviewSearchIndex.catchUp();
+        assertThat(reviewSearchIndex.search("rooftop", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void snapshotIsRestoredWithoutReadingTheTable() {
+        ReviewDto quiet = add("Quiet room", "Garden view");
+        reviewSearchIndex.snapshot();
+        assertThat(SNAPSHOT).exists();
+
+        // Rândurile șterse direct nu trec prin updated_at, deci doar snapshot-ul le mai poate conține
+        jdbcTemplate.update("DELETE FROM reviews");
+
+        ReviewSearchIndex restored = new ReviewSearchIndex();
+        ReflectionTestUtils.setField(restored, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(restored, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(restored, "snapshotPath", SNAPSHOT.toString());
+        ReflectionTestUtils.setField(restored, "catchUpBatch", 1000);
+        ReflectionTestUtils.setField(restored, "catchUpOverlapMs", 10_000L);
+        restored.start();
+
+        assertThat(restored.search("garden quiet", 0, 10).reviewIds()).containsExactly(quiet.getId());
+    }
+
+    private ReviewDto add(String title, String comment) {
+        CreateReviewRequest request = request(title, comment);
+        request.setReservationId(nextReservation++);
+        return reviewService.addReview(request, client);
+    }
+
+    private CreateReviewRequest request(String title, String comment) {
+        CreateReviewRequest request = new CreateReviewRequest();
+        request.setRoomId(10L);
+        request.setReservationId(nextReservation);
+        request.setRating(4);
+        request.setTitle(title);
+        request.setComment(comment);
+        return request;
+    }
+
+    private List<Long> ids(SearchPage<ReviewDto> page) {
+        return page.getItems().stream().map(ReviewDto::getId).toList();
+    }
+
+    private static String token(String role, Long userId) {
+        return "Bearer " + Jwts.builder()
+                .claim("role", role)
+                .claim("userId", userId)
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,40 @@
+package com.hotelchain.userservice.config;
+
+import com.hotelchain.userservice.event.EventBroker;
+import com.hotelchain.userservice.event.FileEventBroker;
+import com.hotelchain.userservice.event.InMemoryEventBroker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Slf4j
+@Configuration
+public class EventBrokerConfig {
+
+    /**
+     * Brokerul de evenimente dintre servicii: "file" (implicit) folosește un director comun tuturor serviciilor,
+     * obligatoriu; "memory" ține evenimentele în proces și se alege doar explicit (teste, un singur serviciu)
+     */
+    @Bean
+    public EventBroker eventBroker(@Value("${app.events.broker:file}") String broker,
+                                   @Value("${app.events.directory:}") String directory,
+                                   @Value("${app.events.poll-interval-ms:500}") long pollIntervalMs,
+                                   @Value("${app.events.max-attempts:10}") int maxAttempts) {
+        if ("memory".equalsIgnoreCase(broker)) {
+            log.warn("app.events.broker is memory: outbox events are delivered only inside this process, "
+                    + "other services will not receive them");
+            return new InMemoryEventBroker();
+        }
+        if (!"file".equalsIgnoreCase(broker)) {
+            throw new IllegalStateException("Unknown app.events.broker: " + broker);
+        }
+        if (directory.isBlank()) {
+            throw new IllegalStateException("app.events.directory (EVENT_DIRECTORY) must point to the event directory "
+                    + "shared by all services; set app.events.broker=memory only for single-process runs");
+        }
+        return new FileEventBroker(Path.of(directory), pollIntervalMs, maxAttempts);
+    }
+}
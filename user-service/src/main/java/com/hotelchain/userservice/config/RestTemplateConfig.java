@@ -1,14 +1,65 @@
 package com.hotelchain.userservice.config;
 
+import com.hotelchain.userservice.service.DownstreamGuard;
+import com.hotelchain.userservice.service.InternalServiceCredential;
+import com.hotelchain.userservice.service.PooledHttpClientFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * Protecția apelurilor către celelalte servicii: bulkhead și circuit breaker pe serviciu, plus bugetul de timp
+     */
+    @Bean
+    public DownstreamGuard downstreamGuard(@Value("${app.resilience.max-concurrent-calls:20}") int maxConcurrentCalls,
+                                           @Value("${app.resilience.window-size:20}") int windowSize,
+                                           @Value("${app.resilience.minimum-calls:10}") int minimumCalls,
+                                           @Value("${app.resilience.failure-rate-threshold:50}") int failureRateThreshold,
+                                           @Value("${app.resilience.open-ms:5000}") long openMs,
+                                           @Value("${app.http.read-timeout-ms:3000}") long readTimeoutMs) {
+        return new DownstreamGuard(maxConcurrentCalls, windowSize, minimumCalls, failureRateThreshold, openMs, readTimeoutMs);
+    }
+
+    /**
+     * Clientul HTTP comun, cu pool de conexiuni keep-alive pe fiecare serviciu apelat și compresie;
+     * HTTP/2 se activează cu app.http.protocol=HTTP_2
+     */
+    @Bean
+    public PooledHttpClientFactory httpClientFactory(Environment environment,
+                                                     @Value("${app.http.protocol:HTTP_1_1}") PooledHttpClientFactory.Protocol protocol,
+                                                     @Value("${app.http.pool.max-total:100}") int maxTotal,
+                                                     @Value("${app.http.pool.max-per-route:20}") int maxPerRoute,
+                                                     @Value("${app.http.connect-timeout-ms:1000}") int connectTimeoutMs,
+                                                     @Value("${app.http.read-timeout-ms:3000}") int readTimeoutMs,
+                                                     @Value("${app.http.pool.acquire-timeout-ms:1000}") int acquireTimeoutMs,
+                                                     @Value("${app.http.pool.max-idle-ms:30000}") long maxIdleMs) {
+        return new PooledHttpClientFactory(protocol, maxTotal, maxPerRoute, connectTimeoutMs, readTimeoutMs,
+                acquireTimeoutMs, maxIdleMs, Threading.VIRTUAL.isActive(environment));
+    }
+
+    /**
+     * Timeout-uri de conectare și citire pe orice apel, ca un serviciu blocat să nu țină firele apelantului
+     */
+    @Bean
+    public RestTemplate restTemplate(PooledHttpClientFactory httpClientFactory, DownstreamGuard downstreamGuard) {
+        RestTemplate restTemplate = new RestTemplate(httpClientFactory.requestFactory());
+        restTemplate.getInterceptors().add(downstreamGuard);
+        return restTemplate;
+    }
+
+    /**
+     * Token-ul cerut de endpoint-urile interne (/batch); user-service nu apelează endpoint-uri interne ale altor servicii
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public InternalServiceCredential internalServiceCredential(@Value("${app.internal.token:}") String token) {
+        return new InternalServiceCredential(token, List.of());
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,20 @@
 package com.hotelchain.userservice.controller;
 
 import com.hotelchain.userservice.dto.*;
+import com.hotelchain.userservice.service.DownstreamGuard;
+import com.hotelchain.userservice.service.InternalServiceCredential;
+import com.hotelchain.userservice.service.NotificationDispatcher;
+import com.hotelchain.userservice.service.OutboxRelay;
+import com.hotelchain.userservice.service.PooledHttpClientFactory;
 import com.hotelchain.userservice.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -16,6 +24,21 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private DownstreamGuard downstreamGuard;
+
+    @Autowired
+    private PooledHttpClientFactory httpClientFactory;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InternalServiceCredential internalServiceCredential;
+
     // Test endpoint
     @GetMapping("/test")
     public String test() {
@@ -27,6 +50,30 @@ public class UserController {
         return "{\"status\":\"UP\",\"service\":\"user-service\"}";
     }
 
+    // Adâncimea cozii de notificări și contoarele dispecerului
+    @GetMapping("/notifications/stats")
+    public ResponseEntity<Map<String, Object>> notificationStats() {
+        return ResponseEntity.ok(notificationDispatcher.getStats());
+    }
+
+    // Starea circuitelor și contoarele pentru apelurile externe
+    @GetMapping("/downstream/stats")
+    public String downstreamStats() {
+        return downstreamGuard.getStats();
+    }
+
+    // Ocuparea pool-ului de conexiuni pentru apelurile externe
+    @GetMapping("/http-client/stats")
+    public String httpClientStats() {
+        return httpClientFactory.getStats();
+    }
+
+    // Evenimentele de modificare încă nepublicate pe broker și contoarele publicării
+    @GetMapping("/events/outbox/stats")
+    public String outboxStats() {
+        return outboxRelay.getStats();
+    }
+
     // Autentificare
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
@@ -63,6 +110,32 @@ public class UserController {
         }
     }
 
+    // Admin - listă utilizatori paginată keyset (cursorul vine din pagina anterioară)
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<UserDto>> getUsersPage(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size,
+                                                            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(userService.getUsersPage(cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(403).body(null);
+        }
+    }
+
+    // Admin - toți utilizatorii ca NDJSON (un obiect JSON pe linie)
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body(userService.streamUsers(token));
+        } catch (Exception e) {
+            return ResponseEntity.status(403).build();
+        }
+    }
+
     // Admin - listă utilizatori după rol
     @GetMapping("/role/{role}")
     public ResponseEntity<List<UserDto>> getUsersByRole(@PathVariable String role,
@@ -96,6 +169,17 @@ public class UserController {
         }
     }
 
+    // Intern - mai mulți utilizatori într-un singur apel, pentru îmbogățirea listelor; doar pentru celelalte servicii
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserSummaryDto>> getUsersByIds(@RequestBody List<Long> ids,
+                                                              @RequestHeader(value = InternalServiceCredential.HEADER,
+                                                                      required = false) String internalToken) {
+        if (!internalServiceCredential.isTrusted(internalToken)) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     // Admin - Create user
     @PostMapping("/create")
     public ResponseEntity<UserDto> createUser(@RequestBody CreateUserRequest request,
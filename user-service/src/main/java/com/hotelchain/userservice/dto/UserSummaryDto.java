@@ -0,0 +1,13 @@
+package com.hotelchain.userservice.dto;
+
+import lombok.Data;
+
+/**
+ * Datele unui utilizator trimise altor servicii pentru îmbogățirea listelor
+ */
+@Data
+public class UserSummaryDto {
+    private Long id;
+    private String username;
+    private String email;
+}
@@ -0,0 +1,5 @@
+package com.hotelchain.userservice.entity;
+
+public enum NotificationStatus {
+    PENDING, SENT, FAILED
+}
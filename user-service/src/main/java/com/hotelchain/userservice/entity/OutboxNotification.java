@@ -0,0 +1,54 @@
+package com.hotelchain.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificare salvată în aceeași tranzacție cu modificarea utilizatorului și trimisă ulterior
+ * de {@link com.hotelchain.userservice.service.NotificationDispatcher}
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxNotification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationChannel channel;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    @Lob
+    @Column(nullable = false)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationStatus status = NotificationStatus.PENDING;
+
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,36 @@
+package com.hotelchain.userservice.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Broker în proces, pentru teste și rularea locală într-un singur JVM: evenimentele sunt livrate sincron,
+ * pe firul care publică, iar un abonat nou primește întâi tot istoricul tipului respectiv.
+ * O excepție din handler ajunge la cel care publică, care va reîncerca publicarea.
+ */
+public class InMemoryEventBroker implements EventBroker {
+
+    private final Map<String, List<ChangeEvent>> topics = new HashMap<>();
+    private final Map<String, List<Consumer<ChangeEvent>>> handlers = new HashMap<>();
+
+    @Override
+    public synchronized void publish(ChangeEvent event) {
+        for (Consumer<ChangeEvent> handler : handlers.getOrDefault(event.type(), List.of())) {
+            handler.accept(event);
+        }
+        topics.computeIfAbsent(event.type(), key -> new ArrayList<>()).add(event);
+    }
+
+    @Override
+    public synchronized void subscribe(String type, String consumer, Consumer<ChangeEvent> handler) {
+        topics.getOrDefault(type, List.of()).forEach(handler);
+        handlers.computeIfAbsent(type, key -> new ArrayList<>()).add(handler);
+    }
+
+    public synchronized List<ChangeEvent> getPublished(String type) {
+        return new ArrayList<>(topics.getOrDefault(type, List.of()));
+    }
+}
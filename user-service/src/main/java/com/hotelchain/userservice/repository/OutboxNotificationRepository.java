@@ -0,0 +1,30 @@
+package com.hotelchain.userservice.repository;
+
+import com.hotelchain.userservice.entity.NotificationStatus;
+import com.hotelchain.userservice.entity.OutboxNotification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, Long> {
+
+    // Notificările scadente, blocate pentru dispecer; rândurile blocate de altă instanță sunt sărite (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM OutboxNotification n WHERE n.status = :status AND n.nextAttemptAt <= :now ORDER BY n.id")
+    List<OutboxNotification> findDue(@Param("status") NotificationStatus status,
+                                     @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+
+    long countByStatus(NotificationStatus status);
+
+    long countByStatusAndNextAttemptAtLessThanEqual(NotificationStatus status, LocalDateTime now);
+}
@@ -2,6 +2,7 @@ package com.hotelchain.userservice.repository;
 
 import com.hotelchain.userservice.entity.User;
 import com.hotelchain.userservice.entity.UserRole;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 import java.util.List;
@@ -11,4 +12,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(UserRole role);
     List<User> findByActive(boolean active);
     List<User> findByHotelId(Long hotelId);
+
+    // Paginare keyset după id
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
\ No newline at end of file
@@ -5,11 +5,16 @@ import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.io.UnsupportedEncodingException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -67,4 +72,52 @@ public class EmailService {
             throw new RuntimeException("Failed to send email", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Construiește un email HTML fără să-l trimită, pentru trimiterea în lot
+     */
+    public MimeMessage createHtmlMessage(String to, String subject, String htmlContent) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+            helper.setFrom(fromEmail, fromName);
+            helper.setTo(to);
+            helper.setSubject(subject);
+            helper.setText(htmlContent, true);
+            return message;
+        } catch (MessagingException | UnsupportedEncodingException e) {
+            throw new RuntimeException("Failed to build email for: " + to, e);
+        }
+    }
+
+    /**
+     * Trimite un lot de email-uri pe o singură conexiune SMTP.
+     * Întoarce mesajele care nu au putut fi trimise, cu eroarea fiecăruia.
+     */
+    public Map<MimeMessage, Exception> sendBatch(List<MimeMessage> messages) {
+        Map<MimeMessage, Exception> failed = new IdentityHashMap<>();
+        if (messages.isEmpty()) {
+            return failed;
+        }
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+            log.info("Sent batch of {} emails", messages.size());
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, error) -> {
+                if (message instanceof MimeMessage mimeMessage) {
+                    failed.put(mimeMessage, error);
+                }
+            });
+            // Conexiunea nu a putut fi deschisă: niciun mesaj nu a plecat
+            if (failed.isEmpty()) {
+                messages.forEach(message -> failed.put(message, e));
+            }
+            log.warn("{} of {} emails failed: {}", failed.size(), messages.size(), e.getMessage());
+        } catch (MailException e) {
+            messages.forEach(message -> failed.put(message, e));
+            log.warn("Email batch of {} failed: {}", messages.size(), e.getMessage());
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,61 @@
+package com.hotelchain.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelchain.userservice.entity.OutboxEvent;
+import com.hotelchain.userservice.entity.User;
+import com.hotelchain.userservice.event.ChangeEvent;
+import com.hotelchain.userservice.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Înregistrează evenimentele de modificare în outbox, în tranzacția apelantului: evenimentul există
+ * dacă și numai dacă modificarea a fost salvată. Publicarea pe broker se face în fundal de {@link OutboxRelay}.
+ */
+@Service
+public class EventOutbox {
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Starea publică a utilizatorului, de care au nevoie celelalte servicii (nume afișat, contact, rol)
+     */
+    public void recordUserChanged(User user) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("userId", user.getId());
+        data.put("username", user.getUsername());
+        data.put("email", user.getEmail());
+        data.put("role", user.getRole().name());
+        data.put("active", user.isActive());
+        record(ChangeEvent.USER_CHANGED, user.getId(), data);
+    }
+
+    private void record(String type, Long aggregateId, Map<String, Object> data) {
+        // Modificarea agregatului se scrie întâi, ca blocarea rândului să preceadă id-ul evenimentului:
+        // două tranzacții pe același agregat primesc astfel id-uri în ordinea commit-urilor
+        entityManager.flush();
+
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " event", e);
+        }
+        outboxRepository.save(event);
+    }
+}
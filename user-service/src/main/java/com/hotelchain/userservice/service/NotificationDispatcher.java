@@ -0,0 +1,154 @@
+package com.hotelchain.userservice.service;
+
+import com.hotelchain.userservice.entity.NotificationChannel;
+import com.hotelchain.userservice.entity.NotificationStatus;
+import com.hotelchain.userservice.entity.OutboxNotification;
+import com.hotelchain.userservice.repository.OutboxNotificationRepository;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trimite în fundal notificările din outbox, în loturi: email-urile unui lot pleacă pe o singură
+ * conexiune SMTP, iar eșecurile sunt reîncercate cu backoff exponențial până la numărul maxim de încercări.
+ */
+@Service
+@Slf4j
+public class NotificationDispatcher {
+
+    @Autowired
+    private OutboxNotificationRepository outboxRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private SmsService smsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.notifications.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.notifications.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.backoff-ms:5000}")
+    private long backoffMs;
+
+    @Value("${app.notifications.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    @Scheduled(initialDelayString = "${app.notifications.initial-delay-ms:5000}",
+            fixedDelayString = "${app.notifications.poll-interval-ms:1000}")
+    public void dispatchPending() {
+        try {
+            // Lot după lot, până când nu mai există notificări scadente
+            while (dispatchBatch() == batchSize) {
+                log.debug("Outbox batch full, dispatching next batch");
+            }
+        } catch (Exception e) {
+            log.warn("Failed to dispatch notifications: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adâncimea cozii și contoarele dispecerului
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxRepository.countByStatus(NotificationStatus.PENDING));
+        stats.put("due", outboxRepository.countByStatusAndNextAttemptAtLessThanEqual(
+                NotificationStatus.PENDING, LocalDateTime.now()));
+        stats.put("failed", outboxRepository.countByStatus(NotificationStatus.FAILED));
+        stats.put("sent", sent.sum());
+        stats.put("retried", retried.sum());
+        stats.put("abandoned", abandoned.sum());
+        return stats;
+    }
+
+    private int dispatchBatch() {
+        Integer processed = new TransactionTemplate(transactionManager).execute(status -> {
+            List<OutboxNotification> due = outboxRepository.findDue(
+                    NotificationStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+            Map<MimeMessage, OutboxNotification> emails = new IdentityHashMap<>();
+            for (OutboxNotification notification : due) {
+                if (notification.getChannel() == NotificationChannel.EMAIL) {
+                    try {
+                        emails.put(emailService.createHtmlMessage(notification.getRecipient(),
+                                notification.getSubject(), notification.getBody()), notification);
+                    } catch (RuntimeException e) {
+                        markFailed(notification, e.getMessage());
+                    }
+                } else if (smsService.sendSMS(notification.getRecipient(), notification.getBody())) {
+                    markSent(notification);
+                } else {
+                    markFailed(notification, "SMS gateway did not accept the message");
+                }
+            }
+
+            Map<MimeMessage, Exception> failed = emailService.sendBatch(new ArrayList<>(emails.keySet()));
+            emails.forEach((message, notification) -> {
+                Exception error = failed.get(message);
+                if (error == null) {
+                    markSent(notification);
+                } else {
+                    markFailed(notification, error.getMessage());
+                }
+            });
+
+            outboxRepository.saveAll(due);
+            return due.size();
+        });
+        return processed != null ? processed : 0;
+    }
+
+    private void markSent(OutboxNotification notification) {
+        notification.setStatus(NotificationStatus.SENT);
+        notification.setAttempts(notification.getAttempts() + 1);
+        notification.setSentAt(LocalDateTime.now());
+        notification.setLastError(null);
+        sent.increment();
+    }
+
+    private void markFailed(OutboxNotification notification, String error) {
+        int attempts = notification.getAttempts() + 1;
+        notification.setAttempts(attempts);
+        notification.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (attempts >= maxAttempts) {
+            notification.setStatus(NotificationStatus.FAILED);
+            abandoned.increment();
+            log.error("Giving up on {} notification {} to {} after {} attempts: {}",
+                    notification.getChannel(), notification.getId(), notification.getRecipient(), attempts, error);
+            return;
+        }
+
+        // Backoff exponențial: backoff, 2*backoff, 4*backoff, ... limitat la max-backoff
+        long delay = Math.min(backoffMs << Math.min(attempts - 1, 20), maxBackoffMs);
+        notification.setNextAttemptAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+        retried.increment();
+        log.warn("{} notification {} failed (attempt {}), retrying in {} ms: {}",
+                notification.getChannel(), notification.getId(), attempts, delay, error);
+    }
+}
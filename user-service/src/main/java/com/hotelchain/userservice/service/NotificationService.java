@@ -1,84 +1,82 @@
 package com.hotelchain.userservice.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import com.hotelchain.userservice.entity.NotificationChannel;
+import com.hotelchain.userservice.entity.OutboxNotification;
+import com.hotelchain.userservice.repository.OutboxNotificationRepository;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Pregătește notificările pentru utilizatori și le salvează în outbox, în tranzacția apelantului.
+ * Trimiterea efectivă (SMTP / SMS) se face în fundal de {@link NotificationDispatcher}.
+ */
 @Service
 @Slf4j
 public class NotificationService {
 
-    private final RestTemplate restTemplate;
-    private final EmailService emailService;
+    private final OutboxNotificationRepository outboxRepository;
     private final SmsService smsService;
 
-    @Value("${sms.api.url:https://smsadvert.ro/api}")
-    private String smsApiUrl;
-
-    @Value("${sms.api.key:your-sms-api-key}")
-    private String smsApiKey;
-
-    public NotificationService(RestTemplate restTemplate, EmailService emailService, SmsService smsService) {
-        this.restTemplate = restTemplate;
-        this.emailService = emailService;
+    public NotificationService(OutboxNotificationRepository outboxRepository, SmsService smsService) {
+        this.outboxRepository = outboxRepository;
         this.smsService = smsService;
     }
 
     /**
-     * Trimite email de notificare către utilizator
+     * Pune în coadă email-ul de notificare către utilizator
      */
     public void sendUserUpdateEmail(String userEmail, String username, String changeDescription) {
-        try {
-            String subject = "Account Update Notification - HotelChain";
-            String htmlContent = buildEmailContent(username, changeDescription);
+        String subject = "Account Update Notification - HotelChain";
+        String htmlContent = buildEmailContent(username, changeDescription);
 
-            emailService.sendHtmlEmail(userEmail, subject, htmlContent);
-
-            log.info("Email notification sent successfully to: {}", userEmail);
-        } catch (Exception e) {
-            log.error("Failed to send email notification to: {}", userEmail, e);
-        }
+        enqueue(NotificationChannel.EMAIL, userEmail, subject, htmlContent);
+        log.debug("Email notification queued for: {}", userEmail);
     }
 
     /**
-     * Trimite SMS de notificare către utilizator
+     * Pune în coadă SMS-ul de notificare către utilizator
      */
     public void sendUserUpdateSMS(String phoneNumber, String username, String changeDescription) {
-        try {
-            if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
-                log.warn("Phone number is empty for user: {}", username);
-                return;
-            }
-
-            String message = buildSMSContent(username, changeDescription);
-            smsService.sendSMS(phoneNumber, message);
-
-            log.info("SMS notification sent successfully to: {}", phoneNumber);
-        } catch (Exception e) {
-            log.error("Failed to send SMS notification to: {}", phoneNumber, e);
+        if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
+            log.warn("Phone number is empty for user: {}", username);
+            return;
         }
+        if (!smsService.isValidPhoneNumber(phoneNumber)) {
+            log.warn("Invalid phone number for user: {}", username);
+            return;
+        }
+
+        String message = buildSMSContent(username, changeDescription);
+        enqueue(NotificationChannel.SMS, phoneNumber, null, message);
+        log.debug("SMS notification queued for: {}", phoneNumber);
     }
 
     /**
-     * Trimite notificări complete (email + SMS)
+     * Pune în coadă notificările complete (email + SMS)
      */
     public void sendUserUpdateNotifications(String userEmail, String phoneNumber, String username, String changeDescription) {
-        // Trimitere email
+        // Email
         if (userEmail != null && !userEmail.trim().isEmpty()) {
             sendUserUpdateEmail(userEmail, username, changeDescription);
         }
 
-        // Trimitere SMS
+        // SMS
         if (phoneNumber != null && !phoneNumber.trim().isEmpty()) {
             sendUserUpdateSMS(phoneNumber, username, changeDescription);
         }
     }
 
+    private void enqueue(NotificationChannel channel, String recipient, String subject, String body) {
+        OutboxNotification notification = new OutboxNotification();
+        notification.setChannel(channel);
+        notification.setRecipient(recipient);
+        notification.setSubject(subject);
+        notification.setBody(body);
+        outboxRepository.save(notification);
+    }
+
     /**
      * Construiește conținutul email-ului
      */
@@ -6,11 +6,19 @@ import com.hotelchain.userservice.entity.UserRole;
 import com.hotelchain.userservice.repository.UserRepository;
 import com.hotelchain.userservice.strategy.UserValidationContext;
 import com.hotelchain.userservice.strategy.ValidationResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -18,6 +26,9 @@ import java.util.stream.Collectors;
 @Service
 public class UserService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -30,6 +41,15 @@ public class UserService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     public LoginResponse login(LoginRequest request) {
@@ -59,6 +79,7 @@ public class UserService {
         return response;
     }
 
+    @Transactional
     public UserDto register(RegisterRequest request) {
         // Use Strategy Pattern for validation
         ValidationResult validation = validationContext.validateUserRegistration(request);
@@ -79,6 +100,7 @@ public class UserService {
         user.setRole(UserRole.CLIENT); // Doar clienți prin înregistrare publică
 
         user = userRepository.save(user);
+        eventOutbox.recordUserChanged(user);
         return convertToDto(user);
     }
 
@@ -106,6 +128,45 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obține o pagină cu utilizatorii pentru admin, paginată keyset crescător după id
+     */
+    public CursorPage<UserDto> getUsersPage(String cursor, Integer size, String token) {
+        validateAdminRole(token);
+        return getUsersPage(KeysetCursor.decode(cursor), pageSize(size));
+    }
+
+    /**
+     * Transmite toți utilizatorii ca NDJSON, pagină cu pagină, cu memorie constantă
+     */
+    public StreamingResponseBody streamUsers(String token) {
+        validateAdminRole(token);
+
+        return output -> {
+            KeysetCursor cursor = KeysetCursor.FIRST;
+            while (cursor != null) {
+                CursorPage<UserDto> page = getUsersPage(cursor, MAX_PAGE_SIZE);
+                for (UserDto dto : page.getItems()) {
+                    output.write(objectMapper.writeValueAsBytes(dto));
+                    output.write('\n');
+                }
+                output.flush();
+                // Entitățile paginii anterioare nu mai sunt necesare
+                entityManager.clear();
+                cursor = page.getNextCursor() != null ? KeysetCursor.decode(page.getNextCursor()) : null;
+            }
+        };
+    }
+
+    public List<UserSummaryDto> getUsersByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllById(new HashSet<>(ids)).stream()
+                .map(this::convertToSummary)
+                .collect(Collectors.toList());
+    }
+
     public List<UserDto> getUsersByRole(String role, String token) {
         validateAdminRole(token);
         try {
@@ -125,6 +186,7 @@ public class UserService {
         return convertToDto(user);
     }
 
+    @Transactional
     public UserDto updateUser(Long id, UpdateUserRequest request, String token) {
         validateAdminRole(token);
 
@@ -208,6 +270,7 @@ public class UserService {
 
         // Send notifications if there were changes
         if (!changes.isEmpty()) {
+            eventOutbox.recordUserChanged(user);
             String changeDescription = notificationService.generateChangeDescription(changes);
             notificationService.sendUserUpdateNotifications(
                     user.getEmail(),
@@ -220,6 +283,7 @@ public class UserService {
         return convertToDto(user);
     }
 
+    @Transactional
     public UserDto createUser(CreateUserRequest request, String token) {
         validateAdminRole(token);
 
@@ -255,6 +319,7 @@ public class UserService {
         user.setActive(true);
 
         user = userRepository.save(user);
+        eventOutbox.recordUserChanged(user);
 
         // Send welcome notification
         notificationService.sendUserUpdateNotifications(
@@ -267,6 +332,7 @@ public class UserService {
         return convertToDto(user);
     }
 
+    @Transactional
     public void deleteUser(Long id, String token) {
         validateAdminRole(token);
 
@@ -276,6 +342,7 @@ public class UserService {
         // Soft delete - just set active to false
         user.setActive(false);
         userRepository.save(user);
+        eventOutbox.recordUserChanged(user);
 
         // Send deactivation notification
         notificationService.sendUserUpdateNotifications(
@@ -286,6 +353,7 @@ public class UserService {
         );
     }
 
+    @Transactional
     public UserDto reactivateUser(Long id, String token) {
         validateAdminRole(token);
 
@@ -294,6 +362,7 @@ public class UserService {
 
         user.setActive(true);
         user = userRepository.save(user);
+        eventOutbox.recordUserChanged(user);
 
         // Send reactivation notification
         notificationService.sendUserUpdateNotifications(
@@ -311,6 +380,25 @@ public class UserService {
         return validationContext.getValidationStrategy(operationType).validate(userRequest);
     }
 
+    private CursorPage<UserDto> getUsersPage(KeysetCursor cursor, int size) {
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(cursor.id(), PageRequest.of(0, size));
+
+        String nextCursor = null;
+        if (rows.size() == size) {
+            nextCursor = new KeysetCursor(rows.get(rows.size() - 1).getId()).encode();
+        }
+        return new CursorPage<>(rows.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
     private void validateAdminRole(String token) {
         if (token.startsWith("Bearer ")) {
             token = token.substring(7);
@@ -335,4 +423,12 @@ public class UserService {
         dto.setActive(user.isActive());
         return dto;
     }
+
+    private UserSummaryDto convertToSummary(User user) {
+        UserSummaryDto dto = new UserSummaryDto();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        return dto;
+    }
 }
\ No newline at end of file
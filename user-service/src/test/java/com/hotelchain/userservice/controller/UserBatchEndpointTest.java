@@ -0,0 +1,72 @@
+package com.hotelchain.userservice.controller;
+
+import com.hotelchain.userservice.dto.UserSummaryDto;
+import com.hotelchain.userservice.service.InternalServiceCredential;
+import com.hotelchain.userservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserBatchEndpointTest {
+
+    private final UserService userService = mock(UserService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UserController controller = new UserController();
+        ReflectionTestUtils.setField(controller, "userService", userService);
+        ReflectionTestUtils.setField(controller, "internalServiceCredential",
+                new InternalServiceCredential("internal-test-token", List.of()));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        UserSummaryDto user = new UserSummaryDto();
+        user.setId(5L);
+        user.setUsername("client5");
+        user.setEmail("client5@mail.com");
+        when(userService.getUsersByIds(any())).thenReturn(List.of(user));
+    }
+
+    @Test
+    void anonymousCallIsRejected() throws Exception {
+        mockMvc.perform(post("/api/users/batch").contentType(MediaType.APPLICATION_JSON).content("[5]"))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).getUsersByIds(any());
+    }
+
+    @Test
+    void wrongTokenIsRejected() throws Exception {
+        mockMvc.perform(post("/api/users/batch").contentType(MediaType.APPLICATION_JSON).content("[5]")
+                        .header(InternalServiceCredential.HEADER, "guessed"))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).getUsersByIds(any());
+    }
+
+    @Test
+    void internalCallGetsOnlyTheEnrichmentFields() throws Exception {
+        mockMvc.perform(post("/api/users/batch").contentType(MediaType.APPLICATION_JSON).content("[5]")
+                        .header(InternalServiceCredential.HEADER, "internal-test-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(5))
+                .andExpect(jsonPath("$[0].username").value("client5"))
+                .andExpect(jsonPath("$[0].email").value("client5@mail.com"))
+                .andExpect(jsonPath("$[0].phone").doesNotExist())
+                .andExpect(jsonPath("$[0].role").doesNotExist());
+    }
+}
@@ -0,0 +1,233 @@
+package com.hotelchain.userservice.service;
+
+import com.hotelchain.userservice.entity.NotificationStatus;
+import com.hotelchain.userservice.entity.OutboxNotification;
+import com.hotelchain.userservice.repository.OutboxNotificationRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.notifications.initial-delay-ms=3600000",
+        "app.notifications.max-attempts=2",
+        "app.notifications.backoff-ms=60000"
+})
+@Import({NotificationService.class, NotificationDispatcher.class, EmailService.class, SmsService.class,
+        NotificationDispatcherTest.StubConfig.class})
+class NotificationDispatcherTest {
+
+    private static final SmtpStub SMTP = SmtpStub.start();
+    private static final AtomicInteger SMS_REQUESTS = new AtomicInteger();
+    private static final HttpServer SMS_GATEWAY = startSmsGateway();
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private OutboxNotificationRepository outboxRepository;
+
+    @DynamicPropertySource
+    static void stubs(DynamicPropertyRegistry registry) {
+        registry.add("sms.api.url", () -> "http://localhost:" + SMS_GATEWAY.getAddress().getPort());
+    }
+
+    @BeforeEach
+    void resetStubs() {
+        SMTP.connections.set(0);
+        SMTP.messages.set(0);
+        SMTP.reject = false;
+        SMS_REQUESTS.set(0);
+    }
+
+    @AfterAll
+    static void stopStubs() throws IOException {
+        SMTP.server.close();
+        SMS_GATEWAY.stop(0);
+    }
+
+    @Test
+    void enqueuingDoesNotTouchTheNetwork() {
+        notificationService.sendUserUpdateNotifications("a@mail.com", "0712345678", "alice", "Email updated");
+
+        assertThat(outboxRepository.countByStatus(NotificationStatus.PENDING)).isEqualTo(2);
+        assertThat(SMTP.connections.get()).isZero();
+        assertThat(SMS_REQUESTS.get()).isZero();
+    }
+
+    @Test
+    void emailsOfABatchShareOneSmtpConnection() {
+        for (int i = 0; i < 5; i++) {
+            notificationService.sendUserUpdateNotifications("user" + i + "@mail.com", "0712345678",
+                    "user" + i, "Account created successfully");
+        }
+
+        dispatcher.dispatchPending();
+
+        assertThat(SMTP.messages.get()).isEqualTo(5);
+        assertThat(SMTP.connections.get()).isEqualTo(1);
+        assertThat(SMS_REQUESTS.get()).isEqualTo(5);
+        assertThat(outboxRepository.findAll()).allMatch(n -> n.getStatus() == NotificationStatus.SENT);
+        assertThat(dispatcher.getStats()).containsEntry("pending", 0L).containsEntry("due", 0L);
+    }
+
+    @Test
+    void failedSendsAreRetriedWithBackoffThenAbandoned() {
+        SMTP.reject = true;
+        notificationService.sendUserUpdateEmail("b@mail.com", "bob", "Password updated");
+
+        dispatcher.dispatchPending();
+        OutboxNotification notification = outboxRepository.findAll().get(0);
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.PENDING);
+        assertThat(notification.getAttempts()).isEqualTo(1);
+        assertThat(notification.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(30));
+        assertThat(dispatcher.getStats()).containsEntry("pending", 1L).containsEntry("due", 0L);
+
+        // Nu este reîncercată înainte de scadență
+        dispatcher.dispatchPending();
+        assertThat(notification.getAttempts()).isEqualTo(1);
+
+        notification.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        dispatcher.dispatchPending();
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(notification.getAttempts()).isEqualTo(2);
+        assertThat(dispatcher.getStats()).containsEntry("failed", 1L);
+    }
+
+    private static HttpServer startSmsGateway() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/sms/", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                SMS_REQUESTS.incrementAndGet();
+                byte[] body = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class StubConfig {
+
+        @Bean
+        JavaMailSender javaMailSender() {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("localhost");
+            mailSender.setPort(SMTP.server.getLocalPort());
+            return mailSender;
+        }
+
+        @Bean
+        RestTemplate restTemplate() {
+            return new RestTemplate();
+        }
+    }
+
+    /**
+     * Server SMTP minimal: acceptă sau respinge (reject) fiecare mesaj și numără conexiunile
+     */
+    static class SmtpStub implements Runnable {
+
+        private final ServerSocket server;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+        private volatile boolean reject;
+
+        private SmtpStub(ServerSocket server) {
+            this.server = server;
+        }
+
+        static SmtpStub start() {
+            try {
+                SmtpStub stub = new SmtpStub(new ServerSocket(0));
+                Thread thread = new Thread(stub, "smtp-stub");
+                thread.setDaemon(true);
+                thread.start();
+                return stub;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    connections.incrementAndGet();
+                    converse(socket);
+                } catch (IOException e) {
+                    // Serverul a fost oprit sau clientul a închis conexiunea
+                }
+            }
+        }
+
+        private void converse(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            reply(out, "220 stub ESMTP");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("MAIL")) {
+                    reply(out, reject ? "550 Mailbox unavailable" : "250 OK");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        // Conținutul mesajului este ignorat
+                    }
+                    messages.incrementAndGet();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    // EHLO, HELO, RCPT, RSET, NOOP
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+    }
+}